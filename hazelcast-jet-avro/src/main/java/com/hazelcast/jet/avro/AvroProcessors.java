@@ -18,6 +18,7 @@ package com.hazelcast.jet.avro;
 
 import com.hazelcast.jet.core.ProcessorMetaSupplier;
 import com.hazelcast.jet.function.DistributedBiFunction;
+import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
 import com.hazelcast.jet.impl.connector.ReadFilesP;
 import com.hazelcast.jet.impl.connector.WriteBufferedP;
@@ -25,12 +26,22 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.specific.SpecificDatumReader;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
@@ -56,12 +67,31 @@ public final class AvroProcessors {
             @Nonnull DistributedSupplier<DatumReader<T>> datumReaderSupplier,
             @Nonnull DistributedBiFunction<String, T, R> mapOutputFn
     ) {
-        return ReadFilesP.metaSupplier(directory, glob, sharedFileSystem,
-                path -> uncheckCall(() -> {
-                    DataFileReader<T> reader = new DataFileReader<>(path.toFile(), datumReaderSupplier.get());
-                    return StreamSupport.stream(reader.spliterator(), false)
-                                        .onClose(() -> uncheckRun(reader::close));
-                }),
+        return readFilesP(directory, glob, sharedFileSystem, Long.MAX_VALUE, null, datumReaderSupplier, null,
+                mapOutputFn);
+    }
+
+    /**
+     * Returns a supplier of processors for {@link AvroSources#filesBuilder}.
+     * See {@link AvroSourceBuilder#splitSize}, {@link
+     * AvroSourceBuilder#projection} and {@link AvroSourceBuilder#filter} for
+     * the meaning of {@code minSplitSize}, {@code projectedFields} and
+     * {@code filterFn}.
+     */
+    @Nonnull
+    public static <T, R> ProcessorMetaSupplier readFilesP(
+            @Nonnull String directory,
+            @Nonnull String glob,
+            boolean sharedFileSystem,
+            long minSplitSize,
+            @Nullable List<String> projectedFields,
+            @Nonnull DistributedSupplier<DatumReader<T>> datumReaderSupplier,
+            @Nullable DistributedPredicate<? super T> filterFn,
+            @Nonnull DistributedBiFunction<String, T, R> mapOutputFn
+    ) {
+        List<String> fields = projectedFields == null ? null : new ArrayList<>(projectedFields);
+        return ReadFilesP.metaSupplier(directory, glob, sharedFileSystem, minSplitSize,
+                (path, start, end) -> readFileRange(path, start, end, datumReaderSupplier.get(), fields, filterFn),
                 mapOutputFn);
     }
 
@@ -84,6 +114,84 @@ public final class AvroProcessors {
                 ), 1);
     }
 
+    /**
+     * Reads the records of the blocks whose sync marker precedes them in the
+     * given byte range. A record rejected by {@code filterFn} is reused to
+     * read the next one.
+     */
+    private static <T> Stream<T> readFileRange(
+            Path file, long start, long end, DatumReader<T> datumReader,
+            List<String> projectedFields, DistributedPredicate<? super T> filterFn
+    ) throws IOException {
+        DataFileReader<T> reader = new DataFileReader<>(file.toFile(), datumReader);
+        try {
+            if (projectedFields != null) {
+                projectedReader(datumReader).setExpected(projectedSchema(reader.getSchema(), projectedFields));
+            }
+            if (start > reader.tell()) {
+                reader.sync(start);
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        Spliterator<T> spliterator = new AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private T reuse;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                return uncheckCall(() -> {
+                    // end is Long.MAX_VALUE when the file isn't split, pastSync() would overflow
+                    while (reader.hasNext() && (end == Long.MAX_VALUE || !reader.pastSync(end))) {
+                        T record = reader.next(reuse);
+                        if (filterFn == null || filterFn.test(record)) {
+                            reuse = null;
+                            action.accept(record);
+                            return true;
+                        }
+                        reuse = record;
+                    }
+                    return false;
+                });
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                            .onClose(() -> uncheckRun(reader::close));
+    }
+
+    private static <T> GenericDatumReader<T> projectedReader(DatumReader<T> datumReader) {
+        // specific and reflect readers map the fields by position to the record class,
+        // which doesn't match the positions in the projected schema
+        if (!(datumReader instanceof GenericDatumReader) || datumReader instanceof SpecificDatumReader) {
+            throw new IllegalArgumentException("Projection is only supported with GenericDatumReader, but got "
+                    + datumReader.getClass().getName());
+        }
+        return (GenericDatumReader<T>) datumReader;
+    }
+
+    /**
+     * Returns a reader schema containing only the given fields of the writer
+     * schema. The decoder skips the other fields without creating objects for
+     * them.
+     */
+    private static Schema projectedSchema(Schema writerSchema, List<String> fieldNames) {
+        if (writerSchema.getType() != Schema.Type.RECORD) {
+            throw new IllegalArgumentException("Projection requires a record schema, but got " + writerSchema);
+        }
+        List<Schema.Field> fields = new ArrayList<>(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            Schema.Field field = writerSchema.getField(fieldName);
+            if (field == null) {
+                throw new IllegalArgumentException("Field '" + fieldName + "' not found in schema "
+                        + writerSchema.getFullName());
+            }
+            fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()));
+        }
+        return Schema.createRecord(writerSchema.getName(), writerSchema.getDoc(), writerSchema.getNamespace(),
+                writerSchema.isError(), fields);
+    }
+
     @SuppressFBWarnings(value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE",
             justification = "mkdirs() returns false if the directory already existed, which is good. "
                     + "We don't care even if it didn't exist and we failed to create it, "
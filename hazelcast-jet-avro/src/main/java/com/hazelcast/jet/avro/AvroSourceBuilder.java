@@ -17,12 +17,15 @@
 package com.hazelcast.jet.avro;
 
 import com.hazelcast.jet.function.DistributedBiFunction;
+import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
 import com.hazelcast.jet.pipeline.BatchSource;
 import org.apache.avro.io.DatumReader;
 
 import javax.annotation.Nonnull;
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
 
 import static com.hazelcast.jet.pipeline.Sources.batchFromProcessor;
 
@@ -41,6 +44,9 @@ public final class AvroSourceBuilder<T> {
 
     private String glob = GLOB_WILDCARD;
     private boolean sharedFileSystem;
+    private long splitSize = Long.MAX_VALUE;
+    private List<String> projectedFields;
+    private DistributedPredicate<? super T> filterFn;
 
     private final DistributedSupplier<DatumReader<T>> datumReaderSupplier;
 
@@ -79,6 +85,53 @@ public final class AvroSourceBuilder<T> {
         return this;
     }
 
+    /**
+     * Enables reading a single file by multiple processors. A file larger
+     * than {@code minSplitSize} bytes is split into up to as many byte ranges
+     * as there are processors, but none smaller than {@code minSplitSize}.
+     * Each processor reads the data blocks whose sync marker lies in its
+     * range. By default the files are not split and each file is read by a
+     * single processor.
+     * <p>
+     * Reading a range starts with a seek to the first sync marker in it, so
+     * the split size should be much larger than the block size the files
+     * were written with; a few tens of megabytes is a good starting point.
+     */
+    public AvroSourceBuilder<T> splitSize(long minSplitSize) {
+        if (minSplitSize <= 0) {
+            throw new IllegalArgumentException("minSplitSize must be positive: " + minSplitSize);
+        }
+        this.splitSize = minSplitSize;
+        return this;
+    }
+
+    /**
+     * Sets the fields of the top-level record to read. The source uses a
+     * reader schema containing only these fields of each file's schema, so
+     * the decoder skips the other fields without creating objects for them.
+     * By default all fields are read.
+     * <p>
+     * The projection is only supported if {@code datumReaderSupplier}
+     * returns a {@link org.apache.avro.generic.GenericDatumReader
+     * GenericDatumReader}: the emitted records are {@code GenericRecord}s with
+     * the projected fields, in the given order.
+     */
+    public AvroSourceBuilder<T> projection(@Nonnull String... fieldNames) {
+        this.projectedFields = Arrays.asList(fieldNames);
+        return this;
+    }
+
+    /**
+     * Sets a predicate the records must match to be passed to {@code
+     * mapOutputFn}. The record object of a rejected record is reused to
+     * read the next record, so filtering here avoids allocating records that
+     * would be dropped anyway.
+     */
+    public AvroSourceBuilder<T> filter(@Nonnull DistributedPredicate<? super T> filterFn) {
+        this.filterFn = filterFn;
+        return this;
+    }
+
     /**
      * Builds a custom Avro file {@link BatchSource} with supplied components
      * and the output function {@code mapOutputFn}.
@@ -99,7 +152,8 @@ public final class AvroSourceBuilder<T> {
      */
     public <R> BatchSource<R> build(@Nonnull DistributedBiFunction<String, T, R> mapOutputFn) {
         return batchFromProcessor("avroFilesSource(" + new File(directory, glob) + ')',
-                AvroProcessors.readFilesP(directory, glob, sharedFileSystem, datumReaderSupplier, mapOutputFn));
+                AvroProcessors.readFilesP(directory, glob, sharedFileSystem, splitSize, projectedFields,
+                        datumReaderSupplier, filterFn, mapOutputFn));
     }
 
     /**
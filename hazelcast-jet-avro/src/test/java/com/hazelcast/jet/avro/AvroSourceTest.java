@@ -26,6 +26,7 @@ import com.hazelcast.jet.pipeline.Sinks;
 import com.hazelcast.nio.IOUtil;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.junit.AfterClass;
@@ -36,6 +37,9 @@ import org.junit.runner.RunWith;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 
@@ -100,8 +104,56 @@ public class AvroSourceTest extends JetTestSupport {
         assertEquals(TOTAL_RECORD_COUNT, list.size());
     }
 
+    @Test
+    public void testSplitFile() throws Exception {
+        File splitDirectory = createTempDirectory();
+        try {
+            int recordCount = 1000;
+            // small sync interval to write many blocks
+            createAvroFile(splitDirectory, recordCount, 32);
+
+            Pipeline p = Pipeline.create();
+            p.drawFrom(AvroSources.filesBuilder(splitDirectory.getPath(), GenericDatumReader<GenericRecord>::new)
+                                  .splitSize(1)
+                                  .build((file, record) -> record.get("username").toString()))
+             .drainTo(Sinks.list("usernames"));
+
+            jet.newJob(p).join();
+
+            List<Object> usernames = new ArrayList<>(jet.getList("usernames"));
+            assertEquals(recordCount, usernames.size());
+            assertEquals(recordCount, new HashSet<>(usernames).size());
+        } finally {
+            IOUtil.delete(splitDirectory);
+        }
+    }
+
+    @Test
+    public void testProjectionAndFilter() {
+        Pipeline p = Pipeline.create();
+        p.drawFrom(AvroSources.filesBuilder(directory.getPath(), GenericDatumReader<GenericRecord>::new)
+                              .projection("password")
+                              .filter(record -> record.get(0).toString().endsWith("-1"))
+                              .build((file, record) -> record.getSchema().getFields().size()))
+         .drainTo(Sinks.list("fieldCounts"));
+
+        jet.newJob(p).join();
+
+        // "password-1" is in both files
+        IListJet<Integer> fieldCounts = jet.getList("fieldCounts");
+        assertEquals(2, fieldCounts.size());
+        assertEquals(1, (int) fieldCounts.get(0));
+    }
+
     private static void createAvroFile(int recordCount) throws IOException {
+        createAvroFile(directory, recordCount, 0);
+    }
+
+    private static void createAvroFile(File directory, int recordCount, int syncInterval) throws IOException {
         try (DataFileWriter<SpecificUser> writer = new DataFileWriter<>(new SpecificDatumWriter<>(SpecificUser.class))) {
+            if (syncInterval > 0) {
+                writer.setSyncInterval(syncInterval);
+            }
             writer.create(SpecificUser.SCHEMA$, new File(directory, randomString()));
             for (int i = 0; i < recordCount; i++) {
                 writer.append(new SpecificUser("username-" + i, "password-" + i));
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.jet.impl.util.ProgressTracker;
+import com.hazelcast.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
+
+/**
+ * Measures the transfer of items over a local edge: several upstream
+ * {@link OutboxImpl}s offer to their {@link ConveyorCollector}s and a
+ * {@link ConcurrentInboundEdgeStream} drains all the queues, coalescing
+ * the watermark each producer emits after its batch. Producing and
+ * consuming alternate on a single thread, so the result doesn't depend
+ * on thread scheduling. One operation is one item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalEdgeBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_SIZE = 1024;
+
+    @Param({"1", "4"})
+    public int producerCount;
+
+    private final Integer[] items = new Integer[BATCH_SIZE];
+    private OutboxImpl[] outboxes;
+    private ConcurrentInboundEdgeStream instream;
+    private Predicate<Object> consumer;
+    private long wmTimestamp;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup(Blackhole bh) {
+        Arrays.setAll(items, i -> i);
+        QueuedPipe<Object>[] queues = new QueuedPipe[producerCount];
+        Arrays.setAll(queues, i -> new OneToOneConcurrentArrayQueue<>(QUEUE_SIZE));
+        ConcurrentConveyor<Object> conveyor = concurrentConveyor(null, queues);
+        WakeUpSignal wakeUpSignal = new WakeUpSignal();
+        outboxes = new OutboxImpl[producerCount];
+        Arrays.setAll(outboxes, i -> new OutboxImpl(
+                new OutboundCollector[] {new ConveyorCollector(conveyor, i, null, wakeUpSignal)},
+                false, new ProgressTracker(), null, BATCH_SIZE + 1, new AtomicLongArray(1)));
+        instream = new ConcurrentInboundEdgeStream(conveyor, 0, 0, -1, false, -1, "local");
+        consumer = item -> {
+            bh.consume(item);
+            return true;
+        };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void transferBatch() {
+        int itemsPerProducer = BATCH_SIZE / producerCount;
+        Watermark wm = new Watermark(++wmTimestamp);
+        for (int p = 0; p < producerCount; p++) {
+            OutboxImpl outbox = outboxes[p];
+            outbox.reset();
+            for (int i = p * itemsPerProducer, end = i + itemsPerProducer; i < end; i++) {
+                offer(outbox, items[i]);
+            }
+            offer(outbox, wm);
+        }
+        drain();
+    }
+
+    private void offer(OutboxImpl outbox, Object item) {
+        while (!outbox.offer(item)) {
+            drain();
+            outbox.reset();
+        }
+    }
+
+    private void drain() {
+        ProgressState result;
+        do {
+            result = instream.drainTo(consumer);
+        } while (result.isMadeProgress());
+    }
+}
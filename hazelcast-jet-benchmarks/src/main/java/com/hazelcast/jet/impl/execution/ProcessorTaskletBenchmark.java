@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
+import static com.hazelcast.jet.core.processor.Processors.filterP;
+import static com.hazelcast.jet.core.processor.Processors.flatMapP;
+import static com.hazelcast.jet.core.processor.Processors.mapP;
+import static java.util.Collections.singletonList;
+
+/**
+ * Measures a single {@link ProcessorTasklet} moving items from a local
+ * input conveyor through a stateless processor to a local output
+ * conveyor. This covers {@code ConcurrentInboundEdgeStream}, {@code
+ * WatermarkCoalescer}, {@code ArrayDequeInbox}, {@code OutboxImpl}, the
+ * outbound collectors and the {@code Traverser}s the processor emits.
+ * One operation is one input item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessorTaskletBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_SIZE = 1024;
+
+    @Param({"map", "filter", "flatMap"})
+    public String processorKind;
+
+    private final Integer[] items = new Integer[BATCH_SIZE];
+    private QueuedPipe<Object> inputQueue;
+    private QueuedPipe<Object> outputQueue;
+    private ProcessorTasklet tasklet;
+    private Predicate<Object> consumer;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup(Blackhole bh) {
+        consumer = item -> {
+            bh.consume(item);
+            return true;
+        };
+        for (int i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        inputQueue = new OneToOneConcurrentArrayQueue<>(QUEUE_SIZE);
+        outputQueue = new OneToOneConcurrentArrayQueue<>(QUEUE_SIZE);
+        ConcurrentConveyor<Object> inputConveyor = concurrentConveyor(null, inputQueue);
+        ConcurrentConveyor<Object> outputConveyor = concurrentConveyor(null, outputQueue);
+
+        ConcurrentInboundEdgeStream instream =
+                new ConcurrentInboundEdgeStream(inputConveyor, 0, 0, -1, false, -1, "input");
+        OutboundEdgeStream outstream =
+                new OutboundEdgeStream(0, new ConveyorCollector(outputConveyor, 0, null, new WakeUpSignal()));
+        SnapshotContext ssContext = new SnapshotContext(
+                Logger.getLogger(SnapshotContext.class), "benchmark", -1, ProcessingGuarantee.NONE);
+
+        tasklet = new ProcessorTasklet(new TestProcessorContext(), new DefaultSerializationServiceBuilder().build(),
+                createProcessor(), singletonList(instream), singletonList(outstream), ssContext,
+                item -> ProgressState.DONE, new WakeUpSignal(), -1);
+        tasklet.init();
+    }
+
+    private Processor createProcessor() {
+        switch (processorKind) {
+            case "map":
+                return mapP((Integer i) -> i).get();
+            case "filter":
+                return filterP((Integer i) -> (i & 1) == 0).get();
+            case "flatMap":
+                return flatMapP((Integer i) -> Traverser.over(i, i)).get();
+            default:
+                throw new IllegalArgumentException(processorKind);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void processBatch() {
+        for (Integer item : items) {
+            inputQueue.offer(item);
+        }
+        ProgressState progress;
+        do {
+            progress = tasklet.call();
+            outputQueue.drain(consumer);
+        } while (progress.isMadeProgress());
+    }
+}
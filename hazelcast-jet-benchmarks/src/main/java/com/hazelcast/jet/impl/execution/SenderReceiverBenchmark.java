@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.networking.OutboundFrame;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.ConnectionType;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.config.EdgeConfig.DEFAULT_PACKET_SIZE_LIMIT;
+import static com.hazelcast.jet.config.EdgeConfig.DEFAULT_RECEIVE_WINDOW_MULTIPLIER;
+import static com.hazelcast.jet.config.InstanceConfig.DEFAULT_FLOW_CONTROL_PERIOD_MS;
+
+/**
+ * Measures the serialization path of a distributed edge: a {@link
+ * SenderTasklet} writes the items into packets, a loopback connection
+ * hands each packet to a {@link ReceiverTasklet}, which deserializes the
+ * items. The network itself is not involved. One operation is one item.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SenderReceiverBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int PACKET_HEADER_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    @Param({"long", "string", "entry"})
+    public String itemKind;
+
+    private final Object[] items = new Object[BATCH_SIZE];
+    private final BatchInboundStream senderInput = new BatchInboundStream();
+    private SenderTasklet sender;
+    private ReceiverTasklet receiver;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        Arrays.setAll(items, this::createItem);
+        InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        receiver = new ReceiverTasklet(item -> {
+            bh.consume(item);
+            return ProgressState.DONE;
+        }, DEFAULT_RECEIVE_WINDOW_MULTIPLIER, DEFAULT_FLOW_CONTROL_PERIOD_MS);
+        BufferObjectDataOutput out = serializationService.createObjectDataOutput(DEFAULT_PACKET_SIZE_LIMIT);
+        sender = new SenderTasklet(senderInput, new LoopbackConnection(serializationService, receiver),
+                out, new byte[PACKET_HEADER_SIZE], DEFAULT_PACKET_SIZE_LIMIT);
+    }
+
+    private Object createItem(int i) {
+        switch (itemKind) {
+            case "long":
+                return (long) i;
+            case "string":
+                return "item-" + i + "-of-the-benchmark-batch";
+            case "entry":
+                return entry("key-" + i, (long) i);
+            default:
+                throw new IllegalArgumentException(itemKind);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void sendAndReceiveBatch() {
+        senderInput.pending = items;
+        ProgressState senderResult;
+        ProgressState receiverResult;
+        do {
+            sender.setSendSeqLimitCompressed(receiver.updateAndGetSendSeqLimitCompressed());
+            senderResult = sender.call();
+            receiverResult = receiver.call();
+        } while (senderResult.isMadeProgress() || receiverResult.isMadeProgress());
+    }
+
+    /**
+     * Gives the sender the items of one benchmark invocation.
+     */
+    private static final class BatchInboundStream implements InboundEdgeStream {
+        Object[] pending;
+
+        @Override
+        public int ordinal() {
+            return 0;
+        }
+
+        @Override
+        public int priority() {
+            return 0;
+        }
+
+        @Override
+        public ProgressState drainTo(Predicate<Object> dest) {
+            if (pending == null) {
+                return ProgressState.NO_PROGRESS;
+            }
+            for (Object item : pending) {
+                dest.test(item);
+            }
+            pending = null;
+            return ProgressState.MADE_PROGRESS;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public int capacities() {
+            return BATCH_SIZE;
+        }
+
+        @Override
+        public int sizes() {
+            return pending == null ? 0 : pending.length;
+        }
+    }
+
+    /**
+     * Passes the packets written by the sender directly to the receiver,
+     * the way {@code Networking} does after reading the packet header.
+     */
+    private static final class LoopbackConnection implements Connection {
+        private final InternalSerializationService serializationService;
+        private final ReceiverTasklet receiver;
+
+        LoopbackConnection(InternalSerializationService serializationService, ReceiverTasklet receiver) {
+            this.serializationService = serializationService;
+            this.receiver = receiver;
+        }
+
+        @Override
+        public boolean write(OutboundFrame frame) {
+            BufferObjectDataInput in = serializationService.createObjectDataInput(((Packet) frame).toByteArray());
+            try {
+                in.skipBytes(PACKET_HEADER_SIZE);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+            receiver.receiveStreamPacket(in);
+            return true;
+        }
+
+        @Override
+        public boolean isAlive() {
+            return true;
+        }
+
+        @Override
+        public long lastReadTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public long lastWriteTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public ConnectionType getType() {
+            return ConnectionType.MEMBER;
+        }
+
+        @Override
+        public void setType(ConnectionType type) {
+        }
+
+        @Override
+        public boolean isClient() {
+            return false;
+        }
+
+        @Override
+        public InetAddress getInetAddress() {
+            return null;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteSocketAddress() {
+            return null;
+        }
+
+        @Override
+        public Address getEndPoint() {
+            return null;
+        }
+
+        @Override
+        public int getPort() {
+            return 0;
+        }
+
+        @Override
+        public void close(String reason, Throwable cause) {
+        }
+
+        @Override
+        public String getCloseReason() {
+            return null;
+        }
+
+        @Override
+        public Throwable getCloseCause() {
+            return null;
+        }
+    }
+}
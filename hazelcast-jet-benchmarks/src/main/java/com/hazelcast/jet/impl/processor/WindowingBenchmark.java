@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.TimestampKind;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.datamodel.TimestampedEntry;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedToLongFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.slidingWinPolicy;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.tumblingWinPolicy;
+import static com.hazelcast.jet.core.processor.Processors.aggregateToSessionWindowP;
+import static com.hazelcast.jet.core.processor.Processors.aggregateToSlidingWindowP;
+import static java.util.Collections.singletonList;
+
+/**
+ * Measures the windowed aggregation processors: a batch of events with
+ * increasing timestamps is processed, followed by a watermark that
+ * closes the windows the batch completed. One operation is one event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WindowingBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int EVENTS_PER_MILLI = 16;
+    private static final long FRAME_SIZE = 10;
+    private static final long WINDOW_SIZE = 1000;
+    private static final long SESSION_TIMEOUT = 10;
+
+    /**
+     * {@code slidingNoDeduct} uses an aggregate operation without the
+     * {@code deductFn}, the other kinds use {@code counting()}.
+     */
+    @Param({"tumbling", "sliding", "slidingNoDeduct", "session"})
+    public String windowKind;
+
+    @Param({"100", "10000"})
+    public int keyCount;
+
+    private final Event[] events = new Event[BATCH_SIZE];
+    private final TestInbox inbox = new TestInbox();
+    private final TestOutbox outbox = new TestOutbox(BATCH_SIZE);
+    private Processor processor;
+    private Blackhole bh;
+    private long nextTimestamp;
+
+    @Setup
+    public void setup(Blackhole bh) {
+        this.bh = bh;
+        Arrays.setAll(events, i -> new Event(i % keyCount));
+        processor = createProcessor();
+        processor.init(outbox, new TestProcessorContext());
+    }
+
+    private Processor createProcessor() {
+        List<DistributedFunction<?, ? extends Integer>> keyFns = singletonList((Event e) -> e.key);
+        List<DistributedToLongFunction<?>> timestampFns = singletonList((Event e) -> e.timestamp);
+        switch (windowKind) {
+            case "tumbling":
+                return aggregateToSlidingWindowP(keyFns, timestampFns, TimestampKind.EVENT,
+                        tumblingWinPolicy(FRAME_SIZE), counting(), TimestampedEntry::fromWindowResult).get();
+            case "sliding":
+                return aggregateToSlidingWindowP(keyFns, timestampFns, TimestampKind.EVENT,
+                        slidingWinPolicy(WINDOW_SIZE, FRAME_SIZE), counting(), TimestampedEntry::fromWindowResult)
+                        .get();
+            case "slidingNoDeduct":
+                return aggregateToSlidingWindowP(keyFns, timestampFns, TimestampKind.EVENT,
+                        slidingWinPolicy(WINDOW_SIZE, FRAME_SIZE), countingWithoutDeduct(),
+                        TimestampedEntry::fromWindowResult).get();
+            case "session":
+                return aggregateToSessionWindowP(SESSION_TIMEOUT, timestampFns, keyFns, counting(),
+                        TimestampedEntry::fromWindowResult).get();
+            default:
+                throw new IllegalArgumentException(windowKind);
+        }
+    }
+
+    private static AggregateOperation1<Object, LongAccumulator, Long> countingWithoutDeduct() {
+        return AggregateOperation
+                .withCreate(LongAccumulator::new)
+                .andAccumulate((LongAccumulator acc, Object item) -> acc.add(1))
+                .andCombine(LongAccumulator::add)
+                .andExportFinish(LongAccumulator::get);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void processBatch() {
+        // the processors don't retain the events, we can reuse them
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events[i].timestamp = nextTimestamp + i / EVENTS_PER_MILLI;
+            inbox.add(events[i]);
+        }
+        nextTimestamp += BATCH_SIZE / EVENTS_PER_MILLI;
+        while (!inbox.isEmpty()) {
+            processor.process(0, inbox);
+            drainOutbox();
+        }
+        Watermark wm = new Watermark(nextTimestamp);
+        while (!processor.tryProcessWatermark(wm)) {
+            drainOutbox();
+        }
+        drainOutbox();
+    }
+
+    private void drainOutbox() {
+        Queue<Object> queue = outbox.queue(0);
+        for (Object item; (item = queue.poll()) != null; ) {
+            bh.consume(item);
+        }
+        outbox.reset();
+    }
+
+    private static final class Event {
+        final int key;
+        long timestamp;
+
+        Event(int key) {
+            this.key = key;
+        }
+    }
+}
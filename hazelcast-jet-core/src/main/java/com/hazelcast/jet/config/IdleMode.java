@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.config;
+
+/**
+ * Defines what a Jet worker thread does when none of its tasklets has any
+ * work to do. See {@link InstanceConfig#setIdleMode(IdleMode)}.
+ */
+public enum IdleMode {
+
+    /**
+     * The thread parks for exponentially growing periods of time, up to one
+     * millisecond for cooperative and five milliseconds for blocking threads.
+     * An idle thread keeps waking up periodically, which costs some CPU, but
+     * reacts quickly to work from sources which don't signal when they have
+     * data, such as timers or external systems.
+     * <p>
+     * This is the default mode.
+     */
+    BACKOFF,
+
+    /**
+     * The thread parks until woken up by a signal that there's new data for
+     * one of its tasklets: an item was added to one of the local queues, a
+     * packet was received from another member or a flow-control message
+     * allowed a sender to continue. As a safety net the thread also wakes up
+     * periodically, but at most ten times per second. An idle member burns
+     * almost no CPU, at the cost of possibly delayed reaction to events which
+     * don't come with a signal, such as watermark idle timeouts or polling
+     * sources which have no new data. Use it on mostly idle or shared
+     * machines.
+     */
+    PARK
+}
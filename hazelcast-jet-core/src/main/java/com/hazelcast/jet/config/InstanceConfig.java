@@ -21,6 +21,7 @@ import com.hazelcast.config.MapConfig;
 import javax.annotation.Nonnull;
 
 import static com.hazelcast.util.Preconditions.checkBackupCount;
+import static com.hazelcast.util.Preconditions.checkNotNull;
 import static com.hazelcast.util.Preconditions.checkPositive;
 
 /**
@@ -41,6 +42,7 @@ public class InstanceConfig {
     private int cooperativeThreadCount = Runtime.getRuntime().availableProcessors();
     private int flowControlPeriodMs = DEFAULT_FLOW_CONTROL_PERIOD_MS;
     private int backupCount = DEFAULT_BACKUP_COUNT;
+    private IdleMode idleMode = IdleMode.BACKOFF;
 
     /**
      * Sets the number of threads each cluster member will use to execute Jet
@@ -105,4 +107,25 @@ public class InstanceConfig {
     public int getBackupCount() {
         return backupCount;
     }
+
+    /**
+     * Sets what the threads executing Jet jobs do when they have no work. See
+     * {@link IdleMode} for the available modes. Default value is {@link
+     * IdleMode#BACKOFF}.
+     */
+    @Nonnull
+    public InstanceConfig setIdleMode(@Nonnull IdleMode idleMode) {
+        checkNotNull(idleMode, "idleMode");
+        this.idleMode = idleMode;
+        return this;
+    }
+
+    /**
+     * Returns the {@link #setIdleMode(IdleMode) idle mode} of the threads
+     * executing Jet jobs.
+     */
+    @Nonnull
+    public IdleMode getIdleMode() {
+        return idleMode;
+    }
 }
@@ -40,11 +40,15 @@ public class JobConfig implements Serializable {
     private String name;
     private ProcessingGuarantee processingGuarantee = ProcessingGuarantee.NONE;
     private long snapshotIntervalMillis = SNAPSHOT_INTERVAL_MILLIS_DEFAULT;
+    private int fullSnapshotInterval = 1;
+    private boolean snapshotCompressionEnabled;
 
     private boolean splitBrainProtectionEnabled;
     private final List<ResourceConfig> resourceConfigs = new ArrayList<>();
     private boolean autoRestartEnabled = true;
     private int maxWatermarkRetainMillis = -1;
+    private long maxInMemoryKeys = -1;
+    private String spillDirectory;
     private JobClassLoaderFactory classLoaderFactory;
 
     /**
@@ -188,6 +192,65 @@ public class JobConfig implements Serializable {
         return this;
     }
 
+    /**
+     * Sets how often the job takes a full snapshot. With a value {@code n}
+     * greater than 1, each full snapshot is followed by up to {@code n - 1}
+     * incremental snapshots in which the processors that {@linkplain
+     * com.hazelcast.jet.core.Processor#isIncrementalSnapshotSupported()
+     * support it} save only the state that changed since the previous
+     * snapshot. The job is restored from the latest full snapshot merged
+     * with the incremental snapshots taken after it. The next full snapshot
+     * compacts this chain: when it completes, the older snapshots are
+     * deleted.
+     * <p>
+     * The first snapshot of each execution and the snapshot following a
+     * failed one are always full.
+     * <p>
+     * Default value is 1, every snapshot is full.
+     *
+     * @return {@code this} instance for fluent API
+     */
+    @Nonnull
+    public JobConfig setFullSnapshotInterval(int fullSnapshotInterval) {
+        Preconditions.checkPositive(fullSnapshotInterval, "fullSnapshotInterval must be positive");
+        this.fullSnapshotInterval = fullSnapshotInterval;
+        return this;
+    }
+
+    /**
+     * Returns the configured {@link #setFullSnapshotInterval(int) full
+     * snapshot interval}.
+     */
+    public int getFullSnapshotInterval() {
+        return fullSnapshotInterval;
+    }
+
+    /**
+     * Sets whether the snapshot data is compressed. The snapshot entries are
+     * stored in chunks of up to 128 kB and each chunk is compressed
+     * separately using the deflate algorithm at its fastest level. This
+     * reduces the memory used by the snapshot maps and the network traffic
+     * to store them and their backups at the cost of some CPU time when
+     * storing and restoring the snapshot.
+     * <p>
+     * Compression is disabled by default.
+     *
+     * @return {@code this} instance for fluent API
+     */
+    @Nonnull
+    public JobConfig setSnapshotCompressionEnabled(boolean snapshotCompressionEnabled) {
+        this.snapshotCompressionEnabled = snapshotCompressionEnabled;
+        return this;
+    }
+
+    /**
+     * Tells whether {@link #setSnapshotCompressionEnabled(boolean) snapshot
+     * compression} is enabled.
+     */
+    public boolean isSnapshotCompressionEnabled() {
+        return snapshotCompressionEnabled;
+    }
+
     /**
      * Sets the maximum time to retain the watermarks while coalescing them.
      * A negative value disables the limit and Jet will retain the watermark
@@ -235,6 +298,60 @@ public class JobConfig implements Serializable {
         return maxWatermarkRetainMillis;
     }
 
+    /**
+     * Sets the maximum number of keys a single processor keeps in memory
+     * while grouping a batch stream. When a grouping processor reaches the
+     * limit, it spills its partial results to local files in the {@linkplain
+     * #setSpillDirectory spill directory} and merges them when the input is
+     * exhausted. This way the job can process a key space larger than the
+     * available memory, at the cost of the disk I/O. The grouping processor
+     * spills only if the aggregate operation has a {@code combineFn}.
+     * <p>
+     * The processor that collects the build side of a hash join can't spill
+     * its map, it fails the job if it reaches the limit.
+     * <p>
+     * A non-positive value disables the limit, this is the default.
+     *
+     * @return {@code this} instance for fluent API
+     */
+    @Nonnull
+    public JobConfig setMaxInMemoryKeys(long maxInMemoryKeys) {
+        this.maxInMemoryKeys = maxInMemoryKeys;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of keys a processor keeps in memory, see
+     * {@link #setMaxInMemoryKeys(long)}.
+     */
+    public long getMaxInMemoryKeys() {
+        return maxInMemoryKeys;
+    }
+
+    /**
+     * Sets the local directory where the processors spill their state when
+     * they reach the {@linkplain #setMaxInMemoryKeys limit on in-memory keys}.
+     * The directory must exist on all members. If {@code null}, the default,
+     * the directory given by the {@code java.io.tmpdir} system property is
+     * used.
+     *
+     * @return {@code this} instance for fluent API
+     */
+    @Nonnull
+    public JobConfig setSpillDirectory(@Nullable String spillDirectory) {
+        this.spillDirectory = spillDirectory;
+        return this;
+    }
+
+    /**
+     * Returns the directory for spill files, see {@link
+     * #setSpillDirectory(String)}.
+     */
+    @Nullable
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
     /**
      * Adds the supplied classes to the list of resources that will be
      * available on the job's classpath while it's executing in the Jet
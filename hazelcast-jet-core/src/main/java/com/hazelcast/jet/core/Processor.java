@@ -205,6 +205,40 @@ public interface Processor {
         return true;
     }
 
+    /**
+     * Tells whether the processor can save an incremental snapshot in {@link
+     * #saveChangesToSnapshot()}. The value must not change during the
+     * lifetime of the processor and it must be the same for all processors
+     * of a vertex.
+     * <p>
+     * The default implementation returns {@code false}.
+     */
+    default boolean isIncrementalSnapshotSupported() {
+        return false;
+    }
+
+    /**
+     * Stores the part of its state that changed since the previous call to
+     * {@link #saveToSnapshot()} or this method. It's called instead of {@code
+     * saveToSnapshot()} when the job takes an {@linkplain
+     * com.hazelcast.jet.config.JobConfig#setFullSnapshotInterval incremental
+     * snapshot} and the processor {@linkplain #isIncrementalSnapshotSupported()
+     * supports it}. Otherwise the same rules apply as for {@code
+     * saveToSnapshot()}.
+     * <p>
+     * When restoring, an entry from an incremental snapshot replaces the
+     * entry with an equal key from the older snapshots. An incremental
+     * snapshot can't remove an entry, the processor has to discard the
+     * obsolete entries itself when restoring. Entries with a {@link
+     * BroadcastKey} are restored only from the newest snapshot, therefore
+     * the processor has to save all of them every time.
+     * <p>
+     * The default implementation calls {@code saveToSnapshot()}.
+     */
+    default boolean saveChangesToSnapshot() {
+        return saveToSnapshot();
+    }
+
     /**
      * Called when a batch of items is received during the "restore from
      * snapshot" operation. The type of items in the inbox is {@code
@@ -37,6 +37,7 @@ import com.hazelcast.jet.function.DistributedPredicate;
 import com.hazelcast.jet.function.DistributedSupplier;
 import com.hazelcast.jet.function.DistributedToLongFunction;
 import com.hazelcast.jet.function.KeyedWindowResultFunction;
+import com.hazelcast.jet.impl.processor.AsyncTransformUsingContextP;
 import com.hazelcast.jet.impl.processor.GroupP;
 import com.hazelcast.jet.impl.processor.InsertWatermarksP;
 import com.hazelcast.jet.impl.processor.RollingAggregateP;
@@ -51,6 +52,7 @@ import com.hazelcast.jet.pipeline.ContextFactory;
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.core.TimestampKind.EVENT;
 import static com.hazelcast.jet.function.DistributedFunction.identity;
@@ -753,6 +755,37 @@ public final class Processors {
         });
     }
 
+    /**
+     * Asynchronous version of {@link #mapUsingContextP}: the {@code
+     * mapAsyncFn} returns a {@code CompletableFuture<R>} instead of just
+     * {@code R}. The vertex emits the result of the future when it
+     * completes, which allows it to have several calls to an external
+     * system in flight without blocking the thread.
+     * <p>
+     * The number of pending calls per processor is limited by {@link
+     * ContextFactory#withMaxPendingCallsPerProcessor}. The results are
+     * emitted in the order of the input items unless the factory is
+     * configured {@linkplain ContextFactory#withUnorderedAsyncResponses()
+     * with unordered responses}.
+     * <p>
+     * If the function returns {@code null} instead of a future or the future
+     * completes with {@code null}, the vertex emits nothing for the item. If
+     * the future completes exceptionally, the job fails.
+     *
+     * @param contextFactory the context factory
+     * @param mapAsyncFn a stateless mapping function returning a future
+     * @param <C> type of context object
+     * @param <T> type of received item
+     * @param <R> type of emitted item
+     */
+    @Nonnull
+    public static <C, T, R> ProcessorSupplier mapUsingContextAsyncP(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        return AsyncTransformUsingContextP.<C, T, R>supplier(contextFactory, mapAsyncFn);
+    }
+
     /**
      * Returns a supplier of processors for a vertex that emits the same items
      * it receives, but only those that pass the given predicate. The predicate
@@ -71,6 +71,15 @@ public final class SinkProcessors {
         return HazelcastWriters.writeMapSupplier(mapName, null);
     }
 
+    /**
+     * Returns a supplier of processors for
+     * {@link Sinks#mapBatched(String, int)}.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier writeMapBatchedP(@Nonnull String mapName, int batchSize) {
+        return HazelcastWriters.writeMapBatchedSupplier(mapName, batchSize);
+    }
+
     /**
      * Returns a supplier of processors for
      * {@link Sinks#remoteMap(String, ClientConfig)}.
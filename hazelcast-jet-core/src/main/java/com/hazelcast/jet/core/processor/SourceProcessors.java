@@ -42,12 +42,12 @@ import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.jms.Connection;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.Session;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.sql.ResultSet;
 import java.util.Map.Entry;
 
@@ -56,7 +56,6 @@ import static com.hazelcast.jet.Util.cachePutEvents;
 import static com.hazelcast.jet.Util.mapEventToEntry;
 import static com.hazelcast.jet.Util.mapPutEvents;
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
-import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 
 /**
  * Static utility class with factories of source processors (the DAG
@@ -332,10 +331,7 @@ public final class SourceProcessors {
     ) {
         checkSerializable(mapOutputFn, "mapOutputFn");
 
-        String charsetName = charset.name();
-        return ReadFilesP.metaSupplier(directory, glob, sharedFileSystem,
-                path -> uncheckCall(() -> Files.lines(path, Charset.forName(charsetName))),
-                mapOutputFn);
+        return ReadFilesP.linesMetaSupplier(directory, charset.name(), glob, sharedFileSystem, mapOutputFn);
     }
 
     /**
@@ -355,6 +351,22 @@ public final class SourceProcessors {
         return StreamFilesP.metaSupplier(watchedDirectory, charset.name(), glob, sharedFileSystem, mapOutputFn);
     }
 
+    /**
+     * Returns a supplier of processors for {@link Sources#filesBuilder}.
+     * See {@link FileSourceBuilder#buildRawWatcher} for more details.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier streamFilesRawP(
+            @Nonnull String watchedDirectory,
+            @Nonnull String glob,
+            boolean sharedFileSystem,
+            @Nonnull DistributedBiFunction<String, byte[], ?> mapOutputFn
+    ) {
+        checkSerializable(mapOutputFn, "mapOutputFn");
+
+        return StreamFilesP.rawMetaSupplier(watchedDirectory, glob, sharedFileSystem, mapOutputFn);
+    }
+
     /**
      * Returns a supplier of processors for {@link Sources#jmsQueueBuilder}.
      */
@@ -415,6 +427,26 @@ public final class SourceProcessors {
         return ReadJdbcP.supplier(connectionURL, query, mapOutputFn);
     }
 
+    /**
+     * Returns a supplier of processors for {@link Sources#jdbcBuilder}.
+     * See {@link com.hazelcast.jet.pipeline.JdbcSourceBuilder} for more
+     * details.
+     */
+    public static <T> ProcessorMetaSupplier readJdbcP(
+            @Nonnull DistributedSupplier<java.sql.Connection> connectionSupplier,
+            @Nonnull String query,
+            @Nullable String partitionColumn,
+            long lowerBound,
+            long upperBound,
+            int fetchSize,
+            @Nonnull DistributedFunction<ResultSet, T> mapOutputFn
+    ) {
+        checkSerializable(connectionSupplier, "connectionSupplier");
+        checkSerializable(mapOutputFn, "mapOutputFn");
+        return ReadJdbcP.partitionedSupplier(connectionSupplier, query, partitionColumn, lowerBound, upperBound,
+                fetchSize, mapOutputFn);
+    }
+
     private static <I, O> Projection<I, O> toProjection(DistributedFunction<I, O> projectionFn) {
         return new Projection<I, O>() {
             @Override public O transform(I input) {
@@ -92,7 +92,7 @@ public class JetService
 
         jetInstance = new JetInstanceImpl((HazelcastInstanceImpl) engine.getHazelcastInstance(), config);
         taskletExecutionService = new TaskletExecutionService(nodeEngine,
-                config.getInstanceConfig().getCooperativeThreadCount());
+                config.getInstanceConfig().getCooperativeThreadCount(), config.getInstanceConfig().getIdleMode());
 
         SnapshotRepository snapshotRepository = new SnapshotRepository(jetInstance);
         jobRepository = new JobRepository(jetInstance, snapshotRepository);
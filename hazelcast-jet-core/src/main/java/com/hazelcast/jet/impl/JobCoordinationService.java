@@ -112,7 +112,9 @@ public class JobCoordinationService {
             ClassLoader parent = config.getClassLoaderFactory() != null
                     ? config.getClassLoaderFactory().getJobClassLoader()
                     : null;
-            return new JetClassLoader(parent, jobRepository.getJobResources(jobId));
+            List<Map<String, byte[]>> resources = jobExecutionService.getResourceBlobCache().acquire(
+                    jobId, jobRepository.getJobResourceHashes(jobId), jobRepository::loadResourceBlob);
+            return new JetClassLoader(parent, resources);
         };
         return jobExecutionService.getClassLoader(jobId, action);
     }
@@ -266,6 +268,7 @@ public class JobCoordinationService {
             logger.fine("Completing master context for " + masterContext.jobIdString()
                     + " since already completed with result: " + jobResult);
             masterContext.setFinalResult(jobResult.getFailure());
+            jobExecutionService.releaseClassLoader(jobId);
             return masterContexts.remove(jobId, masterContext);
         }
 
@@ -277,6 +280,7 @@ public class JobCoordinationService {
                     + " since auto-restart is disabled and the job has been executed before");
             jobRepository.completeJob(jobId, coordinator, System.currentTimeMillis(), result);
             masterContext.setFinalResult(result);
+            jobExecutionService.releaseClassLoader(jobId);
             return masterContexts.remove(jobId, masterContext);
         }
 
@@ -463,6 +467,9 @@ public class JobCoordinationService {
         String coordinator = nodeEngine.getNode().getThisUuid();
 
         jobRepository.completeJob(jobId, coordinator, completionTime, error);
+        // the class loader used on the master to deserialize the DAG and to
+        // create the execution plans holds references to the resource blobs
+        jobExecutionService.releaseClassLoader(jobId);
 
         if (masterContexts.remove(masterContext.jobId(), masterContext)) {
             logger.fine(masterContext.jobIdString() + " is completed");
@@ -550,7 +557,7 @@ public class JobCoordinationService {
         }
         try {
             if (isSuccess) {
-                snapshotRepository.deleteAllSnapshotsExceptOne(jobId, snapshotId);
+                snapshotRepository.deleteAllSnapshotsExcept(jobId, snapshotRepository.snapshotChain(jobId, snapshotId));
             } else {
                 snapshotRepository.deleteSingleSnapshot(jobId, snapshotId);
             }
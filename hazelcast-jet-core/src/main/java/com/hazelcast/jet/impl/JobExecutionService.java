@@ -23,6 +23,7 @@ import com.hazelcast.internal.cluster.impl.MembershipManager;
 import com.hazelcast.internal.cluster.impl.operations.TriggerMemberListPublishOp;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.impl.deployment.JetClassLoader;
+import com.hazelcast.jet.impl.deployment.ResourceBlobCache;
 import com.hazelcast.jet.impl.execution.ExecutionContext;
 import com.hazelcast.jet.impl.execution.SenderTasklet;
 import com.hazelcast.jet.impl.execution.TaskletExecutionService;
@@ -67,6 +68,8 @@ public class JobExecutionService {
     // key: jobId
     private final ConcurrentHashMap<Long, JetClassLoader> classLoaders = new ConcurrentHashMap<>();
 
+    private final ResourceBlobCache resourceBlobCache = new ResourceBlobCache();
+
     JobExecutionService(NodeEngineImpl nodeEngine, TaskletExecutionService taskletExecutionService) {
         this.nodeEngine = nodeEngine;
         this.logger = nodeEngine.getLogger(getClass());
@@ -77,6 +80,20 @@ public class JobExecutionService {
         return classLoaders.computeIfAbsent(jobId, k -> AccessController.doPrivileged(action));
     }
 
+    /**
+     * Removes the class loader of the given job and releases the resource
+     * blobs it holds. Does nothing if the job has no class loader.
+     */
+    void releaseClassLoader(long jobId) {
+        if (classLoaders.remove(jobId) != null) {
+            resourceBlobCache.release(jobId);
+        }
+    }
+
+    public ResourceBlobCache getResourceBlobCache() {
+        return resourceBlobCache;
+    }
+
     public ExecutionContext getExecutionContext(long executionId) {
         return executionContexts.get(executionId);
     }
@@ -289,7 +306,7 @@ public class JobExecutionService {
             try {
                 executionContext.completeExecution(error);
             } finally {
-                classLoaders.remove(executionContext.jobId());
+                releaseClassLoader(executionContext.jobId());
                 executionContextJobIds.remove(executionContext.jobId());
                 logger.fine("Completed execution of " + executionContext.jobNameAndExecutionId());
             }
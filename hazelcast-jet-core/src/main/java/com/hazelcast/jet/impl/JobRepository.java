@@ -26,6 +26,7 @@ import com.hazelcast.jet.config.ResourceConfig;
 import com.hazelcast.jet.core.JobNotFoundException;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.jet.impl.util.Util;
+import com.hazelcast.map.AbstractEntryProcessor;
 import com.hazelcast.map.EntryBackupProcessor;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.nio.IOUtil;
@@ -40,6 +41,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -54,6 +58,8 @@ import java.util.zip.DeflaterOutputStream;
 
 import static com.hazelcast.jet.Jet.INTERNAL_JET_OBJECTS_PREFIX;
 import static com.hazelcast.jet.Util.idToString;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.newSetFromMap;
 import static java.util.Comparator.comparing;
 import static java.util.concurrent.TimeUnit.HOURS;
@@ -66,6 +72,19 @@ public class JobRepository {
      */
     public static final String RESOURCES_MAP_NAME_PREFIX = INTERNAL_JET_OBJECTS_PREFIX + "resources.";
 
+    /**
+     * Prefix of internal IMaps which store the contents of job resources.
+     * The full name ends with the content hash of the jar or resource, so
+     * that the jobs submitted with identical resources share a single copy.
+     */
+    public static final String RESOURCE_BLOBS_MAP_NAME_PREFIX = INTERNAL_JET_OBJECTS_PREFIX + "resourceBlobs.";
+
+    /**
+     * Name of internal IMap which stores, for each content hash, the ids of
+     * jobs referencing the resource blob
+     */
+    public static final String RESOURCE_REFS_MAP_NAME = INTERNAL_JET_OBJECTS_PREFIX + "resourceRefs";
+
     /**
      * Name of internal IMap which is used for unique id generation
      */
@@ -82,6 +101,10 @@ public class JobRepository {
     public static final String JOB_RESULTS_MAP_NAME = INTERNAL_JET_OBJECTS_PREFIX + "results";
 
     private static final String RESOURCE_MARKER = "__jet.resourceMarker";
+    private static final String RESOURCE_HASHES = "__jet.resourceHashes";
+    private static final String BLOB_COMPLETE_MARKER = "__jet.blobComplete";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 1 << 16;
     private static final long DEFAULT_RESOURCES_EXPIRATION_MILLIS = HOURS.toMillis(2);
 
     private final HazelcastInstance instance;
@@ -90,6 +113,7 @@ public class JobRepository {
     private final IMap<Long, Long> randomIds;
     private final IMap<Long, JobRecord> jobRecords;
     private final IMap<Long, JobResult> jobResults;
+    private final IMap<String, Set<Long>> resourceRefs;
     private long resourcesExpirationMillis = DEFAULT_RESOURCES_EXPIRATION_MILLIS;
 
     /**
@@ -115,6 +139,7 @@ public class JobRepository {
         this.randomIds = instance.getMap(RANDOM_IDS_MAP_NAME);
         this.jobRecords = instance.getMap(JOB_RECORDS_MAP_NAME);
         this.jobResults = instance.getMap(JOB_RESULTS_MAP_NAME);
+        this.resourceRefs = instance.getMap(RESOURCE_REFS_MAP_NAME);
     }
 
     // for tests
@@ -126,34 +151,47 @@ public class JobRepository {
      * Uploads job resources and returns a unique job id generated for the job.
      * If the upload process fails for any reason, such as being unable to access a resource,
      * uploaded resources are cleaned up.
+     * <p>
+     * The contents of each jar or resource are stored in a blob map named
+     * after their content hash and the job only records the list of hashes.
+     * If another job already uploaded identical contents, the blob is reused
+     * and only the reference to it is added.
      */
     public long uploadJobResources(JobConfig jobConfig) {
         long jobId = newJobId();
 
         IMap<String, Object> jobResourcesMap = getJobResources(jobId);
+        ArrayList<String> hashes = new ArrayList<>();
         for (ResourceConfig rc : jobConfig.getResourceConfigs()) {
-            Map<String, byte[]> tmpMap = new HashMap<>();
-            if (rc.isArchive()) {
-                try {
-                    loadJar(tmpMap, rc.getUrl());
-                } catch (IOException e) {
-                    cleanupJobResourcesAndSnapshots(jobId, jobResourcesMap);
-                    randomIds.remove(jobId);
-                    throw new JetException("Job resource upload failed", e);
+            try {
+                String hash = contentHash(rc);
+                // record the hash before taking the reference so that the cleanup releases it on failure
+                hashes.add(hash);
+                jobResourcesMap.put(RESOURCE_HASHES, hashes);
+                resourceRefs.executeOnKey(hash, new UpdateResourceRefsEntryProcessor(jobId, true));
+
+                IMap<String, byte[]> blobMap = getResourceBlob(hash);
+                if (blobMap.containsKey(BLOB_COMPLETE_MARKER)) {
+                    continue;
                 }
-            } else {
-                try {
-                    InputStream in = rc.getUrl().openStream();
-                    readStreamAndPutCompressedToMap(rc.getId(), tmpMap, in);
-                } catch (IOException e) {
-                    cleanupJobResourcesAndSnapshots(jobId, jobResourcesMap);
-                    randomIds.remove(jobId);
-                    throw new JetException("Job resource upload failed", e);
+                Map<String, byte[]> tmpMap = new HashMap<>();
+                if (rc.isArchive()) {
+                    loadJar(tmpMap, rc.getUrl());
+                } else {
+                    try (InputStream in = rc.getUrl().openStream()) {
+                        readStreamAndPutCompressedToMap(rc.getId(), tmpMap, in);
+                    }
                 }
-            }
 
-            // now upload it all
-            jobResourcesMap.putAll(tmpMap);
+                // now upload it all. If another job uploads the same blob concurrently,
+                // both write identical entries, which is harmless
+                blobMap.putAll(tmpMap);
+                blobMap.put(BLOB_COMPLETE_MARKER, new byte[0]);
+            } catch (IOException e) {
+                cleanupJobResourcesAndSnapshots(jobId, jobResourcesMap);
+                randomIds.remove(jobId);
+                throw new JetException("Job resource upload failed", e);
+            }
         }
 
         // the marker object will be used to decide when to clean up job resources
@@ -162,6 +200,32 @@ public class JobRepository {
         return jobId;
     }
 
+    /**
+     * Returns the hex-encoded hash of the resource contents. For a
+     * non-archive resource its id is hashed too, because it's stored under
+     * that id.
+     */
+    private static String contentHash(ResourceConfig rc) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JetException(HASH_ALGORITHM + " not available", e);
+        }
+        digest.update((rc.isArchive() ? "archive:" : "resource:" + rc.getId() + ':').getBytes(UTF_8));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = rc.getUrl().openStream()) {
+            for (int n; (n = in.read(buffer)) >= 0; ) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
     private long newJobId() {
         long jobId;
         do {
@@ -206,6 +270,10 @@ public class JobRepository {
         if (snapshotRepository != null) {
             snapshotRepository.deleteAllSnapshots(jobId);
         }
+        // the blobs themselves are destroyed in cleanup() once they have been unreferenced long enough
+        for (String hash : getResourceHashes(jobResourcesMap)) {
+            resourceRefs.executeOnKey(hash, new UpdateResourceRefsEntryProcessor(jobId, false));
+        }
         jobResourcesMap.destroy();
     }
 
@@ -326,12 +394,41 @@ public class JobRepository {
                          cleanupJobResourcesAndSnapshots(jobId, resources);
                      }
                  });
+
+        cleanupUnreferencedBlobs();
     }
 
     private boolean isMarkerExpired(EntryView<String, Object> record) {
         return (System.currentTimeMillis() - (Long) record.getValue()) >= resourcesExpirationMillis;
     }
 
+    /**
+     * Destroys the resource blobs which weren't referenced by any job for
+     * the defined expiry time. The delay protects a job which is just being
+     * submitted and found the blob already uploaded.
+     * <p>
+     * The refs entry is locked while the blob is destroyed. A job adding its
+     * reference in the meantime waits for the lock, because entry processors
+     * don't run on locked keys, and then finds the blob gone and uploads it
+     * again.
+     */
+    private void cleanupUnreferencedBlobs() {
+        for (String hash : resourceRefs.keySet()) {
+            resourceRefs.lock(hash);
+            try {
+                EntryView<String, Set<Long>> refs = resourceRefs.getEntryView(hash);
+                if (refs == null || !refs.getValue().isEmpty()
+                        || System.currentTimeMillis() - refs.getLastUpdateTime() < resourcesExpirationMillis) {
+                    continue;
+                }
+                getResourceBlob(hash).destroy();
+                resourceRefs.delete(hash);
+            } finally {
+                resourceRefs.unlock(hash);
+            }
+        }
+    }
+
     List<JobRecord> getJobRecords(String name) {
         return jobRecords.values(new FilterJobRecordByNamePredicate(name)).stream()
                          .sorted(comparing(JobRecord::getCreationTime).reversed()).collect(toList());
@@ -356,6 +453,34 @@ public class JobRepository {
         return instance.getMap(RESOURCES_MAP_NAME_PREFIX + idToString(jobId));
     }
 
+    /**
+     * Returns the content hashes of the given job's resources, in the order
+     * they were added to the job config.
+     */
+    List<String> getJobResourceHashes(long jobId) {
+        return getResourceHashes(getJobResources(jobId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getResourceHashes(IMap<String, Object> jobResourcesMap) {
+        List<String> hashes = (List<String>) jobResourcesMap.get(RESOURCE_HASHES);
+        return hashes != null ? hashes : emptyList();
+    }
+
+    IMap<String, byte[]> getResourceBlob(String hash) {
+        return instance.getMap(RESOURCE_BLOBS_MAP_NAME_PREFIX + hash);
+    }
+
+    /**
+     * Returns a local copy of the given resource blob, without the marker
+     * entry which tells that the upload is complete.
+     */
+    public Map<String, byte[]> loadResourceBlob(String hash) {
+        Map<String, byte[]> contents = new HashMap<>(getResourceBlob(hash));
+        contents.remove(BLOB_COMPLETE_MARKER);
+        return contents;
+    }
+
     public JobResult getJobResult(long jobId) {
         return jobResults.get(jobId);
     }
@@ -487,6 +612,60 @@ public class JobRepository {
         }
     }
 
+    /**
+     * Adds or removes a job id in the set of jobs referencing a resource blob.
+     * When the last reference is removed, the empty set is kept so that the
+     * time of the last update can be used to decide when to destroy the blob.
+     */
+    public static class UpdateResourceRefsEntryProcessor
+            extends AbstractEntryProcessor<String, Set<Long>> implements IdentifiedDataSerializable {
+
+        private long jobId;
+        private boolean add;
+
+        public UpdateResourceRefsEntryProcessor() {
+        }
+
+        UpdateResourceRefsEntryProcessor(long jobId, boolean add) {
+            this.jobId = jobId;
+            this.add = add;
+        }
+
+        @Override
+        public Object process(Entry<String, Set<Long>> entry) {
+            Set<Long> jobIds = entry.getValue() != null ? entry.getValue() : new HashSet<>();
+            if (add) {
+                jobIds.add(jobId);
+            } else {
+                jobIds.remove(jobId);
+            }
+            entry.setValue(jobIds);
+            return jobIds.size();
+        }
+
+        @Override
+        public int getFactoryId() {
+            return JetInitDataSerializerHook.FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return JetInitDataSerializerHook.UPDATE_RESOURCE_REFS;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(jobId);
+            out.writeBoolean(add);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            jobId = in.readLong();
+            add = in.readBoolean();
+        }
+    }
+
     public static class UpdateJobRecordQuorumEntryBackupProcessor
             implements EntryBackupProcessor<Long, JobRecord>, IdentifiedDataSerializable {
 
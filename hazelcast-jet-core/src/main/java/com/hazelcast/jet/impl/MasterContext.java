@@ -24,7 +24,6 @@ import com.hazelcast.jet.RestartableException;
 import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.config.ProcessingGuarantee;
 import com.hazelcast.jet.core.DAG;
-import com.hazelcast.jet.core.Edge;
 import com.hazelcast.jet.core.JobStatus;
 import com.hazelcast.jet.core.TopologyChangedException;
 import com.hazelcast.jet.core.Vertex;
@@ -64,16 +63,12 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.hazelcast.jet.Util.idToString;
-import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.JobStatus.COMPLETED;
 import static com.hazelcast.jet.core.JobStatus.FAILED;
 import static com.hazelcast.jet.core.JobStatus.NOT_STARTED;
 import static com.hazelcast.jet.core.JobStatus.RESTARTING;
 import static com.hazelcast.jet.core.JobStatus.RUNNING;
 import static com.hazelcast.jet.core.JobStatus.STARTING;
-import static com.hazelcast.jet.core.processor.SourceProcessors.readMapP;
-import static com.hazelcast.jet.function.DistributedFunctions.entryKey;
-import static com.hazelcast.jet.impl.SnapshotRepository.snapshotDataMapName;
 import static com.hazelcast.jet.impl.execution.SnapshotContext.NO_SNAPSHOT;
 import static com.hazelcast.jet.impl.execution.init.CustomClassLoadedObject.deserializeWithCustomClassLoader;
 import static com.hazelcast.jet.impl.execution.init.ExecutionPlanBuilder.createExecutionPlans;
@@ -109,6 +104,9 @@ public class MasterContext {
     private volatile long jobStartTime;
     private volatile Map<MemberInfo, ExecutionPlan> executionPlanMap;
     private volatile CompletionToken executionRestartToken;
+    // the length of the snapshot chain ending with the last successful
+    // snapshot of the current execution, 0 if the next one must be full
+    private volatile int snapshotChainLength;
 
     MasterContext(NodeEngineImpl nodeEngine, JobCoordinationService coordinationService, JobRecord jobRecord) {
         this.nodeEngine = nodeEngine;
@@ -181,17 +179,24 @@ public class MasterContext {
         vertices = new HashSet<>();
         dag.iterator().forEachRemaining(vertices::add);
         executionId = executionIdSupplier.apply(jobId);
+        // the processors don't know what changed before they were restored
+        snapshotChainLength = 0;
 
         // last started snapshot, completed or not. The next started snapshot must be greater than this number
         long lastSnapshotId = NO_SNAPSHOT;
+        // the snapshot to restore followed by the snapshots it's incremental to
+        List<Long> snapshotsToRestore = emptyList();
         if (isSnapshottingEnabled()) {
-            Long snapshotIdToRestore = snapshotRepository.latestCompleteSnapshot(jobId);
-            snapshotRepository.deleteAllSnapshotsExceptOne(jobId, snapshotIdToRestore);
+            Long latestCompleteSnapshot = snapshotRepository.latestCompleteSnapshot(jobId);
+            if (latestCompleteSnapshot != null) {
+                snapshotsToRestore = snapshotRepository.snapshotChain(jobId, latestCompleteSnapshot);
+            }
+            snapshotRepository.deleteAllSnapshotsExcept(jobId, snapshotsToRestore);
             Long lastStartedSnapshot = snapshotRepository.latestStartedSnapshot(jobId);
-            if (snapshotIdToRestore != null) {
+            if (latestCompleteSnapshot != null) {
                 logger.info("State of " + jobIdString() + " will be restored from snapshot "
-                        + snapshotIdToRestore);
-                rewriteDagWithSnapshotRestore(dag, snapshotIdToRestore);
+                        + latestCompleteSnapshot
+                        + (snapshotsToRestore.size() > 1 ? ", snapshot chain: " + snapshotsToRestore : ""));
             } else {
                 logger.info("No previous snapshot for " + jobIdString() + " found.");
             }
@@ -208,7 +213,7 @@ public class MasterContext {
                     + "\nHINT: You can use graphviz or http://viz-js.com to visualize the printed graph.");
             logger.fine("Building execution plan for " + jobIdString());
             executionPlanMap = createExecutionPlans(nodeEngine, membersView, dag, jobId, executionId, getJobConfig(),
-                    lastSnapshotId);
+                    lastSnapshotId, snapshotsToRestore);
         } catch (Exception e) {
             logger.severe("Exception creating execution plan for " + jobIdString(), e);
             finalizeJob(e);
@@ -225,25 +230,6 @@ public class MasterContext {
         invoke(operationCtor, this::onInitStepCompleted, null);
     }
 
-    private void rewriteDagWithSnapshotRestore(DAG dag, long snapshotId) {
-        logger.info(jobIdString() + ": restoring state from snapshotId=" + snapshotId);
-        for (Vertex vertex : dag) {
-            // We add the vertex even in case when the map is empty: this ensures, that
-            // Processor.finishSnapshotRestore() method is always called on all vertices in
-            // a job which is restored from a snapshot.
-            String mapName = snapshotDataMapName(jobId, snapshotId, vertex.getName());
-            Vertex readSnapshotVertex = dag.newVertex("__snapshot_read." + vertex.getName(), readMapP(mapName));
-            Vertex explodeVertex = dag.newVertex("__snapshot_explode." + vertex.getName(), ExplodeSnapshotP::new);
-
-            readSnapshotVertex.localParallelism(vertex.getLocalParallelism());
-            explodeVertex.localParallelism(vertex.getLocalParallelism());
-
-            int destOrdinal = dag.getInboundEdges(vertex.getName()).size();
-            dag.edge(between(readSnapshotVertex, explodeVertex).isolated())
-               .edge(new SnapshotRestoreEdge(explodeVertex, vertex, destOrdinal));
-        }
-    }
-
     /**
      * Sets job status to starting.
      * Returns false if the job start process cannot proceed.
@@ -443,16 +429,22 @@ public class MasterContext {
         }
 
         List<String> vertexNames = vertices.stream().map(Vertex::getName).collect(Collectors.toList());
-        long newSnapshotId = snapshotRepository.registerSnapshot(jobId, vertexNames);
+        boolean isIncremental = snapshotChainLength > 0
+                && snapshotChainLength < getJobConfig().getFullSnapshotInterval();
+        long newSnapshotId = snapshotRepository.registerSnapshot(jobId, isIncremental, vertexNames);
 
-        logger.info(String.format("Starting snapshot %s for %s", newSnapshotId, jobIdString()));
+        logger.info(String.format("Starting %s snapshot %s for %s", isIncremental ? "incremental" : "full",
+                newSnapshotId, jobIdString()));
         Function<ExecutionPlan, Operation> factory =
-                plan -> new SnapshotOperation(jobId, executionId, newSnapshotId);
+                plan -> new SnapshotOperation(jobId, executionId, newSnapshotId, isIncremental);
 
-        invoke(factory, responses -> onSnapshotCompleted(responses, executionId, newSnapshotId), null);
+        invoke(factory, responses -> onSnapshotCompleted(responses, executionId, newSnapshotId, isIncremental),
+                null);
     }
 
-    private void onSnapshotCompleted(Map<MemberInfo, Object> responses, long executionId, long snapshotId) {
+    private void onSnapshotCompleted(
+            Map<MemberInfo, Object> responses, long executionId, long snapshotId, boolean isIncremental
+    ) {
         SnapshotOperationResult mergedResult = new SnapshotOperationResult();
         for (Object response : responses.values()) {
             mergedResult.merge((SnapshotOperationResult) response);
@@ -463,6 +455,10 @@ public class MasterContext {
             logger.warning(jobIdString() + " snapshot " + snapshotId + " has failure, " +
                     "first failure: " + mergedResult.getError());
         }
+        if (this.executionId == executionId) {
+            // an incremental snapshot can only follow a successful one
+            snapshotChainLength = !isSuccess ? 0 : isIncremental ? snapshotChainLength + 1 : 1;
+        }
         coordinationService.completeSnapshot(jobId, executionId, snapshotId, isSuccess,
                 mergedResult.getNumBytes(), mergedResult.getNumKeys(), mergedResult.getNumChunks());
     }
@@ -676,23 +672,6 @@ public class MasterContext {
         return contextClassLoader;
     }
 
-    /**
-     * Specific type of edge to be used when restoring snapshots
-     */
-    private static class SnapshotRestoreEdge extends Edge {
-
-        SnapshotRestoreEdge(Vertex source, Vertex destination, int destOrdinal) {
-            super(source, 0, destination, destOrdinal);
-            distributed();
-            partitioned(entryKey());
-        }
-
-        @Override
-        public int getPriority() {
-            return SNAPSHOT_RESTORE_EDGE_PRIORITY;
-        }
-    }
-
     /**
      * Registered to {@link StartExecutionOperation} invocations to cancel invocations in case of a failure or restart
      */
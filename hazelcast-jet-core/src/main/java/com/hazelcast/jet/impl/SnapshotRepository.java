@@ -18,6 +18,7 @@ package com.hazelcast.jet.impl;
 
 import com.hazelcast.aggregation.impl.MaxByAggregator;
 import com.hazelcast.core.IMap;
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.impl.execution.SnapshotRecord;
 import com.hazelcast.jet.impl.execution.SnapshotRecord.SnapshotStatus;
@@ -25,6 +26,7 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.query.Predicate;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
@@ -45,10 +47,14 @@ public class SnapshotRepository {
      * <pre>SNAPSHOT_NAME_PREFIX + jobId</pre>
      * <p>
      * Snapshot data for one vertex is stored in the following map:
-     * <pre>SNAPSHOT_NAME_PREFIX + jobId + '.' + snapshotId + '.' + vertexName</pre>
+     * <pre>SNAPSHOT_DATA_NAME_PREFIX + jobId + '.' + snapshotId + '.' + vertexName</pre>
+     * The entries with a {@link com.hazelcast.jet.core.BroadcastKey} are
+     * stored separately, because all processors restore them:
+     * <pre>SNAPSHOT_BROADCAST_DATA_NAME_PREFIX + jobId + '.' + snapshotId + '.' + vertexName</pre>
      */
     public static final String SNAPSHOT_NAME_PREFIX = "__jet.snapshots.";
     public static final String SNAPSHOT_DATA_NAME_PREFIX = SNAPSHOT_NAME_PREFIX + "data.";
+    public static final String SNAPSHOT_BROADCAST_DATA_NAME_PREFIX = SNAPSHOT_DATA_NAME_PREFIX + "broadcast.";
 
     // key for the entry that points to the latest snapshot
     private static final long LATEST_STARTED_SNAPSHOT_ID_KEY = -1;
@@ -67,13 +73,13 @@ public class SnapshotRepository {
     /**
      * Registers a new snapshot. Returns the ID for the registered snapshot
      */
-    long registerSnapshot(long jobId, Collection<String> vertexNames) {
+    long registerSnapshot(long jobId, boolean isIncremental, Collection<String> vertexNames) {
         IMap<Long, Object> snapshots = getSnapshotMap(jobId);
 
         SnapshotRecord record;
         do {
             long nextSnapshotId = generateNextSnapshotId(snapshots);
-            record = new SnapshotRecord(jobId, nextSnapshotId, vertexNames);
+            record = new SnapshotRecord(jobId, nextSnapshotId, isIncremental, vertexNames);
         } while (snapshots.putIfAbsent(record.snapshotId(), record) != null);
         return record.snapshotId();
     }
@@ -140,6 +146,27 @@ public class SnapshotRepository {
         return entry != null ? entry.getKey() : null;
     }
 
+    /**
+     * Returns the IDs of the snapshots needed to restore the given successful
+     * snapshot, newest first: the snapshot itself and, if it's incremental,
+     * the snapshots preceding it up to the last full one.
+     */
+    List<Long> snapshotChain(long jobId, long snapshotId) {
+        IMap<Long, SnapshotRecord> snapshotMap = getSnapshotMap(jobId);
+        List<Long> chain = new ArrayList<>();
+        for (long id = snapshotId; ; id--) {
+            SnapshotRecord record = snapshotMap.get(id);
+            if (record == null || !record.isSuccessful()) {
+                throw new JetException("Snapshot " + id + " of job " + idToString(jobId) + " is missing or not "
+                        + "successful, but it's needed to restore snapshot " + snapshotId);
+            }
+            chain.add(id);
+            if (!record.isIncremental()) {
+                return chain;
+            }
+        }
+    }
+
     /**
      * Return the latest started snapshot ID for the specified job or null if no such snapshot is found.
      */
@@ -155,8 +182,9 @@ public class SnapshotRepository {
 
     /**
      * Returns all {@link SnapshotRecord}s pertaining to the job.
-     * Typically there are up to 2 records:<ol>
-     *     <li>one completed snapshot
+     * Typically there are these records:<ol>
+     *     <li>one completed snapshot, preceded by the snapshots it's
+     *     incremental to, if any
      *     <li>zero or one snapshot in progress
      * </ol>
      *
@@ -183,19 +211,26 @@ public class SnapshotRepository {
         return SNAPSHOT_DATA_NAME_PREFIX + idToString(jobId) + '.' + snapshotId + '.' + vertexName;
     }
 
+    public static String snapshotBroadcastDataMapName(long jobId, long snapshotId, String vertexName) {
+        return SNAPSHOT_BROADCAST_DATA_NAME_PREFIX + idToString(jobId) + '.' + snapshotId + '.' + vertexName;
+    }
+
     /**
-     * Deletes snapshot data and records from snapshotsMap except one.
+     * Deletes snapshot data and records from snapshotsMap except the given
+     * ones. When a full snapshot completes, this removes the incremental
+     * snapshots that were taken before it.
      * <p>
      * Method must be run when there's no ongoing snapshot, because it also
      * deletes the ongoing snapshots. If we omitted them, then interrupted
      * ongoing snapshots will never be deleted.
      *
-     * @param snapshotToKeep the current snapshot to keep
+     * @param snapshotsToKeep the {@linkplain #snapshotChain chain} of the
+     *                        current snapshot
      */
-    void deleteAllSnapshotsExceptOne(long jobId, Long snapshotToKeep) {
+    void deleteAllSnapshotsExcept(long jobId, List<Long> snapshotsToKeep) {
         final IMap<Long, SnapshotRecord> snapshotMap = getSnapshotMap(jobId);
         Predicate<Long, SnapshotRecord> predicate =
-                e -> !e.getKey().equals(LATEST_STARTED_SNAPSHOT_ID_KEY) && !e.getKey().equals(snapshotToKeep);
+                e -> !e.getKey().equals(LATEST_STARTED_SNAPSHOT_ID_KEY) && !snapshotsToKeep.contains(e.getKey());
 
         for (Entry<Long, SnapshotRecord> entry : snapshotMap.entrySet(predicate)) {
             deleteSnapshot(snapshotMap, entry.getValue());
@@ -236,8 +271,8 @@ public class SnapshotRepository {
 
     private void deleteSnapshotData(SnapshotRecord record) {
         for (String vertexName : record.vertices()) {
-            String mapName = snapshotDataMapName(record.jobId(), record.snapshotId(), vertexName);
-            instance.getMap(mapName).destroy();
+            instance.getMap(snapshotDataMapName(record.jobId(), record.snapshotId(), vertexName)).destroy();
+            instance.getMap(snapshotBroadcastDataMapName(record.jobId(), record.snapshotId(), vertexName)).destroy();
             logFine(logger, "Deleted snapshot data for snapshot %d for job %s and vertex '%s'",
                     record.snapshotId(), idToString(record.jobId()), vertexName);
         }
@@ -26,6 +26,7 @@ import com.hazelcast.instance.BuildInfo;
 import com.hazelcast.instance.BuildInfoProvider;
 import com.hazelcast.instance.JetBuildInfo;
 import com.hazelcast.jet.config.EdgeConfig;
+import com.hazelcast.jet.config.IdleMode;
 import com.hazelcast.jet.config.InstanceConfig;
 import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.config.MetricsConfig;
@@ -194,6 +195,9 @@ public final class XmlJetConfigBuilder extends AbstractConfigBuilder {
                 case "backup-count":
                     instanceConfig.setBackupCount(intValue(node));
                     break;
+                case "idle-mode":
+                    instanceConfig.setIdleMode(IdleMode.valueOf(stringValue(node)));
+                    break;
                 default:
                     throw new AssertionError("Unrecognized XML element: " + name);
             }
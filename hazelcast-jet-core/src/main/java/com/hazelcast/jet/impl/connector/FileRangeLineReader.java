@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.util.Spliterators.spliteratorUnknownSize;
+
+/**
+ * Reads the lines of a byte range of a text file using large {@link
+ * FileChannel} reads. A line belongs to the range which contains its first
+ * byte, so that a file split into adjacent ranges is read exactly once,
+ * regardless of where the range boundaries fall.
+ * <p>
+ * Lines are terminated by {@code \n}, {@code \r} or {@code \r\n}, as with
+ * {@link java.io.BufferedReader#readLine()}. The terminators are found by
+ * scanning bytes, so the charset must be one where these characters are
+ * encoded as single bytes that don't occur inside other characters, see
+ * {@link #supportsCharset}.
+ */
+final class FileRangeLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int INITIAL_LINE_CAPACITY = 256;
+
+    private final FileChannel channel;
+    private final long end;
+    private final Charset charset;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] bytes = buffer.array();
+    private int bufPos;
+    private int bufLimit;
+    // file position of the next unread byte
+    private long position;
+    // holds the start of a line which spans buffer refills
+    private byte[] lineBytes = new byte[INITIAL_LINE_CAPACITY];
+    private int lineLength;
+
+    FileRangeLineReader(Path file, long start, long end, Charset charset) throws IOException {
+        this.channel = FileChannel.open(file, READ);
+        this.end = end;
+        this.charset = charset;
+        if (start > 0) {
+            // skip the line which started in the previous range; if the byte
+            // before the range is a terminator, only that is skipped
+            position = start - 1;
+            channel.position(position);
+            readLine();
+        }
+    }
+
+    /**
+     * Returns a lazy stream of the lines of the given range. Closing the
+     * stream closes the file.
+     */
+    static Stream<String> lines(Path file, long start, long end, Charset charset) throws IOException {
+        FileRangeLineReader reader = new FileRangeLineReader(file, start, end, charset);
+        Iterator<String> iterator = new Iterator<String>() {
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = reader.nextLine();
+                    } catch (IOException e) {
+                        throw sneakyThrow(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String result = next;
+                next = null;
+                return result;
+            }
+        };
+        return StreamSupport.stream(spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                false)
+                            .onClose(() -> {
+                                try {
+                                    reader.close();
+                                } catch (IOException e) {
+                                    throw sneakyThrow(e);
+                                }
+                            });
+    }
+
+    /**
+     * Returns true if the line terminators can be found by scanning the bytes
+     * of text encoded in the given charset. This holds for UTF-8 and the
+     * ASCII-compatible single-byte charsets.
+     */
+    static boolean supportsCharset(Charset charset) {
+        return charset.newEncoder().maxBytesPerChar() == 1
+                ? Arrays.equals("\r\n".getBytes(charset), new byte[]{'\r', '\n'})
+                : "UTF-8".equals(charset.name());
+    }
+
+    /**
+     * Returns the next line which starts in the range, or {@code null} if
+     * there are no more.
+     */
+    String nextLine() throws IOException {
+        return position < end ? readLine() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private String readLine() throws IOException {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (bufPos == bufLimit && !fill()) {
+                return readAny ? new String(lineBytes, 0, lineLength, charset) : null;
+            }
+            readAny = true;
+            int start = bufPos;
+            int i = start;
+            while (i < bufLimit && bytes[i] != '\n' && bytes[i] != '\r') {
+                i++;
+            }
+            position += i - start;
+            if (i == bufLimit) {
+                appendToLine(start, i - start);
+                bufPos = i;
+                continue;
+            }
+            String line;
+            if (lineLength == 0) {
+                line = new String(bytes, start, i - start, charset);
+            } else {
+                appendToLine(start, i - start);
+                line = new String(lineBytes, 0, lineLength, charset);
+            }
+            boolean isCr = bytes[i] == '\r';
+            bufPos = i + 1;
+            position++;
+            if (isCr && (bufPos < bufLimit || fill()) && bytes[bufPos] == '\n') {
+                bufPos++;
+                position++;
+            }
+            return line;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        bufPos = 0;
+        bufLimit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    private void appendToLine(int offset, int length) {
+        if (lineLength + length > lineBytes.length) {
+            lineBytes = Arrays.copyOf(lineBytes, Math.max(lineBytes.length * 2, lineLength + length));
+        }
+        System.arraycopy(bytes, offset, lineBytes, lineLength, length);
+        lineLength += length;
+    }
+}
@@ -191,6 +191,11 @@ public final class HazelcastWriters {
         ));
     }
 
+    @Nonnull
+    public static ProcessorMetaSupplier writeMapBatchedSupplier(@Nonnull String name, int batchSize) {
+        return ProcessorMetaSupplier.of(WriteMapBatchedP.supplier(name, batchSize));
+    }
+
     @Nonnull
     public static ProcessorMetaSupplier writeCacheSupplier(@Nonnull String name, @Nullable ClientConfig clientConfig) {
         boolean isLocal = clientConfig == null;
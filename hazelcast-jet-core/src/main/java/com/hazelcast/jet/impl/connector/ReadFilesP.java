@@ -26,6 +26,8 @@ import com.hazelcast.jet.function.DistributedFunction;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -33,6 +35,7 @@ import java.nio.file.Paths;
 import java.util.stream.Stream;
 
 import static com.hazelcast.jet.Traversers.traverseStream;
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 
 /**
  * Private API, use {@link SourceProcessors#readFilesP}.
@@ -42,16 +45,28 @@ import static com.hazelcast.jet.Traversers.traverseStream;
  * should be set according to the performance characteristics of the
  * underlying storage system. Modern high-end devices peak with 4-8 reading
  * threads, so if running a single Jet job with a single file-reading
- * vertex, the optimal value would be in the range of 4-8. Note that any
- * one file is only read by one thread, so extra parallelism won't improve
- * performance if there aren't enough files to read.
+ * vertex, the optimal value would be in the range of 4-8.
+ * <p>
+ * If the file format allows it, a file larger than the minimum split size
+ * is split into up to {@code parallelism} byte ranges of equal size, which
+ * are read by different processors. Otherwise any one file is only read
+ * by one thread, so extra parallelism won't improve performance if there
+ * aren't enough files to read.
  */
 public final class ReadFilesP<T, R> extends AbstractProcessor {
 
+    /**
+     * Text files smaller than this are read by a single processor.
+     */
+    static final long LINES_MIN_SPLIT_SIZE = 16L << 20;
+
+    private static final long NO_SPLIT = Long.MAX_VALUE;
+
     private final Path directory;
     private final String glob;
     private final boolean sharedFileSystem;
-    private final DistributedFunction<? super Path, ? extends Stream<T>> readFileFn;
+    private final long minSplitSize;
+    private final ReadFileRangeFn<T> readFileRangeFn;
     private final DistributedBiFunction<? super String, ? super T, ? extends R> mapOutputFn;
 
     private int processorIndex;
@@ -60,14 +75,15 @@ public final class ReadFilesP<T, R> extends AbstractProcessor {
     private Traverser<? extends R> outputTraverser;
     private Stream<T> currentStream;
 
-    private ReadFilesP(@Nonnull String directory, @Nonnull String glob, boolean sharedFileSystem,
-                       @Nonnull DistributedFunction<? super Path, ? extends Stream<T>> readFileFn,
+    private ReadFilesP(@Nonnull String directory, @Nonnull String glob, boolean sharedFileSystem, long minSplitSize,
+                       @Nonnull ReadFileRangeFn<T> readFileRangeFn,
                        @Nonnull DistributedBiFunction<? super String, ? super T, ? extends R> mapOutputFn) {
         this.directory = Paths.get(directory);
         this.glob = glob;
-        this.readFileFn = readFileFn;
-        this.mapOutputFn = mapOutputFn;
         this.sharedFileSystem = sharedFileSystem;
+        this.minSplitSize = minSplitSize;
+        this.readFileRangeFn = readFileRangeFn;
+        this.mapOutputFn = mapOutputFn;
     }
 
     @Override
@@ -77,8 +93,9 @@ public final class ReadFilesP<T, R> extends AbstractProcessor {
 
         directoryStream = Files.newDirectoryStream(directory, glob);
         outputTraverser = Traversers.traverseIterator(directoryStream.iterator())
-                                    .filter(this::shouldProcessEvent)
-                                    .flatMap(this::processFile);
+                                    .filter(file -> !Files.isDirectory(file))
+                                    .map(this::assignedRange)
+                                    .flatMap(this::processRange);
     }
 
     @Override
@@ -86,21 +103,34 @@ public final class ReadFilesP<T, R> extends AbstractProcessor {
         return emitFromTraverser(outputTraverser);
     }
 
-    private boolean shouldProcessEvent(Path file) {
-        if (Files.isDirectory(file)) {
-            return false;
+    /**
+     * Splits the file into ranges and returns the one assigned to this
+     * processor, or {@code null} if there's none. The ranges of a file are assigned to consecutive
+     * processors, starting at the one chosen by the file's hash code.
+     */
+    private FileRange assignedRange(Path file) {
+        long size = minSplitSize == NO_SPLIT ? 0 : uncheckCall(() -> Files.size(file));
+        int rangeCount = size <= minSplitSize ? 1 : (int) Math.min(parallelism, (size - 1) / minSplitSize + 1);
+        int firstProcessor = (file.hashCode() & Integer.MAX_VALUE) % parallelism;
+        int rangeIndex = Math.floorMod(processorIndex - firstProcessor, parallelism);
+        if (rangeIndex >= rangeCount) {
+            return null;
+        }
+        if (rangeCount == 1) {
+            return new FileRange(file, 0, Long.MAX_VALUE);
         }
-        int hashCode = file.hashCode();
-        return ((hashCode & Integer.MAX_VALUE) % parallelism) == processorIndex;
+        long rangeSize = (size - 1) / rangeCount + 1;
+        long start = rangeIndex * rangeSize;
+        return new FileRange(file, start, Math.min(size, start + rangeSize));
     }
 
-    private Traverser<? extends R> processFile(Path file) {
+    private Traverser<? extends R> processRange(FileRange range) {
         if (getLogger().isFinestEnabled()) {
-            getLogger().finest("Processing file " + file);
+            getLogger().finest("Processing file " + range.file + ", bytes " + range.start + ".." + range.end);
         }
         assert currentStream == null : "currentStream != null";
-        currentStream = readFileFn.apply(file);
-        String fileName = file.getFileName().toString();
+        currentStream = uncheckCall(() -> readFileRangeFn.apply(range.file, range.start, range.end));
+        String fileName = range.file.getFileName().toString();
         return traverseStream(currentStream)
                 .map(line -> mapOutputFn.apply(fileName, line))
                 .onFirstNull(() -> {
@@ -141,9 +171,72 @@ public final class ReadFilesP<T, R> extends AbstractProcessor {
             boolean sharedFileSystem,
             @Nonnull DistributedFunction<Path, Stream<W>> readFileFn,
             @Nonnull DistributedBiFunction<String, W, R> mapOutputFn
+    ) {
+        return metaSupplier(directory, glob, sharedFileSystem, NO_SPLIT,
+                (file, start, end) -> readFileFn.apply(file), mapOutputFn);
+    }
+
+    /**
+     * Private API. Returns a meta-supplier of processors which read files
+     * split into byte ranges of at least {@code minSplitSize} bytes. {@code
+     * readFileRangeFn} must read the items which start in the given range,
+     * so that each item is read exactly once.
+     */
+    public static <W, R> ProcessorMetaSupplier metaSupplier(
+            @Nonnull String directory,
+            @Nonnull String glob,
+            boolean sharedFileSystem,
+            long minSplitSize,
+            @Nonnull ReadFileRangeFn<W> readFileRangeFn,
+            @Nonnull DistributedBiFunction<String, W, R> mapOutputFn
     ) {
         return ProcessorMetaSupplier.of(() -> new ReadFilesP<>(
-                directory, glob, sharedFileSystem, readFileFn, mapOutputFn),
+                directory, glob, sharedFileSystem, minSplitSize, readFileRangeFn, mapOutputFn),
                 2);
     }
+
+    /**
+     * Private API. Use {@link SourceProcessors#readFilesP} instead.
+     * <p>
+     * Returns a meta-supplier of processors which read the lines of text
+     * files. If the charset allows it, large files are split at line
+     * boundaries.
+     */
+    public static <R> ProcessorMetaSupplier linesMetaSupplier(
+            @Nonnull String directory,
+            @Nonnull String charsetName,
+            @Nonnull String glob,
+            boolean sharedFileSystem,
+            @Nonnull DistributedBiFunction<String, String, R> mapOutputFn
+    ) {
+        if (!FileRangeLineReader.supportsCharset(Charset.forName(charsetName))) {
+            return metaSupplier(directory, glob, sharedFileSystem,
+                    path -> uncheckCall(() -> Files.lines(path, Charset.forName(charsetName))),
+                    mapOutputFn);
+        }
+        return metaSupplier(directory, glob, sharedFileSystem, LINES_MIN_SPLIT_SIZE,
+                (file, start, end) -> FileRangeLineReader.lines(file, start, end, Charset.forName(charsetName)),
+                mapOutputFn);
+    }
+
+    /**
+     * Reads the items which start in the given byte range of a file. The
+     * end is {@code Long.MAX_VALUE} if the whole file is to be read.
+     */
+    @FunctionalInterface
+    public interface ReadFileRangeFn<T> extends Serializable {
+        Stream<T> apply(Path file, long start, long end) throws IOException;
+    }
+
+    private static final class FileRange {
+        private final Path file;
+        private final long start;
+        private final long end;
+
+        FileRange(Path file, long start, long end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+    }
 }
@@ -26,6 +26,7 @@ import com.hazelcast.jet.function.DistributedSupplier;
 import com.hazelcast.jet.pipeline.ToResultSetFunction;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
@@ -94,6 +95,89 @@ public final class ReadJdbcP<T> extends AbstractProcessor {
         ));
     }
 
+    /**
+     * Returns a supplier of processors which read the rows of the {@code
+     * query} in parallel, each processor reads a range of the values of
+     * {@code partitionColumn}. If {@code partitionColumn} is {@code null},
+     * the query is read by a single processor.
+     */
+    public static <T> ProcessorMetaSupplier partitionedSupplier(
+            @Nonnull DistributedSupplier<Connection> connectionSupplier,
+            @Nonnull String query,
+            @Nullable String partitionColumn,
+            long lowerBound,
+            long upperBound,
+            int fetchSize,
+            @Nonnull DistributedFunction<ResultSet, T> mapOutputFn
+    ) {
+        ToResultSetFunction resultSetFn = (connection, parallelism, index) -> {
+            // some drivers, e.g. PostgreSQL, ignore the fetch size in auto-commit mode
+            connection.setAutoCommit(false);
+            PreparedStatement statement = connection.prepareStatement(partitionColumn == null
+                    ? query : partitionQuery(query, partitionColumn, parallelism, index));
+            try {
+                statement.setFetchSize(fetchSize);
+                if (partitionColumn != null) {
+                    setPartitionBounds(statement, lowerBound, upperBound, parallelism, index);
+                }
+                return statement.executeQuery();
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+        };
+        if (partitionColumn == null) {
+            return ProcessorMetaSupplier.forceTotalParallelismOne(ProcessorSupplier.of(() ->
+                    new ReadJdbcP<>(connectionSupplier, resultSetFn, mapOutputFn)));
+        }
+        return supplier(connectionSupplier, resultSetFn, mapOutputFn);
+    }
+
+    /**
+     * Returns the query selecting the rows of the {@code index}-th of {@code
+     * parallelism} ranges of the partition column. The first range also
+     * contains the rows below the lower bound and the {@code NULL} values,
+     * the last one the rows above the upper bound.
+     */
+    // package-visible for testing
+    static String partitionQuery(String query, String partitionColumn, int parallelism, int index) {
+        String prefix = "SELECT * FROM (" + query + ") jet_partitioned_query";
+        if (parallelism == 1) {
+            return prefix;
+        }
+        if (index == 0) {
+            return prefix + " WHERE " + partitionColumn + " < ? OR " + partitionColumn + " IS NULL";
+        }
+        if (index == parallelism - 1) {
+            return prefix + " WHERE " + partitionColumn + " >= ?";
+        }
+        return prefix + " WHERE " + partitionColumn + " >= ? AND " + partitionColumn + " < ?";
+    }
+
+    private static void setPartitionBounds(PreparedStatement statement, long lowerBound, long upperBound,
+                                           int parallelism, int index) throws SQLException {
+        if (parallelism == 1) {
+            return;
+        }
+        int paramIndex = 1;
+        if (index > 0) {
+            statement.setLong(paramIndex++, partitionBoundary(lowerBound, upperBound, parallelism, index));
+        }
+        if (index < parallelism - 1) {
+            statement.setLong(paramIndex, partitionBoundary(lowerBound, upperBound, parallelism, index + 1));
+        }
+    }
+
+    /**
+     * Returns the first value of the {@code index}-th range, the ranges
+     * between the bounds differ in size by at most one.
+     */
+    // package-visible for testing
+    static long partitionBoundary(long lowerBound, long upperBound, int parallelism, int index) {
+        long range = upperBound - lowerBound;
+        return lowerBound + range / parallelism * index + range % parallelism * index / parallelism;
+    }
+
     @Override
     protected void init(@Nonnull Context context) {
         this.connection = connectionSupplier.get();
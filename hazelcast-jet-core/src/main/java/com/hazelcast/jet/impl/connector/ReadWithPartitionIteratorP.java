@@ -16,13 +16,25 @@
 
 package com.hazelcast.jet.impl.connector;
 
+import com.hazelcast.cache.impl.CacheEntry;
+import com.hazelcast.cache.impl.CacheEntryIterationResult;
+import com.hazelcast.cache.impl.CacheOperationProvider;
 import com.hazelcast.cache.impl.CacheProxy;
+import com.hazelcast.cache.impl.ICacheService;
 import com.hazelcast.client.cache.impl.ClientCacheProxy;
 import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
 import com.hazelcast.client.impl.HazelcastClientProxy;
-import com.hazelcast.client.proxy.ClientMapProxy;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CacheIterateEntriesCodec;
+import com.hazelcast.client.impl.protocol.codec.MapFetchEntriesCodec;
+import com.hazelcast.client.impl.protocol.codec.MapFetchWithQueryCodec;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.config.CacheConfig;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.core.Partition;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.core.Processor;
@@ -31,22 +43,35 @@ import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.processor.Processors;
 import com.hazelcast.jet.core.processor.SourceProcessors;
 import com.hazelcast.jet.function.DistributedFunction;
-import com.hazelcast.jet.impl.util.CircularListCursor;
+import com.hazelcast.map.impl.LazyMapEntry;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
 import com.hazelcast.map.impl.proxy.MapProxyImpl;
+import com.hazelcast.map.impl.query.Query;
+import com.hazelcast.map.impl.query.QueryResult;
+import com.hazelcast.map.impl.query.QueryResultRow;
+import com.hazelcast.map.impl.query.ResultSegment;
 import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.util.IterationType;
 
 import javax.annotation.Nonnull;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
 import static com.hazelcast.client.HazelcastClient.newHazelcastClient;
+import static com.hazelcast.jet.Traversers.empty;
+import static com.hazelcast.jet.Traversers.traverseIterable;
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
 import static com.hazelcast.jet.impl.util.Util.processorToPartitions;
 import static java.util.stream.Collectors.groupingBy;
@@ -56,52 +81,55 @@ import static java.util.stream.Collectors.toList;
 /**
  * Private API, see methods in {@link SourceProcessors}.
  * <p>
+ * The processor scans its partitions by issuing asynchronous fetch
+ * operations directly, instead of going through the blocking partition
+ * iterators. Up to {@value #MAX_PARALLEL_READS} partitions are read
+ * concurrently and, as soon as a batch arrives, the fetch of the next
+ * batch from the same partition is issued before the received one is
+ * emitted, so the network round trip overlaps with the emission. The
+ * predicate and projection, if any, are applied on the member that owns
+ * the partition.
+ * <p>
+ * The fetch size starts at {@value #INITIAL_FETCH_SIZE} and is then
+ * adjusted so that a batch carries about {@value #TARGET_BATCH_BYTES}
+ * bytes of serialized entries.
+ * <p>
  * The number of Hazelcast partitions should be configured to at least
  * {@code localParallelism * clusterSize}, otherwise some processors will
  * have no partitions assigned to them.
  */
-@SuppressWarnings("unchecked")
-public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
-
-    private static final boolean PREFETCH_VALUES = true;
-
-    private static final int FETCH_SIZE = 16384;
-
-    private final Traverser<T> outputTraverser;
-
-    ReadWithPartitionIteratorP(Function<Integer, Iterator<T>> partitionToIterator,
-                               List<Integer> partitions) {
-        final CircularListCursor<Iterator<T>> iteratorCursor = new CircularListCursor<>(
-                partitions.stream().map(partitionToIterator).collect(toList())
-        );
-        this.outputTraverser = () -> {
-            do {
-                final Iterator<T> currIterator = iteratorCursor.value();
-                while (currIterator.hasNext()) {
-                    T next = currIterator.next();
-                    if (next != null) {
-                        iteratorCursor.advance();
-                        return next;
-                    }
-                }
-                iteratorCursor.remove();
-            } while (iteratorCursor.advance());
-            return null;
-        };
+public final class ReadWithPartitionIteratorP<R> extends AbstractProcessor {
+
+    static final int MAX_PARALLEL_READS = 4;
+    static final int INITIAL_FETCH_SIZE = 1024;
+    static final int MIN_FETCH_SIZE = 128;
+    static final int MAX_FETCH_SIZE = 65536;
+    static final int TARGET_BATCH_BYTES = 1 << 21;
+
+    private final PartitionReader<R> reader;
+    private final int[] partitionIds;
+    private final Future<?>[] readFutures;
+
+    private int nextPartitionToStart;
+    private int numCompletedPartitions;
+    private int lastPolledIndex = -1;
+    private int fetchSize = INITIAL_FETCH_SIZE;
+    private Traverser<Object> batchTraverser = empty();
+
+    ReadWithPartitionIteratorP(PartitionReader<R> reader, List<Integer> partitions) {
+        this.reader = reader;
+        this.partitionIds = partitions.stream().mapToInt(Integer::intValue).toArray();
+        this.readFutures = new Future[partitionIds.length];
     }
 
-    public static <T> ProcessorMetaSupplier readMapSupplier(@Nonnull String mapName) {
-        return new LocalClusterMetaSupplier<T>(
-                instance -> partition -> ((MapProxyImpl) instance.getMap(mapName))
-                        .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
+    public static ProcessorMetaSupplier readMapSupplier(@Nonnull String mapName) {
+        return new LocalClusterMetaSupplier(instance -> new LocalMapReader(instance, mapName));
     }
 
-    public static <T> ProcessorMetaSupplier readRemoteMapSupplier(
+    public static ProcessorMetaSupplier readRemoteMapSupplier(
             @Nonnull String mapName, @Nonnull ClientConfig clientConfig
     ) {
-        return new RemoteClusterMetaSupplier<T>(clientConfig,
-                instance -> partition -> ((ClientMapProxy) instance.getMap(mapName))
-                        .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
+        return new RemoteClusterMetaSupplier(clientConfig, instance -> new RemoteMapReader(instance, mapName));
     }
 
     public static <K, V, T> ProcessorMetaSupplier readMapSupplier(
@@ -112,11 +140,8 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
         checkSerializable(predicate, "predicate");
         checkSerializable(projection, "projection");
 
-        return new LocalClusterMetaSupplier<T>(
-                instance -> partition -> {
-                    MapProxyImpl map = (MapProxyImpl) instance.<K, V>getMap(mapName);
-                    return map.<T>iterator(FETCH_SIZE, partition, projection, predicate);
-                });
+        return new LocalClusterMetaSupplier(
+                instance -> new LocalMapQueryReader(instance, mapName, predicate, projection));
     }
 
     public static <K, V, T> ProcessorMetaSupplier readRemoteMapSupplier(
@@ -128,61 +153,380 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
         checkSerializable(projection, "projection");
         checkSerializable(predicate, "predicate");
 
-        return new RemoteClusterMetaSupplier<T>(clientConfig,
-                instance -> partition -> ((ClientMapProxy) instance.getMap(mapName))
-                        .iterator(FETCH_SIZE, partition, projection, predicate));
+        return new RemoteClusterMetaSupplier(clientConfig,
+                instance -> new RemoteMapQueryReader(instance, mapName, predicate, projection));
     }
 
     public static ProcessorMetaSupplier readCacheSupplier(@Nonnull String cacheName) {
-        return new LocalClusterMetaSupplier<>(
-                instance -> partition -> ((CacheProxy) instance.getCacheManager().getCache(cacheName))
-                        .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
+        return new LocalClusterMetaSupplier(instance -> new LocalCacheReader(instance, cacheName));
     }
 
     public static ProcessorMetaSupplier readRemoteCacheSupplier(@Nonnull String cacheName,
                                                                 @Nonnull ClientConfig clientConfig) {
-        return new RemoteClusterMetaSupplier<>(clientConfig,
-                instance -> partition -> ((ClientCacheProxy) instance.getCacheManager().getCache(cacheName))
-                        .iterator(FETCH_SIZE, partition, PREFETCH_VALUES));
+        return new RemoteClusterMetaSupplier(clientConfig, instance -> new RemoteCacheReader(instance, cacheName));
     }
 
     @Override
     public boolean complete() {
-        return emitFromTraverser(outputTraverser);
+        while (emitFromTraverser(batchTraverser)) {
+            startReads();
+            if (numCompletedPartitions == partitionIds.length) {
+                return true;
+            }
+            if (!pollCompletedRead()) {
+                return false;
+            }
+        }
+        return false;
     }
 
-    @Override
-    public boolean isCooperative() {
+    private void startReads() {
+        while (nextPartitionToStart < partitionIds.length
+                && nextPartitionToStart - numCompletedPartitions < MAX_PARALLEL_READS) {
+            int index = nextPartitionToStart++;
+            readFutures[index] = reader.readBatch(partitionIds[index], Integer.MAX_VALUE, fetchSize);
+        }
+    }
+
+    /**
+     * Looks for a completed read, starting after the partition polled
+     * last time so that the partitions take turns. If it finds one, it
+     * issues the read of the next batch from the same partition and sets
+     * up the traverser over the received batch.
+     *
+     * @return whether a completed read was found
+     */
+    private boolean pollCompletedRead() {
+        for (int i = 1; i <= partitionIds.length; i++) {
+            int index = (lastPolledIndex + i) % partitionIds.length;
+            Future<?> future = readFutures[index];
+            if (future == null || !future.isDone()) {
+                continue;
+            }
+            lastPolledIndex = index;
+            Batch<R> batch = reader.toBatch(getDone(future));
+            if (!batch.records.isEmpty()) {
+                fetchSize = nextFetchSize(batch.records.stream().mapToLong(reader::sizeOf).sum(),
+                        batch.records.size());
+            }
+            if (batch.records.isEmpty() || batch.nextTableIndex < 0) {
+                readFutures[index] = null;
+                numCompletedPartitions++;
+            } else {
+                readFutures[index] = reader.readBatch(partitionIds[index], batch.nextTableIndex, fetchSize);
+            }
+            batchTraverser = traverseIterable(batch.records).map(reader::toObject);
+            return true;
+        }
         return false;
     }
 
-    private static <T> List<Processor> getProcessors(int count, List<Integer> ownedPartitions,
-                                                     Function<Integer, Iterator<T>> partitionToIterator) {
+    /**
+     * Returns the fetch size that makes a batch of entries with the given
+     * average serialized size about {@link #TARGET_BATCH_BYTES} long.
+     */
+    static int nextFetchSize(long batchBytes, int batchSize) {
+        long bytesPerEntry = Math.max(1, batchBytes / batchSize);
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, TARGET_BATCH_BYTES / bytesPerEntry));
+    }
+
+    private static Object getDone(Future<?> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JetException(e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static List<Processor> getProcessors(int count, List<Integer> ownedPartitions,
+                                                 PartitionReader<?> reader) {
 
         return processorToPartitions(count, ownedPartitions)
                 .values().stream()
                 .map(partitions -> !partitions.isEmpty()
-                        ? new ReadWithPartitionIteratorP<>(partitionToIterator, partitions)
+                        ? new ReadWithPartitionIteratorP<>((PartitionReader<Object>) reader, partitions)
                         : Processors.noopP().get()
                 )
                 .collect(toList());
     }
 
-    private static class RemoteClusterMetaSupplier<T> implements ProcessorMetaSupplier {
+    /**
+     * A batch of records fetched from a partition together with the table
+     * index to continue the read from.
+     */
+    static final class Batch<R> {
+        final List<R> records;
+        final int nextTableIndex;
+
+        Batch(List<R> records, int nextTableIndex) {
+            this.records = records;
+            this.nextTableIndex = nextTableIndex;
+        }
+    }
+
+    /**
+     * Reads the batches of a single data structure. The implementations
+     * must be thread-safe, one instance is shared by all the processors
+     * created by a processor supplier.
+     *
+     * @param <R> type of the raw record in the batch
+     */
+    interface PartitionReader<R> {
+
+        /**
+         * Starts an asynchronous read of at most {@code fetchSize} records
+         * from the given partition, starting at the given table index.
+         */
+        Future<?> readBatch(int partitionId, int tableIndex, int fetchSize);
+
+        /**
+         * Converts the response of the future returned by {@link
+         * #readBatch} to a batch.
+         */
+        Batch<R> toBatch(Object response);
+
+        /**
+         * Converts the raw record to the item to emit. Returns {@code null}
+         * if the record should be skipped.
+         */
+        Object toObject(R record);
+
+        /**
+         * Returns the serialized size of the record.
+         */
+        int sizeOf(R record);
+    }
+
+    private abstract static class EntryReader implements PartitionReader<Entry<Data, Data>> {
+
+        @Override
+        public int sizeOf(Entry<Data, Data> record) {
+            return record.getKey().totalSize() + record.getValue().totalSize();
+        }
+    }
+
+    private static final class LocalMapReader extends EntryReader {
+        private final MapProxyImpl map;
+        private final MapOperationProvider operationProvider;
+        private final OperationService operationService;
+        private final InternalSerializationService serializationService;
+
+        LocalMapReader(HazelcastInstance instance, String mapName) {
+            map = (MapProxyImpl) instance.getMap(mapName);
+            operationProvider = map.getOperationProvider();
+            operationService = map.getNodeEngine().getOperationService();
+            serializationService = (InternalSerializationService) map.getNodeEngine().getSerializationService();
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            return operationService.invokeOnPartition(map.getServiceName(),
+                    operationProvider.createFetchEntriesOperation(map.getName(), tableIndex, fetchSize),
+                    partitionId);
+        }
+
+        @Override
+        public Batch<Entry<Data, Data>> toBatch(Object response) {
+            MapEntriesWithCursor cursor = (MapEntriesWithCursor) response;
+            return new Batch<>(cursor.getBatch(), cursor.getNextTableIndexToReadFrom());
+        }
+
+        @Override
+        public Object toObject(Entry<Data, Data> record) {
+            return new LazyMapEntry(record.getKey(), record.getValue(), serializationService);
+        }
+    }
+
+    private static final class LocalMapQueryReader implements PartitionReader<QueryResultRow> {
+        private final MapProxyImpl map;
+        private final Query query;
+        private final MapOperationProvider operationProvider;
+        private final OperationService operationService;
+        private final InternalSerializationService serializationService;
+
+        LocalMapQueryReader(HazelcastInstance instance, String mapName, Predicate predicate, Projection projection) {
+            map = (MapProxyImpl) instance.getMap(mapName);
+            query = Query.of().mapName(mapName).iterationType(IterationType.VALUE)
+                         .predicate(predicate).projection(projection).build();
+            operationProvider = map.getOperationProvider();
+            operationService = map.getNodeEngine().getOperationService();
+            serializationService = (InternalSerializationService) map.getNodeEngine().getSerializationService();
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            return operationService.invokeOnPartition(map.getServiceName(),
+                    operationProvider.createFetchWithQueryOperation(map.getName(), tableIndex, fetchSize, query),
+                    partitionId);
+        }
+
+        @Override
+        public Batch<QueryResultRow> toBatch(Object response) {
+            ResultSegment segment = (ResultSegment) response;
+            return new Batch<>(((QueryResult) segment.getResult()).getRows(), segment.getNextTableIndexToReadFrom());
+        }
+
+        @Override
+        public Object toObject(QueryResultRow record) {
+            return serializationService.toObject(record.getValue());
+        }
+
+        @Override
+        public int sizeOf(QueryResultRow record) {
+            return record.getValue() != null ? record.getValue().totalSize() : 0;
+        }
+    }
+
+    private static final class LocalCacheReader extends EntryReader {
+        private final String serviceName;
+        private final CacheOperationProvider operationProvider;
+        private final OperationService operationService;
+        private final InternalSerializationService serializationService;
+
+        LocalCacheReader(HazelcastInstance instance, String cacheName) {
+            CacheProxy cache = (CacheProxy) instance.getCacheManager().getCache(cacheName);
+            CacheConfig config = (CacheConfig) cache.getConfiguration(CacheConfig.class);
+            serviceName = cache.getServiceName();
+            operationProvider = ((ICacheService) cache.getService())
+                    .getCacheOperationProvider(cache.getPrefixedName(), config.getInMemoryFormat());
+            operationService = cache.getNodeEngine().getOperationService();
+            serializationService = (InternalSerializationService) cache.getNodeEngine().getSerializationService();
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            return operationService.invokeOnPartition(serviceName,
+                    operationProvider.createEntryIteratorOperation(tableIndex, fetchSize), partitionId);
+        }
+
+        @Override
+        public Batch<Entry<Data, Data>> toBatch(Object response) {
+            CacheEntryIterationResult result = (CacheEntryIterationResult) response;
+            return new Batch<>(result.getEntries(), result.getTableIndex());
+        }
+
+        @Override
+        public Object toObject(Entry<Data, Data> record) {
+            return new CacheEntry<>(serializationService.toObject(record.getKey()),
+                    serializationService.toObject(record.getValue()));
+        }
+    }
+
+    private static final class RemoteMapReader extends EntryReader {
+        private final HazelcastClientInstanceImpl client;
+        private final String mapName;
+        private final InternalSerializationService serializationService;
+
+        RemoteMapReader(HazelcastInstance instance, String mapName) {
+            this.client = ((HazelcastClientProxy) instance).client;
+            this.mapName = mapName;
+            this.serializationService = (InternalSerializationService) client.getSerializationService();
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            ClientMessage request = MapFetchEntriesCodec.encodeRequest(mapName, partitionId, tableIndex, fetchSize);
+            return new ClientInvocation(client, request, mapName, partitionId).invoke();
+        }
+
+        @Override
+        public Batch<Entry<Data, Data>> toBatch(Object response) {
+            MapFetchEntriesCodec.ResponseParameters params = MapFetchEntriesCodec.decodeResponse((ClientMessage) response);
+            return new Batch<>(params.entries, params.tableIndex);
+        }
+
+        @Override
+        public Object toObject(Entry<Data, Data> record) {
+            return new LazyMapEntry(record.getKey(), record.getValue(), serializationService);
+        }
+    }
+
+    private static final class RemoteMapQueryReader implements PartitionReader<Data> {
+        private final HazelcastClientInstanceImpl client;
+        private final String mapName;
+        private final Data predicateData;
+        private final Data projectionData;
+
+        RemoteMapQueryReader(HazelcastInstance instance, String mapName, Predicate predicate, Projection projection) {
+            this.client = ((HazelcastClientProxy) instance).client;
+            this.mapName = mapName;
+            this.predicateData = client.getSerializationService().toData(predicate);
+            this.projectionData = client.getSerializationService().toData(projection);
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            ClientMessage request = MapFetchWithQueryCodec.encodeRequest(mapName, tableIndex, fetchSize,
+                    projectionData, predicateData);
+            return new ClientInvocation(client, request, mapName, partitionId).invoke();
+        }
+
+        @Override
+        public Batch<Data> toBatch(Object response) {
+            MapFetchWithQueryCodec.ResponseParameters params =
+                    MapFetchWithQueryCodec.decodeResponse((ClientMessage) response);
+            return new Batch<>(params.results, params.nextTableIndexToReadFrom);
+        }
+
+        @Override
+        public Object toObject(Data record) {
+            return client.getSerializationService().toObject(record);
+        }
+
+        @Override
+        public int sizeOf(Data record) {
+            return record != null ? record.totalSize() : 0;
+        }
+    }
+
+    private static final class RemoteCacheReader extends EntryReader {
+        private final HazelcastClientInstanceImpl client;
+        private final String prefixedName;
+
+        RemoteCacheReader(HazelcastInstance instance, String cacheName) {
+            this.client = ((HazelcastClientProxy) instance).client;
+            this.prefixedName = ((ClientCacheProxy) instance.getCacheManager().getCache(cacheName)).getPrefixedName();
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            ClientMessage request = CacheIterateEntriesCodec.encodeRequest(prefixedName, partitionId, tableIndex,
+                    fetchSize);
+            return new ClientInvocation(client, request, prefixedName, partitionId).invoke();
+        }
+
+        @Override
+        public Batch<Entry<Data, Data>> toBatch(Object response) {
+            CacheIterateEntriesCodec.ResponseParameters params =
+                    CacheIterateEntriesCodec.decodeResponse((ClientMessage) response);
+            return new Batch<>(params.entries, params.tableIndex);
+        }
+
+        @Override
+        public Object toObject(Entry<Data, Data> record) {
+            return new CacheEntry<>(client.getSerializationService().toObject(record.getKey()),
+                    client.getSerializationService().toObject(record.getValue()));
+        }
+    }
+
+    private static class RemoteClusterMetaSupplier implements ProcessorMetaSupplier {
 
         static final long serialVersionUID = 1L;
 
         private final SerializableClientConfig serializableConfig;
-        private final DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier;
+        private final DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier;
 
         private transient int remotePartitionCount;
 
         RemoteClusterMetaSupplier(
                 ClientConfig clientConfig,
-                DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier
+                DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier
         ) {
             this.serializableConfig = new SerializableClientConfig(clientConfig);
-            this.iteratorSupplier = iteratorSupplier;
+            this.readerSupplier = readerSupplier;
         }
 
         @Override
@@ -209,36 +553,36 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
                              .boxed()
                              .collect(groupingBy(partition -> addresses.get(partition % addresses.size())));
 
-            return address -> new RemoteClusterProcessorSupplier<>(membersToPartitions.get(address),
-                    serializableConfig, iteratorSupplier);
+            return address -> new RemoteClusterProcessorSupplier(membersToPartitions.get(address),
+                    serializableConfig, readerSupplier);
         }
     }
 
-    private static class RemoteClusterProcessorSupplier<T> implements ProcessorSupplier {
+    private static class RemoteClusterProcessorSupplier implements ProcessorSupplier {
 
         static final long serialVersionUID = 1L;
 
         private final List<Integer> ownedPartitions;
         private final SerializableClientConfig serializableClientConfig;
-        private final DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier;
+        private final DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier;
 
         private transient HazelcastInstance client;
-        private transient Function<Integer, Iterator<T>> partitionToIterator;
+        private transient PartitionReader<?> reader;
 
         RemoteClusterProcessorSupplier(
                 List<Integer> ownedPartitions,
                 SerializableClientConfig serializableClientConfig,
-                DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier
+                DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier
         ) {
             this.ownedPartitions = ownedPartitions;
             this.serializableClientConfig = serializableClientConfig;
-            this.iteratorSupplier = iteratorSupplier;
+            this.readerSupplier = readerSupplier;
         }
 
         @Override
         public void init(@Nonnull Context context) {
             client = newHazelcastClient(serializableClientConfig.asClientConfig());
-            partitionToIterator = iteratorSupplier.apply(client);
+            reader = readerSupplier.apply(client);
         }
 
         @Override
@@ -250,22 +594,22 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
 
         @Override @Nonnull
         public List<Processor> get(int count) {
-            return getProcessors(count, ownedPartitions, partitionToIterator);
+            return getProcessors(count, ownedPartitions, reader);
         }
     }
 
-    private static class LocalClusterMetaSupplier<T> implements ProcessorMetaSupplier {
+    private static class LocalClusterMetaSupplier implements ProcessorMetaSupplier {
 
         static final long serialVersionUID = 1L;
 
-        private final DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier;
+        private final DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier;
 
         private transient Map<Address, List<Integer>> addrToPartitions;
 
         LocalClusterMetaSupplier(
-                DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier
+                DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier
         ) {
-            this.iteratorSupplier = iteratorSupplier;
+            this.readerSupplier = readerSupplier;
         }
 
         @Override
@@ -283,35 +627,35 @@ public final class ReadWithPartitionIteratorP<T> extends AbstractProcessor {
 
         @Override @Nonnull
         public Function<Address, ProcessorSupplier> get(@Nonnull List<Address> addresses) {
-            return address -> new LocalClusterProcessorSupplier<>(addrToPartitions.get(address), iteratorSupplier);
+            return address -> new LocalClusterProcessorSupplier(addrToPartitions.get(address), readerSupplier);
         }
     }
 
-    private static class LocalClusterProcessorSupplier<T> implements ProcessorSupplier {
+    private static class LocalClusterProcessorSupplier implements ProcessorSupplier {
 
         static final long serialVersionUID = 1L;
 
         private final List<Integer> ownedPartitions;
-        private final DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier;
+        private final DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier;
 
-        private transient Function<Integer, Iterator<T>> partitionToIterator;
+        private transient PartitionReader<?> reader;
 
         LocalClusterProcessorSupplier(
                 List<Integer> ownedPartitions,
-                DistributedFunction<HazelcastInstance, Function<Integer, Iterator<T>>> iteratorSupplier
+                DistributedFunction<HazelcastInstance, PartitionReader<?>> readerSupplier
         ) {
             this.ownedPartitions = ownedPartitions != null ? ownedPartitions : Collections.emptyList();
-            this.iteratorSupplier = iteratorSupplier;
+            this.readerSupplier = readerSupplier;
         }
 
         @Override
         public void init(@Nonnull Context context) {
-            partitionToIterator = iteratorSupplier.apply(context.jetInstance().getHazelcastInstance());
+            reader = readerSupplier.apply(context.jetInstance().getHazelcastInstance());
         }
 
         @Override @Nonnull
         public List<Processor> get(int count) {
-            return getProcessors(count, ownedPartitions, partitionToIterator);
+            return getProcessors(count, ownedPartitions, reader);
         }
 
     }
@@ -74,11 +74,19 @@ import static java.util.stream.Collectors.toList;
 import static java.util.stream.IntStream.range;
 
 /**
+ * The processor keeps one read in flight for each of its partitions. The
+ * maximum number of events fetched in one read adapts to the backlog of
+ * the partition: it's doubled after each read that returned a full batch
+ * and halved after a read that returned less than half of a batch. This
+ * way a restarted job catches up with a long journal in few large reads,
+ * but doesn't keep large batches in memory once it's caught up.
+ *
  * @see SourceProcessors#streamMapP
  */
 public final class StreamEventJournalP<E, T> extends AbstractProcessor {
 
-    private static final int MAX_FETCH_SIZE = 128;
+    static final int MIN_FETCH_SIZE = 128;
+    static final int MAX_FETCH_SIZE = 8192;
 
     @Nonnull
     private final EventJournalReader<? extends E> eventJournalReader;
@@ -103,6 +111,9 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
     @Nonnull
     private final long[] readOffsets;
 
+    @Nonnull
+    private final int[] fetchSizes;
+
     private ICompletableFuture<ReadResultSet<T>>[] readFutures;
 
     // currently processed resultSet, it's partitionId and iterating position
@@ -132,6 +143,8 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
         partitionIds = assignedPartitions.stream().mapToInt(Integer::intValue).toArray();
         emitOffsets = new long[partitionIds.length];
         readOffsets = new long[partitionIds.length];
+        fetchSizes = new int[partitionIds.length];
+        Arrays.fill(fetchSizes, MIN_FETCH_SIZE);
 
         watermarkSourceUtil = new WatermarkSourceUtil<>(wmGenParams);
 
@@ -249,7 +262,7 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
     private void initialRead() {
         readFutures = new ICompletableFuture[partitionIds.length];
         for (int i = 0; i < readFutures.length; i++) {
-            readFutures[i] = readFromJournal(partitionIds[i], readOffsets[i]);
+            readFutures[i] = readFromJournal(partitionIds[i], readOffsets[i], fetchSizes[i]);
         }
     }
 
@@ -277,9 +290,12 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
                             + ", prevSeq=" + prevSequence);
                 }
                 readOffsets[currentPartitionIndex] = resultSet.getNextSequenceToReadFrom();
+                fetchSizes[currentPartitionIndex] =
+                        nextFetchSize(fetchSizes[currentPartitionIndex], resultSet.readCount());
             }
             // make another read on the same partition
-            readFutures[currentPartitionIndex] = readFromJournal(partitionId, readOffsets[currentPartitionIndex]);
+            readFutures[currentPartitionIndex] = readFromJournal(partitionId, readOffsets[currentPartitionIndex],
+                    fetchSizes[currentPartitionIndex]);
         }
 
         if (currentPartitionIndex == partitionIds.length) {
@@ -305,10 +321,24 @@ public final class StreamEventJournalP<E, T> extends AbstractProcessor {
         }
     }
 
-    private ICompletableFuture<ReadResultSet<T>> readFromJournal(int partition, long offset) {
-        logFinest(getLogger(), "Reading from partition %d and offset %d", partition, offset);
+    private ICompletableFuture<ReadResultSet<T>> readFromJournal(int partition, long offset, int fetchSize) {
+        logFinest(getLogger(), "Reading from partition %d and offset %d, fetchSize=%d", partition, offset, fetchSize);
         return eventJournalReader.readFromEventJournal(offset,
-                1, MAX_FETCH_SIZE, partition, predicate, projection);
+                1, fetchSize, partition, predicate, projection);
+    }
+
+    /**
+     * Returns the fetch size for the next read from a partition, given the
+     * fetch size and the number of events read in the previous read.
+     */
+    static int nextFetchSize(int fetchSize, int readCount) {
+        if (readCount >= fetchSize) {
+            return Math.min(fetchSize << 1, MAX_FETCH_SIZE);
+        }
+        if (readCount < fetchSize >> 1) {
+            return Math.max(fetchSize >> 1, MIN_FETCH_SIZE);
+        }
+        return fetchSize;
     }
 
     private static <E, T> Projection<E, T> toProjection(Function<E, T> projectionFn) {
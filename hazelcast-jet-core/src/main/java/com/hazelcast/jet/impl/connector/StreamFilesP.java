@@ -24,16 +24,18 @@ import com.hazelcast.jet.impl.util.ReflectionUtils;
 import com.hazelcast.logging.ILogger;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
@@ -41,6 +43,7 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Queue;
@@ -48,6 +51,8 @@ import java.util.Queue;
 import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFine;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
 import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
@@ -66,6 +71,15 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * vertex, the optimal value would be in the range of 4-8. Note that any
  * one file is only read by one thread, so extra parallelism won't improve
  * performance if there aren't enough files to read.
+ * <p>
+ * The files are read with positional {@link FileChannel} reads into a
+ * single reusable buffer and the channels stay open between the watcher
+ * events, so tailing a file costs one {@code read} call per event. Lines
+ * are found by scanning the bytes and decoded directly from the buffer,
+ * or, in the raw mode, copied out of it as {@code byte[]}. Scanning the
+ * bytes for CR and LF requires an ASCII-compatible charset such as UTF-8
+ * or ISO-8859-1. Text in other charsets, such as UTF-16, is decoded as it
+ * is read and re-encoded to UTF-8 in the buffer.
  */
 public class StreamFilesP<R> extends AbstractProcessor {
 
@@ -77,44 +91,71 @@ public class StreamFilesP<R> extends AbstractProcessor {
      * back to polling the event queue.
      */
     private static final int LINES_IN_ONE_BATCH = 64;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int UTF8_MAX_BYTES_PER_CHAR = 3;
     private static final String SENSITIVITY_MODIFIER_CLASS_NAME = "com.sun.nio.file.SensitivityWatchEventModifier";
     private static final WatchEvent.Kind[] WATCH_EVENT_KINDS = {ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE};
     private static final WatchEvent.Modifier[] WATCH_EVENT_MODIFIERS = getHighSensitivityModifiers();
 
     /**
-     * Map from file to offset. Initially we store (-fileSize): if the offset is negative when we
-     * receive the first watcher event, we skip up to the next newline to avoid partial reading
-     * of the first line.
+     * Map from file to its reading state. For the files present at startup,
+     * the initial state points to the last byte and skips up to the next
+     * newline to avoid partial reading of the first line.
      */
     // exposed for testing
     final Map<Path, FileOffset> fileOffsets = new HashMap<>();
 
     private final Path watchedDirectory;
-    private final Charset charset;
     private final PathMatcher glob;
     private final boolean sharedFileSystem;
-    private final DistributedBiFunction<String, String, R> mapOutputFn;
+    private final LineMapper<R> lineMapper;
+    // null if the lines are found in the file's bytes directly
+    private final Charset transcodedCharset;
 
     private final Queue<Path> eventQueue = new ArrayDeque<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer rawBuffer;
+    private final CharBuffer charBuffer;
+    private final CharsetEncoder utf8Encoder;
 
     private WatchService watcher;
-    private StringBuilder lineBuilder = new StringBuilder();
     private R pendingLine;
     private Path currentFile;
     private String currentFileName;
-    private FileInputStream currentInputStream;
-    private Reader currentReader;
+    private FileOffset currentOffset;
     private int parallelism;
     private int processorIndex;
 
     StreamFilesP(@Nonnull String watchedDirectory, @Nonnull Charset charset, @Nonnull String glob,
                  boolean sharedFileSystem, @Nonnull DistributedBiFunction<String, String, R> mapOutputFn
+    ) {
+        this(watchedDirectory, glob, sharedFileSystem, FileRangeLineReader.supportsCharset(charset) ? null : charset,
+                decodingLineMapper(FileRangeLineReader.supportsCharset(charset) ? charset : UTF_8, mapOutputFn));
+    }
+
+    private StreamFilesP(@Nonnull String watchedDirectory, @Nonnull String glob, boolean sharedFileSystem,
+                         Charset transcodedCharset, @Nonnull LineMapper<R> lineMapper
     ) {
         this.watchedDirectory = Paths.get(watchedDirectory);
-        this.charset = charset;
         this.glob = FileSystems.getDefault().getPathMatcher("glob:" + glob);
         this.sharedFileSystem = sharedFileSystem;
-        this.mapOutputFn = mapOutputFn;
+        this.transcodedCharset = transcodedCharset;
+        this.lineMapper = lineMapper;
+        buffer.limit(0);
+        if (transcodedCharset != null) {
+            // size the buffers so that the re-encoded chunk always fits into the line buffer
+            float maxCharsPerByte = transcodedCharset.newDecoder().maxCharsPerByte();
+            int rawBufferSize = (int) (BUFFER_SIZE / (maxCharsPerByte * UTF8_MAX_BYTES_PER_CHAR));
+            rawBuffer = ByteBuffer.allocate(rawBufferSize);
+            charBuffer = CharBuffer.allocate((int) Math.ceil(rawBufferSize * maxCharsPerByte));
+            utf8Encoder = UTF_8.newEncoder()
+                               .onMalformedInput(CodingErrorAction.REPLACE)
+                               .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        } else {
+            rawBuffer = null;
+            charBuffer = null;
+            utf8Encoder = null;
+        }
         setCooperative(false);
     }
 
@@ -126,8 +167,7 @@ public class StreamFilesP<R> extends AbstractProcessor {
         try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(watchedDirectory)) {
             for (Path file : directoryStream) {
                 if (Files.isRegularFile(file)) {
-                    // Negative offset means "initial offset", needed to skip the first line
-                    fileOffsets.put(file, new FileOffset(-Files.size(file), ""));
+                    fileOffsets.put(file, FileOffset.skippingFirstLine(Files.size(file), lineTerminatorSize()));
                 }
             }
         }
@@ -139,8 +179,10 @@ public class StreamFilesP<R> extends AbstractProcessor {
     @Override
     public void close() {
         try {
-            closeCurrentFile();
             getLogger().fine("Closing StreamFilesP");
+            for (FileOffset offset : fileOffsets.values()) {
+                offset.closeChannel();
+            }
             watcher.close();
         } catch (IOException e) {
             getLogger().severe("Failed to close StreamFilesP", e);
@@ -157,6 +199,8 @@ public class StreamFilesP<R> extends AbstractProcessor {
         if (currentFile == null) {
             currentFile = eventQueue.poll();
             currentFileName = currentFile != null ? String.valueOf(currentFile.getFileName()) : null;
+            currentOffset = currentFile != null ? fileOffsets.computeIfAbsent(currentFile, f -> new FileOffset(0))
+                    : null;
         }
         if (currentFile != null) {
             processFile();
@@ -196,7 +240,13 @@ public class StreamFilesP<R> extends AbstractProcessor {
                 }
             } else if (kind == ENTRY_DELETE) {
                 logFinest(logger, "File was deleted: %s", filePath);
-                fileOffsets.remove(filePath);
+                FileOffset offset = fileOffsets.remove(filePath);
+                if (offset != null) {
+                    offset.closeChannel();
+                }
+                if (filePath.equals(currentFile)) {
+                    finishCurrentFile();
+                }
             } else if (kind == OVERFLOW) {
                 logger.warning("Detected OVERFLOW in " + watchedDirectory);
             } else {
@@ -216,20 +266,24 @@ public class StreamFilesP<R> extends AbstractProcessor {
 
     private void processFile() {
         try {
-            if (!ensureFileOpen()) {
+            if (!currentOffset.ensureChannelOpen(currentFile)) {
+                // This could be caused by ENTRY_MODIFY emitted on file deletion
+                // just before ENTRY_DELETE
+                fileOffsets.remove(currentFile);
+                finishCurrentFile();
                 return;
             }
             for (int i = 0; i < LINES_IN_ONE_BATCH; i++) {
                 if (pendingLine == null) {
-                    String line = readCompleteLine(currentReader);
-                    pendingLine = line != null ? mapOutputFn.apply(currentFileName, line) : null;
+                    pendingLine = readCompleteLine(currentOffset, buffer);
                 }
                 if (pendingLine == null) {
-                    fileOffsets.put(currentFile,
-                            new FileOffset(currentInputStream.getChannel().position(), lineBuilder.toString()));
-                    lineBuilder.setLength(0);
-                    closeCurrentFile();
-                    break;
+                    if (!fillBuffer()) {
+                        // reached the end of the file, wait for the next event
+                        finishCurrentFile();
+                        break;
+                    }
+                    continue;
                 }
                 if (tryEmit(pendingLine)) {
                     pendingLine = null;
@@ -242,100 +296,117 @@ public class StreamFilesP<R> extends AbstractProcessor {
         }
     }
 
-    private boolean ensureFileOpen() throws IOException {
-        if (currentReader != null) {
-            return true;
+    /**
+     * Reads the next chunk of the current file into the buffer, starting
+     * where the previous read ended.
+     *
+     * @return false on EOF
+     */
+    private boolean fillBuffer() throws IOException {
+        if (transcodedCharset != null) {
+            return fillBufferTranscoding();
         }
-        FileOffset offset = fileOffsets.getOrDefault(currentFile, FileOffset.ZERO);
-        logFine(getLogger(), "Processing file %s, previous offset: %s", currentFile, offset);
-        try {
-            FileInputStream fis = new FileInputStream(currentFile.toFile());
-            fis.getChannel().position(offset.positiveOffset());
-            BufferedReader r = new BufferedReader(new InputStreamReader(fis, charset));
-            if (offset.offset < 0 && !findEndOfLine(r)) {
-                closeCurrentFile();
-                return false;
-            }
-            currentReader = r;
-            currentInputStream = fis;
-            lineBuilder.append(offset.pendingLine);
-            return true;
-        } catch (FileNotFoundException ignored) {
-            // This could be caused by ENTRY_MODIFY emitted on file deletion
-            // just before ENTRY_DELETE
-            closeCurrentFile();
+        buffer.clear();
+        int bytesRead = currentOffset.channel.read(buffer, currentOffset.position);
+        buffer.flip();
+        if (bytesRead <= 0) {
             return false;
         }
+        currentOffset.position += bytesRead;
+        return true;
     }
 
     /**
-     * Reads the file until the end of line is found.
+     * Reads the next chunk of the current file, decodes it and re-encodes it
+     * to UTF-8 into the buffer, where {@link #readCompleteLine} can find the
+     * line terminators. The bytes of a character which is not complete yet
+     * are read again by the next call.
      *
-     * @return whether it was found
+     * @return false on EOF
      */
-    private boolean findEndOfLine(Reader in) throws IOException {
-        while (true) {
-            int ch = in.read();
-            if (ch < 0) {
-                // we've hit EOF before finding the end of current line
-                return false;
-            }
-            if (ch == '\n' || ch == '\r') {
-                maybeSkipLF(in, ch);
-                return true;
-            }
+    private boolean fillBufferTranscoding() throws IOException {
+        rawBuffer.clear();
+        int bytesRead = currentOffset.channel.read(rawBuffer, currentOffset.position);
+        rawBuffer.flip();
+        buffer.clear();
+        if (bytesRead > 0) {
+            charBuffer.clear();
+            currentOffset.decoder(transcodedCharset).decode(rawBuffer, charBuffer, false);
+            charBuffer.flip();
+            utf8Encoder.reset().encode(charBuffer, buffer, true);
+            currentOffset.position += rawBuffer.position();
         }
+        buffer.flip();
+        return buffer.hasRemaining();
     }
 
     /**
-     * Reads a line from the input only if it is terminated by CR or LF or
-     * CRLF. If it detects EOF before the newline character, returns
-     * {@code null}.
-     *
-     * @return The line (possibly zero-length) or null on EOF.
+     * Returns the size of the encoded line terminator. When starting to read
+     * a file which existed before, we go back by this size to find out if
+     * its last line is complete.
+     */
+    private int lineTerminatorSize() {
+        return transcodedCharset != null ? "\n".getBytes(transcodedCharset).length : 1;
+    }
+
+    /**
+     * Returns the next line from the buffer only if it is terminated by CR or
+     * LF or CRLF. If the buffer ends before the newline character, the
+     * partial line is kept in the file's state and {@code null} is returned.
+     * The LF of a CRLF split between two reads is skipped at the start of the
+     * next read.
      */
     // package-visible for testing
-    String readCompleteLine(Reader reader) throws IOException {
-        int ch;
-        while ((ch = reader.read()) >= 0) {
-            if (ch == '\r' || ch == '\n') {
-                maybeSkipLF(reader, ch);
-                try {
-                    return lineBuilder.toString();
-                } finally {
-                    lineBuilder.setLength(0);
-                }
-            } else {
-                lineBuilder.append((char) ch);
+    R readCompleteLine(FileOffset offset, ByteBuffer buf) {
+        byte[] bytes = buf.array();
+        int pos = buf.position();
+        int limit = buf.limit();
+        if (offset.skipLf && pos < limit) {
+            offset.skipLf = false;
+            if (bytes[pos] == '\n') {
+                pos++;
             }
         }
-        // EOF
-        return null;
-    }
-
-    private static void maybeSkipLF(Reader reader, int ch) throws IOException {
-        // look ahead for possible '\n' after '\r' (windows end-line style)
-        if (ch == '\r') {
-            reader.mark(1);
-            int ch2 = reader.read();
-            if (ch2 != '\n') {
-                reader.reset();
+        int lineStart = pos;
+        while (pos < limit) {
+            byte b = bytes[pos++];
+            if (b != '\n' && b != '\r') {
+                continue;
             }
+            int lineLength = pos - 1 - lineStart;
+            if (b == '\r') {
+                if (pos == limit) {
+                    offset.skipLf = true;
+                } else if (bytes[pos] == '\n') {
+                    pos++;
+                }
+            }
+            if (offset.skipFirstLine) {
+                offset.skipFirstLine = false;
+                lineStart = pos;
+                continue;
+            }
+            buf.position(pos);
+            if (offset.pendingLength == 0) {
+                return lineMapper.map(currentFileName, bytes, lineStart, lineLength);
+            }
+            offset.appendPending(bytes, lineStart, lineLength);
+            R line = lineMapper.map(currentFileName, offset.pendingBytes, 0, offset.pendingLength);
+            offset.pendingLength = 0;
+            return line;
+        }
+        if (!offset.skipFirstLine) {
+            offset.appendPending(bytes, lineStart, limit - lineStart);
         }
+        buf.position(limit);
+        return null;
     }
 
-    private void closeCurrentFile() {
-        if (currentReader != null) {
-            try {
-                currentReader.close();
-            } catch (IOException e) {
-                throw sneakyThrow(e);
-            }
-        }
+    private void finishCurrentFile() {
+        buffer.clear().limit(0);
         currentFile = null;
         currentFileName = null;
-        currentReader = null;
-        currentInputStream = null;
+        currentOffset = null;
     }
 
     /**
@@ -354,6 +425,37 @@ public class StreamFilesP<R> extends AbstractProcessor {
                 new StreamFilesP<>(watchedDirectory, Charset.forName(charset), glob, sharedFileSystem, mapOutputFn), 2);
     }
 
+    /**
+     * Private API. Use {@link
+     * com.hazelcast.jet.core.processor.SourceProcessors#streamFilesRawP} instead.
+     */
+    @Nonnull
+    public static ProcessorMetaSupplier rawMetaSupplier(
+            @Nonnull String watchedDirectory,
+            @Nonnull String glob,
+            boolean sharedFileSystem,
+            @Nonnull DistributedBiFunction<String, byte[], ?> mapOutputFn
+    ) {
+        return ProcessorMetaSupplier.of(() -> rawStreamFilesP(watchedDirectory, glob, sharedFileSystem, mapOutputFn), 2);
+    }
+
+    // package-visible for testing
+    static <R> StreamFilesP<R> rawStreamFilesP(
+            @Nonnull String watchedDirectory, @Nonnull String glob, boolean sharedFileSystem,
+            @Nonnull DistributedBiFunction<String, byte[], R> mapOutputFn
+    ) {
+        return new StreamFilesP<>(watchedDirectory, glob, sharedFileSystem, null,
+                (fileName, bytes, offset, length) ->
+                        mapOutputFn.apply(fileName, Arrays.copyOfRange(bytes, offset, offset + length)));
+    }
+
+    private static <R> LineMapper<R> decodingLineMapper(
+            Charset charset, DistributedBiFunction<String, String, R> mapOutputFn
+    ) {
+        return (fileName, bytes, offset, length) -> mapOutputFn.apply(fileName,
+                new String(bytes, offset, length, charset));
+    }
+
     private static WatchEvent.Modifier[] getHighSensitivityModifiers() {
         // Modifiers for file watch service to achieve the highest possible sensitivity.
         // Background: Java 7 SE defines no standard modifiers for a watch service. However some JDKs use internal
@@ -368,29 +470,96 @@ public class StreamFilesP<R> extends AbstractProcessor {
         return new WatchEvent.Modifier[0];
     }
 
-    private static final class FileOffset {
-        private static final FileOffset ZERO = new FileOffset(0, "");
+    /**
+     * Maps a line, given as a range of a byte array that is reused after the
+     * call returns, to the output item.
+     */
+    @FunctionalInterface
+    private interface LineMapper<R> {
+        R map(String fileName, byte[] bytes, int offset, int length);
+    }
+
+    /**
+     * The reading state of a single file: the position of the next read, the
+     * bytes of the line that was not yet terminated and the channel, which is
+     * kept open between the watcher events.
+     */
+    static final class FileOffset {
+        private static final int INITIAL_PENDING_CAPACITY = 128;
+
+        long position;
+        boolean skipFirstLine;
+        boolean skipLf;
+        byte[] pendingBytes = new byte[INITIAL_PENDING_CAPACITY];
+        int pendingLength;
+        private FileChannel channel;
+        private CharsetDecoder decoder;
 
-        private final long offset;
-        private final String pendingLine;
+        FileOffset(long position) {
+            this.position = position;
+        }
 
-        private FileOffset(long offset, @Nonnull String pendingLine) {
-            this.offset = offset;
-            this.pendingLine = pendingLine;
+        /**
+         * Creates the state for a file that existed before we started: the
+         * reading starts at its last character, up to the next newline is
+         * skipped. Starting one character before the end means that we don't
+         * skip the first line if the file ends with a newline.
+         */
+        static FileOffset skippingFirstLine(long fileSize, int lineTerminatorSize) {
+            FileOffset offset = new FileOffset(Math.max(fileSize - lineTerminatorSize, 0));
+            offset.skipFirstLine = fileSize > 0;
+            return offset;
         }
 
         /**
-         * Negative offset means we're reading the file for the first time.
-         * We recover the actual offset by negating, then we subtract one
-         * so that we don't skip the first line if we started right after a newline.
+         * @return false, if the file doesn't exist
          */
-        private long positiveOffset() {
-            return offset >= 0 ? offset : -offset - 1;
+        boolean ensureChannelOpen(Path file) throws IOException {
+            if (channel == null) {
+                try {
+                    channel = FileChannel.open(file, READ);
+                } catch (NoSuchFileException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the decoder of this file's text. It is kept with the file
+         * because it is stateful for some charsets, e.g. it remembers the
+         * byte order mark of UTF-16.
+         */
+        CharsetDecoder decoder(Charset charset) {
+            if (decoder == null) {
+                decoder = charset.newDecoder()
+                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+            return decoder;
+        }
+
+        void appendPending(byte[] bytes, int offset, int length) {
+            if (pendingLength + length > pendingBytes.length) {
+                pendingBytes = Arrays.copyOf(pendingBytes, Math.max(pendingBytes.length * 2, pendingLength + length));
+            }
+            System.arraycopy(bytes, offset, pendingBytes, pendingLength, length);
+            pendingLength += length;
+        }
+
+        void closeChannel() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+                channel = null;
+            }
         }
 
         @Override
         public String toString() {
-            return "FileOffset{offset=" + offset + ", pendingLine='" + pendingLine + '\'' + '}';
+            return "FileOffset{position=" + position + ", pendingLength=" + pendingLength + '}';
         }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.processor.SinkProcessors;
+import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.impl.util.BatchingMapWriter;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import javax.annotation.Nonnull;
+import java.util.Map.Entry;
+
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A cooperative sink that puts the {@code Map.Entry}s it receives into
+ * an IMap in the local cluster using a {@link BatchingMapWriter}.
+ * <p>
+ * Batches that aren't full are sent when the processor receives no
+ * items in two consecutive calls to {@link #tryProcess()}, that is when
+ * its input is idle.
+ */
+public final class WriteMapBatchedP extends AbstractProcessor {
+
+    private final String mapName;
+    private final int batchSize;
+
+    private SerializationService serializationService;
+    private BatchingMapWriter writer;
+    private boolean receivedItems;
+    // the serialized item the writer didn't accept
+    private Data pendingKey;
+    private Data pendingValue;
+
+    private WriteMapBatchedP(String mapName, int batchSize) {
+        this.mapName = mapName;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        NodeEngine nodeEngine = ((HazelcastInstanceImpl) context.jetInstance().getHazelcastInstance()).node.nodeEngine;
+        serializationService = nodeEngine.getSerializationService();
+        writer = new BatchingMapWriter(nodeEngine, mapName, batchSize);
+    }
+
+    @Override
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        receivedItems = true;
+        if (pendingKey == null) {
+            Entry entry = (Entry) item;
+            pendingKey = serializationService.toData(entry.getKey());
+            pendingValue = serializationService.toData(entry.getValue());
+        }
+        if (!writer.tryPut(pendingKey, pendingValue)) {
+            return false;
+        }
+        pendingKey = null;
+        pendingValue = null;
+        return true;
+    }
+
+    @Override
+    public boolean tryProcess() {
+        if (!receivedItems) {
+            writer.tryFlush();
+        } else {
+            writer.checkError();
+        }
+        receivedItems = false;
+        return true;
+    }
+
+    @Override
+    public boolean complete() {
+        return ensureAllWritten();
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        return ensureAllWritten();
+    }
+
+    private boolean ensureAllWritten() {
+        return writer.tryFlush() && writer.isDone();
+    }
+
+    @Probe
+    private long inFlightOps() {
+        return writer != null ? writer.numInFlightOps() : 0;
+    }
+
+    @Probe
+    private long inFlightLimit() {
+        return writer != null ? writer.inFlightLimit() : 0;
+    }
+
+    @Probe
+    private long batchSize() {
+        return writer != null ? writer.lastBatchSize() : 0;
+    }
+
+    /**
+     * This is private API. Call {@link SinkProcessors#writeMapBatchedP} instead.
+     */
+    @Nonnull
+    public static DistributedSupplier<Processor> supplier(@Nonnull String mapName, int batchSize) {
+        checkPositive(batchSize, "batchSize must be positive");
+        return () -> new WriteMapBatchedP(mapName, batchSize);
+    }
+}
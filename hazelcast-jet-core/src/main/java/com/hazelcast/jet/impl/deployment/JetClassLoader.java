@@ -27,6 +27,7 @@ import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.zip.InflaterInputStream;
@@ -37,10 +38,14 @@ public class JetClassLoader extends ClassLoader {
 
     private static final String JOB_URL_PROTOCOL = "jet-job-resource";
 
-    private final Map<String, byte[]> resources;
+    private final List<Map<String, byte[]>> resources;
     private JobResourceURLStreamHandler jobResourceURLStreamHandler;
 
-    public JetClassLoader(@Nullable ClassLoader parent, Map<String, byte[]> resources) {
+    /**
+     * @param resources compressed job resources, keyed by name. If several of
+     *                  the maps contain the same name, the first one wins.
+     */
+    public JetClassLoader(@Nullable ClassLoader parent, List<Map<String, byte[]>> resources) {
         super(parent == null ? JetClassLoader.class.getClassLoader() : parent);
         this.resources = resources;
 
@@ -63,7 +68,7 @@ public class JetClassLoader extends ClassLoader {
 
     @Override
     protected URL findResource(String name) {
-        if (isEmpty(name) || !resources.containsKey(name)) {
+        if (isEmpty(name) || resourceBytes(name) == null) {
             return null;
         }
 
@@ -80,15 +85,24 @@ public class JetClassLoader extends ClassLoader {
         return new SingleURLEnumeration(findResource(name));
     }
 
-    @SuppressWarnings("unchecked")
     private InputStream resourceStream(String name) {
-        byte[] classData = resources.get(name);
+        byte[] classData = resourceBytes(name);
         if (classData == null) {
             return null;
         }
         return new InflaterInputStream(new ByteArrayInputStream(classData));
     }
 
+    private byte[] resourceBytes(String name) {
+        for (Map<String, byte[]> map : resources) {
+            byte[] data = map.get(name);
+            if (data != null) {
+                return data;
+            }
+        }
+        return null;
+    }
+
     private static boolean isEmpty(String className) {
         return className == null || className.isEmpty();
     }
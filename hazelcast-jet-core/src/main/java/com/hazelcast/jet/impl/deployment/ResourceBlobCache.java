@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.deployment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
+
+/**
+ * Member-local cache of job resource blobs, keyed by their content hash.
+ * Jobs submitted with identical jars share the cached copy, so a new job
+ * doesn't have to fetch its classes again from the cluster. A blob is
+ * evicted when the last job using it on this member releases it.
+ * <p>
+ * The map only holds a future of each blob's contents. The first job to
+ * acquire a blob loads it outside of the map's lock, concurrent jobs wait
+ * for the same future.
+ */
+public class ResourceBlobCache {
+
+    private final ConcurrentHashMap<String, Blob> blobs = new ConcurrentHashMap<>();
+    // key: jobId
+    private final ConcurrentHashMap<Long, List<String>> jobHashes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the contents of the given blobs for the given job, loading the
+     * ones not yet cached using {@code loadFn}. The map returned by {@code
+     * loadFn} is cached as is, so it must not be shared. The job must later
+     * call {@link #release(long)}.
+     */
+    public List<Map<String, byte[]>> acquire(
+            long jobId, List<String> hashes, Function<String, Map<String, byte[]>> loadFn
+    ) {
+        List<Map<String, byte[]>> result = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            Blob blob = blobs.compute(hash, (k, v) -> {
+                Blob b = v != null ? v : new Blob();
+                b.refCount++;
+                return b;
+            });
+            try {
+                if (blob.loadStarted.compareAndSet(false, true)) {
+                    try {
+                        blob.contents.complete(loadFn.apply(hash));
+                    } catch (Throwable e) {
+                        blob.contents.completeExceptionally(e);
+                    }
+                }
+                result.add(blob.contents.join());
+            } catch (Throwable e) {
+                // undo the references taken so far, including the failed one
+                hashes.subList(0, result.size() + 1).forEach(this::release);
+                throw rethrow(e);
+            }
+        }
+        if (jobHashes.putIfAbsent(jobId, hashes) != null) {
+            // the job already holds the references, undo the ones we just took
+            hashes.forEach(this::release);
+        }
+        return result;
+    }
+
+    /**
+     * Releases the blobs acquired by the given job.
+     */
+    public void release(long jobId) {
+        List<String> hashes = jobHashes.remove(jobId);
+        if (hashes != null) {
+            hashes.forEach(this::release);
+        }
+    }
+
+    private void release(String hash) {
+        blobs.computeIfPresent(hash, (k, b) -> --b.refCount == 0 ? null : b);
+    }
+
+    private static final class Blob {
+        private final CompletableFuture<Map<String, byte[]>> contents = new CompletableFuture<>();
+        private final AtomicBoolean loadStarted = new AtomicBoolean();
+        private int refCount;
+    }
+}
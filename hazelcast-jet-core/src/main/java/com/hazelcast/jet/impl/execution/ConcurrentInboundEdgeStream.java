@@ -53,6 +53,7 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
     private final BitSet receivedBarriers; // indicates if current snapshot is received on the queue
     private final ILogger logger;
     private long pendingSnapshotId; // next snapshot barrier to emit
+    private boolean pendingSnapshotIncremental;
     private long numActiveQueues; // number of active queues remaining
 
     /**
@@ -128,7 +129,7 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
                     return MADE_PROGRESS;
                 }
             } else if (itemDetector.item instanceof SnapshotBarrier) {
-                observeBarrier(queueIndex, ((SnapshotBarrier) itemDetector.item).snapshotId());
+                observeBarrier(queueIndex, (SnapshotBarrier) itemDetector.item);
             } else if (result.isMadeProgress()) {
                 watermarkCoalescer.observeEvent(queueIndex);
             }
@@ -140,7 +141,7 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
             if (itemDetector.item != null) {
                 // if we have received the current snapshot from all active queues, forward it
                 if (receivedBarriers.cardinality() == numActiveQueues) {
-                    boolean res = dest.test(new SnapshotBarrier(pendingSnapshotId));
+                    boolean res = dest.test(new SnapshotBarrier(pendingSnapshotId, pendingSnapshotIncremental));
                     assert res : "test result expected to be true";
                     pendingSnapshotId++;
                     receivedBarriers.clear();
@@ -188,12 +189,13 @@ public class ConcurrentInboundEdgeStream implements InboundEdgeStream {
         return ProgressState.valueOf(drainedCount > 0, itemDetector.item == DONE_ITEM);
     }
 
-    private void observeBarrier(int queueIndex, long snapshotId) {
-        if (snapshotId != pendingSnapshotId) {
+    private void observeBarrier(int queueIndex, SnapshotBarrier barrier) {
+        if (barrier.snapshotId() != pendingSnapshotId) {
             throw new JetException("Unexpected snapshot barrier "
-                    + snapshotId + ", expected " + pendingSnapshotId);
+                    + barrier.snapshotId() + ", expected " + pendingSnapshotId);
         }
         receivedBarriers.set(queueIndex);
+        pendingSnapshotIncremental = barrier.isIncremental();
     }
 
     /**
@@ -24,11 +24,14 @@ public class ConveyorCollector implements OutboundCollector {
     private final ConcurrentConveyor<Object> conveyor;
     private final int queueIndex;
     private final int[] partitions;
+    private final WakeUpSignal consumerWakeUpSignal;
 
-    public ConveyorCollector(ConcurrentConveyor<Object> conveyor, int queueIndex, int[] partitions) {
+    public ConveyorCollector(ConcurrentConveyor<Object> conveyor, int queueIndex, int[] partitions,
+                             WakeUpSignal consumerWakeUpSignal) {
         this.conveyor = conveyor;
         this.queueIndex = queueIndex;
         this.partitions = partitions;
+        this.consumerWakeUpSignal = consumerWakeUpSignal;
     }
 
     @Override
@@ -47,7 +50,11 @@ public class ConveyorCollector implements OutboundCollector {
     }
 
     protected ProgressState offerToConveyor(Object item) {
-        return conveyor.offer(queueIndex, item) ? ProgressState.DONE : ProgressState.NO_PROGRESS;
+        if (conveyor.offer(queueIndex, item)) {
+            consumerWakeUpSignal.wakeUp();
+            return ProgressState.DONE;
+        }
+        return ProgressState.NO_PROGRESS;
     }
 }
 
@@ -17,22 +17,84 @@
 package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
-import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
 import com.hazelcast.jet.impl.util.ProgressState;
 
+/**
+ * Collector feeding a {@link SenderTasklet}. Items are staged in an {@link
+ * ItemBatch} which is handed to the conveyor when it is full, before a
+ * broadcast item and when the producing tasklet {@linkplain #flush()
+ * flushes}. The sender returns the batches to a pool once it sent their
+ * items, so in a steady state no batches are allocated.
+ */
 public class ConveyorCollectorWithPartition extends ConveyorCollector {
 
-    public ConveyorCollectorWithPartition(ConcurrentConveyor<Object> conveyor, int queueIndex, int[] partitions) {
-        super(conveyor, queueIndex, partitions);
+    /**
+     * Maximum number of items in one {@link ItemBatch}.
+     */
+    public static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * Maximum number of recycled batches kept for reuse. More batches can be
+     * in flight, the surplus is left to the GC.
+     */
+    static final int BATCH_POOL_SIZE = 16;
+
+    private final QueuedPipe<ItemBatch> pool = new OneToOneConcurrentArrayQueue<>(BATCH_POOL_SIZE);
+    private ItemBatch batch;
+
+    public ConveyorCollectorWithPartition(ConcurrentConveyor<Object> conveyor, int queueIndex, int[] partitions,
+                                          WakeUpSignal consumerWakeUpSignal) {
+        super(conveyor, queueIndex, partitions, consumerWakeUpSignal);
     }
 
     @Override
     public ProgressState offer(Object item, int partitionId) {
-        return offerToConveyor(new ObjectWithPartitionId(item, partitionId));
+        if (batch != null && batch.isFull() && !tryFlush()) {
+            return ProgressState.NO_PROGRESS;
+        }
+        if (batch == null) {
+            batch = pool.poll();
+            if (batch == null) {
+                batch = new ItemBatch(MAX_BATCH_SIZE, pool);
+            }
+        }
+        batch.add(item, partitionId);
+        if (batch.isFull()) {
+            // pass the batch on right away, if the conveyor is full, the next offer retries
+            tryFlush();
+        }
+        return ProgressState.DONE;
     }
 
     @Override
     public ProgressState offer(Object item) {
         return offer(item, -1);
     }
+
+    @Override
+    public ProgressState offerBroadcast(BroadcastItem item) {
+        // staged items must reach the sender before the broadcast item
+        return tryFlush() ? offerToConveyor(item) : ProgressState.NO_PROGRESS;
+    }
+
+    @Override
+    public ProgressState flush() {
+        if (batch == null) {
+            return ProgressState.WAS_ALREADY_DONE;
+        }
+        return tryFlush() ? ProgressState.DONE : ProgressState.NO_PROGRESS;
+    }
+
+    private boolean tryFlush() {
+        if (batch == null) {
+            return true;
+        }
+        if (!offerToConveyor(batch).isDone()) {
+            return false;
+        }
+        batch = null;
+        return true;
+    }
 }
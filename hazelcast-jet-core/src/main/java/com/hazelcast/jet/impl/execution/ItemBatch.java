@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+
+import java.util.Arrays;
+
+/**
+ * A run of items, each with its partition id, that travels through a
+ * sender conveyor queue as a single element. Used instead of wrapping
+ * every item into an {@link com.hazelcast.jet.impl.util.ObjectWithPartitionId}.
+ * <p>
+ * Batches are reused: the {@link ConveyorCollectorWithPartition} fills a
+ * batch and offers it to the conveyor, the {@link SenderTasklet} {@linkplain
+ * #recycle() recycles} it into the collector's pool once it wrote all its
+ * items.
+ */
+final class ItemBatch {
+
+    final Object[] items;
+    final int[] partitionIds;
+    private final QueuedPipe<ItemBatch> pool;
+    private int size;
+
+    ItemBatch(int capacity, QueuedPipe<ItemBatch> pool) {
+        this.items = new Object[capacity];
+        this.partitionIds = new int[capacity];
+        this.pool = pool;
+    }
+
+    void add(Object item, int partitionId) {
+        items[size] = item;
+        partitionIds[size] = partitionId;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == items.length;
+    }
+
+    /**
+     * Clears the batch and returns it to the pool it was taken from. If the
+     * pool is full, the batch is dropped.
+     */
+    void recycle() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        pool.offer(this);
+    }
+}
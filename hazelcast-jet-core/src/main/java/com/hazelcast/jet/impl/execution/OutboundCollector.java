@@ -49,6 +49,16 @@ public interface OutboundCollector {
         return offer(item);
     }
 
+    /**
+     * Passes on any items the collector buffered internally. Returns {@code
+     * WAS_ALREADY_DONE} if there was nothing to pass on, {@code DONE} if
+     * everything was passed on and {@code NO_PROGRESS} if the call must be
+     * retried later.
+     */
+    default ProgressState flush() {
+        return ProgressState.WAS_ALREADY_DONE;
+    }
+
     /**
      * Returns the list of partitions handled by this collector.
      */
@@ -110,6 +120,15 @@ public interface OutboundCollector {
             return progTracker.toProgressState();
         }
 
+        @Override
+        public ProgressState flush() {
+            progTracker.reset();
+            for (OutboundCollector collector : collectors) {
+                progTracker.mergeWith(collector.flush());
+            }
+            return progTracker.toProgressState();
+        }
+
         @Override
         public int[] getPartitions() {
             return partitions;
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.execution;
 
+import com.hazelcast.jet.core.BroadcastKey;
 import com.hazelcast.jet.core.Outbox;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
@@ -176,7 +177,10 @@ public class OutboxImpl implements Outbox {
             // so the caller can modify them right after they are accepted by this method.
             Data sKey = serializationService.toData(key);
             Data sValue = serializationService.toData(value);
-            pendingSnapshotEntry = entry(sKey, sValue);
+            // the snapshot writer stores the broadcast entries separately
+            pendingSnapshotEntry = key instanceof BroadcastKey
+                    ? new BroadcastEntry<>(sKey, sValue)
+                    : entry(sKey, sValue);
         }
 
         boolean success = offerInternal(snapshotEdge, pendingSnapshotEntry);
@@ -85,12 +85,14 @@ public class ProcessorTasklet implements Tasklet {
     private final WatermarkCoalescer watermarkCoalescer;
     private final ILogger logger;
     private final SerializationService serializationService;
+    private final WakeUpSignal wakeUpSignal;
 
     private int numActiveOrdinals; // counter for remaining active ordinals
     private CircularListCursor<InboundEdgeStream> instreamCursor;
     private InboundEdgeStream currInstream;
     private ProcessorState state;
     private long pendingSnapshotId;
+    private boolean pendingSnapshotIncremental;
     private Watermark pendingWatermark;
     private boolean processorClosed;
 
@@ -107,6 +109,7 @@ public class ProcessorTasklet implements Tasklet {
                             @Nonnull List<? extends OutboundEdgeStream> outstreams,
                             @Nonnull SnapshotContext ssContext,
                             @Nonnull OutboundCollector ssCollector,
+                            @Nonnull WakeUpSignal wakeUpSignal,
                             int maxWatermarkRetainMillis) {
         Preconditions.checkNotNull(processor, "processor");
         this.context = context;
@@ -124,6 +127,7 @@ public class ProcessorTasklet implements Tasklet {
                                     .sorted(comparing(OutboundEdgeStream::ordinal))
                                     .toArray(OutboundEdgeStream[]::new);
         this.ssContext = ssContext;
+        this.wakeUpSignal = wakeUpSignal;
         this.logger = getLogger(context);
 
         instreamCursor = popInstreamGroup();
@@ -205,6 +209,9 @@ public class ProcessorTasklet implements Tasklet {
         progTracker.reset();
         outbox.reset();
         stateMachineStep(now);
+        if (!progTracker.isMadeProgress()) {
+            flushOutstreams();
+        }
         ProgressState progressState = progTracker.toProgressState();
         if (progressState.isDone()) {
             closeProcessor();
@@ -213,6 +220,18 @@ public class ProcessorTasklet implements Tasklet {
         return progressState;
     }
 
+    /**
+     * Passes on the items the collectors staged so that they don't linger
+     * while the tasklet is idle. As long as the tasklet makes progress, the
+     * collectors pass on their batches only when they are full or before a
+     * broadcast item such as a watermark or a snapshot barrier.
+     */
+    private void flushOutstreams() {
+        for (OutboundEdgeStream outstream : outstreams) {
+            progTracker.mergeWith(outstream.getCollector().flush());
+        }
+    }
+
     private void closeProcessor() {
         assert !processorClosed : "processor already closed";
         try {
@@ -299,7 +318,10 @@ public class ProcessorTasklet implements Tasklet {
                 assert context.snapshottingEnabled() : "Snapshotting is not enabled";
 
                 progTracker.notDone();
-                if (processor.saveToSnapshot()) {
+                boolean saved = pendingSnapshotIncremental && processor.isIncrementalSnapshotSupported()
+                        ? processor.saveChangesToSnapshot()
+                        : processor.saveToSnapshot();
+                if (saved) {
                     progTracker.madeProgress();
                     state = EMIT_BARRIER;
                 }
@@ -309,7 +331,7 @@ public class ProcessorTasklet implements Tasklet {
                 assert context.snapshottingEnabled() : "Snapshotting is not enabled";
 
                 progTracker.notDone();
-                if (outbox.offerToEdgesAndSnapshot(new SnapshotBarrier(pendingSnapshotId))) {
+                if (outbox.offerToEdgesAndSnapshot(new SnapshotBarrier(pendingSnapshotId, pendingSnapshotIncremental))) {
                     receivedBarriers.clear();
                     pendingSnapshotId++;
                     state = initialProcessingState();
@@ -324,6 +346,7 @@ public class ProcessorTasklet implements Tasklet {
                     assert currSnapshotId <= pendingSnapshotId : "Unexpected new snapshot id " + currSnapshotId
                             + ", current was" + pendingSnapshotId;
                     if (currSnapshotId == pendingSnapshotId) {
+                        pendingSnapshotIncremental = ssContext.isIncremental();
                         state = SAVE_SNAPSHOT;
                         progTracker.madeProgress();
                         return;
@@ -381,7 +404,7 @@ public class ProcessorTasklet implements Tasklet {
                 }
             } else if (lastItem instanceof SnapshotBarrier) {
                 SnapshotBarrier barrier = (SnapshotBarrier) inbox.queue().removeLast();
-                observeSnapshot(currInstream.ordinal(), barrier.snapshotId());
+                observeSnapshot(currInstream.ordinal(), barrier);
             } else if (lastItem != null && !(lastItem instanceof BroadcastItem)) {
                 watermarkCoalescer.observeEvent(currInstream.ordinal());
             }
@@ -427,12 +450,13 @@ public class ProcessorTasklet implements Tasklet {
         return "ProcessorTasklet{" + context.vertexName() + '#' + context.globalProcessorIndex() + '}';
     }
 
-    private void observeSnapshot(int ordinal, long snapshotId) {
-        if (snapshotId != pendingSnapshotId) {
-            throw new JetException("Unexpected snapshot barrier " + snapshotId + " from ordinal " + ordinal +
-                    " expected " + pendingSnapshotId);
+    private void observeSnapshot(int ordinal, SnapshotBarrier barrier) {
+        if (barrier.snapshotId() != pendingSnapshotId) {
+            throw new JetException("Unexpected snapshot barrier " + barrier.snapshotId() + " from ordinal "
+                    + ordinal + " expected " + pendingSnapshotId);
         }
         receivedBarriers.set(ordinal);
+        pendingSnapshotIncremental = barrier.isIncremental();
     }
 
     /**
@@ -456,6 +480,11 @@ public class ProcessorTasklet implements Tasklet {
         return processor.isCooperative();
     }
 
+    @Override
+    public WakeUpSignal wakeUpSignal() {
+        return wakeUpSignal;
+    }
+
     @Override
     public void close() {
         if (!processorClosed) {
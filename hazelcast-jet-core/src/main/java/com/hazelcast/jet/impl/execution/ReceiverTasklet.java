@@ -19,7 +19,6 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.internal.util.concurrent.MPSCQueue;
 import com.hazelcast.jet.config.InstanceConfig;
 import com.hazelcast.jet.impl.util.LoggingUtil;
-import com.hazelcast.jet.impl.util.ObjectWithPartitionId;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.jet.impl.util.ProgressTracker;
 import com.hazelcast.logging.ILogger;
@@ -29,8 +28,8 @@ import com.hazelcast.util.concurrent.IdleStrategy;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
-import java.util.ArrayDeque;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
@@ -80,12 +79,23 @@ public class ReceiverTasklet implements Tasklet {
 
     private final Queue<BufferObjectDataInput> incoming = new MPSCQueue<>((IdleStrategy) null);
     private final ProgressTracker tracker = new ProgressTracker();
-    private final ArrayDeque<ObjWithPtionIdAndSize> inbox = new ArrayDeque<>();
     private final OutboundCollector collector;
+    private final WakeUpSignal wakeUpSignal = new WakeUpSignal();
 
     private boolean receptionDone;
 
+    // Items are deserialized one at a time, straight from the received packet, when
+    // they are about to be emitted. These fields describe the packet being read and
+    // the item which was deserialized but not yet accepted by the collector.
+    private BufferObjectDataInput currentPacket;
+    private int itemsLeftInPacket;
+    private Object pendingItem;
+    private int pendingPartitionId;
+    private int pendingItemSize;
+
     private final AtomicLong itemsInCounter = new AtomicLong();
+    // number of items in the packets in the incoming queue, which aren't deserialized yet
+    private final AtomicInteger queuedItemCount = new AtomicInteger();
     private final AtomicLong bytesInCounter = new AtomicLong();
 
     //                    FLOW-CONTROL STATE
@@ -116,32 +126,42 @@ public class ReceiverTasklet implements Tasklet {
         }
         tracker.reset();
         tracker.notDone();
-        tryFillInbox();
-        for (ObjWithPtionIdAndSize o; (o = inbox.peek()) != null; ) {
-            final Object item = o.getItem();
-            if (item == DONE_ITEM) {
+        while (pendingItem != null || tryReadNextItem()) {
+            if (pendingItem == DONE_ITEM) {
                 receptionDone = true;
-                inbox.remove();
-                assert inbox.peek() == null : "Found something in the queue beyond the DONE_ITEM: " + inbox.remove();
+                pendingItem = null;
+                assert itemsLeftInPacket == 0 && incoming.isEmpty()
+                        : "Found something in the queue beyond the DONE_ITEM";
                 break;
             }
-            ProgressState outcome = item instanceof BroadcastItem
-                    ? collector.offerBroadcast((BroadcastItem) item)
-                    : collector.offer(item, o.getPartitionId());
+            ProgressState outcome = pendingItem instanceof BroadcastItem
+                    ? collector.offerBroadcast((BroadcastItem) pendingItem)
+                    : collector.offer(pendingItem, pendingPartitionId);
             if (!outcome.isDone()) {
                 tracker.madeProgress(outcome.isMadeProgress());
                 break;
             }
             tracker.madeProgress();
-            inbox.remove();
-            ackItem(o.estimatedMemoryFootprint);
+            pendingItem = null;
+            ackItem(estimatedMemoryFootprint(pendingItemSize));
         }
-        numWaitingInInbox = inbox.size();
+        numWaitingInInbox = queuedItemCount.get() + itemsLeftInPacket + (pendingItem != null ? 1 : 0);
         return tracker.toProgressState();
     }
 
     void receiveStreamPacket(BufferObjectDataInput packetInput) {
+        try {
+            queuedItemCount.addAndGet(packetInput.readInt(packetInput.position()));
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
         incoming.add(packetInput);
+        wakeUpSignal.wakeUp();
+    }
+
+    @Override
+    public WakeUpSignal wakeUpSignal() {
+        return wakeUpSignal;
     }
 
     /**
@@ -223,6 +243,13 @@ public class ReceiverTasklet implements Tasklet {
         this.numWaitingInInbox = value;
     }
 
+    /**
+     * To be called only from testing code.
+     */
+    int getNumWaitingInInbox() {
+        return numWaitingInInbox;
+    }
+
     @Override
     public String toString() {
         return "ReceiverTasklet";
@@ -245,39 +272,38 @@ public class ReceiverTasklet implements Tasklet {
         return overhead + itemBlobSize;
     }
 
-    private void tryFillInbox() {
+    /**
+     * Deserializes the next item into {@link #pendingItem}, moving on to the
+     * next received packet if the current one is exhausted. Returns {@code
+     * false} if there are no more items to read.
+     */
+    private boolean tryReadNextItem() {
         try {
-            long totalBytes = 0;
-            long totalItems = 0;
-            for (BufferObjectDataInput received; (received = incoming.poll()) != null; ) {
-                final int itemCount = received.readInt();
-                for (int i = 0; i < itemCount; i++) {
-                    final int mark = received.position();
-                    final Object item = received.readObject();
-                    final int itemSize = received.position() - mark;
-                    inbox.add(new ObjWithPtionIdAndSize(item, received.readInt(), itemSize));
+            if (currentPacket == null) {
+                currentPacket = incoming.poll();
+                if (currentPacket == null) {
+                    return false;
                 }
-                totalItems += itemCount;
-                totalBytes += received.position();
-                received.close();
+                itemsLeftInPacket = currentPacket.readInt();
+                queuedItemCount.addAndGet(-itemsLeftInPacket);
+                lazyAdd(itemsInCounter, itemsLeftInPacket);
                 tracker.madeProgress();
             }
-            lazyAdd(bytesInCounter, totalBytes);
-            lazyAdd(itemsInCounter, totalItems);
+            final int mark = currentPacket.position();
+            pendingItem = currentPacket.readObject();
+            pendingItemSize = currentPacket.position() - mark;
+            pendingPartitionId = currentPacket.readInt();
+            if (--itemsLeftInPacket == 0) {
+                lazyAdd(bytesInCounter, currentPacket.position());
+                currentPacket.close();
+                currentPacket = null;
+            }
+            return true;
         } catch (IOException e) {
             throw rethrow(e);
         }
     }
 
-    private static class ObjWithPtionIdAndSize extends ObjectWithPartitionId {
-        final long estimatedMemoryFootprint;
-
-        ObjWithPtionIdAndSize(Object item, int partitionId, int itemBlobSize) {
-            super(item, partitionId);
-            this.estimatedMemoryFootprint = estimatedMemoryFootprint(itemBlobSize);
-        }
-    }
-
     public AtomicLong getItemsInCounter() {
         return itemsInCounter;
     }
@@ -53,8 +53,12 @@ public class SenderTasklet implements Tasklet {
     private final int packetSizeLimit;
     private final AtomicLong itemsOutCounter = new AtomicLong();
     private final AtomicLong bytesOutCounter = new AtomicLong();
+    private final WakeUpSignal wakeUpSignal = new WakeUpSignal();
 
     private boolean instreamExhausted;
+    // the batch taken from the inbox whose items are being written, and the position in it
+    private ItemBatch currentBatch;
+    private int currentBatchPos;
     // read and written by Jet thread
     private long sentSeq;
 
@@ -63,12 +67,20 @@ public class SenderTasklet implements Tasklet {
 
     public SenderTasklet(InboundEdgeStream inboundEdgeStream, NodeEngine nodeEngine, Address destinationAddress,
                          long executionId, int destinationVertexId, int packetSizeLimit) {
+        this(inboundEdgeStream, getMemberConnection(nodeEngine, destinationAddress),
+                createObjectDataOutput(nodeEngine),
+                createStreamPacketHeader(nodeEngine, executionId, destinationVertexId, inboundEdgeStream.ordinal()),
+                packetSizeLimit);
+    }
+
+    // exposed for benchmarks, which send the packets over a loopback connection
+    SenderTasklet(InboundEdgeStream inboundEdgeStream, Connection connection, BufferObjectDataOutput outputBuffer,
+                  byte[] packetHeader, int packetSizeLimit) {
         this.inboundEdgeStream = inboundEdgeStream;
         this.packetSizeLimit = packetSizeLimit;
-        this.connection = getMemberConnection(nodeEngine, destinationAddress);
-        this.outputBuffer = createObjectDataOutput(nodeEngine);
-        uncheckRun(() -> outputBuffer.write(createStreamPacketHeader(
-                nodeEngine, executionId, destinationVertexId, inboundEdgeStream.ordinal())));
+        this.connection = connection;
+        this.outputBuffer = outputBuffer;
+        uncheckRun(() -> outputBuffer.write(packetHeader));
         bufPosPastHeader = outputBuffer.position();
     }
 
@@ -88,7 +100,7 @@ public class SenderTasklet implements Tasklet {
     }
 
     private void tryFillInbox() {
-        if (!inbox.isEmpty()) {
+        if (!inbox.isEmpty() || currentBatch != null) {
             progTracker.notDone();
             return;
         }
@@ -109,19 +121,39 @@ public class SenderTasklet implements Tasklet {
             // header size + slot for writtenCount
             outputBuffer.position(bufPosPastHeader + Bits.INT_SIZE_IN_BYTES);
             int writtenCount = 0;
-            for (Object item;
-                 outputBuffer.position() < packetSizeLimit
-                         && isWithinLimit(sentSeq, sendSeqLimitCompressed)
-                         && (item = inbox.poll()) != null;
-                 writtenCount++
-            ) {
-                ObjectWithPartitionId itemWithPId = item instanceof ObjectWithPartitionId ?
-                        (ObjectWithPartitionId) item : new ObjectWithPartitionId(item, - 1);
+            while (outputBuffer.position() < packetSizeLimit && isWithinLimit(sentSeq, sendSeqLimitCompressed)) {
+                final Object payload;
+                final int partitionId;
+                if (currentBatch != null) {
+                    payload = currentBatch.items[currentBatchPos];
+                    partitionId = currentBatch.partitionIds[currentBatchPos];
+                    if (++currentBatchPos == currentBatch.size()) {
+                        currentBatch.recycle();
+                        currentBatch = null;
+                    }
+                } else {
+                    final Object item = inbox.poll();
+                    if (item == null) {
+                        break;
+                    }
+                    if (item instanceof ItemBatch) {
+                        currentBatch = (ItemBatch) item;
+                        currentBatchPos = 0;
+                        continue;
+                    }
+                    if (item instanceof ObjectWithPartitionId) {
+                        payload = ((ObjectWithPartitionId) item).getItem();
+                        partitionId = ((ObjectWithPartitionId) item).getPartitionId();
+                    } else {
+                        payload = item;
+                        partitionId = -1;
+                    }
+                }
                 final int mark = outputBuffer.position();
-                outputBuffer.writeObject(itemWithPId.getItem());
+                outputBuffer.writeObject(payload);
                 sentSeq += estimatedMemoryFootprint(outputBuffer.position() - mark);
-                outputBuffer.writeInt(itemWithPId.getPartitionId());
-
+                outputBuffer.writeInt(partitionId);
+                writtenCount++;
             }
             outputBuffer.writeInt(bufPosPastHeader, writtenCount);
             lazyAdd(bytesOutCounter, outputBuffer.position());
@@ -142,6 +174,12 @@ public class SenderTasklet implements Tasklet {
     // Called from HZ networking thread
     public void setSendSeqLimitCompressed(int sendSeqLimitCompressed) {
         this.sendSeqLimitCompressed = sendSeqLimitCompressed;
+        wakeUpSignal.wakeUp();
+    }
+
+    @Override
+    public WakeUpSignal wakeUpSignal() {
+        return wakeUpSignal;
     }
 
     @Override
@@ -43,6 +43,13 @@ public class SnapshotContext {
      */
     private final AtomicLong lastSnapshotId;
 
+    /**
+     * True, if the snapshot with {@link #lastSnapshotId} should only contain
+     * the changes since the previous snapshot. Written before {@code
+     * lastSnapshotId} is incremented.
+     */
+    private volatile boolean isIncremental;
+
     /**
      * Current number of {@link StoreSnapshotTasklet}s in the job. It's
      * decremented as the tasklets complete (this is when they receive
@@ -62,7 +69,7 @@ public class SnapshotContext {
      * snapshot. When it is decremented to 0, the snapshot is complete and new
      * one can start.
      * <p>
-     * It can have negative value in case described in {@link #startNewSnapshot(long)}.
+     * It can have negative value in case described in {@link #startNewSnapshot(long, boolean)}.
      */
     private final AtomicInteger numRemainingTasklets = new AtomicInteger();
 
@@ -101,6 +108,13 @@ public class SnapshotContext {
         return lastSnapshotId.get();
     }
 
+    /**
+     * Returns {@code true} if the last started snapshot is incremental.
+     */
+    boolean isIncremental() {
+        return isIncremental;
+    }
+
     ProcessingGuarantee processingGuarantee() {
         return guarantee;
     }
@@ -127,11 +141,12 @@ public class SnapshotContext {
      * {@code SnapshotOperation} and send barriers to such processor before
      * the {@code SnapshotOperation} is called on this member.
      */
-    synchronized CompletableFuture<SnapshotOperationResult> startNewSnapshot(long snapshotId) {
+    synchronized CompletableFuture<SnapshotOperationResult> startNewSnapshot(long snapshotId, boolean isIncremental) {
         assert snapshotId == lastSnapshotId.get() + 1
                 : "new snapshotId not incremented by 1. Previous=" + lastSnapshotId + ", new=" + snapshotId;
         assert numTasklets >= 0 : "numTasklets=" + numTasklets;
 
+        this.isIncremental = isIncremental;
         int newNumRemainingTasklets = numRemainingTasklets.addAndGet(numTasklets);
         assert newNumRemainingTasklets - numTasklets <= 0 :
                 "previous snapshot was not finished, numRemainingTasklets=" + (newNumRemainingTasklets - numTasklets);
@@ -191,7 +206,7 @@ public class SnapshotContext {
      * operations are done).
      * <p>
      * This method can be called before the snapshot was started with {@link
-     * #startNewSnapshot(long)}. This can happen, if the processor only has
+     * #startNewSnapshot(long, boolean)}. This can happen, if the processor only has
      * input queues from remote members, from which it can possibly receive
      * barriers before {@link com.hazelcast.jet.impl.operation.SnapshotOperation}
      * is handled on this member.
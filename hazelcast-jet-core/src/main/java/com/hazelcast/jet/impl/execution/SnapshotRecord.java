@@ -45,6 +45,7 @@ public class SnapshotRecord implements IdentifiedDataSerializable {
 
     private long jobId;
     private long snapshotId;
+    private boolean isIncremental;
     private long startTime = System.currentTimeMillis();
     private long endTime = Long.MIN_VALUE;
 
@@ -58,9 +59,10 @@ public class SnapshotRecord implements IdentifiedDataSerializable {
     public SnapshotRecord() {
     }
 
-    public SnapshotRecord(long jobId, long snapshotId, Collection<String> vertices) {
+    public SnapshotRecord(long jobId, long snapshotId, boolean isIncremental, Collection<String> vertices) {
         this.jobId = jobId;
         this.snapshotId = snapshotId;
+        this.isIncremental = isIncremental;
         this.vertices = vertices;
     }
 
@@ -102,6 +104,14 @@ public class SnapshotRecord implements IdentifiedDataSerializable {
         return snapshotId;
     }
 
+    /**
+     * Returns {@code true} if the snapshot only contains the changes since
+     * the snapshot with the preceding ID.
+     */
+    public boolean isIncremental() {
+        return isIncremental;
+    }
+
     public long startTime() {
         return startTime;
     }
@@ -149,6 +159,7 @@ public class SnapshotRecord implements IdentifiedDataSerializable {
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeLong(jobId);
         out.writeLong(snapshotId);
+        out.writeBoolean(isIncremental);
         out.writeLong(startTime);
         out.writeLong(endTime);
         out.writeLong(numBytes);
@@ -162,6 +173,7 @@ public class SnapshotRecord implements IdentifiedDataSerializable {
     public void readData(ObjectDataInput in) throws IOException {
         jobId = in.readLong();
         snapshotId = in.readLong();
+        isIncremental = in.readBoolean();
         startTime = in.readLong();
         endTime = in.readLong();
         numBytes = in.readLong();
@@ -176,6 +188,7 @@ public class SnapshotRecord implements IdentifiedDataSerializable {
         return "SnapshotRecord{" +
                 "jobId=" + idToString(jobId) +
                 ", snapshotId=" + snapshotId +
+                ", isIncremental=" + isIncremental +
                 ", startTime=" + toLocalDateTime(startTime) +
                 ", endTime=" + toLocalDateTime(endTime) +
                 ", numBytes=" + numBytes +
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.jet.impl.JetService;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataValueTerminator;
+import com.hazelcast.jet.impl.util.ProgressState;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.util.function.Predicate;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.MasterContext.SNAPSHOT_RESTORE_EDGE_PRIORITY;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.BROADCAST_PARTITION_ID;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.decompressChunk;
+import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static com.hazelcast.jet.impl.util.ProgressState.MADE_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.WAS_ALREADY_DONE;
+import static com.hazelcast.jet.impl.util.Util.tryIncrement;
+import static com.hazelcast.jet.impl.util.Util.uncheckCall;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The inbound stream of a processor that restores its state from a
+ * snapshot. It isn't backed by a DAG edge: it reads the chunks written by
+ * {@link AsyncSnapshotWriterImpl} directly from the snapshot maps and
+ * explodes them into the snapshot entries.
+ * <p>
+ * First it reads the broadcast entries, which all processors restore, then
+ * the chunks in the partitions assigned to the processor. The chunks are
+ * stored in the partition of the keys they contain and the processor is
+ * assigned the partitions it would receive on a distributed partitioned
+ * edge, so the chunks are normally read from the local member and all
+ * processors restore their partitions in parallel. The next batch of
+ * chunks is fetched while the current one is being restored.
+ * <p>
+ * When restoring an incremental snapshot, the stream reads each partition
+ * from all the snapshots in the chain, newest first, and skips the keys
+ * already restored from a newer snapshot. The broadcast entries are only
+ * read from the newest snapshot.
+ * <p>
+ * If the job has {@linkplain
+ * com.hazelcast.jet.config.JobConfig#setSnapshotCompressionEnabled snapshot
+ * compression} enabled, the chunks are decompressed before reading.
+ */
+public class SnapshotRestoreStream implements InboundEdgeStream {
+
+    // number of chunks fetched in one operation, a chunk has up to 128kB
+    private static final int FETCH_SIZE = 16;
+
+    private final NodeEngineImpl nodeEngine;
+    private final InternalSerializationService serializationService;
+    private final String[] mapNames;
+    private final String broadcastMapName;
+    private final int[] partitions;
+    private final int ordinal;
+    private final Inflater inflater; // null if the chunks aren't compressed
+    private final AtomicInteger numConcurrentAsyncOps;
+    private final ILogger logger;
+    private final ExecutionCallback<MapEntriesWithCursor> callback = new ExecutionCallback<MapEntriesWithCursor>() {
+        @Override
+        public void onResponse(MapEntriesWithCursor response) {
+            numConcurrentAsyncOps.decrementAndGet();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            numConcurrentAsyncOps.decrementAndGet();
+        }
+    };
+
+    // the source of the next fetch: partitionIndex -1 is the broadcast map,
+    // other values are indices to `partitions`, mapIndex is index to `mapNames`
+    private int partitionIndex = -1;
+    private int mapIndex;
+    private int tableIndex = Integer.MAX_VALUE;
+    private boolean fetchesComplete;
+    private InternalCompletableFuture<MapEntriesWithCursor> pendingFetch;
+    private Iterator<Entry<Data, Data>> batch;
+    private int batchPartitionIndex = -1;
+    private int batchMapIndex;
+    // keys restored from the newer snapshots in the current partition
+    private final Set<Object> restoredKeys = new HashSet<>();
+    private BufferObjectDataInput chunk;
+    private boolean done;
+    private long startNanos = -1;
+    private long endNanos;
+
+    @Probe
+    private final AtomicLong snapshotRestoreBytes = new AtomicLong();
+    @Probe
+    private final AtomicLong snapshotRestoreEntries = new AtomicLong();
+
+    /**
+     * @param mapNames names of the snapshot data maps, the newest snapshot
+     *                 first, followed by the snapshots it's incremental to
+     * @param compressed whether the chunks were compressed when stored
+     */
+    public SnapshotRestoreStream(
+            NodeEngineImpl nodeEngine, String[] mapNames, String broadcastMapName, int[] partitions, int ordinal,
+            boolean compressed
+    ) {
+        this.nodeEngine = nodeEngine;
+        this.serializationService = (InternalSerializationService) nodeEngine.getSerializationService();
+        this.mapNames = mapNames;
+        this.broadcastMapName = broadcastMapName;
+        this.partitions = partitions;
+        this.ordinal = ordinal;
+        this.inflater = compressed ? new Inflater(true) : null;
+        this.numConcurrentAsyncOps = ((JetService) nodeEngine.getService(JetService.SERVICE_NAME))
+                .numConcurrentAsyncOps();
+        this.logger = nodeEngine.getLogger(getClass());
+    }
+
+    @Override
+    public int ordinal() {
+        return ordinal;
+    }
+
+    @Override
+    public int priority() {
+        return SNAPSHOT_RESTORE_EDGE_PRIORITY;
+    }
+
+    @Override
+    public ProgressState drainTo(Predicate<Object> dest) {
+        if (done) {
+            return WAS_ALREADY_DONE;
+        }
+        if (startNanos < 0) {
+            startNanos = System.nanoTime();
+        }
+        if (chunk == null && !nextChunk()) {
+            return done ? DONE : NO_PROGRESS;
+        }
+        // emit at most one chunk in one call
+        Object item;
+        do {
+            item = readItem();
+        } while (item != null && dest.test(item));
+        return MADE_PROGRESS;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public int capacities() {
+        return 0;
+    }
+
+    @Override
+    public int sizes() {
+        return 0;
+    }
+
+    /**
+     * Returns the restore throughput in bytes per second.
+     */
+    @Probe
+    private long snapshotRestoreBytesPerSecond() {
+        if (startNanos < 0) {
+            return 0;
+        }
+        long elapsedNanos = (done ? endNanos : System.nanoTime()) - startNanos;
+        return elapsedNanos > 0 ? snapshotRestoreBytes.get() * SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+
+    /**
+     * Moves to the next chunk, returns {@code false} if it isn't available
+     * yet or if there are no more chunks.
+     */
+    private boolean nextChunk() {
+        while (true) {
+            if (batch != null && batch.hasNext()) {
+                byte[] bytes = serializationService.toObject(batch.next().getValue());
+                snapshotRestoreBytes.addAndGet(bytes.length);
+                if (inflater != null) {
+                    bytes = decompressChunk(bytes, inflater);
+                }
+                chunk = serializationService.createObjectDataInput(bytes);
+                return true;
+            }
+            batch = null;
+            if (pendingFetch == null && !startFetch()) {
+                if (fetchesComplete) {
+                    complete();
+                }
+                return false;
+            }
+            if (!pendingFetch.isDone()) {
+                return false;
+            }
+            MapEntriesWithCursor result = pendingFetch.join();
+            pendingFetch = null;
+            if (batchPartitionIndex != partitionIndex) {
+                restoredKeys.clear();
+            }
+            batchPartitionIndex = partitionIndex;
+            batchMapIndex = mapIndex;
+            tableIndex = result.getNextTableIndexToReadFrom();
+            if (result.getBatch().isEmpty() || tableIndex < 0) {
+                nextSource();
+            }
+            // fetch the next batch while we restore this one
+            startFetch();
+            batch = result.getBatch().iterator();
+        }
+    }
+
+    private void nextSource() {
+        tableIndex = Integer.MAX_VALUE;
+        if (partitionIndex >= 0 && ++mapIndex < mapNames.length) {
+            return;
+        }
+        mapIndex = 0;
+        fetchesComplete = ++partitionIndex == partitions.length;
+    }
+
+    private boolean startFetch() {
+        if (fetchesComplete || !tryIncrement(numConcurrentAsyncOps, 1, JetService.MAX_PARALLEL_ASYNC_OPS)) {
+            return false;
+        }
+        String name = partitionIndex < 0 ? broadcastMapName : mapNames[mapIndex];
+        int partitionId = partitionIndex < 0 ? BROADCAST_PARTITION_ID : partitions[partitionIndex];
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        Operation op = mapService.getMapServiceContext().getMapOperationProvider(name)
+                                 .createFetchEntriesOperation(name, tableIndex, FETCH_SIZE);
+        pendingFetch = nodeEngine.getOperationService().invokeOnPartition(MapService.SERVICE_NAME, op, partitionId);
+        pendingFetch.andThen(callback);
+        return true;
+    }
+
+    private Object readItem() {
+        return uncheckCall(() -> {
+            while (true) {
+                Object key = chunk.readObject();
+                if (key == SnapshotDataValueTerminator.INSTANCE) {
+                    chunk.close();
+                    chunk = null;
+                    return null;
+                }
+                Object value = chunk.readObject();
+                if (isNewestValue(key)) {
+                    snapshotRestoreEntries.incrementAndGet();
+                    return entry(key, value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns {@code false} if the key was already restored from a newer
+     * snapshot in the chain.
+     */
+    private boolean isNewestValue(Object key) {
+        if (batchPartitionIndex < 0 || mapNames.length == 1) {
+            return true;
+        }
+        // the keys from the oldest snapshot can't occur again
+        return batchMapIndex == mapNames.length - 1 ? !restoredKeys.contains(key) : restoredKeys.add(key);
+    }
+
+    private void complete() {
+        done = true;
+        endNanos = System.nanoTime();
+        if (inflater != null) {
+            inflater.end();
+        }
+        if (logger.isFineEnabled()) {
+            logger.fine(String.format("Restored %,d entries, %,d bytes from %s in %,d ms",
+                    snapshotRestoreEntries.get(), snapshotRestoreBytes.get(), mapNames[0],
+                    NANOSECONDS.toMillis(endNanos - startNanos)));
+        }
+    }
+}
@@ -45,6 +45,7 @@ public class StoreSnapshotTasklet implements Tasklet {
 
     private final AsyncSnapshotWriter ssWriter;
     private final ProgressTracker progTracker = new ProgressTracker();
+    private final WakeUpSignal wakeUpSignal = new WakeUpSignal();
     private State state = DRAIN;
     private boolean hasReachedBarrier;
     private Entry<Data, Data> pendingEntry;
@@ -71,6 +72,11 @@ public class StoreSnapshotTasklet implements Tasklet {
         resetCurrentMap();
     }
 
+    @Override
+    public WakeUpSignal wakeUpSignal() {
+        return wakeUpSignal;
+    }
+
     @Nonnull @Override
     public ProgressState call() {
         progTracker.reset();
@@ -156,7 +162,8 @@ public class StoreSnapshotTasklet implements Tasklet {
     }
 
     private void resetCurrentMap() {
-        ssWriter.setCurrentMap(currMapName());
+        ssWriter.setCurrentMap(currMapName(),
+                SnapshotRepository.snapshotBroadcastDataMapName(jobId, pendingSnapshotId, vertexName));
     }
 
     @Override
@@ -19,6 +19,7 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.jet.impl.util.ProgressState;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public interface Tasklet {
 
@@ -34,4 +35,14 @@ public interface Tasklet {
 
     default void close() {
     }
+
+    /**
+     * Returns the signal through which other threads wake up the thread
+     * running this tasklet when they have new data for it, or {@code null}
+     * if the tasklet doesn't receive data from other threads.
+     */
+    @Nullable
+    default WakeUpSignal wakeUpSignal() {
+        return null;
+    }
 }
@@ -19,6 +19,8 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.config.IdleMode;
+import com.hazelcast.jet.impl.execution.WakeUpSignal.Parker;
 import com.hazelcast.jet.impl.util.NonCompletableFuture;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.logging.ILogger;
@@ -29,8 +31,10 @@ import com.hazelcast.util.concurrent.IdleStrategy;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -42,6 +46,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
 
 import static com.hazelcast.jet.impl.util.ExceptionUtil.withTryCatch;
 import static com.hazelcast.jet.impl.util.LoggingUtil.logFinest;
@@ -52,6 +57,7 @@ import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.regex.Matcher.quoteReplacement;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.partitioningBy;
@@ -63,6 +69,23 @@ public class TaskletExecutionService {
             new BackoffIdleStrategy(0, 0, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(1));
     private static final IdleStrategy IDLER_NON_COOPERATIVE =
             new BackoffIdleStrategy(0, 0, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(5));
+    private static final IdleStrategy IDLER_PARK =
+            new BackoffIdleStrategy(0, 0, MICROSECONDS.toNanos(1), MILLISECONDS.toNanos(100));
+
+    /**
+     * Length of the window over which the cooperative workers measure the
+     * load of their tasklets. At the end of each window a worker publishes
+     * the measured load and tries to steal a tasklet from the most loaded
+     * colleague.
+     */
+    private static final long BALANCING_WINDOW_NANOS = SECONDS.toNanos(1);
+
+    /**
+     * Minimum difference in the load of two workers within one balancing
+     * window which justifies moving a tasklet between them. Prevents moving
+     * tasklets back and forth due to measurement noise.
+     */
+    private static final long MIN_IMBALANCE_NANOS = MILLISECONDS.toNanos(100);
 
     private final ExecutorService blockingTaskletExecutor = newCachedThreadPool(new BlockingTaskThreadFactory());
     private final CooperativeWorker[] cooperativeWorkers;
@@ -71,17 +94,21 @@ public class TaskletExecutionService {
     private final ILogger logger;
     private final AtomicInteger cooperativeThreadIndex = new AtomicInteger();
     private final MetricsRegistry metricsRegistry;
+    private final IdleStrategy cooperativeIdler;
+    private final IdleStrategy nonCooperativeIdler;
     @Probe
     private final AtomicInteger blockingWorkerCount = new AtomicInteger();
 
     private volatile boolean isShutdown;
 
-    public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount) {
+    public TaskletExecutionService(NodeEngineImpl nodeEngine, int threadCount, IdleMode idleMode) {
         this.hzInstanceName = nodeEngine.getHazelcastInstance().getName();
         this.cooperativeWorkers = new CooperativeWorker[threadCount];
         this.cooperativeThreadPool = new Thread[threadCount];
         this.logger = nodeEngine.getLoggingService().getLogger(TaskletExecutionService.class);
         this.metricsRegistry = nodeEngine.getMetricsRegistry();
+        this.cooperativeIdler = idleMode == IdleMode.PARK ? IDLER_PARK : IDLER_COOPERATIVE;
+        this.nonCooperativeIdler = idleMode == IdleMode.PARK ? IDLER_PARK : IDLER_NON_COOPERATIVE;
         metricsRegistry.newProbeBuilder()
                        .withTag("module", "jet")
                        .scanAndRegister(this);
@@ -148,9 +175,11 @@ public class TaskletExecutionService {
         ensureThreadsStarted();
         final List<TaskletTracker>[] trackersByThread = new List[cooperativeWorkers.length];
         Arrays.setAll(trackersByThread, i -> new ArrayList());
-        for (Tasklet t : tasklets) {
+        final int[] placementOrder = workersByLoad();
+        for (int i = 0; i < tasklets.size(); i++) {
+            Tasklet t = tasklets.get(i);
             t.init();
-            trackersByThread[cooperativeThreadIndex.getAndUpdate(i -> (i + 1) % trackersByThread.length)]
+            trackersByThread[placementOrder[i % placementOrder.length]]
                     .add(new TaskletTracker(t, executionTracker, jobClassLoader));
         }
         for (int i = 0; i < trackersByThread.length; i++) {
@@ -159,6 +188,27 @@ public class TaskletExecutionService {
         Arrays.stream(cooperativeThreadPool).forEach(LockSupport::unpark);
     }
 
+    /**
+     * Returns the indices of cooperative workers, ordered by the load measured
+     * in their last balancing window, least loaded first. Workers with equal
+     * load are ordered by their tasklet count. The starting point of the
+     * ordering rotates on each call so that equally loaded workers are used
+     * in a round-robin fashion.
+     */
+    private int[] workersByLoad() {
+        final int count = cooperativeWorkers.length;
+        final int offset = cooperativeThreadIndex.getAndUpdate(i -> (i + 1) % count);
+        final Comparator<Integer> byLoad = Comparator
+                .<Integer>comparingLong(i -> cooperativeWorkers[i].loadNanos)
+                .thenComparingInt(i -> cooperativeWorkers[i].trackers.size());
+        // Stream.sorted() is stable, so the rotation breaks the remaining ties
+        return IntStream.range(0, count)
+                        .mapToObj(i -> (i + offset) % count)
+                        .sorted(byLoad)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+    }
+
     private synchronized void ensureThreadsStarted() {
         if (cooperativeWorkers[0] != null) {
             return;
@@ -208,14 +258,22 @@ public class TaskletExecutionService {
             try {
                 startedLatch.countDown();
                 t.init();
+                final Parker parker = new Parker(currentThread());
+                if (tracker.wakeUpSignal != null) {
+                    tracker.wakeUpSignal.bindTo(parker);
+                }
                 long idleCount = 0;
                 ProgressState result;
                 do {
+                    if (idleCount > 0) {
+                        parker.arm();
+                    }
                     result = t.call();
                     if (result.isMadeProgress()) {
                         idleCount = 0;
+                        parker.disarm();
                     } else {
-                        IDLER_NON_COOPERATIVE.idle(++idleCount);
+                        nonCooperativeIdler.idle(++idleCount);
                     }
                 } while (!result.isDone()
                         && !tracker.executionTracker.executionCompletedExceptionally()
@@ -240,6 +298,15 @@ public class TaskletExecutionService {
         private final CooperativeWorker[] colleagues;
         @Probe
         private final AtomicLong iterationCount = new AtomicLong();
+        @Probe
+        private final AtomicLong stolenTaskletCount = new AtomicLong();
+        /**
+         * Time spent in the last balancing window in calls of own tasklets
+         * which made progress.
+         */
+        @Probe
+        private volatile long loadNanos;
+        private long windowStart = System.nanoTime();
 
         CooperativeWorker(CooperativeWorker[] colleagues) {
             this.colleagues = colleagues;
@@ -250,14 +317,15 @@ public class TaskletExecutionService {
         public void run() {
             final Thread thread = currentThread();
             final ClassLoader clBackup = thread.getContextClassLoader();
+            final Parker parker = new Parker(thread);
             long idleCount = 0;
             while (!isShutdown) {
                 boolean madeProgress = false;
+                if (idleCount > 0) {
+                    // arm before checking the tasklets for work, see Parker
+                    parker.arm();
+                }
                 for (TaskletTracker t : trackers) {
-                    long start = 0;
-                    if (logger.isFinestEnabled()) {
-                        start = System.nanoTime();
-                    }
                     final CooperativeWorker stealingWorker = t.stealingWorker.get();
                     if (stealingWorker != null) {
                         t.stealingWorker.set(null);
@@ -266,6 +334,10 @@ public class TaskletExecutionService {
                         logFinest(logger, "Tasklet %s was stolen from this worker", t.tasklet);
                         continue;
                     }
+                    if (t.wakeUpSignal != null) {
+                        t.wakeUpSignal.bindTo(parker);
+                    }
+                    final long start = System.nanoTime();
                     try {
                         thread.setContextClassLoader(t.jobClassLoader);
                         final ProgressState result = t.tasklet.call();
@@ -274,6 +346,9 @@ public class TaskletExecutionService {
                         } else {
                             madeProgress |= result.isMadeProgress();
                         }
+                        if (result.isMadeProgress()) {
+                            t.windowNanos += System.nanoTime() - start;
+                        }
                     } catch (Throwable e) {
                         logger.warning("Exception in " + t.tasklet, e);
                         t.executionTracker.exception(new JetException("Exception in " + t.tasklet + ": " + e, e));
@@ -283,7 +358,7 @@ public class TaskletExecutionService {
                     }
 
                     if (logger.isFinestEnabled()) {
-                        long elapsedMs = NANOSECONDS.toMillis((System.nanoTime() - start));
+                        long elapsedMs = NANOSECONDS.toMillis(System.nanoTime() - start);
                         if (elapsedMs > COOPERATIVE_LOGGING_THRESHOLD) {
                             logger.finest("Cooperative tasklet call of '" + t.tasklet + "' took more than "
                                     + COOPERATIVE_LOGGING_THRESHOLD + " ms: " + elapsedMs + "ms");
@@ -291,11 +366,17 @@ public class TaskletExecutionService {
                     }
                 }
                 lazyIncrement(iterationCount);
+                final long now = System.nanoTime();
+                if (now - windowStart >= BALANCING_WINDOW_NANOS) {
+                    closeBalancingWindow(now);
+                    stealHotTasklet();
+                }
                 if (madeProgress) {
                     idleCount = 0;
+                    parker.disarm();
                 } else {
                     thread.setContextClassLoader(clBackup);
-                    IDLER_COOPERATIVE.idle(++idleCount);
+                    cooperativeIdler.idle(++idleCount);
                 }
             }
             // Best-effort attempt to release all tasklets. A tasklet can still be added
@@ -310,6 +391,61 @@ public class TaskletExecutionService {
             stealWork();
         }
 
+        /**
+         * Publishes the load measured in the current window, both for this
+         * worker and for each of its tasklets, and starts a new window.
+         */
+        private void closeBalancingWindow(long now) {
+            long load = 0;
+            for (TaskletTracker t : trackers) {
+                t.loadNanos = t.windowNanos;
+                t.windowNanos = 0;
+                load += t.loadNanos;
+            }
+            loadNanos = load;
+            windowStart = now;
+        }
+
+        /**
+         * Finds the most loaded colleague and, if the imbalance is big enough,
+         * marks one of its tasklets to be moved to this worker. The chosen
+         * tasklet is the one whose load comes closest to evening out the two
+         * workers; a tasklet that would leave this worker more loaded than the
+         * colleague currently is never chosen. A worker running a single
+         * tasklet is never robbed, there's no gain in moving it.
+         */
+        private void stealHotTasklet() {
+            final long ownLoad = loadNanos;
+            CooperativeWorker victim = null;
+            for (CooperativeWorker w : colleagues) {
+                if (w.loadNanos > (victim != null ? victim.loadNanos : ownLoad)) {
+                    victim = w;
+                }
+            }
+            if (victim == null || victim.trackers.size() < 2) {
+                return;
+            }
+            final long gap = victim.loadNanos - ownLoad;
+            if (gap < MIN_IMBALANCE_NANOS) {
+                return;
+            }
+            TaskletTracker best = null;
+            long bestDistance = Long.MAX_VALUE;
+            for (TaskletTracker t : victim.trackers) {
+                final long load = t.loadNanos;
+                final long distance = Math.abs(gap - 2 * load);
+                if (load > 0 && load < gap && distance < bestDistance && t.stealingWorker.get() == null) {
+                    best = t;
+                    bestDistance = distance;
+                }
+            }
+            if (best != null && best.stealingWorker.compareAndSet(null, this)) {
+                lazyIncrement(stolenTaskletCount);
+                logFinest(logger, "Stealing tasklet %s with load %d ms/s to even out worker load",
+                        best.tasklet, NANOSECONDS.toMillis(best.loadNanos));
+            }
+        }
+
         private void stealWork() {
             while (true) {
                 // start with own tasklet list, try to find a longer one
@@ -326,6 +462,7 @@ public class TaskletExecutionService {
                 // now we must find a task on this list which isn't already scheduled for moving
                 for (TaskletTracker t : toStealFrom) {
                     if (t.stealingWorker.compareAndSet(null, this)) {
+                        lazyIncrement(stolenTaskletCount);
                         return;
                     }
                 }
@@ -337,12 +474,20 @@ public class TaskletExecutionService {
         final Tasklet tasklet;
         final ExecutionTracker executionTracker;
         final ClassLoader jobClassLoader;
+        final WakeUpSignal wakeUpSignal;
         final AtomicReference<CooperativeWorker> stealingWorker = new AtomicReference<>();
 
+        // time spent in calls which made progress, in the current balancing window
+        // of the owning worker; only accessed by the owning worker
+        long windowNanos;
+        // windowNanos as measured in the last completed balancing window
+        volatile long loadNanos;
+
         TaskletTracker(Tasklet tasklet, ExecutionTracker executionTracker, ClassLoader jobClassLoader) {
             this.tasklet = tasklet;
             this.executionTracker = executionTracker;
             this.jobClassLoader = jobClassLoader;
+            this.wakeUpSignal = tasklet.wakeUpSignal();
         }
 
         @Override
@@ -385,6 +530,8 @@ public class TaskletExecutionService {
                 }
                 exception(e);
                 blockingFutures.forEach(f -> f.cancel(true)); // CompletableFuture.cancel ignores the flag
+                // parked cooperative workers would notice the cancellation only after they wake up
+                Arrays.stream(cooperativeThreadPool).filter(Objects::nonNull).forEach(LockSupport::unpark);
             }));
         }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A signal through which producers of data for a tasklet wake up the
+ * thread currently running the tasklet, in case the thread is parked
+ * because none of its tasklets had any work. Each tasklet which receives
+ * data from other threads has one; the worker running the tasklet binds
+ * the signal to its own {@link Parker}.
+ */
+public final class WakeUpSignal {
+
+    private volatile Parker parker;
+
+    /**
+     * Unparks the thread running the tasklet, if it's parked. Cheap to call
+     * when the thread is not parked: it's just two volatile reads.
+     */
+    public void wakeUp() {
+        Parker p = parker;
+        if (p != null) {
+            p.unparkIfParked();
+        }
+    }
+
+    void bindTo(Parker parker) {
+        if (this.parker != parker) {
+            this.parker = parker;
+        }
+    }
+
+    /**
+     * Parks the thread of a worker which has no work to do and lets the
+     * wake-up signals of its tasklets unpark it.
+     * <p>
+     * To avoid missing a signal, the worker must {@link #arm() arm} the
+     * parker before it checks its tasklets for work, if it's going to park
+     * when there's none: a producer either adds its data before the check
+     * and the worker sees it, or it sees the parker armed and unparks the
+     * thread. Workers arm the parker only after they found no work at least
+     * once, so a signal can be missed before the first, shortest park.
+     */
+    static final class Parker {
+        private final Thread thread;
+        private final AtomicBoolean armed = new AtomicBoolean();
+
+        Parker(Thread thread) {
+            this.thread = thread;
+        }
+
+        void arm() {
+            armed.set(true);
+        }
+
+        void disarm() {
+            armed.lazySet(false);
+        }
+
+        private void unparkIfParked() {
+            // only the first producer to see the armed parker pays for the unpark
+            if (armed.get() && armed.compareAndSet(true, false)) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.execution.init;
 
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.config.JobConfig;
 import com.hazelcast.jet.config.ProcessingGuarantee;
@@ -125,17 +126,19 @@ public final class Contexts {
         private final int localProcessorIndex;
         private final int globalProcessorIndex;
         private final ProcessingGuarantee processingGuarantee;
+        private final InternalSerializationService serializationService;
 
         @SuppressWarnings("checkstyle:ParameterNumber")
         public ProcCtx(JetInstance instance, long jobId, long executionId, JobConfig jobConfig,
                        ILogger logger, String vertexName, int localProcessorIndex,
                        int globalProcessorIndex, ProcessingGuarantee processingGuarantee, int localParallelism,
-                       int memberIndex, int memberCount) {
+                       int memberIndex, int memberCount, InternalSerializationService serializationService) {
             super(instance, jobId, executionId, jobConfig, logger, vertexName, localParallelism,
                     memberCount * localParallelism, memberIndex, memberCount);
             this.localProcessorIndex = localProcessorIndex;
             this.globalProcessorIndex = globalProcessorIndex;
             this.processingGuarantee = processingGuarantee;
+            this.serializationService = serializationService;
         }
 
         @Override
@@ -152,5 +155,13 @@ public final class Contexts {
         public ProcessingGuarantee processingGuarantee() {
             return processingGuarantee;
         }
+
+        /**
+         * Returns the serialization service of the member, with the
+         * serializers configured for it.
+         */
+        public InternalSerializationService serializationService() {
+            return serializationService;
+        }
     }
 }
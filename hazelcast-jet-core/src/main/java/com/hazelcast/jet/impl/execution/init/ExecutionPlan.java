@@ -19,6 +19,7 @@ package com.hazelcast.jet.impl.execution.init;
 import com.hazelcast.internal.metrics.LongProbeFunction;
 import com.hazelcast.internal.metrics.ProbeBuilder;
 import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
 import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
 import com.hazelcast.internal.util.concurrent.QueuedPipe;
@@ -41,8 +42,10 @@ import com.hazelcast.jet.impl.execution.ProcessorTasklet;
 import com.hazelcast.jet.impl.execution.ReceiverTasklet;
 import com.hazelcast.jet.impl.execution.SenderTasklet;
 import com.hazelcast.jet.impl.execution.SnapshotContext;
+import com.hazelcast.jet.impl.execution.SnapshotRestoreStream;
 import com.hazelcast.jet.impl.execution.StoreSnapshotTasklet;
 import com.hazelcast.jet.impl.execution.Tasklet;
+import com.hazelcast.jet.impl.execution.WakeUpSignal;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 import com.hazelcast.jet.impl.execution.init.Contexts.ProcSupplierCtx;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
@@ -72,6 +75,8 @@ import java.util.stream.IntStream;
 import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
 import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.jet.config.EdgeConfig.DEFAULT_QUEUE_SIZE;
+import static com.hazelcast.jet.impl.SnapshotRepository.snapshotBroadcastDataMapName;
+import static com.hazelcast.jet.impl.SnapshotRepository.snapshotDataMapName;
 import static com.hazelcast.jet.impl.execution.OutboundCollector.compositeCollector;
 import static com.hazelcast.jet.impl.util.Util.getJetInstance;
 import static com.hazelcast.jet.impl.util.Util.memoize;
@@ -103,6 +108,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
     private final Map<String, ConcurrentConveyor<Object>[]> localConveyorMap = new HashMap<>();
     private final Map<String, Map<Address, ConcurrentConveyor<Object>>> edgeSenderConveyorMap = new HashMap<>();
+    private final Map<Integer, WakeUpSignal[]> processorWakeUpSignalMap = new HashMap<>();
     private final List<Processor> processors = new ArrayList<>();
 
     private PartitionArrangement ptionArrgmt;
@@ -110,6 +116,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
     private NodeEngineImpl nodeEngine;
     private long executionId;
     private long lastSnapshotId;
+    // the snapshot to restore followed by the snapshots it's incremental to
+    private long[] snapshotIdsToRestore;
 
     // list of unique remote members
     private final Supplier<Set<Address>> remoteMembers = memoize(() ->
@@ -121,11 +129,12 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
     ExecutionPlan() {
     }
 
-    ExecutionPlan(Address[] partitionOwners, JobConfig jobConfig, long lastSnapshotId,
+    ExecutionPlan(Address[] partitionOwners, JobConfig jobConfig, long lastSnapshotId, long[] snapshotIdsToRestore,
                   int memberIndex, int memberCount) {
         this.partitionOwners = partitionOwners;
         this.jobConfig = jobConfig;
         this.lastSnapshotId = lastSnapshotId;
+        this.snapshotIdsToRestore = snapshotIdsToRestore;
         this.memberIndex = memberIndex;
         this.memberCount = memberCount;
     }
@@ -141,14 +150,30 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         for (VertexDef vertex : vertices) {
             Collection<? extends Processor> processors = createProcessors(vertex, vertex.localParallelism());
 
+            ProbeBuilder probeBuilder = this.nodeEngine.getMetricsRegistry().newProbeBuilder()
+                    .withTag("module", "jet")
+                    .withTag("job", idToString(jobId))
+                    .withTag("exec", idToString(executionId))
+                    .withTag("vertex", vertex.name());
+
+            if (vertex.inboundEdges().size() == 0) {
+                probeBuilder = probeBuilder.withTag("source", "true");
+            }
+            if (vertex.outboundEdges().size() == 0) {
+                probeBuilder = probeBuilder.withTag("sink", "true");
+            }
+
             // create StoreSnapshotTasklet and the queues to it
             QueuedPipe<Object>[] snapshotQueues = new QueuedPipe[vertex.localParallelism()];
             Arrays.setAll(snapshotQueues, i -> new OneToOneConcurrentArrayQueue<>(SNAPSHOT_QUEUE_SIZE));
             ConcurrentConveyor<Object> ssConveyor = ConcurrentConveyor.concurrentConveyor(null, snapshotQueues);
+            AsyncSnapshotWriterImpl ssWriter = new AsyncSnapshotWriterImpl(nodeEngine, memberIndex, memberCount,
+                    jobConfig.isSnapshotCompressionEnabled());
+            probeBuilder.scanAndRegister(ssWriter);
             StoreSnapshotTasklet ssTasklet = new StoreSnapshotTasklet(snapshotContext, jobId,
                     new ConcurrentInboundEdgeStream(ssConveyor, 0, 0, lastSnapshotId, true, -1,
                             "ssFrom:" + vertex.name()),
-                    new AsyncSnapshotWriterImpl(nodeEngine, memberIndex, memberCount),
+                    ssWriter,
                     nodeEngine.getLogger(StoreSnapshotTasklet.class),
                     vertex.name(), vertex.isHigherPriorityUpstream());
             tasklets.add(ssTasklet);
@@ -169,21 +194,10 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                         jobConfig.getProcessingGuarantee(),
                         vertex.localParallelism(),
                         memberIndex,
-                        memberCount
+                        memberCount,
+                        (InternalSerializationService) this.nodeEngine.getSerializationService()
                 );
 
-                ProbeBuilder probeBuilder = this.nodeEngine.getMetricsRegistry().newProbeBuilder()
-                        .withTag("module", "jet")
-                        .withTag("job", idToString(jobId))
-                        .withTag("exec", idToString(executionId))
-                        .withTag("vertex", vertex.name());
-
-                if (vertex.inboundEdges().size() == 0) {
-                    probeBuilder = probeBuilder.withTag("source", "true");
-                }
-                if (vertex.outboundEdges().size() == 0) {
-                    probeBuilder = probeBuilder.withTag("sink", "true");
-                }
                 ProbeBuilder processorProbeBuilder = probeBuilder
                         .withTag("proc", String.valueOf(globalProcessorIndex));
                 processorProbeBuilder
@@ -198,12 +212,29 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 List<InboundEdgeStream> inboundStreams = createInboundEdgeStreams(
                         vertex, localProcessorIdx, globalProcessorIndex
                 );
+                if (snapshotIdsToRestore.length > 0) {
+                    // The stream is added even if the snapshot has no data for the vertex: this ensures
+                    // that Processor.finishSnapshotRestore() is always called when restoring.
+                    // Processors without incremental snapshots saved their full state to each snapshot.
+                    String[] mapNames = new String[processor.isIncrementalSnapshotSupported()
+                            ? snapshotIdsToRestore.length : 1];
+                    for (int i = 0; i < mapNames.length; i++) {
+                        mapNames[i] = snapshotDataMapName(jobId, snapshotIdsToRestore[i], vertex.name());
+                    }
+                    SnapshotRestoreStream restoreStream = new SnapshotRestoreStream(this.nodeEngine, mapNames,
+                            snapshotBroadcastDataMapName(jobId, snapshotIdsToRestore[0], vertex.name()),
+                            ptionArrgmt.assignPartitionsToProcessors(vertex.localParallelism(), true)[localProcessorIdx],
+                            inboundStreams.size(), jobConfig.isSnapshotCompressionEnabled());
+                    processorProbeBuilder.scanAndRegister(restoreStream);
+                    inboundStreams.add(restoreStream);
+                }
 
-                OutboundCollector snapshotCollector = new ConveyorCollector(ssConveyor, localProcessorIdx, null);
+                OutboundCollector snapshotCollector = new ConveyorCollector(ssConveyor, localProcessorIdx, null,
+                        ssTasklet.wakeUpSignal());
 
                 ProcessorTasklet processorTasklet = new ProcessorTasklet(context, nodeEngine.getSerializationService(),
                         processor, inboundStreams, outboundStreams, snapshotContext, snapshotCollector,
-                        jobConfig.getMaxWatermarkRetainMillis());
+                        processorWakeUpSignals(vertex)[localProcessorIdx], jobConfig.getMaxWatermarkRetainMillis());
                 processorTasklet.registerMetrics(processorProbeBuilder);
                 tasklets.add(processorTasklet);
                 this.processors.add(processor);
@@ -263,6 +294,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         writeList(out, vertices);
         out.writeInt(partitionOwners.length);
         out.writeLong(lastSnapshotId);
+        out.writeLongArray(snapshotIdsToRestore);
         for (Address address : partitionOwners) {
             out.writeObject(address);
         }
@@ -277,6 +309,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         int len = in.readInt();
         partitionOwners = new Address[len];
         lastSnapshotId = in.readLong();
+        snapshotIdsToRestore = in.readLongArray();
         for (int i = 0; i < len; i++) {
             partitionOwners[i] = in.readObject();
         }
@@ -324,6 +357,20 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 .forEach(p -> p.init(partitionService::getPartitionId));
     }
 
+    /**
+     * Returns the wake-up signals of the processor tasklets of the given
+     * vertex, indexed by local processor index. The signals are needed by the
+     * collectors of upstream tasklets, which are created before the processor
+     * tasklets of the vertex.
+     */
+    private WakeUpSignal[] processorWakeUpSignals(VertexDef vertex) {
+        return processorWakeUpSignalMap.computeIfAbsent(vertex.vertexId(), x -> {
+            WakeUpSignal[] signals = new WakeUpSignal[vertex.localParallelism()];
+            Arrays.setAll(signals, i -> new WakeUpSignal());
+            return signals;
+        });
+    }
+
     private static Collection<? extends Processor> createProcessors(VertexDef vertexDef, int parallelism) {
         final Collection<? extends Processor> processors = vertexDef.processorSupplier().get(parallelism);
         if (processors.size() != parallelism) {
@@ -446,6 +493,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
 
         final int[][] ptionsPerProcessor =
                 ptionArrgmt.assignPartitionsToProcessors(downstreamParallelism, edge.isDistributed());
+        final WakeUpSignal[] downstreamSignals = processorWakeUpSignals(edge.destVertex());
 
         if (edge.routingPolicy() == RoutingPolicy.ISOLATED) {
             if (downstreamParallelism < upstreamParallelism) {
@@ -463,7 +511,8 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                     e -> createConveyorArray(downstreamParallelism, 1, queueSize));
             return IntStream.range(0, downstreamParallelism)
                             .filter(i -> i % upstreamParallelism == processorIndex)
-                            .mapToObj(i -> new ConveyorCollector(localConveyors[i], 0, ptionsPerProcessor[i]))
+                            .mapToObj(i -> new ConveyorCollector(localConveyors[i], 0, ptionsPerProcessor[i],
+                                    downstreamSignals[i]))
                             .toArray(OutboundCollector[]::new);
         }
 
@@ -482,7 +531,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                 });
         final OutboundCollector[] localCollectors = new OutboundCollector[downstreamParallelism];
         Arrays.setAll(localCollectors, n ->
-                new ConveyorCollector(localConveyors[n], processorIndex, ptionsPerProcessor[n]));
+                new ConveyorCollector(localConveyors[n], processorIndex, ptionsPerProcessor[n], downstreamSignals[n]));
 
         // in a local edge, we only have the local collectors.
         if (!edge.isDistributed()) {
@@ -501,8 +550,10 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
         allCollectors[0] = compositeCollector(localCollectors, edge, totalPtionCount);
         int index = 1;
         for (Map.Entry<Address, int[]> entry : memberToPartitions.entrySet()) {
+            SenderTasklet sender = senderMap.get(edge.destVertex().vertexId()).get(edge.destOrdinal())
+                                            .get(entry.getKey());
             allCollectors[index++] = new ConveyorCollectorWithPartition(senderConveyorMap.get(entry.getKey()),
-                    processorIndex, entry.getValue());
+                    processorIndex, entry.getValue(), sender.wakeUpSignal());
         }
         return allCollectors;
     }
@@ -511,6 +562,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
             EdgeDef edge, int[][] ptionsPerProcessor, int totalPtionCount, ProbeBuilder probeBuilder
     ) {
         final ConcurrentConveyor<Object>[] localConveyors = localConveyorMap.get(edge.edgeId());
+        final WakeUpSignal[] downstreamSignals = processorWakeUpSignals(edge.destVertex());
 
         receiverMap.computeIfAbsent(edge.destVertex().vertexId(), x -> new HashMap<>())
                    .computeIfAbsent(edge.destOrdinal(), x -> {
@@ -526,7 +578,7 @@ public class ExecutionPlan implements IdentifiedDataSerializable {
                            final int queueOffset = --offset;
                            Arrays.setAll(collectors, n -> new ConveyorCollector(
                                    localConveyors[n], localConveyors[n].queueCount() + queueOffset,
-                                   ptionsPerProcessor[n]));
+                                   ptionsPerProcessor[n], downstreamSignals[n]));
                            final OutboundCollector collector = compositeCollector(collectors, edge, totalPtionCount);
                            ReceiverTasklet receiverTasklet = new ReceiverTasklet(
                                    collector, edge.getConfig().getReceiveWindowMultiplier(),
@@ -55,7 +55,7 @@ public final class ExecutionPlanBuilder {
 
     public static Map<MemberInfo, ExecutionPlan> createExecutionPlans(
             NodeEngine nodeEngine, MembersView membersView, DAG dag, long jobId, long executionId,
-            JobConfig jobConfig, long lastSnapshotId
+            JobConfig jobConfig, long lastSnapshotId, List<Long> snapshotsToRestore
     ) {
         final JetInstance instance = getJetInstance(nodeEngine);
         final int defaultParallelism = instance.getConfig().getInstanceConfig().getCooperativeThreadCount();
@@ -68,9 +68,11 @@ public final class ExecutionPlanBuilder {
         final boolean isJobDistributed = clusterSize > 1;
         final EdgeConfig defaultEdgeConfig = instance.getConfig().getDefaultEdgeConfig();
         final Map<MemberInfo, ExecutionPlan> plans = new HashMap<>();
+        final long[] snapshotIdsToRestore = snapshotsToRestore.stream().mapToLong(Long::longValue).toArray();
         int memberIndex = 0;
         for (MemberInfo member : members) {
-            plans.put(member, new ExecutionPlan(partitionOwners, jobConfig, lastSnapshotId, memberIndex++, clusterSize));
+            plans.put(member, new ExecutionPlan(partitionOwners, jobConfig, lastSnapshotId, snapshotIdsToRestore,
+                    memberIndex++, clusterSize));
         }
         final Map<String, Integer> vertexIdMap = assignVertexIds(dag);
         for (Entry<String, Integer> entry : vertexIdMap.entrySet()) {
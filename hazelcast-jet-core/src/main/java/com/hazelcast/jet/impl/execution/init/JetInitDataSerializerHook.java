@@ -25,6 +25,7 @@ import com.hazelcast.jet.impl.JobRepository.FilterJobRecordByNamePredicate;
 import com.hazelcast.jet.impl.JobRepository.FilterJobResultByNamePredicate;
 import com.hazelcast.jet.impl.JobRepository.UpdateJobRecordQuorumEntryBackupProcessor;
 import com.hazelcast.jet.impl.JobRepository.UpdateJobRecordQuorumEntryProcessor;
+import com.hazelcast.jet.impl.JobRepository.UpdateResourceRefsEntryProcessor;
 import com.hazelcast.jet.impl.JobResult;
 import com.hazelcast.jet.impl.execution.SnapshotRecord;
 import com.hazelcast.jet.impl.operation.CancelExecutionOperation;
@@ -45,6 +46,7 @@ import com.hazelcast.jet.impl.operation.SubmitJobOperation;
 import com.hazelcast.jet.impl.processor.SessionWindowP;
 import com.hazelcast.jet.impl.processor.SnapshotKey;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl;
+import com.hazelcast.jet.stream.impl.processor.SortedRunChunk;
 import com.hazelcast.nio.serialization.DataSerializableFactory;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
@@ -84,6 +86,8 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
     public static final int ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_KEY = 28;
     public static final int ASYNC_SNAPSHOT_WRITER_SNAPSHOT_DATA_VALUE_TERMINATOR = 29;
     public static final int SNAPSHOT_OPERATION_RESULT = 30;
+    public static final int UPDATE_RESOURCE_REFS = 31;
+    public static final int SORTED_RUN_CHUNK = 32;
 
     public static final int FACTORY_ID = FactoryIdHelper.getFactoryId(JET_IMPL_DS_FACTORY, JET_IMPL_DS_FACTORY_ID);
 
@@ -165,6 +169,10 @@ public final class JetInitDataSerializerHook implements DataSerializerHook {
                     return AsyncSnapshotWriterImpl.SnapshotDataValueTerminator.INSTANCE;
                 case SNAPSHOT_OPERATION_RESULT:
                     return new SnapshotOperationResult();
+                case UPDATE_RESOURCE_REFS:
+                    return new UpdateResourceRefsEntryProcessor();
+                case SORTED_RUN_CHUNK:
+                    return new SortedRunChunk();
                 default:
                     throw new IllegalArgumentException("Unknown type id " + typeId);
             }
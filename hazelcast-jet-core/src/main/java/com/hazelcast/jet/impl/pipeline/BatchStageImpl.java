@@ -36,6 +36,7 @@ import com.hazelcast.jet.pipeline.ContextFactory;
 import com.hazelcast.jet.pipeline.JoinClause;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.function.DistributedFunctions.constantKey;
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
@@ -87,6 +88,14 @@ public class BatchStageImpl<T> extends ComputeStageImplBase<T> implements BatchS
         return attachMapUsingContext(contextFactory, mapFn);
     }
 
+    @Nonnull @Override
+    public <C, R> BatchStage<R> mapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        return attachMapUsingContextAsync(contextFactory, mapAsyncFn);
+    }
+
     @Nonnull @Override
     public <C> BatchStage<T> filterUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
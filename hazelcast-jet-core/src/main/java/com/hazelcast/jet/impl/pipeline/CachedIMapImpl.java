@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.pipeline;
+
+import com.hazelcast.core.HazelcastInstanceNotActiveException;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.instance.HazelcastInstanceImpl;
+import com.hazelcast.internal.journal.EventJournalInitialSubscriberState;
+import com.hazelcast.internal.journal.EventJournalReader;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.jet.IMapJet;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.pipeline.CachedIMap;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.journal.EventJournalMapEvent;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+
+import javax.annotation.Nonnull;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.peel;
+import static com.hazelcast.jet.impl.util.Util.callbackOf;
+import static com.hazelcast.jet.impl.util.Util.toCompletableFuture;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * Implementation of {@link CachedIMap}. The cache is split into segments,
+ * each of them an access-ordered {@code LinkedHashMap} guarded by its own
+ * lock, to reduce the contention between the processors sharing it.
+ * <p>
+ * Invalidation is driven by the map's event journal: the cache keeps one
+ * outstanding journal read per partition and removes the key of every
+ * event it receives. If some events were lost because the journal was
+ * overwritten, the whole cache is cleared. A value fetched from the map is
+ * only cached if no invalidation hit its segment while the fetch was in
+ * progress; otherwise it could overwrite a newer invalidation with a stale
+ * value.
+ */
+public class CachedIMapImpl<K, V> implements CachedIMap<K, V> {
+
+    private static final int SEGMENT_COUNT = 16;
+    private static final int JOURNAL_FETCH_SIZE = 1024;
+    private static final int SEGMENT_INITIAL_CAPACITY = 16;
+    private static final float SEGMENT_LOAD_FACTOR = 0.75f;
+    private static final Object NULL_VALUE = new Object();
+    private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+    private final IMapJet<K, V> map;
+    private final EventJournalReader<EventJournalMapEvent<K, V>> journalReader;
+    private final Segment<K>[] segments;
+    private final AtomicReferenceArray<ICompletableFuture<ReadResultSet<K>>> pendingReads;
+    private final MetricsRegistry metricsRegistry;
+    private final ILogger logger;
+    private volatile boolean invalidationActive = true;
+    private volatile boolean closed;
+
+    @SuppressWarnings("unchecked")
+    public CachedIMapImpl(@Nonnull JetInstance jet, @Nonnull String mapName, int maxCachedEntries) {
+        checkPositive(maxCachedEntries, "maxCachedEntries must be positive");
+        NodeEngineImpl nodeEngine = ((HazelcastInstanceImpl) jet.getHazelcastInstance()).node.nodeEngine;
+        this.map = jet.getMap(mapName);
+        // the IMapJet wrapper doesn't expose the journal, the underlying proxy does
+        this.journalReader = (EventJournalReader) jet.getHazelcastInstance().getMap(mapName);
+        this.logger = nodeEngine.getLogger(getClass());
+        int segmentCapacity = Math.max(1, maxCachedEntries / SEGMENT_COUNT);
+        this.segments = new Segment[SEGMENT_COUNT];
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+        int partitionCount = nodeEngine.getPartitionService().getPartitionCount();
+        this.pendingReads = new AtomicReferenceArray<>(partitionCount);
+        subscribe(mapName, partitionCount);
+        this.metricsRegistry = nodeEngine.getMetricsRegistry();
+        metricsRegistry.newProbeBuilder()
+                       .withTag("module", "jet")
+                       .withTag("cachedIMap", mapName)
+                       .withTag("instance", String.valueOf(INSTANCE_COUNTER.incrementAndGet()))
+                       .scanAndRegister(this);
+    }
+
+    @Override
+    public V get(@Nonnull K key) {
+        Segment<K> segment = segmentFor(key);
+        long invalidationCount;
+        synchronized (segment) {
+            Object cached = segment.get(key);
+            if (cached != null) {
+                segment.hits++;
+                return unmask(cached);
+            }
+            segment.misses++;
+            invalidationCount = segment.invalidationCount;
+        }
+        V value = map.get(key);
+        cacheIfValid(segment, key, value, invalidationCount);
+        return value;
+    }
+
+    @Nonnull @Override
+    public CompletableFuture<V> getAsync(@Nonnull K key) {
+        Segment<K> segment = segmentFor(key);
+        long invalidationCount;
+        synchronized (segment) {
+            Object cached = segment.get(key);
+            if (cached != null) {
+                segment.hits++;
+                return CompletableFuture.completedFuture(unmask(cached));
+            }
+            segment.misses++;
+            invalidationCount = segment.invalidationCount;
+        }
+        return toCompletableFuture(map.getAsync(key)).thenApply(value -> {
+            cacheIfValid(segment, key, value, invalidationCount);
+            return value;
+        });
+    }
+
+    @Probe
+    @Override
+    public long hitCount() {
+        long sum = 0;
+        for (Segment<K> segment : segments) {
+            sum += segment.hits;
+        }
+        return sum;
+    }
+
+    @Probe
+    @Override
+    public long missCount() {
+        long sum = 0;
+        for (Segment<K> segment : segments) {
+            sum += segment.misses;
+        }
+        return sum;
+    }
+
+    @Probe
+    private long invalidationCount() {
+        long sum = 0;
+        for (Segment<K> segment : segments) {
+            sum += segment.invalidationCount;
+        }
+        return sum;
+    }
+
+    @Probe
+    private long size() {
+        long sum = 0;
+        for (Segment<K> segment : segments) {
+            synchronized (segment) {
+                sum += segment.size();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Stops the invalidation, cancels the pending journal reads and
+     * unregisters the probes.
+     */
+    public void close() {
+        closed = true;
+        for (int i = 0; i < pendingReads.length(); i++) {
+            ICompletableFuture<ReadResultSet<K>> future = pendingReads.getAndSet(i, null);
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+        metricsRegistry.deregister(this);
+    }
+
+    private void subscribe(String mapName, int partitionCount) {
+        try {
+            ICompletableFuture<EventJournalInitialSubscriberState>[] futures =
+                    new ICompletableFuture[partitionCount];
+            for (int i = 0; i < partitionCount; i++) {
+                futures[i] = journalReader.subscribeToEventJournal(i);
+            }
+            for (int i = 0; i < partitionCount; i++) {
+                readJournal(i, futures[i].get().getNewestSequence() + 1);
+            }
+        } catch (Exception e) {
+            closed = true;
+            throw new JetException("Failed to subscribe to the event journal of map '" + mapName
+                    + "', the event journal must be enabled to cache the map: " + e, e);
+        }
+    }
+
+    private void readJournal(int partitionId, long sequence) {
+        if (closed) {
+            return;
+        }
+        ICompletableFuture<ReadResultSet<K>> future = journalReader.readFromEventJournal(
+                sequence, 1, JOURNAL_FETCH_SIZE, partitionId, null, new KeyProjection<>());
+        pendingReads.set(partitionId, future);
+        // close() might have missed the future we just stored
+        if (closed) {
+            future.cancel(true);
+            return;
+        }
+        future.andThen(callbackOf(
+                resultSet -> onJournalEvents(partitionId, sequence, resultSet),
+                this::onJournalFailure));
+    }
+
+    private void onJournalEvents(int partitionId, long sequence, ReadResultSet<K> resultSet) {
+        long lostCount = resultSet.getNextSequenceToReadFrom() - resultSet.readCount() - sequence;
+        if (lostCount > 0) {
+            logger.fine("Lost " + lostCount + " events from the journal of map '" + map.getName()
+                    + "', partition " + partitionId + ", clearing the cache");
+            invalidateAll();
+        } else {
+            for (K key : resultSet) {
+                invalidate(key);
+            }
+        }
+        readJournal(partitionId, resultSet.getNextSequenceToReadFrom());
+    }
+
+    private void onJournalFailure(Throwable t) {
+        if (closed || peel(t) instanceof HazelcastInstanceNotActiveException) {
+            return;
+        }
+        // Without invalidation we can't keep the cache consistent with the
+        // map, so from now on we bypass the cache and read the map directly.
+        logger.warning("Reading the event journal of map '" + map.getName()
+                + "' failed, the cache is disabled: " + t, t);
+        invalidationActive = false;
+        invalidateAll();
+    }
+
+    private void cacheIfValid(Segment<K> segment, K key, V value, long invalidationCount) {
+        if (!invalidationActive) {
+            return;
+        }
+        synchronized (segment) {
+            if (segment.invalidationCount == invalidationCount) {
+                segment.put(key, value == null ? NULL_VALUE : value);
+            }
+        }
+    }
+
+    private void invalidate(K key) {
+        Segment<K> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+            segment.invalidationCount++;
+        }
+    }
+
+    private void invalidateAll() {
+        for (Segment<K> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+                segment.invalidationCount++;
+            }
+        }
+    }
+
+    private Segment<K> segmentFor(Object key) {
+        return segments[Math.floorMod(key.hashCode(), SEGMENT_COUNT)];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V unmask(Object cached) {
+        return cached == NULL_VALUE ? null : (V) cached;
+    }
+
+    private static final class Segment<K> extends LinkedHashMap<K, Object> {
+        private final int capacity;
+        private long invalidationCount;
+        private long hits;
+        private long misses;
+
+        Segment(int capacity) {
+            super(SEGMENT_INITIAL_CAPACITY, SEGMENT_LOAD_FACTOR, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Object> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private static final class KeyProjection<K, V> extends Projection<EventJournalMapEvent<K, V>, K> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public K transform(EventJournalMapEvent<K, V> event) {
+            return event.getKey();
+        }
+    }
+}
@@ -51,17 +51,20 @@ import com.hazelcast.jet.pipeline.SinkStage;
 import com.hazelcast.jet.pipeline.StreamStage;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.core.WatermarkGenerationParams.DEFAULT_IDLE_TIMEOUT;
 import static com.hazelcast.jet.core.WatermarkGenerationParams.wmGenParams;
 import static com.hazelcast.jet.core.WatermarkPolicies.limitingLag;
 import static com.hazelcast.jet.impl.pipeline.transform.PartitionedProcessorTransform.filterUsingPartitionedContextTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.PartitionedProcessorTransform.flatMapUsingPartitionedContextTransform;
+import static com.hazelcast.jet.impl.pipeline.transform.PartitionedProcessorTransform.mapUsingContextAsyncPartitionedTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.PartitionedProcessorTransform.mapUsingContextPartitionedTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.PartitionedProcessorTransform.partitionedCustomProcessorTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.ProcessorTransform.customProcessorTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.ProcessorTransform.filterUsingContextTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.ProcessorTransform.flatMapUsingContextTransform;
+import static com.hazelcast.jet.impl.pipeline.transform.ProcessorTransform.mapUsingContextAsyncTransform;
 import static com.hazelcast.jet.impl.pipeline.transform.ProcessorTransform.mapUsingContextTransform;
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
 import static com.hazelcast.util.Preconditions.checkFalse;
@@ -155,6 +158,19 @@ public abstract class ComputeStageImplBase<T> extends AbstractStage {
                 fnAdapter);
     }
 
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    <C, R, RET> RET attachMapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        checkSerializable(mapAsyncFn, "mapAsyncFn");
+        DistributedBiFunction adaptedMapAsyncFn = fnAdapter.adaptMapUsingContextAsyncFn(mapAsyncFn);
+        return (RET) attach(
+                mapUsingContextAsyncTransform(transform, contextFactory, adaptedMapAsyncFn),
+                fnAdapter);
+    }
+
     @Nonnull
     @SuppressWarnings("unchecked")
     <C, RET> RET attachFilterUsingContext(
@@ -197,6 +213,23 @@ public abstract class ComputeStageImplBase<T> extends AbstractStage {
                 fnAdapter);
     }
 
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    <C, K, R, RET> RET attachMapUsingPartitionedContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedFunction<? super T, ? extends K> partitionKeyFn,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        checkSerializable(mapAsyncFn, "mapAsyncFn");
+        checkSerializable(partitionKeyFn, "partitionKeyFn");
+        DistributedBiFunction adaptedMapAsyncFn = fnAdapter.adaptMapUsingContextAsyncFn(mapAsyncFn);
+        DistributedFunction adaptedPartitionKeyFn = fnAdapter.adaptKeyFn(partitionKeyFn);
+        return (RET) attach(
+                mapUsingContextAsyncPartitionedTransform(
+                        transform, contextFactory, adaptedMapAsyncFn, adaptedPartitionKeyFn),
+                fnAdapter);
+    }
+
     @Nonnull
     @SuppressWarnings("unchecked")
     <C, K, RET> RET attachFilterUsingPartitionedContext(
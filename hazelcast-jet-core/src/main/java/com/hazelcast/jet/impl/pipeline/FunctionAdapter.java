@@ -39,6 +39,7 @@ import com.hazelcast.jet.pipeline.JoinClause;
 import javax.annotation.Nonnull;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.impl.pipeline.JetEvent.jetEvent;
 
@@ -76,6 +77,13 @@ public class FunctionAdapter {
         return mapFn;
     }
 
+    @Nonnull
+    <C, T, R> DistributedBiFunction<? super C, ?, ? extends CompletableFuture<?>> adaptMapUsingContextAsyncFn(
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        return mapAsyncFn;
+    }
+
     @Nonnull
     @SuppressWarnings("unchecked")
     <C, T> DistributedBiPredicate<? super C, ?> adaptFilterUsingContextFn(
@@ -206,19 +214,20 @@ class JetEventFunctionAdapter extends FunctionAdapter {
     <T, R> DistributedFunction<? super JetEvent<T>, ?> adaptMapFn(
             @Nonnull DistributedFunction<? super T, ? extends R> mapFn
     ) {
-        return e -> jetEvent(mapFn.apply(e.payload()), e.timestamp());
+        return JetEventFunctions.adaptMapFn(mapFn);
     }
 
     @Nonnull @Override
     <T> DistributedPredicate<? super JetEvent<T>> adaptFilterFn(@Nonnull DistributedPredicate<? super T> filterFn) {
-        return e -> filterFn.test(e.payload());
+        return JetEventFunctions.adaptFilterFn(filterFn);
     }
 
     @Nonnull @Override
+    @SuppressWarnings("unchecked")
     <T, R> DistributedFunction<? super JetEvent<T>, Traverser<?>> adaptFlatMapFn(
             @Nonnull DistributedFunction<? super T, ? extends Traverser<? extends R>> flatMapFn
     ) {
-        return e -> flatMapFn.apply(e.payload()).map(r -> jetEvent(r, e.timestamp()));
+        return (DistributedFunction) JetEventFunctions.adaptFlatMapFn(flatMapFn);
     }
 
     @Nonnull @Override
@@ -228,6 +237,17 @@ class JetEventFunctionAdapter extends FunctionAdapter {
         return (context, e) -> jetEvent(mapFn.apply(context, e.payload()), e.timestamp());
     }
 
+    @Nonnull @Override
+    <C, T, R> DistributedBiFunction<? super C, ? super JetEvent<T>, ? extends CompletableFuture<JetEvent<R>>>
+    adaptMapUsingContextAsyncFn(
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        return (context, e) -> {
+            CompletableFuture<? extends R> future = mapAsyncFn.apply(context, e.payload());
+            return future != null ? future.thenApply(r -> jetEvent(r, e.timestamp())) : null;
+        };
+    }
+
     @Nonnull @Override
     <C, T> DistributedBiPredicate<? super C, ? super JetEvent<T>> adaptFilterUsingContextFn(
             @Nonnull DistributedBiPredicate<? super C, ? super T> filterFn
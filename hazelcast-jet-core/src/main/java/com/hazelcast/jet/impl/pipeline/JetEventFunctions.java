@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.pipeline;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedPredicate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import static com.hazelcast.jet.impl.pipeline.JetEvent.jetEvent;
+
+/**
+ * Adapters of the map, filter and flat-map functions to {@link JetEvent}s.
+ * Unlike plain lambdas, they expose the function they adapt: {@link
+ * com.hazelcast.jet.impl.pipeline.transform.FusedTransform} composes the
+ * functions of a chain on the payload and adapts only the result, so that
+ * the timestamp is carried through the chain next to the payload and a
+ * {@code JetEvent} is created once per chain and not once per stage.
+ * <p>
+ * If the function returns the same payload object it received, the
+ * adapters return the received event instead of creating a new one.
+ */
+public final class JetEventFunctions {
+
+    private JetEventFunctions() {
+    }
+
+    /**
+     * Returns the function that the given function adapts to {@code
+     * JetEvent}s or {@code null}, if it isn't such an adapter.
+     */
+    @Nullable
+    public static Object payloadFn(@Nonnull Object fn) {
+        return fn instanceof MapFn ? ((MapFn) fn).mapFn
+                : fn instanceof FilterFn ? ((FilterFn) fn).filterFn
+                : fn instanceof FlatMapFn ? ((FlatMapFn) fn).flatMapFn
+                : null;
+    }
+
+    @Nonnull
+    public static <T, R> DistributedFunction<JetEvent<T>, JetEvent<R>> adaptMapFn(
+            @Nonnull DistributedFunction<? super T, ? extends R> mapFn
+    ) {
+        return new MapFn<>(mapFn);
+    }
+
+    @Nonnull
+    public static <T> DistributedPredicate<JetEvent<T>> adaptFilterFn(
+            @Nonnull DistributedPredicate<? super T> filterFn
+    ) {
+        return new FilterFn<>(filterFn);
+    }
+
+    @Nonnull
+    public static <T, R> DistributedFunction<JetEvent<T>, Traverser<JetEvent<R>>> adaptFlatMapFn(
+            @Nonnull DistributedFunction<? super T, ? extends Traverser<? extends R>> flatMapFn
+    ) {
+        return new FlatMapFn<>(flatMapFn);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> JetEvent<R> withPayload(@Nonnull JetEvent<T> e, @Nullable R payload) {
+        return payload == e.payload() ? (JetEvent<R>) e : jetEvent(payload, e.timestamp());
+    }
+
+    private static final class MapFn<T, R> implements DistributedFunction<JetEvent<T>, JetEvent<R>> {
+        private static final long serialVersionUID = 1L;
+
+        private final DistributedFunction<? super T, ? extends R> mapFn;
+
+        MapFn(DistributedFunction<? super T, ? extends R> mapFn) {
+            this.mapFn = mapFn;
+        }
+
+        @Override
+        public JetEvent<R> apply(JetEvent<T> e) {
+            return withPayload(e, mapFn.apply(e.payload()));
+        }
+    }
+
+    private static final class FilterFn<T> implements DistributedPredicate<JetEvent<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final DistributedPredicate<? super T> filterFn;
+
+        FilterFn(DistributedPredicate<? super T> filterFn) {
+            this.filterFn = filterFn;
+        }
+
+        @Override
+        public boolean test(JetEvent<T> e) {
+            return filterFn.test(e.payload());
+        }
+    }
+
+    private static final class FlatMapFn<T, R> implements DistributedFunction<JetEvent<T>, Traverser<JetEvent<R>>> {
+        private static final long serialVersionUID = 1L;
+
+        private final DistributedFunction<? super T, ? extends Traverser<? extends R>> flatMapFn;
+
+        FlatMapFn(DistributedFunction<? super T, ? extends Traverser<? extends R>> flatMapFn) {
+            this.flatMapFn = flatMapFn;
+        }
+
+        @Override
+        public Traverser<JetEvent<R>> apply(JetEvent<T> e) {
+            return flatMapFn.apply(e.payload()).map(r -> withPayload(e, r));
+        }
+    }
+}
@@ -24,6 +24,7 @@ import com.hazelcast.jet.core.ProcessorSupplier;
 import com.hazelcast.jet.core.Vertex;
 import com.hazelcast.jet.core.WatermarkEmissionPolicy;
 import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.impl.pipeline.transform.FusedTransform;
 import com.hazelcast.jet.impl.pipeline.transform.SinkTransform;
 import com.hazelcast.jet.impl.pipeline.transform.StreamSourceTransform;
 import com.hazelcast.jet.impl.pipeline.transform.TimestampTransform;
@@ -31,6 +32,7 @@ import com.hazelcast.jet.impl.pipeline.transform.Transform;
 import com.hazelcast.jet.impl.util.Util;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -87,12 +89,51 @@ public class Planner {
         }
 
         Iterable<Transform> sorted = topologicalSort(adjacencyMap, Object::toString);
-        for (Transform transform : sorted) {
+        for (Transform transform : fuseStatelessChains(sorted, adjacencyMap)) {
             transform.addToDag(this);
         }
         return dag;
     }
 
+    /**
+     * Replaces each chain of two or more consecutive fusible transforms (see
+     * {@link FusedTransform#isFusible}) with a {@link FusedTransform}. A
+     * transform joins the chain if it's the only downstream of the previous
+     * member and has the same local parallelism.
+     */
+    private static List<Transform> fuseStatelessChains(
+            Iterable<Transform> sorted, Map<Transform, List<Transform>> adjacencyMap
+    ) {
+        List<Transform> result = new ArrayList<>();
+        Set<Transform> fused = new HashSet<>();
+        for (Transform transform : sorted) {
+            if (fused.contains(transform)) {
+                continue;
+            }
+            if (!FusedTransform.isFusible(transform)) {
+                result.add(transform);
+                continue;
+            }
+            List<Transform> chain = new ArrayList<>();
+            chain.add(transform);
+            for (Transform last = transform; adjacencyMap.get(last).size() == 1; ) {
+                Transform next = adjacencyMap.get(last).get(0);
+                if (!FusedTransform.isFusible(next) || next.localParallelism() != transform.localParallelism()) {
+                    break;
+                }
+                chain.add(next);
+                last = next;
+            }
+            if (chain.size() == 1) {
+                result.add(transform);
+                continue;
+            }
+            fused.addAll(chain);
+            result.add(FusedTransform.fuse(chain));
+        }
+        return result;
+    }
+
     private static void validateNoLeakage(Map<Transform, List<Transform>> adjacencyMap) {
         List<Transform> leakages = adjacencyMap
                 .entrySet().stream()
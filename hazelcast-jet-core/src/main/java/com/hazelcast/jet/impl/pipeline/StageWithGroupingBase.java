@@ -25,6 +25,7 @@ import com.hazelcast.jet.pipeline.ContextFactory;
 import com.hazelcast.jet.pipeline.GeneralStageWithKey;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
 
@@ -61,6 +62,19 @@ class StageWithGroupingBase<T, K> {
         });
     }
 
+    @Nonnull
+    <C, R, RET> RET attachMapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends CompletableFuture<? extends R>>
+                    mapAsyncFn
+    ) {
+        DistributedFunction<? super T, ? extends K> keyFn = keyFn();
+        return computeStage.attachMapUsingPartitionedContextAsync(contextFactory, keyFn, (c, t) -> {
+            K k = keyFn.apply(t);
+            return mapAsyncFn.apply(c, k, t);
+        });
+    }
+
     @Nonnull
     <C, RET> RET attachFilterUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
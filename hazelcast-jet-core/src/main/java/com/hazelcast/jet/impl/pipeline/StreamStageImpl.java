@@ -36,6 +36,7 @@ import com.hazelcast.jet.pipeline.StreamStageWithKey;
 import com.hazelcast.jet.pipeline.WindowDefinition;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.function.DistributedFunctions.constantKey;
 import static com.hazelcast.jet.impl.util.Util.checkSerializable;
@@ -86,6 +87,14 @@ public class StreamStageImpl<T> extends ComputeStageImplBase<T> implements Strea
         return attachMapUsingContext(contextFactory, mapFn);
     }
 
+    @Nonnull @Override
+    public <C, R> StreamStage<R> mapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        return attachMapUsingContextAsync(contextFactory, mapAsyncFn);
+    }
+
     @Nonnull @Override
     public <C> StreamStage<T> filterUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.pipeline.transform;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.Traversers;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedPredicate;
+import com.hazelcast.jet.function.DistributedSupplier;
+import com.hazelcast.jet.impl.pipeline.Planner;
+import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+import static com.hazelcast.jet.core.processor.Processors.flatMapP;
+import static com.hazelcast.jet.core.processor.Processors.mapP;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.adaptFlatMapFn;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.adaptMapFn;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.payloadFn;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A chain of stateless transforms ({@link MapTransform}, {@link
+ * FilterTransform} and {@link FlatMapTransform}) that the {@link Planner}
+ * implements with a single vertex. The functions of the chain are composed
+ * into one function so the items aren't handed over between vertices.
+ * <p>
+ * If there's no flat-mapping transform in the chain, the composed function
+ * is a mapping function that returns {@code null} for filtered-out items
+ * and no traverser is created per item. If the items are {@code JetEvent}s,
+ * the composed function works on the payload and the event is unwrapped
+ * and re-created once per chain.
+ */
+@SuppressWarnings("unchecked")
+public final class FusedTransform extends AbstractTransform {
+    @Nonnull
+    private final List<Transform> chain;
+
+    private FusedTransform(@Nonnull List<Transform> chain) {
+        super(chain.stream().map(Transform::name).collect(joining(", ", "fused(", ")")),
+                chain.get(0).upstream());
+        this.chain = chain;
+        localParallelism(chain.get(0).localParallelism());
+    }
+
+    /**
+     * Returns a fused transform for the given chain. Each transform in the
+     * chain must be fusible and must be the only downstream of the previous
+     * one.
+     */
+    @Nonnull
+    public static FusedTransform fuse(@Nonnull List<Transform> chain) {
+        assert chain.size() > 1 && chain.stream().allMatch(FusedTransform::isFusible) : chain;
+        return new FusedTransform(chain);
+    }
+
+    /**
+     * Returns whether the transform can be a member of a fused chain.
+     */
+    public static boolean isFusible(@Nonnull Transform transform) {
+        return transform instanceof MapTransform
+                || transform instanceof FilterTransform
+                || transform instanceof FlatMapTransform;
+    }
+
+    @Nonnull
+    public List<Transform> chain() {
+        return chain;
+    }
+
+    @Override
+    public void addToDag(Planner p) {
+        PlannerVertex pv = p.addVertex(this, p.uniqueVertexName(name(), ""), localParallelism(), processorSupplier());
+        p.addEdges(this, pv.v);
+        // downstream transforms refer to the members of the chain
+        for (Transform transform : chain) {
+            p.xform2vertex.put(transform, pv);
+        }
+    }
+
+    private DistributedSupplier<Processor> processorSupplier() {
+        // In a stream with timestamps the functions are adapted to JetEvents.
+        // We compose the functions they adapt and adapt only the result.
+        boolean jetEvents = payloadFn(function(chain.get(0))) != null;
+        DistributedFunction<Object, Object> mapFn = null;
+        DistributedFunction<Object, Traverser<?>> flatMapFn = null;
+        for (Transform transform : chain) {
+            Object fn = jetEvents ? payloadFn(function(transform)) : function(transform);
+            if (transform instanceof FlatMapTransform) {
+                DistributedFunction<Object, Traverser<?>> flatMapFn1 = (DistributedFunction<Object, Traverser<?>>) fn;
+                flatMapFn = flatMapFn != null ? flatMapThenFlatMap(flatMapFn, flatMapFn1)
+                        : mapFn != null ? mapThenFlatMap(mapFn, flatMapFn1)
+                        : flatMapFn1;
+                mapFn = null;
+                continue;
+            }
+            DistributedFunction<Object, Object> mapFn1 = transform instanceof MapTransform
+                    ? (DistributedFunction<Object, Object>) fn
+                    : filterToMapFn((DistributedPredicate<Object>) fn);
+            if (flatMapFn != null) {
+                flatMapFn = flatMapThenMap(flatMapFn, mapFn1);
+            } else {
+                mapFn = mapFn != null ? mapThenMap(mapFn, mapFn1) : mapFn1;
+            }
+        }
+        if (flatMapFn != null) {
+            return jetEvents ? flatMapP(adaptFlatMapFn(flatMapFn)) : flatMapP(flatMapFn);
+        }
+        return jetEvents ? mapP(adaptMapFn(mapFn)) : mapP(mapFn);
+    }
+
+    private static Object function(Transform transform) {
+        return transform instanceof MapTransform ? ((MapTransform) transform).mapFn()
+                : transform instanceof FilterTransform ? ((FilterTransform) transform).filterFn()
+                : ((FlatMapTransform) transform).flatMapFn();
+    }
+
+    private static DistributedFunction<Object, Object> filterToMapFn(DistributedPredicate<Object> filterFn) {
+        return item -> filterFn.test(item) ? item : null;
+    }
+
+    private static DistributedFunction<Object, Object> mapThenMap(
+            DistributedFunction<Object, Object> mapFn1, DistributedFunction<Object, Object> mapFn2
+    ) {
+        return item -> {
+            Object r = mapFn1.apply(item);
+            return r != null ? mapFn2.apply(r) : null;
+        };
+    }
+
+    private static DistributedFunction<Object, Traverser<?>> mapThenFlatMap(
+            DistributedFunction<Object, Object> mapFn, DistributedFunction<Object, Traverser<?>> flatMapFn
+    ) {
+        return item -> {
+            Object r = mapFn.apply(item);
+            return r != null ? flatMapFn.apply(r) : Traversers.empty();
+        };
+    }
+
+    private static DistributedFunction<Object, Traverser<?>> flatMapThenMap(
+            DistributedFunction<Object, Traverser<?>> flatMapFn, DistributedFunction<Object, Object> mapFn
+    ) {
+        return item -> flatMapFn.apply(item).map(mapFn);
+    }
+
+    private static DistributedFunction<Object, Traverser<?>> flatMapThenFlatMap(
+            DistributedFunction<Object, Traverser<?>> flatMapFn1, DistributedFunction<Object, Traverser<?>> flatMapFn2
+    ) {
+        return item -> flatMapFn1.apply(item).flatMap(flatMapFn2);
+    }
+}
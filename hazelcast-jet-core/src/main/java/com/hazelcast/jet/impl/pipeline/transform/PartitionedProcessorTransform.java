@@ -26,9 +26,11 @@ import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
 import com.hazelcast.jet.pipeline.ContextFactory;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.core.processor.Processors.filterUsingContextP;
 import static com.hazelcast.jet.core.processor.Processors.flatMapUsingContextP;
+import static com.hazelcast.jet.core.processor.Processors.mapUsingContextAsyncP;
 import static com.hazelcast.jet.core.processor.Processors.mapUsingContextP;
 
 public final class PartitionedProcessorTransform<T, K> extends ProcessorTransform {
@@ -64,6 +66,16 @@ public final class PartitionedProcessorTransform<T, K> extends ProcessorTransfor
                 upstream, mapUsingContextP(contextFactory, mapFn), partitionKeyFn);
     }
 
+    public static <C, T, K, R> PartitionedProcessorTransform<T, K> mapUsingContextAsyncPartitionedTransform(
+            @Nonnull Transform upstream,
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn,
+            @Nonnull DistributedFunction<? super T, ? extends K> partitionKeyFn
+    ) {
+        return new PartitionedProcessorTransform<>("mapUsingPartitionedContextAsync",
+                upstream, mapUsingContextAsyncP(contextFactory, mapAsyncFn), partitionKeyFn);
+    }
+
     public static <C, T, K> PartitionedProcessorTransform<T, K> filterUsingPartitionedContextTransform(
             @Nonnull Transform upstream,
             @Nonnull ContextFactory<C> contextFactory,
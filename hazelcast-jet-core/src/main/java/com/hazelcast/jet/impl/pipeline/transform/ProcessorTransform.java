@@ -27,9 +27,11 @@ import com.hazelcast.jet.impl.pipeline.Planner.PlannerVertex;
 import com.hazelcast.jet.pipeline.ContextFactory;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.core.processor.Processors.filterUsingContextP;
 import static com.hazelcast.jet.core.processor.Processors.flatMapUsingContextP;
+import static com.hazelcast.jet.core.processor.Processors.mapUsingContextAsyncP;
 import static com.hazelcast.jet.core.processor.Processors.mapUsingContextP;
 
 public class ProcessorTransform extends AbstractTransform {
@@ -60,6 +62,15 @@ public class ProcessorTransform extends AbstractTransform {
         return new ProcessorTransform("mapUsingContext", upstream, mapUsingContextP(contextFactory, mapFn));
     }
 
+    public static <C, T, R> ProcessorTransform mapUsingContextAsyncTransform(
+            @Nonnull Transform upstream,
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    ) {
+        return new ProcessorTransform("mapUsingContextAsync", upstream,
+                mapUsingContextAsyncP(contextFactory, mapAsyncFn));
+    }
+
     public static <C, T> ProcessorTransform filterUsingContextTransform(
             @Nonnull Transform upstream,
             @Nonnull ContextFactory<C> contextFactory,
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.core.AbstractProcessor;
+import com.hazelcast.jet.core.Processor;
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.ResettableSingletonTraverser;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.function.DistributedBiFunction;
+import com.hazelcast.jet.pipeline.ContextFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Backing processor for {@link
+ * com.hazelcast.jet.pipeline.GeneralStage#mapUsingContextAsync}.
+ * <p>
+ * The processor keeps up to {@link
+ * ContextFactory#getMaxPendingCallsPerProcessor()} calls in flight and
+ * stops taking items from the inbox when the limit is reached. Depending
+ * on {@link ContextFactory#hasOrderedAsyncResponses()} it emits the
+ * results in the order of the input items or in the order of completion.
+ * A watermark and a snapshot barrier are only processed after all the
+ * pending calls have completed and their results were emitted, so they
+ * never overtake the results of the items received before them.
+ *
+ * @param <C> context object type
+ * @param <T> received item type
+ * @param <R> emitted item type
+ */
+public final class AsyncTransformUsingContextP<C, T, R> extends AbstractProcessor {
+
+    // package-visible for test
+    C contextObject;
+
+    private final ContextFactory<C> contextFactory;
+    private final DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> callAsyncFn;
+    private final int maxPendingCalls;
+    private final boolean ordered;
+
+    private final ArrayDeque<CompletableFuture<? extends R>> pendingCalls = new ArrayDeque<>();
+    private final ResettableSingletonTraverser<R> resultTraverser = new ResettableSingletonTraverser<>();
+
+    /**
+     * Constructs a processor with the given mapping function.
+     */
+    private AsyncTransformUsingContextP(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> callAsyncFn,
+            @Nullable C contextObject
+    ) {
+        this.contextFactory = contextFactory;
+        this.callAsyncFn = callAsyncFn;
+        this.contextObject = contextObject;
+        this.maxPendingCalls = contextFactory.getMaxPendingCallsPerProcessor();
+        this.ordered = contextFactory.hasOrderedAsyncResponses();
+
+        assert contextObject == null ^ contextFactory.isSharedLocally()
+                : "if contextObject is shared, it must be non-null, or vice versa";
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        if (!contextFactory.isSharedLocally()) {
+            assert contextObject == null : "contextObject is not null: " + contextObject;
+            contextObject = contextFactory.createFn().apply(context.jetInstance());
+        }
+    }
+
+    @Override
+    public boolean isCooperative() {
+        return contextFactory.isCooperative();
+    }
+
+    @Override
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        tryFlushResults();
+        if (pendingCalls.size() >= maxPendingCalls) {
+            return false;
+        }
+        CompletableFuture<? extends R> future = callAsyncFn.apply(contextObject, (T) item);
+        if (future != null) {
+            pendingCalls.add(future);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryProcess() {
+        tryFlushResults();
+        return true;
+    }
+
+    @Override
+    public boolean tryProcessWatermark(@Nonnull Watermark watermark) {
+        return tryFlushResults();
+    }
+
+    @Override
+    public boolean saveToSnapshot() {
+        return tryFlushResults();
+    }
+
+    @Override
+    public boolean complete() {
+        return tryFlushResults();
+    }
+
+    @Override
+    public void close() {
+        // close() might be called even if init() was not called.
+        // Only destroy the context if is not shared (i.e. it is our own).
+        if (contextObject != null && !contextFactory.isSharedLocally()) {
+            contextFactory.destroyFn().accept(contextObject);
+        }
+        contextObject = null;
+    }
+
+    /**
+     * Emits the results of the completed calls.
+     *
+     * @return whether all the pending calls completed and their results
+     *      were emitted
+     */
+    private boolean tryFlushResults() {
+        for (CompletableFuture<? extends R> future; emitFromTraverser(resultTraverser); ) {
+            if ((future = pollCompleted()) == null) {
+                return pendingCalls.isEmpty();
+            }
+            try {
+                resultTraverser.accept(future.join());
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<? extends R> pollCompleted() {
+        if (ordered) {
+            CompletableFuture<? extends R> head = pendingCalls.peek();
+            return head != null && head.isDone() ? pendingCalls.poll() : null;
+        }
+        for (Iterator<CompletableFuture<? extends R>> it = pendingCalls.iterator(); it.hasNext(); ) {
+            CompletableFuture<? extends R> future = it.next();
+            if (future.isDone()) {
+                it.remove();
+                return future;
+            }
+        }
+        return null;
+    }
+
+    private static final class Supplier<C, T, R> implements ProcessorSupplier {
+
+        static final long serialVersionUID = 1L;
+
+        private final ContextFactory<C> contextFactory;
+        private final DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>>
+                callAsyncFn;
+        private transient C contextObject;
+
+        private Supplier(
+                @Nonnull ContextFactory<C> contextFactory,
+                @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>>
+                        callAsyncFn
+        ) {
+            this.contextFactory = contextFactory;
+            this.callAsyncFn = callAsyncFn;
+        }
+
+        @Override
+        public void init(@Nonnull Context context) {
+            if (contextFactory.isSharedLocally()) {
+                contextObject = contextFactory.createFn().apply(context.jetInstance());
+            }
+        }
+
+        @Nonnull @Override
+        public Collection<? extends Processor> get(int count) {
+            return Stream.generate(() -> new AsyncTransformUsingContextP<>(contextFactory, callAsyncFn, contextObject))
+                         .limit(count)
+                         .collect(toList());
+        }
+
+        @Override
+        public void close(Throwable error) {
+            if (contextObject != null) {
+                contextFactory.destroyFn().accept(contextObject);
+            }
+        }
+    }
+
+    /**
+     * Returns the supplier of processors that call {@code callAsyncFn} for
+     * each received item and emit the results of the returned futures. If
+     * the function returns {@code null} instead of a future or the future
+     * completes with {@code null}, nothing is emitted for the item.
+     */
+    public static <C, T, R> ProcessorSupplier supplier(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> callAsyncFn
+    ) {
+        return new Supplier<>(contextFactory, callAsyncFn);
+    }
+}
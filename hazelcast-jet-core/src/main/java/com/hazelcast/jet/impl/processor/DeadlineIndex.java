@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.util.collection.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Index of keys by their deadline, used to find the keys whose deadline
+ * passed. The keys are kept in a bucket per deadline, the deadlines in a
+ * primitive binary min-heap. Adding a key is O(1) if its deadline already
+ * has a bucket and O(log(deadlines)) otherwise, all the keys whose
+ * deadline passed are removed in one batch.
+ * <p>
+ * There's no operation to remove a key: if its deadline moves, the caller
+ * adds the key with the new deadline and ignores the stale entry when it
+ * expires.
+ *
+ * @param <K> type of the key
+ */
+final class DeadlineIndex<K> {
+
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
+    private final Long2ObjectHashMap<List<K>> buckets = new Long2ObjectHashMap<>();
+    private long[] heap = new long[INITIAL_HEAP_CAPACITY];
+    private int heapSize;
+    private int size;
+
+    void add(long deadline, K key) {
+        List<K> bucket = buckets.get(deadline);
+        if (bucket == null) {
+            bucket = new ArrayList<>(1);
+            buckets.put(deadline, bucket);
+            heapPush(deadline);
+        }
+        bucket.add(key);
+        size++;
+    }
+
+    /**
+     * Removes all entries with deadline less than the {@code limit} and
+     * passes them to the {@code action} in the order of their deadlines.
+     */
+    void pollExpired(long limit, ObjLongConsumer<? super K> action) {
+        while (heapSize > 0 && heap[0] < limit) {
+            long deadline = heapPop();
+            List<K> bucket = buckets.remove(deadline);
+            size -= bucket.size();
+            for (K key : bucket) {
+                action.accept(key, deadline);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries, including the stale ones.
+     */
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadlineIndex{size=" + size + ", deadlines=" + heapSize + '}';
+    }
+
+    private void heapPush(long deadline) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= deadline) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = deadline;
+    }
+
+    private long heapPop() {
+        long result = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        for (int child; (child = 2 * i + 1) < heapSize; i = child) {
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+        }
+        heap[i] = last;
+        return result;
+    }
+}
@@ -16,20 +16,23 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.aggregate.AggregateOperation1;
 import com.hazelcast.jet.core.AbstractProcessor;
 import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
+import java.util.Map.Entry;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
-import static com.hazelcast.jet.Traversers.traverseStream;
+import static com.hazelcast.jet.Util.idToString;
 import static com.hazelcast.util.Preconditions.checkTrue;
 import static java.util.Collections.singletonList;
 
@@ -38,13 +41,39 @@ import static java.util.Collections.singletonList;
  * aggregate operation on each group. The items may originate from one or
  * more inbound edges. The supplied aggregate operation must have as many
  * accumulation functions as there are inbound edges.
+ * <p>
+ * If the number of keys reaches {@link
+ * com.hazelcast.jet.config.JobConfig#setMaxInMemoryKeys
+ * JobConfig.maxInMemoryKeys}, the processor spills the accumulators to
+ * {@link SpillFiles} and continues with an empty map. In {@code complete()}
+ * it spills the rest and merges the files one partition at a time using
+ * the {@code combineFn}. If a partition has more keys than the limit, it is
+ * spilled again to files partitioned by the next bits of the key hash,
+ * which are merged before the next partition. Spilling and merging is done
+ * in batches so that a single call doesn't take too long.
  */
 public class GroupP<K, A, R, OUT> extends AbstractProcessor {
+    private static final int SPILL_BATCH_SIZE = 1024;
+
     @Nonnull private final List<DistributedFunction<?, ? extends K>> groupKeyFns;
     @Nonnull private final AggregateOperation<A, R> aggrOp;
 
-    private final Map<K, A> keyToAcc = new HashMap<>();
-    private final Traverser<OUT> resultTraverser;
+    @Nonnull private final BiFunction<? super K, ? super R, OUT> mapToOutputFn;
+
+    private KeyedAccumulators<K, A> keyToAcc;
+    private Traverser<OUT> resultTraverser;
+
+    private long maxInMemoryKeys;
+    private String spillDirectory;
+    private String spillFilePrefix;
+    private InternalSerializationService serializationService;
+    // the files being written
+    private SpillFiles spillFiles;
+    // the entries being spilled
+    private Traverser<Entry<K, A>> spillTraverser;
+    // the files being merged, the files spilled from a partition of a lower
+    // level are on top; null until all entries are spilled
+    private Deque<MergeState> mergeStack;
 
     public GroupP(
             @Nonnull List<DistributedFunction<?, ? extends K>> groupKeyFns,
@@ -55,9 +84,8 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
                 "provided for " + aggrOp.arity() + "-arity aggregate operation");
         this.groupKeyFns = groupKeyFns;
         this.aggrOp = aggrOp;
-        this.resultTraverser = traverseStream(keyToAcc
-                .entrySet().stream()
-                .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue()))));
+        this.mapToOutputFn = mapToOutputFn;
+        this.keyToAcc = new KeyedAccumulators<>(aggrOp.createFn());
     }
 
     public <T> GroupP(
@@ -68,18 +96,188 @@ public class GroupP<K, A, R, OUT> extends AbstractProcessor {
         this(singletonList(groupKeyFn), aggrOp, mapToOutputFn);
     }
 
+    @Override
+    protected void init(@Nonnull Context context) {
+        maxInMemoryKeys = context.jobConfig().getMaxInMemoryKeys();
+        if (maxInMemoryKeys > 0 && aggrOp.combineFn() == null) {
+            getLogger().warning("The aggregate operation has no combineFn, the processor will not spill to disk "
+                    + "after reaching the limit of " + maxInMemoryKeys + " in-memory keys");
+            maxInMemoryKeys = -1;
+        }
+        spillDirectory = context.jobConfig().getSpillDirectory();
+        spillFilePrefix = "jet-" + idToString(context.jobId()) + '-' + context.globalProcessorIndex() + '-';
+        if (maxInMemoryKeys > 0) {
+            checkTrue(context instanceof ProcCtx, "Spilling to disk requires the serialization service of "
+                    + "the member, supply a ProcCtx instead of " + context.getClass().getSimpleName());
+            serializationService = ((ProcCtx) context).serializationService();
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        if (spillTraverser != null && !spill()) {
+            return false;
+        }
         Function<Object, ? extends K> keyFn = (Function<Object, ? extends K>) groupKeyFns.get(ordinal);
         K key = keyFn.apply(item);
-        A acc = keyToAcc.computeIfAbsent(key, k -> aggrOp.createFn().get());
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        keyToAcc.accumulate(key, item, aggrOp.accumulateFn(ordinal));
+        if (maxInMemoryKeys > 0 && keyToAcc.size() >= maxInMemoryKeys) {
+            startSpilling(0);
+        }
         return true;
     }
 
     @Override
     public boolean complete() {
+        if (spillFiles != null || mergeStack != null) {
+            return completeFromSpillFiles();
+        }
+        if (resultTraverser == null) {
+            resultTraverser = resultTraverser();
+        }
         return emitFromTraverser(resultTraverser);
     }
+
+    @Override
+    public void close() {
+        if (spillFiles != null) {
+            spillFiles.close();
+        }
+        if (mergeStack != null) {
+            for (MergeState state : mergeStack) {
+                state.files.close();
+            }
+        }
+    }
+
+    private Traverser<OUT> resultTraverser() {
+        return keyToAcc.traverser()
+                       .map(e -> mapToOutputFn.apply(e.getKey(), aggrOp.finishFn().apply(e.getValue())));
+    }
+
+    private void startSpilling(int level) {
+        if (spillFiles == null) {
+            spillFiles = new SpillFiles(serializationService, spillDirectory, spillFilePrefix, level);
+        }
+        spillTraverser = keyToAcc.traverser();
+        keyToAcc = new KeyedAccumulators<>(aggrOp.createFn());
+    }
+
+    /**
+     * Spills the next batch of entries, returns {@code true} when done.
+     */
+    private boolean spill() {
+        for (int i = 0; i < SPILL_BATCH_SIZE; i++) {
+            Entry<K, A> e = spillTraverser.next();
+            if (e == null) {
+                spillTraverser = null;
+                return true;
+            }
+            spillFiles.write(e.getKey(), e.getValue());
+        }
+        return false;
+    }
+
+    /**
+     * Spills the in-memory entries that weren't spilled yet and finishes
+     * writing the current spill files. Returns {@code true} when done.
+     */
+    private boolean finishSpilling() {
+        if (spillTraverser == null && !keyToAcc.isEmpty()) {
+            startSpilling(spillFiles.level());
+        }
+        if (spillTraverser != null && !spill()) {
+            return false;
+        }
+        spillFiles.finishWriting();
+        return true;
+    }
+
+    private boolean completeFromSpillFiles() {
+        if (mergeStack == null) {
+            if (!finishSpilling()) {
+                return false;
+            }
+            mergeStack = new ArrayDeque<>();
+            mergeStack.push(new MergeState(spillFiles));
+            spillFiles = null;
+        }
+        while (!mergeStack.isEmpty()) {
+            MergeState state = mergeStack.peek();
+            if (state.partition == SpillFiles.partitionCount()) {
+                state.files.close();
+                mergeStack.pop();
+                continue;
+            }
+            if (resultTraverser == null) {
+                if (!mergePartition(state)) {
+                    return false;
+                }
+                if (spillFiles != null) {
+                    // the partition was spilled again, merge the new files first
+                    state.nextPartition();
+                    mergeStack.push(new MergeState(spillFiles));
+                    spillFiles = null;
+                    continue;
+                }
+                resultTraverser = resultTraverser();
+            }
+            if (!emitFromTraverser(resultTraverser)) {
+                return false;
+            }
+            resultTraverser = null;
+            keyToAcc = new KeyedAccumulators<>(aggrOp.createFn());
+            state.nextPartition();
+        }
+        mergeStack = null;
+        return true;
+    }
+
+    /**
+     * Merges the next batch of the current partition into the in-memory map.
+     * If the map reaches the key limit, the partition is spilled to the files
+     * of the next level. Returns {@code true} when the whole partition was
+     * read and, if it was spilled, the spill files were finished.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean mergePartition(MergeState state) {
+        if (spillTraverser != null && !spill()) {
+            return false;
+        }
+        if (!state.partitionRead) {
+            if (keyToAcc.size() >= maxInMemoryKeys && state.files.canSplitFurther()) {
+                startSpilling(state.files.level() + 1);
+                return false;
+            }
+            // each pair adds at most one key, don't read beyond the limit
+            int maxPairs = (int) Math.max(1, Math.min(SPILL_BATCH_SIZE, maxInMemoryKeys - keyToAcc.size()));
+            state.partitionRead = state.files.readPartition(state.partition, maxPairs,
+                    (k, acc) -> keyToAcc.accumulate((K) k, (A) acc, aggrOp.combineFn()));
+            if (!state.partitionRead) {
+                return false;
+            }
+        }
+        return spillFiles == null || finishSpilling();
+    }
+
+    // package-visible for testing
+    int inMemoryKeyCount() {
+        return keyToAcc.size();
+    }
+
+    private static final class MergeState {
+        final SpillFiles files;
+        int partition;
+        boolean partitionRead;
+
+        MergeState(SpillFiles files) {
+            this.files = files;
+        }
+
+        void nextPartition() {
+            partition++;
+            partitionRead = false;
+        }
+    }
 }
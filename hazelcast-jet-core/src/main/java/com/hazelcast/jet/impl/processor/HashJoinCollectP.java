@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.impl.processor;
 
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.core.AbstractProcessor;
 
 import javax.annotation.Nonnull;
@@ -27,17 +28,27 @@ import java.util.function.Function;
  * Implements the "collector" pipeline in a hash join transformation. This
  * pipeline collects the entire joined stream into a hashmap and then
  * broadcasts it to all local second-pipeline processors.
+ * <p>
+ * The map is emitted as a single item, therefore it can't be spilled to
+ * disk. If it reaches {@link com.hazelcast.jet.config.JobConfig#setMaxInMemoryKeys
+ * JobConfig.maxInMemoryKeys}, the processor fails the job.
  */
 public class HashJoinCollectP<K, E, V> extends AbstractProcessor {
     private final Map<K, V> map = new HashMap<>();
     @Nonnull private final Function<E, K> keyFn;
     @Nonnull private final Function<E, V> projectFn;
+    private long maxInMemoryKeys;
 
     public HashJoinCollectP(@Nonnull Function<E, K> keyFn, @Nonnull Function<E, V> projectFn) {
         this.keyFn = keyFn;
         this.projectFn = projectFn;
     }
 
+    @Override
+    protected void init(@Nonnull Context context) {
+        maxInMemoryKeys = context.jobConfig().getMaxInMemoryKeys();
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected boolean tryProcess0(@Nonnull Object item) {
@@ -49,6 +60,10 @@ public class HashJoinCollectP<K, E, V> extends AbstractProcessor {
             throw new IllegalStateException("Duplicate values for key '" + key + "': '" + previous + "' and '" + value
                     + "'");
         }
+        if (maxInMemoryKeys > 0 && map.size() > maxInMemoryKeys) {
+            throw new JetException("The hash-join build side has more than " + maxInMemoryKeys + " keys, the limit "
+                    + "set by JobConfig.maxInMemoryKeys");
+        }
         return true;
     }
 
@@ -0,0 +1,528 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.accumulator.DoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.LongDoubleAccumulator;
+import com.hazelcast.jet.accumulator.LongLongAccumulator;
+
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static com.hazelcast.jet.Util.entry;
+
+/**
+ * Open-addressing hash map from a grouping key to its accumulator, used by
+ * the aggregating processors instead of a {@code HashMap<K, A>}. It has no
+ * per-entry node objects. If the accumulator is a {@link LongAccumulator},
+ * {@link DoubleAccumulator}, {@link LongLongAccumulator} or {@link
+ * LongDoubleAccumulator}, it has no per-key accumulator objects either: the
+ * values are kept in a {@code long[]} and updated in place through a single
+ * reusable accumulator instance.
+ * <p>
+ * An accumulator passed to a callback or returned from {@link #accumulate}
+ * may be such a reusable instance: it is only valid until the next call to
+ * this map and must not escape. Use {@link #detach} to get an independent
+ * copy. Accumulators returned by {@link #traverser()} are always
+ * independent.
+ * <p>
+ * If created with {@code trackChanges}, the map flags the keys updated by
+ * {@link #accumulate} in a bitset until {@link #clearChanges()} is called,
+ * so that an incremental snapshot can save only those.
+ *
+ * @param <K> type of the key
+ * @param <A> type of the accumulator
+ */
+final class KeyedAccumulators<K, A> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final Object NULL_KEY = new Object();
+    // log2(Long.SIZE), to find the word of a bit in the changed bitset
+    private static final int BITS_PER_WORD_SHIFT = 6;
+
+    private final Supplier<A> createFn;
+    // null if the accumulators are stored as objects
+    private final Codec<A> codec;
+    private final int slotsPerValue;
+    // the encoded value of a new accumulator
+    private final long[] initialSlots;
+    private final A flyweight;
+    private final boolean trackChanges;
+
+    private Object[] keys;
+    private Object[] objValues;
+    private long[] slots;
+    private int size;
+    private int resizeThreshold;
+    // one bit per slot of keys, null if changes aren't tracked
+    private long[] changed;
+    private int changedCount;
+
+    KeyedAccumulators(Supplier<A> createFn) {
+        this(createFn, false);
+    }
+
+    KeyedAccumulators(Supplier<A> createFn, boolean trackChanges) {
+        this.createFn = createFn;
+        this.trackChanges = trackChanges;
+        A sample = createFn.get();
+        this.codec = Codec.forAccumulator(sample);
+        if (codec != null) {
+            slotsPerValue = codec.slotCount();
+            initialSlots = new long[slotsPerValue];
+            codec.write(sample, initialSlots, 0);
+            flyweight = sample;
+        } else {
+            slotsPerValue = 0;
+            initialSlots = null;
+            flyweight = null;
+        }
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Applies the {@code accumulateFn} to the accumulator for the given key
+     * and the given item, creating the accumulator if there is none.
+     * Returns the accumulator.
+     */
+    <T> A accumulate(K key, T item, BiConsumer<? super A, ? super T> accumulateFn) {
+        Object k = maskNull(key);
+        int index = indexOf(k);
+        if (index < 0) {
+            index = insert(k, ~index);
+        }
+        if (trackChanges) {
+            markChanged(index);
+        }
+        if (codec == null) {
+            @SuppressWarnings("unchecked")
+            A acc = (A) objValues[index];
+            accumulateFn.accept(acc, item);
+            return acc;
+        }
+        int offset = index * slotsPerValue;
+        codec.read(slots, offset, flyweight);
+        accumulateFn.accept(flyweight, item);
+        codec.write(flyweight, slots, offset);
+        return flyweight;
+    }
+
+    /**
+     * Stores the accumulator for the given key. Returns {@code false} and
+     * leaves the map unchanged if there already is one.
+     */
+    boolean put(K key, A acc) {
+        Object k = maskNull(key);
+        int index = indexOf(k);
+        if (index >= 0) {
+            return false;
+        }
+        index = insert(k, ~index);
+        if (codec == null) {
+            objValues[index] = acc;
+        } else {
+            codec.write(acc, slots, index * slotsPerValue);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the accumulator for the given key or {@code null} if there is
+     * none. The accumulator is independent, as in {@link #traverser()}.
+     */
+    A get(K key) {
+        int index = indexOf(maskNull(key));
+        return index >= 0 ? valueAt(index, null) : null;
+    }
+
+    void remove(K key) {
+        int index = indexOf(maskNull(key));
+        if (index >= 0) {
+            removeAt(index);
+        }
+    }
+
+    /**
+     * Calls the action for each key and accumulator. The action must not
+     * modify this map.
+     */
+    void forEach(BiConsumer<? super K, ? super A> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(unmaskNull(keys[i]), valueAt(i, flyweight));
+            }
+        }
+    }
+
+    /**
+     * Returns a traverser over the entries of this map. The map must not be
+     * modified until the traverser is exhausted.
+     */
+    Traverser<Entry<K, A>> traverser() {
+        return traverser(false);
+    }
+
+    /**
+     * Returns {@code true} if a key was accumulated since the last call to
+     * {@link #clearChanges()}. Always {@code false} if changes aren't tracked.
+     */
+    boolean hasChanges() {
+        return changedCount > 0;
+    }
+
+    /**
+     * Returns a traverser over the entries accumulated since the last call
+     * to {@link #clearChanges()}, with the same restrictions as {@link
+     * #traverser()}.
+     */
+    Traverser<Entry<K, A>> changesTraverser() {
+        assert trackChanges : "changes not tracked";
+        return traverser(true);
+    }
+
+    void clearChanges() {
+        if (changedCount > 0) {
+            Arrays.fill(changed, 0L);
+            changedCount = 0;
+        }
+    }
+
+    private Traverser<Entry<K, A>> traverser(boolean onlyChanged) {
+        return new Traverser<Entry<K, A>>() {
+            private int index;
+
+            @Override
+            public Entry<K, A> next() {
+                for (; index < keys.length; index++) {
+                    if (keys[index] != null && (!onlyChanged || isChanged(index))) {
+                        Entry<K, A> result = entry(unmaskNull(keys[index]), valueAt(index, null));
+                        index++;
+                        return result;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Returns an accumulator equal to the given one that remains valid after
+     * further calls to this map.
+     */
+    A detach(A acc) {
+        if (codec == null || acc != flyweight) {
+            return acc;
+        }
+        A copy = createFn.get();
+        codec.copy(acc, copy);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((k, acc) -> sb.append(sb.length() > 1 ? ", " : "").append(k).append('=').append(acc));
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns the accumulator at the index. If stored as slots, decodes it
+     * into the {@code target}, or a new accumulator if it is {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    private A valueAt(int index, A target) {
+        if (codec == null) {
+            return (A) objValues[index];
+        }
+        A acc = target != null ? target : createFn.get();
+        codec.read(slots, index * slotsPerValue, acc);
+        return acc;
+    }
+
+    /**
+     * Returns the index of the key or, if it's absent, {@code ~index} of
+     * the free slot where it would be inserted.
+     */
+    private int indexOf(Object key) {
+        int mask = keys.length - 1;
+        for (int i = homeIndex(key, mask); ; i = (i + 1) & mask) {
+            Object k = keys[i];
+            if (k == null) {
+                return ~i;
+            }
+            if (k.equals(key)) {
+                return i;
+            }
+        }
+    }
+
+    private int insert(Object key, int freeIndex) {
+        if (size >= resizeThreshold) {
+            resize();
+            freeIndex = ~indexOf(key);
+        }
+        keys[freeIndex] = key;
+        if (codec == null) {
+            objValues[freeIndex] = createFn.get();
+        } else {
+            System.arraycopy(initialSlots, 0, slots, freeIndex * slotsPerValue, slotsPerValue);
+        }
+        size++;
+        return freeIndex;
+    }
+
+    // backward-shift deletion keeps the probe sequences free of gaps
+    private void removeAt(int index) {
+        if (trackChanges && isChanged(index)) {
+            unmarkChanged(index);
+        }
+        int mask = keys.length - 1;
+        int gap = index;
+        for (int i = (index + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+            int home = homeIndex(keys[i], mask);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                moveSlot(i, gap);
+                gap = i;
+            }
+        }
+        keys[gap] = null;
+        if (codec == null) {
+            objValues[gap] = null;
+        }
+        size--;
+    }
+
+    private void moveSlot(int from, int to) {
+        keys[to] = keys[from];
+        if (trackChanges) {
+            moveChangedFlag(from, to);
+        }
+        if (codec == null) {
+            objValues[to] = objValues[from];
+        } else {
+            System.arraycopy(slots, from * slotsPerValue, slots, to * slotsPerValue, slotsPerValue);
+        }
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        Object[] oldObjValues = objValues;
+        long[] oldSlots = slots;
+        long[] oldChanged = changed;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int index = ~indexOf(oldKeys[i]);
+            keys[index] = oldKeys[i];
+            if (trackChanges && (oldChanged[i >> BITS_PER_WORD_SHIFT] & 1L << i) != 0) {
+                changed[index >> BITS_PER_WORD_SHIFT] |= 1L << index;
+            }
+            if (codec == null) {
+                objValues[index] = oldObjValues[i];
+            } else {
+                System.arraycopy(oldSlots, i * slotsPerValue, slots, index * slotsPerValue, slotsPerValue);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        if (trackChanges) {
+            changed = new long[(capacity + Long.SIZE - 1) >> BITS_PER_WORD_SHIFT];
+        }
+        if (codec == null) {
+            objValues = new Object[capacity];
+        } else {
+            slots = new long[capacity * slotsPerValue];
+        }
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private boolean isChanged(int index) {
+        return (changed[index >> BITS_PER_WORD_SHIFT] & 1L << index) != 0;
+    }
+
+    private void markChanged(int index) {
+        if (!isChanged(index)) {
+            changed[index >> BITS_PER_WORD_SHIFT] |= 1L << index;
+            changedCount++;
+        }
+    }
+
+    private void unmarkChanged(int index) {
+        changed[index >> BITS_PER_WORD_SHIFT] &= ~(1L << index);
+        changedCount--;
+    }
+
+    // moves the flag along with the entry, the count stays the same
+    private void moveChangedFlag(int from, int to) {
+        if (isChanged(from)) {
+            changed[to >> BITS_PER_WORD_SHIFT] |= 1L << to;
+            changed[from >> BITS_PER_WORD_SHIFT] &= ~(1L << from);
+        } else {
+            changed[to >> BITS_PER_WORD_SHIFT] &= ~(1L << to);
+        }
+    }
+
+    // same spreading as in HashMap, so that the iteration order of small
+    // maps is the same as that of a HashMap
+    private static int homeIndex(Object key, int mask) {
+        int h = key.hashCode();
+        return (h ^ (h >>> Short.SIZE)) & mask;
+    }
+
+    private static Object maskNull(Object key) {
+        return key != null ? key : NULL_KEY;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object key) {
+        return key != NULL_KEY ? (K) key : null;
+    }
+
+    /**
+     * Encodes an accumulator of a known class into {@code long} slots.
+     */
+    private abstract static class Codec<A> {
+        private final int slotCount;
+        private final long[] copySlots;
+
+        Codec(int slotCount) {
+            this.slotCount = slotCount;
+            this.copySlots = new long[slotCount];
+        }
+
+        final int slotCount() {
+            return slotCount;
+        }
+
+        abstract void read(long[] slots, int offset, A target);
+
+        abstract void write(A acc, long[] slots, int offset);
+
+        final void copy(A from, A to) {
+            write(from, copySlots, 0);
+            read(copySlots, 0, to);
+        }
+
+        /**
+         * Returns the codec for the class of the given accumulator, or {@code
+         * null} if there is none. Subclasses of the supported classes may have
+         * additional state, therefore only the exact classes are supported.
+         */
+        @SuppressWarnings("unchecked")
+        static <A> Codec<A> forAccumulator(A acc) {
+            Class<?> clazz = acc == null ? null : acc.getClass();
+            if (clazz == LongAccumulator.class) {
+                return (Codec<A>) new LongCodec();
+            }
+            if (clazz == DoubleAccumulator.class) {
+                return (Codec<A>) new DoubleCodec();
+            }
+            if (clazz == LongLongAccumulator.class) {
+                return (Codec<A>) new LongLongCodec();
+            }
+            if (clazz == LongDoubleAccumulator.class) {
+                return (Codec<A>) new LongDoubleCodec();
+            }
+            return null;
+        }
+    }
+
+    private static final class LongCodec extends Codec<LongAccumulator> {
+        LongCodec() {
+            super(1);
+        }
+
+        @Override
+        void read(long[] slots, int offset, LongAccumulator target) {
+            target.set(slots[offset]);
+        }
+
+        @Override
+        void write(LongAccumulator acc, long[] slots, int offset) {
+            slots[offset] = acc.get();
+        }
+    }
+
+    private static final class DoubleCodec extends Codec<DoubleAccumulator> {
+        DoubleCodec() {
+            super(1);
+        }
+
+        @Override
+        void read(long[] slots, int offset, DoubleAccumulator target) {
+            target.set(Double.longBitsToDouble(slots[offset]));
+        }
+
+        @Override
+        void write(DoubleAccumulator acc, long[] slots, int offset) {
+            slots[offset] = Double.doubleToRawLongBits(acc.export());
+        }
+    }
+
+    private static final class LongLongCodec extends Codec<LongLongAccumulator> {
+        LongLongCodec() {
+            super(2);
+        }
+
+        @Override
+        void read(long[] slots, int offset, LongLongAccumulator target) {
+            target.set1(slots[offset]);
+            target.set2(slots[offset + 1]);
+        }
+
+        @Override
+        void write(LongLongAccumulator acc, long[] slots, int offset) {
+            slots[offset] = acc.get1();
+            slots[offset + 1] = acc.get2();
+        }
+    }
+
+    private static final class LongDoubleCodec extends Codec<LongDoubleAccumulator> {
+        LongDoubleCodec() {
+            super(2);
+        }
+
+        @Override
+        void read(long[] slots, int offset, LongDoubleAccumulator target) {
+            target.setLong(slots[offset]);
+            target.setDouble(Double.longBitsToDouble(slots[offset + 1]));
+        }
+
+        @Override
+        void write(LongDoubleAccumulator acc, long[] slots, int offset) {
+            slots[offset] = acc.getLong();
+            slots[offset + 1] = Double.doubleToRawLongBits(acc.getDouble());
+        }
+    }
+}
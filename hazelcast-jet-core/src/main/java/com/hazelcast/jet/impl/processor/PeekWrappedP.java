@@ -83,7 +83,7 @@ public final class PeekWrappedP<T> extends ProcessorWrapper {
                     createLoggerName(wrapped.getClass().getName(), c.vertexName(), c.globalProcessorIndex()));
             context = new ProcCtx(c.jetInstance(), c.jobId(), c.executionId(), c.jobConfig(),
                     newLogger, c.vertexName(), c.localProcessorIndex(), c.globalProcessorIndex(), c.processingGuarantee(),
-                    c.localParallelism(), c.memberIndex(), c.memberCount());
+                    c.localParallelism(), c.memberIndex(), c.memberCount(), c.serializationService());
         }
         super.init(outbox, context);
     }
@@ -74,6 +74,16 @@ public class ProcessorWrapper implements Processor {
         return wrapped.saveToSnapshot();
     }
 
+    @Override
+    public boolean isIncrementalSnapshotSupported() {
+        return wrapped.isIncrementalSnapshotSupported();
+    }
+
+    @Override
+    public boolean saveChangesToSnapshot() {
+        return wrapped.saveChangesToSnapshot();
+    }
+
     @Override
     public void restoreFromSnapshot(@Nonnull Inbox inbox) {
         wrapped.restoreFromSnapshot(inbox);
@@ -25,12 +25,8 @@ import com.hazelcast.jet.function.DistributedFunction;
 import com.hazelcast.jet.pipeline.GeneralStageWithKey;
 
 import javax.annotation.Nonnull;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Map.Entry;
 
-import static com.hazelcast.jet.Traversers.traverseIterable;
-
 /**
  * Backing processor for {@link GeneralStageWithKey#rollingAggregate}.
  *
@@ -42,20 +38,26 @@ import static com.hazelcast.jet.Traversers.traverseIterable;
 public final class RollingAggregateP<T, K, A, R, OUT> extends AbstractProcessor {
     private final FlatMapper<T, OUT> flatMapper;
 
-    private final Map<K, A> keyToAcc = new HashMap<>();
+    private final KeyedAccumulators<K, A> keyToAcc;
     private final ResettableSingletonTraverser<OUT> outputTraverser = new ResettableSingletonTraverser<>();
     private Traverser<Entry<K, A>> snapshotTraverser;
 
+    @SuppressWarnings("unchecked")
     public RollingAggregateP(
             @Nonnull DistributedFunction<? super T, ? extends K> keyFn,
             @Nonnull AggregateOperation1<? super T, A, ? extends R> aggrOp,
             @Nonnull DistributedBiFunction<? super K, ? super R, ? extends OUT> mapToOutputFn
     ) {
+        this.keyToAcc = new KeyedAccumulators<>(aggrOp.createFn());
         this.flatMapper = flatMapper(t -> {
             K key = keyFn.apply(t);
-            A acc = keyToAcc.computeIfAbsent(key, k -> aggrOp.createFn().get());
-            aggrOp.accumulateFn().accept(acc, t);
+            A acc = keyToAcc.accumulate(key, t, aggrOp.accumulateFn());
+            // acc may be the map's reusable instance: export from it directly and
+            // only copy it if the export function returns the accumulator itself
             R aggResult = aggrOp.exportFn().apply(acc);
+            if (aggResult == (Object) acc) {
+                aggResult = (R) keyToAcc.detach(acc);
+            }
             OUT output = mapToOutputFn.apply(key, aggResult);
             if (output != null) {
                 outputTraverser.accept(output);
@@ -73,7 +75,7 @@ public final class RollingAggregateP<T, K, A, R, OUT> extends AbstractProcessor
     @Override
     public boolean saveToSnapshot() {
         if (snapshotTraverser == null) {
-            snapshotTraverser = traverseIterable(keyToAcc.entrySet())
+            snapshotTraverser = keyToAcc.traverser()
                     .onFirstNull(() -> snapshotTraverser = null);
         }
         return emitFromTraverserToSnapshot(snapshotTraverser);
@@ -81,7 +83,7 @@ public final class RollingAggregateP<T, K, A, R, OUT> extends AbstractProcessor
 
     @Override
     protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
-        @SuppressWarnings("unchecked") A old = keyToAcc.put((K) key, (A) value);
-        assert old == null : "Duplicate key '" + key + '\'';
+        @SuppressWarnings("unchecked") boolean added = keyToAcc.put((K) key, (A) value);
+        assert added : "Duplicate key '" + key + '\'';
     }
 }
@@ -37,21 +37,16 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-import java.util.SortedMap;
 import java.util.StringJoiner;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.ToLongFunction;
-import java.util.stream.Stream;
 
-import static com.hazelcast.jet.Traversers.traverseStream;
+import static com.hazelcast.jet.Traversers.traverseIterable;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.config.ProcessingGuarantee.EXACTLY_ONCE;
 import static com.hazelcast.jet.core.BroadcastKey.broadcastKey;
@@ -61,10 +56,10 @@ import static com.hazelcast.jet.impl.util.Util.lazyIncrement;
 import static com.hazelcast.jet.impl.util.Util.logLateEvent;
 import static com.hazelcast.jet.impl.util.Util.toLocalDateTime;
 import static com.hazelcast.util.Preconditions.checkTrue;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.System.arraycopy;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
 /**
  * Session window processor. See {@link
@@ -77,10 +72,11 @@ import static java.util.stream.Collectors.toList;
  */
 public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     private static final Watermark COMPLETING_WM = new Watermark(Long.MAX_VALUE);
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
 
     // exposed for testing, to check for memory leaks
     final Map<K, Windows<A>> keyToWindows = new HashMap<>();
-    final SortedMap<Long, Set<K>> deadlineToKeys = new TreeMap<>();
+    final DeadlineIndex<K> deadlineToKeys = new DeadlineIndex<>();
     long currentWatermark = Long.MIN_VALUE;
 
     private final long sessionTimeout;
@@ -154,8 +150,8 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     @Override
     public boolean tryProcessWatermark(@Nonnull Watermark wm) {
         currentWatermark = wm.timestamp();
-        assert totalWindows.get() == deadlineToKeys.values().stream().mapToInt(Set::size).sum()
-                : "unexpected totalWindows. Expected=" + deadlineToKeys.values().stream().mapToInt(Set::size).sum()
+        assert totalWindows.get() == keyToWindows.values().stream().mapToInt(w -> w.size).sum()
+                : "unexpected totalWindows. Expected=" + keyToWindows.values().stream().mapToInt(w -> w.size).sum()
                 + ", actual=" + totalWindows.get();
         return closedWindowFlatmapper.tryProcess(wm);
     }
@@ -166,35 +162,30 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     private Traverser<OUT> traverseClosedWindows(Watermark wm) {
-        SortedMap<Long, Set<K>> windowsToClose = deadlineToKeys.headMap(wm.timestamp());
-        lazyAdd(totalWindows, -windowsToClose.values().stream().mapToInt(Set::size).sum());
-
-        List<K> distinctKeys = windowsToClose
-                .values().stream()
-                .flatMap(Set::stream)
-                .distinct()
-                .collect(toList());
-        windowsToClose.clear();
-
-        Stream<OUT> closedWindows = distinctKeys
-                .stream()
-                .map(key -> closeWindows(keyToWindows.get(key), key, wm.timestamp()))
-                .flatMap(List::stream);
-        return traverseStream(closedWindows);
-    }
-
-    private void addToDeadlines(K key, long deadline) {
-        if (deadlineToKeys.computeIfAbsent(deadline, x -> new HashSet<>()).add(key)) {
-            lazyIncrement(totalWindows);
-        }
+        List<K> keysToClose = new ArrayList<>();
+        deadlineToKeys.pollExpired(wm.timestamp(), (key, deadline) -> {
+            Windows<A> w = keyToWindows.get(key);
+            // skip stale entries and duplicates
+            if (w != null && w.deadline == deadline) {
+                w.deadline = NO_DEADLINE;
+                keysToClose.add(key);
+            }
+        });
+        return traverseIterable(keysToClose)
+                .flatMap(key -> traverseIterable(closeWindows(keyToWindows.get(key), key, wm.timestamp())));
     }
 
-    private void removeFromDeadlines(K key, long deadline) {
-        Set<K> ks = deadlineToKeys.get(deadline);
-        ks.remove(key);
-        lazyAdd(totalWindows, -1);
-        if (ks.isEmpty()) {
-            deadlineToKeys.remove(deadline);
+    /**
+     * Makes sure the key's windows will be checked when the watermark passes
+     * the end of the first one. The key stays in the index at its old deadline
+     * if that deadline is earlier: when it expires, the key will be added again
+     * with the then-current end of the first window.
+     */
+    private void scheduleDeadline(K key, Windows<A> w) {
+        long deadline = w.ends[0];
+        if (deadline < w.deadline) {
+            w.deadline = deadline;
+            deadlineToKeys.add(deadline, key);
         }
     }
 
@@ -235,13 +226,14 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     public boolean finishSnapshotRestore() {
         assert deadlineToKeys.isEmpty();
         // populate deadlineToKeys
+        long windowCount = 0;
         for (Entry<K, Windows<A>> entry : keyToWindows.entrySet()) {
-            for (long end : entry.getValue().ends) {
-                addToDeadlines(entry.getKey(), end);
-            }
+            scheduleDeadline(entry.getKey(), entry.getValue());
+            windowCount += entry.getValue().size;
         }
         currentWatermark = minRestoredCurrentWatermark;
         totalKeys.set(keyToWindows.size());
+        totalWindows.set(windowCount);
         logFine(getLogger(), "Restored currentWatermark from snapshot to: %s", currentWatermark);
         return true;
     }
@@ -259,8 +251,10 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
                 results.add(out);
             }
         }
+        lazyAdd(totalWindows, -i);
         if (i != w.size) {
             w.removeHead(i);
+            scheduleDeadline(key, w);
         } else {
             keyToWindows.remove(key);
             totalKeys.set(keyToWindows.size());
@@ -287,22 +281,21 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
             if (i + 1 == w.size || w.starts[i + 1] > eventEnd) {
                 // the window `i + 1` doesn't overlap the event interval
                 w.starts[i] = min(w.starts[i], timestamp);
-                if (w.ends[i] < eventEnd) {
-                    removeFromDeadlines(key, w.ends[i]);
-                    w.ends[i] = eventEnd;
-                    addToDeadlines(key, w.ends[i]);
-                }
+                // moving the end to a later time needs no rescheduling
+                w.ends[i] = max(w.ends[i], eventEnd);
                 return w.accs[i];
             }
             // both `i` and `i + 1` windows overlap the event interval
-            removeFromDeadlines(key, w.ends[i]);
             w.ends[i] = w.ends[i + 1];
             combineFn.accept(w.accs[i], w.accs[i + 1]);
             w.removeWindow(i + 1);
+            lazyAdd(totalWindows, -1);
             return w.accs[i];
         }
-        addToDeadlines(key, eventEnd);
-        return insertWindow(w, i, timestamp, eventEnd);
+        A acc = insertWindow(w, i, timestamp, eventEnd);
+        lazyIncrement(totalWindows);
+        scheduleDeadline(key, w);
+        return acc;
     }
 
     private A insertWindow(Windows<A> w, int idx, long windowStart, long windowEnd) {
@@ -316,6 +309,8 @@ public class SessionWindowP<K, A, R, OUT> extends AbstractProcessor {
     }
 
     public static class Windows<A> implements IdentifiedDataSerializable {
+        // the deadline at which the key is in deadlineToKeys, not serialized
+        private long deadline = NO_DEADLINE;
         private int size;
         private long[] starts = new long[2];
         private long[] ends = new long[2];
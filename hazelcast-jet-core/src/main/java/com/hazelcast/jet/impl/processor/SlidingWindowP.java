@@ -32,6 +32,7 @@ import com.hazelcast.jet.function.KeyedWindowResultFunction;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -54,7 +55,6 @@ import static com.hazelcast.jet.impl.util.Util.logLateEvent;
 import static com.hazelcast.util.Preconditions.checkTrue;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
-import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -67,8 +67,8 @@ import static java.util.Objects.requireNonNull;
 public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
 
     // package-visible for testing
-    final Map<Long, Map<K, A>> tsToKeyToAcc = new HashMap<>();
-    Map<K, A> slidingWindow;
+    final Map<Long, KeyedAccumulators<K, A>> tsToKeyToAcc = new HashMap<>();
+    KeyedAccumulators<K, A> slidingWindow;
     long nextWinToEmit = Long.MIN_VALUE;
 
     @Nonnull
@@ -97,6 +97,8 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
 
     @Nonnull
     private final A emptyAcc;
+    @Nonnull
+    private final KeyedAccumulators<K, A> emptyFrame;
     private Traverser<Object> flushTraverser;
     private Traverser<Entry> snapshotTraverser;
 
@@ -105,6 +107,15 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
     // entire keyset.
     private long topTs = Long.MIN_VALUE;
 
+    // Used for sliding windows if the aggregate operation has no deductFn
+    private TwoStackWindow<K, A> twoStackWindow;
+    // The end of the last window computed using twoStackWindow
+    private long twoStackWindowEnd = Long.MIN_VALUE;
+
+    // If the job takes incremental snapshots, the frames flag the keys
+    // accumulated since the last snapshot
+    private boolean trackChanges;
+
     // value to be used temporarily during snapshot restore
     private long minRestoredNextWinToEmit = Long.MAX_VALUE;
     private ProcessingGuarantee processingGuarantee;
@@ -135,11 +146,15 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                         .onFirstNull(() -> nextWinToEmit = winPolicy.higherFrameTs(wm.timestamp()))
         );
         this.emptyAcc = aggrOp.createFn().get();
+        this.emptyFrame = new KeyedAccumulators<>(aggrOp.createFn());
     }
 
     @Override
     protected void init(@Nonnull Context context) {
         processingGuarantee = context.processingGuarantee();
+        if (isLastStage && context.snapshottingEnabled() && context.jobConfig().getFullSnapshotInterval() > 1) {
+            trackChanges = true;
+        }
     }
 
     @Override
@@ -159,16 +174,12 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return true;
         }
         final K key = keyFns.get(ordinal).apply(item);
-        A acc = tsToKeyToAcc
-                .computeIfAbsent(frameTs, x -> {
-                    lazyIncrement(totalFrames);
-                    return new HashMap<>();
-                })
-                .computeIfAbsent(key, k -> {
-                    lazyIncrement(totalKeysInFrames);
-                    return aggrOp.createFn().get();
-                });
-        aggrOp.accumulateFn(ordinal).accept(acc, item);
+        KeyedAccumulators<K, A> frame = frame(frameTs);
+        int sizeBefore = frame.size();
+        frame.accumulate(key, item, aggrOp.accumulateFn(ordinal));
+        if (frame.size() > sizeBefore) {
+            lazyIncrement(totalKeysInFrames);
+        }
         topTs = max(topTs, frameTs);
         return true;
     }
@@ -189,16 +200,46 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return flushBuffers();
         }
         if (snapshotTraverser == null) {
-            snapshotTraverser = traverseIterable(tsToKeyToAcc.entrySet())
-                    .<Entry>flatMap(e -> traverseIterable(e.getValue().entrySet())
+            snapshotTraverser = snapshotTraverser(traverseIterable(tsToKeyToAcc.entrySet())
+                    .<Entry>flatMap(e -> e.getValue().traverser()
                             .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
-                    )
-                    .append(entry(broadcastKey(Keys.NEXT_WIN_TO_EMIT), nextWinToEmit))
-                    .onFirstNull(() -> snapshotTraverser = null);
+                    ));
         }
         return emitFromTraverserToSnapshot(snapshotTraverser);
     }
 
+    @Override
+    public boolean isIncrementalSnapshotSupported() {
+        return true;
+    }
+
+    @Override
+    public boolean saveChangesToSnapshot() {
+        if (!isLastStage || flushTraverser != null) {
+            return flushBuffers();
+        }
+        if (snapshotTraverser == null) {
+            // the frames evicted since the last snapshot are already removed
+            snapshotTraverser = snapshotTraverser(traverseIterable(tsToKeyToAcc.entrySet())
+                    .filter(e -> e.getValue().hasChanges())
+                    .<Entry>flatMap(e -> e.getValue().changesTraverser()
+                            .map(e2 -> entry(new SnapshotKey(e.getKey(), e2.getKey()), e2.getValue()))
+                    ));
+        }
+        return emitFromTraverserToSnapshot(snapshotTraverser);
+    }
+
+    private Traverser<Entry> snapshotTraverser(Traverser<Entry> entries) {
+        return entries
+                .append(entry(broadcastKey(Keys.NEXT_WIN_TO_EMIT), nextWinToEmit))
+                .onFirstNull(() -> {
+                    snapshotTraverser = null;
+                    if (trackChanges) {
+                        tsToKeyToAcc.values().forEach(KeyedAccumulators::clearChanges);
+                    }
+                });
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected void restoreFromSnapshot(@Nonnull Object key, @Nonnull Object value) {
@@ -217,14 +258,7 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             return;
         }
         SnapshotKey k = (SnapshotKey) key;
-        if (tsToKeyToAcc
-                .computeIfAbsent(k.timestamp,
-                        x -> {
-                            lazyIncrement(totalFrames);
-                            return new HashMap<>();
-                        })
-                .put((K) k.key, (A) value) != null
-        ) {
+        if (!frame(k.timestamp).put((K) k.key, (A) value)) {
             throw new JetException("Duplicate key in snapshot: " + k);
         }
         lazyIncrement(totalKeysInFrames);
@@ -240,10 +274,30 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         if (isLastStage) {
             nextWinToEmit = minRestoredNextWinToEmit;
             logFine(getLogger(), "Restored nextWinToEmit from snapshot to: %s", nextWinToEmit);
+            evictRestoredFrames();
         }
         return true;
     }
 
+    /**
+     * Evicts the frames of the windows before {@code nextWinToEmit}. An
+     * incremental snapshot doesn't remove them from the older snapshots.
+     */
+    private void evictRestoredFrames() {
+        if (nextWinToEmit == Long.MIN_VALUE || nextWinToEmit == Long.MAX_VALUE) {
+            return;
+        }
+        long oldestFrameToKeep = nextWinToEmit - winPolicy.windowSize() + winPolicy.frameSize();
+        for (Iterator<Entry<Long, KeyedAccumulators<K, A>>> it = tsToKeyToAcc.entrySet().iterator(); it.hasNext(); ) {
+            Entry<Long, KeyedAccumulators<K, A>> e = it.next();
+            if (e.getKey() < oldestFrameToKeep) {
+                lazyAdd(totalKeysInFrames, -e.getValue().size());
+                lazyAdd(totalFrames, -1);
+                it.remove();
+            }
+        }
+    }
+
     private Traverser<Object> windowTraverserAndEvictor(long wm) {
         long rangeStart;
         if (nextWinToEmit != Long.MIN_VALUE) {
@@ -267,19 +321,26 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
             rangeStart = min(bottomTs, winPolicy.floorFrameTs(wm));
         }
         return traverseStream(range(rangeStart, wm, winPolicy.frameSize()).boxed())
-                .flatMap(winEnd -> traverseIterable(computeWindow(winEnd).entrySet())
+                .flatMap(winEnd -> computeWindow(winEnd).traverser()
                         .map(e -> mapToOutputFn.apply(
                                 winEnd - winPolicy.windowSize(), winEnd,
                                 e.getKey(), aggrOp.finishFn().apply(e.getValue())))
                         .onFirstNull(() -> completeWindow(winEnd)));
     }
 
-    private Map<K, A> computeWindow(long frameTs) {
+    private KeyedAccumulators<K, A> frame(long frameTs) {
+        return tsToKeyToAcc.computeIfAbsent(frameTs, x -> {
+            lazyIncrement(totalFrames);
+            return new KeyedAccumulators<>(aggrOp.createFn(), trackChanges);
+        });
+    }
+
+    private KeyedAccumulators<K, A> computeWindow(long frameTs) {
         if (winPolicy.isTumbling()) {
-            return tsToKeyToAcc.getOrDefault(frameTs, emptyMap());
+            return tsToKeyToAcc.getOrDefault(frameTs, emptyFrame);
         }
         if (aggrOp.deductFn() == null) {
-            return recomputeWindow(frameTs);
+            return slideTwoStackWindow(frameTs);
         }
         if (slidingWindow == null) {
             slidingWindow = recomputeWindow(frameTs);
@@ -290,36 +351,56 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
         return slidingWindow;
     }
 
-    private Map<K, A> recomputeWindow(long frameTs) {
-        Map<K, A> window = new HashMap<>();
+    private KeyedAccumulators<K, A> recomputeWindow(long frameTs) {
+        KeyedAccumulators<K, A> window = new KeyedAccumulators<>(aggrOp.createFn());
         for (long ts = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
              ts <= frameTs;
              ts += winPolicy.frameSize()
         ) {
-            tsToKeyToAcc.getOrDefault(ts, emptyMap())
-                        .forEach((key, currAcc) -> combineFn.accept(
-                                window.computeIfAbsent(key, k -> aggrOp.createFn().get()),
-                                currAcc));
+            tsToKeyToAcc.getOrDefault(ts, emptyFrame)
+                        .forEach((key, currAcc) -> window.accumulate(key, currAcc, combineFn));
         }
         return window;
     }
 
-    private void patchSlidingWindow(BiConsumer<? super A, ? super A> patchOp, Map<K, A> patchingFrame) {
+    private KeyedAccumulators<K, A> slideTwoStackWindow(long frameTs) {
+        if (twoStackWindow != null && frameTs == twoStackWindowEnd + winPolicy.frameSize()) {
+            // add leading-edge frame, the trailing one was evicted in completeWindow()
+            twoStackWindow.add(tsToKeyToAcc.get(frameTs));
+        } else {
+            twoStackWindow = new TwoStackWindow<>(aggrOp.createFn(), combineFn);
+            for (long ts = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
+                 ts <= frameTs;
+                 ts += winPolicy.frameSize()
+            ) {
+                twoStackWindow.add(tsToKeyToAcc.get(ts));
+            }
+        }
+        twoStackWindowEnd = frameTs;
+        KeyedAccumulators<K, A> window = twoStackWindow.aggregate();
+        return window != null ? window : emptyFrame;
+    }
+
+    private void patchSlidingWindow(
+            BiConsumer<? super A, ? super A> patchOp, KeyedAccumulators<K, A> patchingFrame
+    ) {
         if (patchingFrame == null) {
             return;
         }
-        for (Entry<K, A> e : patchingFrame.entrySet()) {
-            slidingWindow.compute(e.getKey(), (k, acc) -> {
-                A result = acc != null ? acc : aggrOp.createFn().get();
-                patchOp.accept(result, e.getValue());
-                return result.equals(emptyAcc) ? null : result;
-            });
-        }
+        patchingFrame.forEach((key, frameAcc) -> {
+            if (slidingWindow.accumulate(key, frameAcc, patchOp).equals(emptyAcc)) {
+                slidingWindow.remove(key);
+            }
+        });
     }
 
     private void completeWindow(long frameTs) {
         long frameToEvict = frameTs - winPolicy.windowSize() + winPolicy.frameSize();
-        Map<K, A> evictedFrame = tsToKeyToAcc.remove(frameToEvict);
+        KeyedAccumulators<K, A> evictedFrame = tsToKeyToAcc.remove(frameToEvict);
+        if (twoStackWindow != null && twoStackWindowEnd == frameTs) {
+            // evict trailing-edge frame
+            twoStackWindow.evict();
+        }
         if (evictedFrame != null) {
             lazyAdd(totalKeysInFrames, -evictedFrame.size());
             lazyAdd(totalFrames, -1);
@@ -328,8 +409,9 @@ public class SlidingWindowP<K, A, R, OUT> extends AbstractProcessor {
                 patchSlidingWindow(aggrOp.deductFn(), evictedFrame);
             }
         }
-        assert tsToKeyToAcc.values().stream().mapToInt(Map::size).sum() == totalKeysInFrames.get()
-                : "totalKeysInFrames mismatch, expected=" + tsToKeyToAcc.values().stream().mapToInt(Map::size).sum()
+        assert tsToKeyToAcc.values().stream().mapToInt(KeyedAccumulators::size).sum() == totalKeysInFrames.get()
+                : "totalKeysInFrames mismatch, expected="
+                        + tsToKeyToAcc.values().stream().mapToInt(KeyedAccumulators::size).sum()
                 + ", actual=" + totalKeysInFrames.get();
     }
 
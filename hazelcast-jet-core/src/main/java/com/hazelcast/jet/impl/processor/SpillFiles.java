@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.ObjectDataInputStream;
+import com.hazelcast.internal.serialization.impl.ObjectDataOutputStream;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.function.BiConsumer;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.rethrow;
+import static com.hazelcast.util.HashUtil.fastIntMix;
+
+/**
+ * Key-value pairs spilled to local files, partitioned by the hash of the
+ * key. All pairs with the same key are in the same partition, so the
+ * partitions can be merged one at a time.
+ * <p>
+ * The pairs are written until {@link #finishWriting()} is called, then the
+ * partitions are read in order.
+ * <p>
+ * A partition that is too large to be merged in memory can be spilled
+ * again to files of the next {@linkplain #level() level}, which are
+ * partitioned by the next bits of the hash.
+ */
+final class SpillFiles implements Closeable {
+
+    // the partition is taken from the highest bits of the mixed hash, the
+    // next level takes the next bits: the lowest bits are used for the slot
+    // in the in-memory map
+    private static final int PARTITION_BITS = 4;
+    private static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+    private static final int MAX_LEVEL = Integer.SIZE / PARTITION_BITS - 1;
+
+    private final InternalSerializationService serializationService;
+    private final int level;
+    private final File[] files = new File[PARTITION_COUNT];
+    private final ObjectDataOutputStream[] outputs = new ObjectDataOutputStream[PARTITION_COUNT];
+    private final long[] counts = new long[PARTITION_COUNT];
+
+    private ObjectDataInputStream input;
+    private int inputPartition = -1;
+    private long inputRemaining;
+
+    SpillFiles(InternalSerializationService serializationService, @Nullable String directory, String namePrefix,
+               int level) {
+        assert level <= MAX_LEVEL : "level=" + level;
+        this.serializationService = serializationService;
+        this.level = level;
+        try {
+            File dir = directory != null ? new File(directory) : null;
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                files[i] = File.createTempFile(namePrefix, ".spill", dir);
+                outputs[i] = new ObjectDataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(files[i])), serializationService);
+            }
+        } catch (IOException e) {
+            close();
+            throw rethrow(e);
+        }
+    }
+
+    static int partitionCount() {
+        return PARTITION_COUNT;
+    }
+
+    int level() {
+        return level;
+    }
+
+    /**
+     * Returns {@code true} if there are unused hash bits to partition the
+     * keys of a partition of this level by.
+     */
+    boolean canSplitFurther() {
+        return level < MAX_LEVEL;
+    }
+
+    void write(Object key, Object value) {
+        int partition = key == null ? 0
+                : (fastIntMix(key.hashCode()) >>> (Integer.SIZE - PARTITION_BITS * (level + 1))) & (PARTITION_COUNT - 1);
+        try {
+            outputs[partition].writeObject(key);
+            outputs[partition].writeObject(value);
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+        counts[partition]++;
+    }
+
+    void finishWriting() {
+        try {
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                outputs[i].close();
+                outputs[i] = null;
+            }
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Reads at most {@code maxPairs} pairs of the given partition and
+     * passes them to the {@code action}. Returns {@code true} if all pairs
+     * of the partition were read. After that, the partition's file is
+     * deleted.
+     */
+    boolean readPartition(int partition, int maxPairs, BiConsumer<Object, Object> action) {
+        try {
+            if (inputPartition != partition) {
+                assert input == null : "previous partition not fully read";
+                inputPartition = partition;
+                inputRemaining = counts[partition];
+                input = new ObjectDataInputStream(
+                        new BufferedInputStream(new FileInputStream(files[partition])), serializationService);
+            }
+            for (int i = 0; i < maxPairs && inputRemaining > 0; i++, inputRemaining--) {
+                Object key = input.readObject();
+                Object value = input.readObject();
+                action.accept(key, value);
+            }
+            if (inputRemaining > 0) {
+                return false;
+            }
+            input.close();
+            input = null;
+            deleteFile(partition);
+            return true;
+        } catch (IOException e) {
+            throw rethrow(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (input != null) {
+            try {
+                input.close();
+            } catch (IOException ignored) {
+                // we delete the file anyway
+            }
+            input = null;
+        }
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            try {
+                if (outputs[i] != null) {
+                    outputs[i].close();
+                    outputs[i] = null;
+                }
+            } catch (IOException ignored) {
+                // we delete the file anyway
+            }
+            deleteFile(i);
+        }
+    }
+
+    private void deleteFile(int partition) {
+        if (files[partition] != null) {
+            if (!files[partition].delete()) {
+                files[partition].deleteOnExit();
+            }
+            files[partition] = null;
+        }
+    }
+}
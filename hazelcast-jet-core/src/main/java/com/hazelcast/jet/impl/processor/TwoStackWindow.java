@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Computes the aggregate of a sliding window of frames using just the
+ * combining function. Frames are added at the leading edge and evicted at
+ * the trailing edge, the window aggregate is combined from at most two
+ * partial aggregates. Each slide thus costs amortized O(1) combinations
+ * per key instead of one combination per frame in the window.
+ * <p>
+ * Newly added frames are combined into the <em>back aggregate</em>. When
+ * a frame is to be evicted and there's no <em>front</em> aggregate for
+ * it, all the added frames are moved to the front: for each of them we
+ * compute the aggregate of it and all the later frames. Evicting a frame
+ * then just drops its front aggregate.
+ *
+ * @param <K> type of the key
+ * @param <A> type of the accumulator
+ */
+final class TwoStackWindow<K, A> {
+
+    private final Supplier<A> createFn;
+    private final BiConsumer<? super A, ? super A> combineFn;
+
+    // The first element is the aggregate of all frames in the front, the
+    // next one of all but the oldest frame etc. Null for no data.
+    private final ArrayDeque<Object> front = new ArrayDeque<>();
+    // Frames added after the last move to the front, the oldest first.
+    // Null for no data.
+    private final ArrayDeque<Object> backFrames = new ArrayDeque<>();
+    private KeyedAccumulators<K, A> backAggregate;
+
+    TwoStackWindow(Supplier<A> createFn, BiConsumer<? super A, ? super A> combineFn) {
+        this.createFn = createFn;
+        this.combineFn = combineFn;
+    }
+
+    /**
+     * Adds a frame at the leading edge. The frame must not be modified
+     * while it's in the window.
+     */
+    void add(@Nullable KeyedAccumulators<K, A> frame) {
+        backFrames.addLast(frame != null ? frame : NullFrame.INSTANCE);
+        if (frame != null) {
+            if (backAggregate == null) {
+                backAggregate = newMap();
+            }
+            combineInto(backAggregate, frame);
+        }
+    }
+
+    /**
+     * Evicts the frame at the trailing edge.
+     */
+    void evict() {
+        if (front.isEmpty()) {
+            moveToFront();
+        }
+        assert !front.isEmpty() : "window is empty";
+        front.removeFirst();
+    }
+
+    /**
+     * Returns the aggregate of all frames in the window or {@code null} if
+     * there's no data in them. The returned map is always a new instance:
+     * the finish function may return the accumulator itself, so we must
+     * not hand out the partial aggregates we keep modifying.
+     */
+    @Nullable
+    KeyedAccumulators<K, A> aggregate() {
+        KeyedAccumulators<K, A> frontAggregate = front.isEmpty() ? null : unwrap(front.peekFirst());
+        if (frontAggregate == null && backAggregate == null) {
+            return null;
+        }
+        KeyedAccumulators<K, A> result = newMap();
+        if (frontAggregate != null) {
+            combineInto(result, frontAggregate);
+        }
+        if (backAggregate != null) {
+            combineInto(result, backAggregate);
+        }
+        return result;
+    }
+
+    int size() {
+        return front.size() + backFrames.size();
+    }
+
+    private void moveToFront() {
+        KeyedAccumulators<K, A> laterAggregate = null;
+        for (Iterator<Object> it = backFrames.descendingIterator(); it.hasNext(); ) {
+            KeyedAccumulators<K, A> frame = unwrap(it.next());
+            if (frame != null) {
+                KeyedAccumulators<K, A> aggregate = newMap();
+                combineInto(aggregate, frame);
+                if (laterAggregate != null) {
+                    combineInto(aggregate, laterAggregate);
+                }
+                laterAggregate = aggregate;
+            }
+            front.addFirst(laterAggregate != null ? laterAggregate : NullFrame.INSTANCE);
+        }
+        backFrames.clear();
+        backAggregate = null;
+    }
+
+    private void combineInto(KeyedAccumulators<K, A> target, KeyedAccumulators<K, A> source) {
+        source.forEach((key, acc) -> target.accumulate(key, acc, combineFn));
+    }
+
+    private KeyedAccumulators<K, A> newMap() {
+        return new KeyedAccumulators<>(createFn);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, A> KeyedAccumulators<K, A> unwrap(Object o) {
+        return o == NullFrame.INSTANCE ? null : (KeyedAccumulators<K, A>) o;
+    }
+
+    // ArrayDeque doesn't allow null elements
+    private enum NullFrame {
+        INSTANCE
+    }
+}
@@ -22,7 +22,12 @@ import javax.annotation.CheckReturnValue;
 import java.util.Map.Entry;
 
 public interface AsyncSnapshotWriter {
-    void setCurrentMap(String mapName);
+    /**
+     * Sets the maps to write to. The entries offered as a {@link
+     * com.hazelcast.jet.impl.execution.BroadcastItem} are written to the
+     * {@code broadcastMapName}, others to the {@code mapName}.
+     */
+    void setCurrentMap(String mapName, String broadcastMapName);
 
     @CheckReturnValue
     boolean offer(Entry<? extends Data, ? extends Data> entry);
@@ -42,6 +47,7 @@ public interface AsyncSnapshotWriter {
     boolean isEmpty();
 
     long getTotalPayloadBytes();
+    long getTotalStoredBytes();
     long getTotalKeys();
     long getTotalChunks();
 }
@@ -20,9 +20,12 @@ import com.hazelcast.core.ExecutionCallback;
 import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.PartitionAware;
+import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.serialization.impl.HeapData;
 import com.hazelcast.internal.serialization.impl.SerializationConstants;
+import com.hazelcast.jet.JetException;
 import com.hazelcast.jet.impl.JetService;
+import com.hazelcast.jet.impl.execution.BroadcastItem;
 import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Bits;
@@ -42,12 +45,42 @@ import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
-
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.hazelcast.jet.impl.util.Util.lazyAdd;
+
+/**
+ * Writes the snapshot entries in chunks to an IMap. The entries are
+ * buffered per partition of their key and each chunk is stored under a key
+ * that belongs to the same partition, so that the chunks of a partition are
+ * owned by the member that owns the keys in them.
+ * <p>
+ * The entries with a {@link com.hazelcast.jet.core.BroadcastKey} have to be
+ * restored to all processors. They are buffered separately and stored to
+ * another map, all in the {@link #BROADCAST_PARTITION_ID partition 0}.
+ * <p>
+ * If compression is enabled, each chunk is compressed separately with the
+ * deflate algorithm. The compressed chunk is stored as a byte array that
+ * starts with the length of the uncompressed contents, see {@link
+ * #decompressChunk}.
+ */
 public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
+    /**
+     * The partition ID where the chunks of broadcast entries are stored.
+     */
+    public static final int BROADCAST_PARTITION_ID = 0;
+
     private static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
+    // deflate stores incompressible data in blocks with a 5-byte header, the
+    // blocks have up to 64 kB, but the deflater can emit them in smaller pieces
+    private static final int DEFLATE_STORED_BLOCK_SIZE = 16 * 1024;
+    private static final int DEFLATE_STORED_BLOCK_OVERHEAD = 5;
 
     final int usableChunkSize; // this includes the serialization header for byte[], but not the terminator
     final byte[] serializedByteArrayHeader = new byte[3 * Bits.INT_SIZE_IN_BYTES];
@@ -56,7 +89,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
     private final IPartitionService partitionService;
 
+    // buffers per partition, the last one is for broadcast entries
     private final CustomByteArrayOutputStream[] buffers;
+    private final int broadcastBufferIndex;
     private final int[] partitionKeys;
     private int partitionSequence;
     private final ILogger logger;
@@ -64,13 +99,22 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     private final boolean useBigEndian;
     private final int memberCount;
     private IMap<SnapshotDataKey, byte[]> currentMap;
+    private IMap<SnapshotDataKey, byte[]> currentBroadcastMap;
     private final AtomicReference<Throwable> lastError = new AtomicReference<>();
     private final AtomicInteger numActiveFlushes = new AtomicInteger();
+    private final Deflater deflater; // null if compression is disabled
+    private byte[] compressBuffer = {};
 
     // stats
     private long totalKeys;
     private long totalChunks;
     private long totalPayloadBytes;
+    private long totalStoredBytes;
+
+    @Probe
+    private final AtomicLong snapshotPayloadBytes = new AtomicLong();
+    @Probe
+    private final AtomicLong snapshotStoredBytes = new AtomicLong();
 
     private final ExecutionCallback<Object> callback = new ExecutionCallback<Object>() {
         @Override
@@ -89,12 +133,12 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         }
     };
 
-    public AsyncSnapshotWriterImpl(NodeEngine nodeEngine, int memberIndex, int memberCount) {
-        this(DEFAULT_CHUNK_SIZE, nodeEngine, memberIndex, memberCount);
+    public AsyncSnapshotWriterImpl(NodeEngine nodeEngine, int memberIndex, int memberCount, boolean compress) {
+        this(DEFAULT_CHUNK_SIZE, nodeEngine, memberIndex, memberCount, compress);
     }
 
     // for test
-    AsyncSnapshotWriterImpl(int chunkSize, NodeEngine nodeEngine, int memberIndex, int memberCount) {
+    AsyncSnapshotWriterImpl(int chunkSize, NodeEngine nodeEngine, int memberIndex, int memberCount, boolean compress) {
         this.nodeEngine = nodeEngine;
         this.partitionService = nodeEngine.getPartitionService();
         this.logger = nodeEngine.getLogger(getClass());
@@ -106,7 +150,8 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         Bits.writeInt(serializedByteArrayHeader, Bits.INT_SIZE_IN_BYTES, SerializationConstants.CONSTANT_TYPE_BYTE_ARRAY,
                 useBigEndian);
 
-        buffers = new CustomByteArrayOutputStream[partitionService.getPartitionCount()];
+        broadcastBufferIndex = partitionService.getPartitionCount();
+        buffers = new CustomByteArrayOutputStream[broadcastBufferIndex + 1];
         for (int i = 0; i < buffers.length; i++) {
             buffers[i] = new CustomByteArrayOutputStream(chunkSize);
             buffers[i].write(serializedByteArrayHeader, 0, serializedByteArrayHeader.length);
@@ -123,33 +168,37 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         valueTerminator = Arrays.copyOfRange(valueTerminatorWithHeader, HeapData.TYPE_OFFSET,
                 valueTerminatorWithHeader.length);
         usableChunkSize = chunkSize - valueTerminator.length;
+        deflater = compress ? new Deflater(Deflater.BEST_SPEED, true) : null;
     }
 
     @Override
-    public void setCurrentMap(String mapName) {
+    public void setCurrentMap(String mapName, String broadcastMapName) {
         assert isEmpty() : "writer not empty";
 
         if (currentMap != null && logger.isFineEnabled()) {
-            logger.fine(String.format("Stats for %s: keys=%,d, chunks=%,d, bytes=%,d",
-                    currentMap.getName(), totalKeys, totalChunks, totalPayloadBytes));
+            logger.fine(String.format("Stats for %s: keys=%,d, chunks=%,d, bytes=%,d, storedBytes=%,d",
+                    currentMap.getName(), totalKeys, totalChunks, totalPayloadBytes, totalStoredBytes));
         }
 
         currentMap = nodeEngine.getHazelcastInstance().getMap(mapName);
+        currentBroadcastMap = nodeEngine.getHazelcastInstance().getMap(broadcastMapName);
 
         // reset stats
-        totalKeys = totalChunks = totalPayloadBytes = 0;
+        totalKeys = totalChunks = totalPayloadBytes = totalStoredBytes = 0;
     }
 
     @Override
     @CheckReturnValue
     public boolean offer(Entry<? extends Data, ? extends Data> entry) {
-        int partitionId = partitionService.getPartitionId(entry.getKey());
+        int bufferIndex = entry instanceof BroadcastItem
+                ? broadcastBufferIndex
+                : partitionService.getPartitionId(entry.getKey());
         int length = entry.getKey().totalSize() + entry.getValue().totalSize() - 2 * HeapData.TYPE_OFFSET;
 
         // if single entry is larger than usableChunkSize, send it alone. We avoid adding it to the ByteArrayOutputStream,
         // since it will grow beyond maximum capacity and never shrink again.
         if (length > usableChunkSize) {
-            return putAsyncToMap(partitionId, () -> {
+            return putAsyncToMap(bufferIndex, () -> {
                 byte[] data = new byte[serializedByteArrayHeader.length + length + valueTerminator.length];
                 int offset = 0;
                 System.arraycopy(serializedByteArrayHeader, 0, data, offset, serializedByteArrayHeader.length);
@@ -162,20 +211,22 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
                 offset += entry.getKey().totalSize() - HeapData.TYPE_OFFSET;
 
                 copyWithoutHeader(entry.getValue(), data, offset);
-                System.arraycopy(valueTerminator, 0, data, length, valueTerminator.length);
+                offset += entry.getValue().totalSize() - HeapData.TYPE_OFFSET;
 
-                return new HeapData(data);
+                System.arraycopy(valueTerminator, 0, data, offset, valueTerminator.length);
+
+                return toChunk(data, data.length);
             });
         }
 
         // if the buffer will exceed usableChunkSize after adding this entry, flush it first
-        if (buffers[partitionId].size() + length > usableChunkSize && !flush(partitionId)) {
+        if (buffers[bufferIndex].size() + length > usableChunkSize && !flush(bufferIndex)) {
             return false;
         }
 
         // append to buffer
-        writeWithoutHeader(entry.getKey(), buffers[partitionId]);
-        writeWithoutHeader(entry.getValue(), buffers[partitionId]);
+        writeWithoutHeader(entry.getKey(), buffers[bufferIndex]);
+        writeWithoutHeader(entry.getValue(), buffers[bufferIndex]);
         totalKeys++;
         return true;
     }
@@ -195,9 +246,9 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     }
 
     @CheckReturnValue
-    private boolean flush(int partitionId) {
-        return containsOnlyHeader(buffers[partitionId])
-                || putAsyncToMap(partitionId, () -> getBufferContentsAndClear(buffers[partitionId]));
+    private boolean flush(int bufferIndex) {
+        return containsOnlyHeader(buffers[bufferIndex])
+                || putAsyncToMap(bufferIndex, () -> getBufferContentsAndClear(buffers[bufferIndex]));
     }
 
     private boolean containsOnlyHeader(CustomByteArrayOutputStream buffer) {
@@ -206,13 +257,76 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
 
     private Data getBufferContentsAndClear(CustomByteArrayOutputStream buffer) {
         buffer.write(valueTerminator, 0, valueTerminator.length);
-        final byte[] data = buffer.toByteArray();
-        updateSerializedBytesLength(data);
-        totalPayloadBytes += buffer.size;
+        Data chunk = toChunk(buffer.data, buffer.size);
         totalChunks++;
         buffer.reset();
         buffer.write(serializedByteArrayHeader, 0, serializedByteArrayHeader.length);
-        return new HeapData(data);
+        return chunk;
+    }
+
+    /**
+     * Creates the map value from the serialized byte array header and the
+     * entries in {@code data[0..length]}, compressing them if enabled.
+     */
+    private Data toChunk(byte[] data, int length) {
+        int headerLength = serializedByteArrayHeader.length;
+        byte[] chunk = deflater == null
+                ? Arrays.copyOf(data, length)
+                : compress(data, headerLength, length - headerLength);
+        updateSerializedBytesLength(chunk);
+        totalPayloadBytes += length;
+        totalStoredBytes += chunk.length;
+        lazyAdd(snapshotPayloadBytes, length);
+        lazyAdd(snapshotStoredBytes, chunk.length);
+        return new HeapData(chunk);
+    }
+
+    /**
+     * Returns an array with the serialized byte array header, the
+     * uncompressed length and the compressed {@code src[offset..offset+length]}.
+     */
+    private byte[] compress(byte[] src, int offset, int length) {
+        int headerLength = serializedByteArrayHeader.length + Bits.INT_SIZE_IN_BYTES;
+        int maxLength = headerLength + length
+                + (length / DEFLATE_STORED_BLOCK_SIZE + 1) * DEFLATE_STORED_BLOCK_OVERHEAD;
+        if (compressBuffer.length < maxLength) {
+            compressBuffer = new byte[maxLength];
+        }
+        System.arraycopy(serializedByteArrayHeader, 0, compressBuffer, 0, serializedByteArrayHeader.length);
+        Bits.writeIntB(compressBuffer, serializedByteArrayHeader.length, length);
+        deflater.reset();
+        deflater.setInput(src, offset, length);
+        deflater.finish();
+        int size = headerLength;
+        while (!deflater.finished()) {
+            if (size == compressBuffer.length) {
+                compressBuffer = Arrays.copyOf(compressBuffer, size << 1);
+            }
+            size += deflater.deflate(compressBuffer, size, compressBuffer.length - size);
+        }
+        return Arrays.copyOf(compressBuffer, size);
+    }
+
+    /**
+     * Decompresses the contents of a chunk stored with compression enabled.
+     *
+     * @param chunk the deserialized value of the chunk
+     * @param inflater the inflater to use, created with {@code nowrap=true}
+     */
+    public static byte[] decompressChunk(byte[] chunk, Inflater inflater) {
+        byte[] result = new byte[Bits.readIntB(chunk, 0)];
+        inflater.reset();
+        inflater.setInput(chunk, Bits.INT_SIZE_IN_BYTES, chunk.length - Bits.INT_SIZE_IN_BYTES);
+        try {
+            int length = inflater.inflate(result);
+            if (length != result.length || !inflater.finished()) {
+                throw new JetException("Corrupted snapshot chunk, expected " + result.length
+                        + " bytes after decompression, got " + length);
+            }
+        } catch (DataFormatException e) {
+            throw new JetException("Corrupted snapshot chunk: " + e, e);
+        }
+        return result;
     }
 
     private void updateSerializedBytesLength(byte[] data) {
@@ -222,14 +336,17 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
     }
 
     @CheckReturnValue
-    private boolean putAsyncToMap(int partitionId, Supplier<Data> dataSupplier) {
+    private boolean putAsyncToMap(int bufferIndex, Supplier<Data> dataSupplier) {
         if (!Util.tryIncrement(numConcurrentAsyncOps, 1, JetService.MAX_PARALLEL_ASYNC_OPS)) {
             return false;
         }
 
+        boolean isBroadcast = bufferIndex == broadcastBufferIndex;
+        IMap map = isBroadcast ? currentBroadcastMap : currentMap;
+        int partitionKey = partitionKeys[isBroadcast ? BROADCAST_PARTITION_ID : bufferIndex];
         // we put a Data instance to the map directly to avoid the serialization of the byte array
-        ICompletableFuture<Object> future = ((IMap) currentMap).putAsync(
-                new SnapshotDataKey(partitionKeys[partitionId], partitionSequence), dataSupplier.get());
+        ICompletableFuture<Object> future = map.putAsync(
+                new SnapshotDataKey(partitionKey, partitionSequence), dataSupplier.get());
         partitionSequence += memberCount;
         future.andThen(callback);
         numActiveFlushes.incrementAndGet();
@@ -427,6 +544,11 @@ public class AsyncSnapshotWriterImpl implements AsyncSnapshotWriter {
         return totalPayloadBytes;
     }
 
+    @Override
+    public long getTotalStoredBytes() {
+        return totalStoredBytes;
+    }
+
     @Override
     public long getTotalKeys() {
         return totalKeys;
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.operation.MapOperationProvider;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationFactory;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.exception.RetryableException;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation;
+import com.hazelcast.spi.impl.operationservice.impl.operations.PartitionIteratingOperation.PartitionResponse;
+import com.hazelcast.spi.partition.IPartitionService;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.jet.impl.util.ExceptionUtil.sneakyThrow;
+import static com.hazelcast.jet.impl.util.Util.callbackOf;
+
+/**
+ * Utility for cooperative, pipelined writes to an IMap. The entries are
+ * buffered per partition and sent to the partition owners in one {@code
+ * PartitionIteratingOperation} per member as soon as {@code batchSize}
+ * entries are buffered for the member. Several operations can be in
+ * flight to each member at the same time, but at most one for each
+ * partition: the entries of a partition with a write in flight stay
+ * buffered until it completes, so that the puts to a key are applied in
+ * order.
+ * <p>
+ * The number of operations in flight to a member is limited adaptively,
+ * based on their latency: it grows by one with each operation that
+ * completes within {@value #LATENCY_TOLERANCE} times the lowest latency
+ * recently seen and is halved when an operation takes longer or fails, at
+ * most once per round trip. A slow member thus limits only the writes to
+ * itself and the writer stops accepting entries for it instead of
+ * queueing them.
+ * <p>
+ * Partitions whose write fails with a {@link RetryableException} (e.g.
+ * because they migrated) are buffered again, ahead of the entries buffered
+ * for them in the meantime, and sent to their current owner with the next
+ * batch.
+ * <p>
+ * Not thread-safe, except for the operation callbacks.
+ */
+public class BatchingMapWriter {
+
+    // These magic values are copied from com.hazelcast.spi.impl.operationservice.impl.InvokeOnPartitions
+    private static final int TRY_COUNT = 10;
+    private static final int TRY_PAUSE_MILLIS = 300;
+
+    private static final int INITIAL_IN_FLIGHT_LIMIT = 2;
+    private static final int MAX_IN_FLIGHT_LIMIT = 16;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    // after this many operations we forget the lowest latency seen
+    private static final int MIN_LATENCY_WINDOW = 1024;
+
+    private final IPartitionService partitionService;
+    private final OperationService operationService;
+    private final MapOperationProvider opProvider;
+    private final String mapName;
+    private final int batchSize;
+
+    // the entries buffered for each partition and the member they are buffered for
+    private final MapEntries[] buffers;
+    private final MemberBatch[] bufferMembers;
+    // the number of failed attempts to write the buffered entries of each partition
+    private final int[] attempts;
+    // 1 for the partitions with a write in flight or a failed write not yet buffered again
+    private final AtomicIntegerArray partitionsInFlight;
+    private final Map<Address, MemberBatch> members = new HashMap<>();
+    private final Queue<FailedPartition> failedPartitions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger numInFlightOps = new AtomicInteger();
+    private final AtomicReference<Throwable> lastError = new AtomicReference<>();
+
+    private int lastBatchSize;
+
+    public BatchingMapWriter(NodeEngine nodeEngine, String mapName, int batchSize) {
+        this.partitionService = nodeEngine.getPartitionService();
+        this.operationService = nodeEngine.getOperationService();
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        this.opProvider = mapService.getMapServiceContext().getMapOperationProvider(mapName);
+        this.mapName = mapName;
+        this.batchSize = batchSize;
+        int partitionCount = partitionService.getPartitionCount();
+        this.buffers = new MapEntries[partitionCount];
+        this.bufferMembers = new MemberBatch[partitionCount];
+        this.attempts = new int[partitionCount];
+        this.partitionsInFlight = new AtomicIntegerArray(partitionCount);
+    }
+
+    /**
+     * Buffers the entry and sends the batch of its target member if it's
+     * full.
+     *
+     * @return {@code false}, if the entry wasn't buffered because the
+     * member's batch is full and can't be sent yet. The call should be
+     * retried later.
+     */
+    public boolean tryPut(Data key, Data value) {
+        checkError();
+        rebufferFailedPartitions();
+        int partitionId = partitionService.getPartitionId(key);
+        MemberBatch member = memberFor(partitionId);
+        if (member.entryCount >= batchSize && !trySend(member)) {
+            return false;
+        }
+        buffer(partitionId, member, key, value);
+        if (member.entryCount >= batchSize) {
+            trySend(member);
+        }
+        return true;
+    }
+
+    /**
+     * Tries to send all buffered entries, even if the batches aren't full.
+     *
+     * @return {@code true}, if there are no more buffered entries
+     */
+    public boolean tryFlush() {
+        checkError();
+        rebufferFailedPartitions();
+        boolean allSent = true;
+        for (MemberBatch member : members.values()) {
+            if (member.entryCount > 0 && !trySend(member)) {
+                allSent = false;
+            }
+        }
+        return allSent;
+    }
+
+    /**
+     * Returns {@code true}, if all entries were written.
+     */
+    public boolean isDone() {
+        checkError();
+        return numInFlightOps.get() == 0 && failedPartitions.isEmpty()
+                && members.values().stream().allMatch(m -> m.entryCount == 0);
+    }
+
+    /**
+     * Returns the number of operations currently in flight.
+     */
+    public int numInFlightOps() {
+        return numInFlightOps.get();
+    }
+
+    /**
+     * Returns the total of the current in-flight limits of all members.
+     */
+    public int inFlightLimit() {
+        int sum = 0;
+        for (MemberBatch member : members.values()) {
+            sum += member.inFlightLimit;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of entries in the last sent operation.
+     */
+    public int lastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * Throws the exception with which a write failed, if any.
+     */
+    public void checkError() {
+        Throwable t = lastError.get();
+        if (t != null) {
+            throw sneakyThrow(t);
+        }
+    }
+
+    private MemberBatch memberFor(int partitionId) {
+        MemberBatch member = bufferMembers[partitionId];
+        if (member != null) {
+            // the partition's entries are already buffered for a member, if
+            // it's no longer the owner, the write will fail and be retried
+            return member;
+        }
+        Address owner = partitionService.getPartitionOwnerOrWait(partitionId);
+        return members.computeIfAbsent(owner, MemberBatch::new);
+    }
+
+    private void buffer(int partitionId, MemberBatch member, Data key, Data value) {
+        MapEntries entries = buffers[partitionId];
+        if (entries == null) {
+            entries = buffers[partitionId] = new MapEntries();
+            bufferMembers[partitionId] = member;
+            member.addPartition(partitionId);
+        }
+        entries.add(key, value);
+        member.entryCount++;
+    }
+
+    private void rebufferFailedPartitions() {
+        for (FailedPartition failed; (failed = failedPartitions.poll()) != null; ) {
+            if (failed.attempts >= TRY_COUNT) {
+                lastError.compareAndSet(null, new JetException("Writing to partition " + failed.partitionId
+                        + " of map '" + mapName + "' failed " + failed.attempts + " times", failed.cause));
+                checkError();
+            }
+            int partitionId = failed.partitionId;
+            MemberBatch member = memberFor(partitionId);
+            // the failed entries are older than those buffered since, they must be written first
+            MapEntries newer = buffers[partitionId];
+            if (newer != null) {
+                MapEntries merged = new MapEntries(failed.entries.size() + newer.size());
+                append(merged, failed.entries);
+                append(merged, newer);
+                buffers[partitionId] = merged;
+                member.entryCount += failed.entries.size();
+            } else {
+                for (int i = 0; i < failed.entries.size(); i++) {
+                    buffer(partitionId, member, failed.entries.getKey(i), failed.entries.getValue(i));
+                }
+            }
+            attempts[partitionId] = Math.max(attempts[partitionId], failed.attempts);
+            partitionsInFlight.set(partitionId, 0);
+        }
+    }
+
+    private static void append(MapEntries target, MapEntries source) {
+        for (int i = 0; i < source.size(); i++) {
+            target.add(source.getKey(i), source.getValue(i));
+        }
+    }
+
+    private boolean trySend(MemberBatch member) {
+        if (member.inFlightOps.get() >= member.inFlightLimit) {
+            return false;
+        }
+        int[] partitions = new int[member.partitionCount];
+        MapEntries[] entries = new MapEntries[member.partitionCount];
+        int[] partitionAttempts = new int[member.partitionCount];
+        int sentCount = 0;
+        int sentEntryCount = 0;
+        int keptCount = 0;
+        for (int i = 0; i < member.partitionCount; i++) {
+            int partitionId = member.partitions[i];
+            if (partitionsInFlight.get(partitionId) != 0) {
+                // keep the entries buffered until the previous write to the partition completes
+                member.partitions[keptCount++] = partitionId;
+                continue;
+            }
+            partitionsInFlight.set(partitionId, 1);
+            partitions[sentCount] = partitionId;
+            entries[sentCount] = buffers[partitionId];
+            partitionAttempts[sentCount] = attempts[partitionId];
+            sentEntryCount += buffers[partitionId].size();
+            sentCount++;
+            buffers[partitionId] = null;
+            bufferMembers[partitionId] = null;
+            attempts[partitionId] = 0;
+        }
+        member.partitionCount = keptCount;
+        if (sentCount == 0) {
+            return false;
+        }
+        member.entryCount -= sentEntryCount;
+        lastBatchSize = sentEntryCount;
+        int[] sentPartitions = Arrays.copyOf(partitions, sentCount);
+        MapEntries[] sentEntries = Arrays.copyOf(entries, sentCount);
+
+        member.inFlightOps.incrementAndGet();
+        numInFlightOps.incrementAndGet();
+        long sendTime = System.nanoTime();
+        // The failures are recorded before the op is counted as completed,
+        // otherwise isDone() could see no ops in flight and no failure.
+        ExecutionCallback<PartitionResponse> callback = callbackOf(
+                response -> {
+                    Object[] results = response.getResults();
+                    for (int i = 0; i < results.length; i++) {
+                        if (results[i] instanceof Throwable) {
+                            onPartitionFailed(sentPartitions[i], sentEntries[i], partitionAttempts[i],
+                                    (Throwable) results[i]);
+                        } else {
+                            partitionsInFlight.set(sentPartitions[i], 0);
+                        }
+                    }
+                    onOpCompleted(member, sendTime, false);
+                },
+                throwable -> {
+                    for (int i = 0; i < sentPartitions.length; i++) {
+                        onPartitionFailed(sentPartitions[i], sentEntries[i], partitionAttempts[i], throwable);
+                    }
+                    onOpCompleted(member, sendTime, true);
+                });
+        OperationFactory factory = opProvider.createPutAllOperationFactory(mapName, sentPartitions, sentEntries);
+        operationService
+                .createInvocationBuilder(MapService.SERVICE_NAME,
+                        new PartitionIteratingOperation(factory, sentPartitions), member.address)
+                .setTryCount(TRY_COUNT)
+                .setTryPauseMillis(TRY_PAUSE_MILLIS)
+                .setExecutionCallback((ExecutionCallback) callback)
+                .invoke();
+        return true;
+    }
+
+    // called from the operation callbacks
+    private void onOpCompleted(MemberBatch member, long sendTime, boolean failed) {
+        member.onOpCompleted(sendTime, System.nanoTime(), failed);
+        numInFlightOps.decrementAndGet();
+    }
+
+    // Called from the operation callbacks. The partition stays marked as in
+    // flight until its entries are buffered again.
+    private void onPartitionFailed(int partitionId, MapEntries entries, int prevAttempts, Throwable error) {
+        if (error instanceof RetryableException) {
+            failedPartitions.add(new FailedPartition(partitionId, entries, prevAttempts + 1, error));
+        } else {
+            lastError.compareAndSet(null, error);
+        }
+    }
+
+    /**
+     * The entries buffered for a member and the state of the writes to it.
+     */
+    // package-visible for testing
+    static final class MemberBatch {
+        final Address address;
+        final AtomicInteger inFlightOps = new AtomicInteger();
+        volatile int inFlightLimit = INITIAL_IN_FLIGHT_LIMIT;
+
+        // accessed by the writer only
+        int[] partitions = new int[1];
+        int partitionCount;
+        int entryCount;
+
+        // accessed by the callbacks, guarded by this
+        private long minLatency = Long.MAX_VALUE;
+        private int latencySamples;
+        // initialized to now, not Long.MIN_VALUE: the difference to a send time must not overflow
+        private long lastDecreaseTime = System.nanoTime();
+
+        MemberBatch(Address address) {
+            this.address = address;
+        }
+
+        void addPartition(int partitionId) {
+            if (partitionCount == partitions.length) {
+                partitions = Arrays.copyOf(partitions, partitionCount * 2);
+            }
+            partitions[partitionCount++] = partitionId;
+        }
+
+        synchronized void onOpCompleted(long sendTime, long now, boolean failed) {
+            inFlightOps.decrementAndGet();
+            long latency = now - sendTime;
+            if (!failed) {
+                if (++latencySamples > MIN_LATENCY_WINDOW) {
+                    latencySamples = 0;
+                    minLatency = latency;
+                } else {
+                    minLatency = Math.min(minLatency, latency);
+                }
+            }
+            if (!failed && latency <= minLatency * LATENCY_TOLERANCE) {
+                inFlightLimit = Math.min(inFlightLimit + 1, MAX_IN_FLIGHT_LIMIT);
+            } else if (sendTime - lastDecreaseTime > 0) {
+                // decrease at most once per round trip: only if the op was sent after the last decrease
+                inFlightLimit = Math.max(1, inFlightLimit / 2);
+                lastDecreaseTime = now;
+            }
+        }
+    }
+
+    private static final class FailedPartition {
+        final int partitionId;
+        final MapEntries entries;
+        final int attempts;
+        final Throwable cause;
+
+        FailedPartition(int partitionId, MapEntries entries, int attempts, Throwable cause) {
+            this.partitionId = partitionId;
+            this.entries = entries;
+            this.attempts = attempts;
+            this.cause = cause;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.jet.impl.util;
 
 import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.core.IMap;
 import com.hazelcast.core.Member;
 import com.hazelcast.internal.serialization.InternalSerializationService;
@@ -390,6 +391,16 @@ public final class Util {
         return future;
     }
 
+    /**
+     * Returns a {@code CompletableFuture} which completes when the supplied
+     * Hazelcast future completes, with the same result or exception.
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(@Nonnull ICompletableFuture<T> hzFuture) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        hzFuture.andThen(callbackOf(future::complete, future::completeExceptionally));
+        return future;
+    }
+
     /**
      * Logs a late event that was dropped.
      */
@@ -30,6 +30,7 @@ import com.hazelcast.jet.function.DistributedTriPredicate;
 
 import javax.annotation.Nonnull;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.aggregate.AggregateOperations.aggregateOperation2;
 import static com.hazelcast.jet.aggregate.AggregateOperations.aggregateOperation3;
@@ -73,12 +74,35 @@ public interface BatchStageWithKey<T, K> extends GeneralStageWithKey<T, K> {
         return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(iMap, mapFn);
     }
 
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMapAsync(
+            @Nonnull String mapName,
+            @Nonnull DistributedBiFunction<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapAsync(mapName, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> BatchStage<R> mapUsingIMapAsync(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull DistributedBiFunction<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (BatchStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapAsync(iMap, mapFn);
+    }
+
     @Nonnull @Override
     <C, R> BatchStage<R> mapUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
             @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends R> mapFn
     );
 
+    @Nonnull @Override
+    <C, R> BatchStage<R> mapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends CompletableFuture<? extends R>>
+                    mapAsyncFn
+    );
+
     @Nonnull @Override
     <C> BatchStage<T> filterUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
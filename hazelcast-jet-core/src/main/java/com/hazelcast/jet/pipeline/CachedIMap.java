@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.pipeline;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A bounded, member-local, read-through cache in front of an {@code
+ * IMap}. Entries are evicted in least-recently-used order when the cache
+ * is full and invalidated when they change in the map. Use {@link
+ * ContextFactories#cachedIMapContext(String, int)} to obtain it as a
+ * context object.
+ *
+ * @param <K> type of the map key
+ * @param <V> type of the map value
+ */
+public interface CachedIMap<K, V> {
+
+    /**
+     * Returns the value mapped to the given key, or {@code null} if there
+     * is none. On a cache miss this method blocks while it fetches the
+     * value from the {@code IMap}.
+     */
+    V get(@Nonnull K key);
+
+    /**
+     * Returns a future of the value mapped to the given key. On a cache hit
+     * the returned future is already completed; on a miss it completes when
+     * the value arrives from the {@code IMap}. It's intended for use with
+     * {@link GeneralStage#mapUsingContextAsync mapUsingContextAsync}.
+     */
+    @Nonnull
+    CompletableFuture<V> getAsync(@Nonnull K key);
+
+    /**
+     * Returns the number of lookups served from the cache.
+     */
+    long hitCount();
+
+    /**
+     * Returns the number of lookups that had to go to the {@code IMap}.
+     */
+    long missCount();
+}
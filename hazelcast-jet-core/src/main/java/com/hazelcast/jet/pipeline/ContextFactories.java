@@ -18,6 +18,7 @@ package com.hazelcast.jet.pipeline;
 
 import com.hazelcast.core.ReplicatedMap;
 import com.hazelcast.jet.IMapJet;
+import com.hazelcast.jet.impl.pipeline.CachedIMapImpl;
 
 import javax.annotation.Nonnull;
 
@@ -99,4 +100,46 @@ public final class ContextFactories {
                 .nonCooperative();
     }
 
+    /**
+     * Returns a factory that provides a {@link CachedIMap} as the context: a
+     * bounded read-through cache in front of the {@code IMap} with the given
+     * name. The cache is created once per member and shared among all the
+     * processors on that member. When it's full, it evicts the least recently
+     * used entry. This is a good choice when you enrich a stream against a
+     * large {@code IMap} with a skewed access pattern: most lookups then hit
+     * local memory and don't block on a remote call.
+     * <p>
+     * The cache is kept consistent with the map by following the map's
+     * event journal, which must therefore be enabled. Every change to a key
+     * invalidates its cached value. If the cache falls so far behind that
+     * the journal drops some events before it reads them, it clears all the
+     * cached entries. Until the invalidation catches up, a lookup can return
+     * a slightly outdated value. The cache's hit and miss counts are
+     * available as probes.
+     * <p>
+     * Example usage:
+     * <pre>
+     * p.drawFrom( /* a batch or streaming source &#42;/ )
+     *  .mapUsingContext(cachedIMapContext("fooMapName", 100_000),
+     *      (cache, item) -> tuple2(item, cache.get(item.getKey())));
+     * </pre>
+     *
+     * @param mapName name of the map to cache
+     * @param maxCachedEntries maximum number of entries in the cache on each
+     *                         member
+     * @param <K> key type
+     * @param <V> value type
+     * @return the context factory
+     */
+    @Nonnull
+    public static <K, V> ContextFactory<CachedIMap<K, V>> cachedIMapContext(
+            @Nonnull String mapName, int maxCachedEntries
+    ) {
+        return ContextFactory
+                .<CachedIMap<K, V>>withCreateFn(jet -> new CachedIMapImpl<>(jet, mapName, maxCachedEntries))
+                .withDestroyFn(cache -> ((CachedIMapImpl<K, V>) cache).close())
+                .shareLocally()
+                .nonCooperative();
+    }
+
 }
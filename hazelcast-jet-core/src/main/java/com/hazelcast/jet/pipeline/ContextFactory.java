@@ -25,6 +25,7 @@ import javax.annotation.Nonnull;
 import java.io.Serializable;
 
 import static com.hazelcast.jet.function.DistributedFunctions.noopConsumer;
+import static com.hazelcast.util.Preconditions.checkPositive;
 
 /**
  * A holder of functions needed to create and destroy a context object.
@@ -34,9 +35,11 @@ import static com.hazelcast.jet.function.DistributedFunctions.noopConsumer;
  *     <li>{@link GeneralStage#mapUsingContext}
  *     <li>{@link GeneralStage#filterUsingContext}
  *     <li>{@link GeneralStage#flatMapUsingContext}
+ *     <li>{@link GeneralStage#mapUsingContextAsync}
  *     <li>{@link GeneralStageWithKey#mapUsingContext}
  *     <li>{@link GeneralStageWithKey#filterUsingContext}
  *     <li>{@link GeneralStageWithKey#flatMapUsingContext}
+ *     <li>{@link GeneralStageWithKey#mapUsingContextAsync}
  * </ul>
  *
  * @param <C> the user-defined context object type
@@ -45,22 +48,30 @@ public final class ContextFactory<C> implements Serializable {
 
     private static final boolean COOPERATIVE_DEFAULT = true;
     private static final boolean SHARE_LOCALLY_DEFAULT = false;
+    private static final int MAX_PENDING_CALLS_DEFAULT = 256;
+    private static final boolean ORDERED_ASYNC_RESPONSES_DEFAULT = true;
 
     private final DistributedFunction<JetInstance, ? extends C> createFn;
     private final DistributedConsumer<? super C> destroyFn;
     private final boolean isCooperative;
     private final boolean isSharedLocally;
+    private final int maxPendingCallsPerProcessor;
+    private final boolean orderedAsyncResponses;
 
     private ContextFactory(
             DistributedFunction<JetInstance, ? extends C> createFn,
             DistributedConsumer<? super C> destroyFn,
             boolean isCooperative,
-            boolean isSharedLocally
+            boolean isSharedLocally,
+            int maxPendingCallsPerProcessor,
+            boolean orderedAsyncResponses
     ) {
         this.createFn = createFn;
         this.destroyFn = destroyFn;
         this.isCooperative = isCooperative;
         this.isSharedLocally = isSharedLocally;
+        this.maxPendingCallsPerProcessor = maxPendingCallsPerProcessor;
+        this.orderedAsyncResponses = orderedAsyncResponses;
     }
 
     /**
@@ -75,7 +86,8 @@ public final class ContextFactory<C> implements Serializable {
     public static <C> ContextFactory<C> withCreateFn(
             @Nonnull DistributedFunction<JetInstance, ? extends C> createContextFn
     ) {
-        return new ContextFactory<>(createContextFn, noopConsumer(), COOPERATIVE_DEFAULT, SHARE_LOCALLY_DEFAULT);
+        return new ContextFactory<>(createContextFn, noopConsumer(), COOPERATIVE_DEFAULT, SHARE_LOCALLY_DEFAULT,
+                MAX_PENDING_CALLS_DEFAULT, ORDERED_ASYNC_RESPONSES_DEFAULT);
     }
 
     /**
@@ -90,7 +102,8 @@ public final class ContextFactory<C> implements Serializable {
      */
     @Nonnull
     public ContextFactory<C> withDestroyFn(@Nonnull DistributedConsumer<? super C> destroyFn) {
-        return new ContextFactory<>(createFn, destroyFn, isCooperative, isSharedLocally);
+        return new ContextFactory<>(createFn, destroyFn, isCooperative, isSharedLocally,
+                maxPendingCallsPerProcessor, orderedAsyncResponses);
     }
 
     /**
@@ -105,7 +118,8 @@ public final class ContextFactory<C> implements Serializable {
      */
     @Nonnull
     public ContextFactory<C> nonCooperative() {
-        return new ContextFactory<>(createFn, destroyFn, false, isSharedLocally);
+        return new ContextFactory<>(createFn, destroyFn, false, isSharedLocally,
+                maxPendingCallsPerProcessor, orderedAsyncResponses);
     }
 
     /**
@@ -124,7 +138,52 @@ public final class ContextFactory<C> implements Serializable {
      */
     @Nonnull
     public ContextFactory<C> shareLocally() {
-        return new ContextFactory<>(createFn, destroyFn, isCooperative, true);
+        return new ContextFactory<>(createFn, destroyFn, isCooperative, true,
+                maxPendingCallsPerProcessor, orderedAsyncResponses);
+    }
+
+    /**
+     * Returns a copy of this {@link ContextFactory} with the
+     * <em>maxPendingCallsPerProcessor</em> property set to the given value.
+     * Jet will execute at most this many concurrent async calls per
+     * processor of a {@linkplain GeneralStage#mapUsingContextAsync async
+     * stage} and will apply backpressure to the upstream once the limit is
+     * reached.
+     * <p>
+     * The default value is {@value #MAX_PENDING_CALLS_DEFAULT}. The setting
+     * is ignored by the non-async stages.
+     *
+     * @param maxPendingCallsPerProcessor the maximum number of pending calls
+     * @return a copy of this factory with the {@code
+     *      maxPendingCallsPerProcessor} property set
+     */
+    @Nonnull
+    public ContextFactory<C> withMaxPendingCallsPerProcessor(int maxPendingCallsPerProcessor) {
+        checkPositive(maxPendingCallsPerProcessor, "maxPendingCallsPerProcessor must be positive");
+        return new ContextFactory<>(createFn, destroyFn, isCooperative, isSharedLocally,
+                maxPendingCallsPerProcessor, orderedAsyncResponses);
+    }
+
+    /**
+     * Returns a copy of this {@link ContextFactory} with the
+     * <em>orderedAsyncResponses</em> flag set to {@code false}.
+     * <p>
+     * By default, the {@linkplain GeneralStage#mapUsingContextAsync async
+     * stages} emit the results in the order of the input items. If you
+     * call this method, a result is emitted as soon as its call completes,
+     * which avoids a slow call holding back the results of the calls
+     * issued after it. Watermarks are still emitted only after the results
+     * of all the items received before them.
+     * <p>
+     * The setting is ignored by the non-async stages.
+     *
+     * @return a copy of this factory with the {@code orderedAsyncResponses}
+     *      flag set to {@code false}
+     */
+    @Nonnull
+    public ContextFactory<C> withUnorderedAsyncResponses() {
+        return new ContextFactory<>(createFn, destroyFn, isCooperative, isSharedLocally,
+                maxPendingCallsPerProcessor, false);
     }
 
     /**
@@ -156,4 +215,20 @@ public final class ContextFactory<C> implements Serializable {
     public boolean isSharedLocally() {
         return isSharedLocally;
     }
+
+    /**
+     * Returns the maximum number of pending async calls per processor, see
+     * {@link #withMaxPendingCallsPerProcessor(int)}.
+     */
+    public int getMaxPendingCallsPerProcessor() {
+        return maxPendingCallsPerProcessor;
+    }
+
+    /**
+     * Returns the {@code orderedAsyncResponses} flag, see {@link
+     * #withUnorderedAsyncResponses()}.
+     */
+    public boolean hasOrderedAsyncResponses() {
+        return orderedAsyncResponses;
+    }
 }
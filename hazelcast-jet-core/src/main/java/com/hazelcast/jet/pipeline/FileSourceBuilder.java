@@ -76,6 +76,12 @@ public final class FileSourceBuilder {
      * Sets the character set used to encode the files. Default value is {@link
      * java.nio.charset.StandardCharsets#UTF_8}.
      * <p>
+     * All charsets are supported, but the sources are faster with UTF-8 and
+     * the ASCII-compatible single-byte charsets, such as ISO-8859-1: they
+     * find the line terminators by scanning the bytes of the file. Files in
+     * other charsets, such as UTF-16, are decoded before the scanning and
+     * the batch source doesn't split them among the processors.
+     * <p>
      * Setting this component does not have any effect if builder is used by
      * Avro module.
      */
@@ -169,4 +175,25 @@ public final class FileSourceBuilder {
         return Sources.streamFromProcessor("fileWatcherSource(" + directory + '/' + glob + ')',
                 SourceProcessors.streamFilesP(directory, charset, glob, sharedFileSystem, mapOutputFn));
     }
+
+    /**
+     * Builds a source that works like {@link #buildWatcher(DistributedBiFunction)},
+     * but passes each line to {@code mapOutputFn} as raw bytes, without the
+     * line terminator and without decoding it using the {@link #charset
+     * charset}. Use it when the lines are parsed by a byte-oriented parser
+     * or are forwarded unchanged, in order to avoid creating an intermediate
+     * {@code String} for each line.
+     * <p>
+     * The lines are recognized by the CR and LF bytes, therefore the files
+     * must use an ASCII-compatible encoding, such as UTF-8.
+     *
+     * @param mapOutputFn the function which creates output object from each
+     *                    line. Gets the filename and the bytes of the line as
+     *                    parameters. The array is not reused by the source.
+     * @param <R> the type of the items the source emits
+     */
+    public <R> StreamSource<R> buildRawWatcher(DistributedBiFunction<String, byte[], ? extends R> mapOutputFn) {
+        return Sources.streamFromProcessor("fileWatcherSource(" + directory + '/' + glob + ')',
+                SourceProcessors.streamFilesRawP(directory, glob, sharedFileSystem, mapOutputFn));
+    }
 }
@@ -30,6 +30,7 @@ import com.hazelcast.jet.function.DistributedToLongFunction;
 import com.hazelcast.jet.function.DistributedTriFunction;
 
 import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
 
 import static com.hazelcast.jet.function.DistributedFunctions.alwaysTrue;
 
@@ -113,6 +114,44 @@ public interface GeneralStage<T> extends Stage {
             @Nonnull DistributedBiFunction<? super C, ? super T, ? extends R> mapFn
     );
 
+    /**
+     * Asynchronous version of {@link #mapUsingContext}: the {@code
+     * mapAsyncFn} returns a {@code CompletableFuture<R>} instead of just
+     * {@code R}. Use it when the mapping involves a call to a remote
+     * system, such as an {@code IMap} lookup: the stage keeps several calls
+     * in flight and doesn't block the thread while waiting for the
+     * response.
+     * <p>
+     * The number of concurrent calls per processor is limited by {@link
+     * ContextFactory#withMaxPendingCallsPerProcessor}; once reached, the
+     * stage applies backpressure. The results are emitted in the order of
+     * the input items unless you configure {@link
+     * ContextFactory#withUnorderedAsyncResponses()}.
+     * <p>
+     * If the function returns {@code null} instead of a future or the future
+     * completes with {@code null}, the stage emits nothing for the item. If
+     * the future completes exceptionally, the job fails.
+     *
+     * <h3>Interaction with fault-tolerant unbounded jobs</h3>
+     * If you use this stage in a fault-tolerant unbounded job, keep in mind
+     * that any state the context object maintains doesn't participate in Jet's
+     * fault tolerance protocol. If the state is local, it will be lost after a
+     * job restart; if it is saved to some durable storage, the state of that
+     * storage won't be rewound to the last checkpoint, so you'll perform
+     * duplicate updates.
+     *
+     * @param <C> type of context object
+     * @param <R> the future's result type of the mapping function
+     * @param contextFactory the context factory
+     * @param mapAsyncFn a stateless mapping function returning a future
+     * @return the newly attached stage
+     */
+    @Nonnull
+    <C, R> GeneralStage<R> mapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedBiFunction<? super C, ? super T, ? extends CompletableFuture<? extends R>> mapAsyncFn
+    );
+
     /**
      * Attaches a filtering stage which applies the provided predicate function
      * to each input item to decide whether to pass the item to the output or
@@ -29,6 +29,9 @@ import com.hazelcast.jet.function.DistributedTriPredicate;
 
 import javax.annotation.Nonnull;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.util.Util.toCompletableFuture;
 
 /**
  * Represents an intermediate step when constructing a group-and-aggregate
@@ -80,6 +83,30 @@ public interface GeneralStageWithKey<T, K> {
             @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends R> mapFn
     );
 
+    /**
+     * Asynchronous version of {@link #mapUsingContext}: the {@code
+     * mapAsyncFn} returns a {@code CompletableFuture<R>} instead of just
+     * {@code R}. The stage keeps several calls in flight and doesn't block
+     * the thread while waiting for the responses. See {@link
+     * GeneralStage#mapUsingContextAsync} for the details.
+     * <p>
+     * Jet uses the {@link #keyFn() key-extracting function} specified on this
+     * stage for partitioning: all the items with the same key will see the
+     * same context instance (but note that the same instance serves many keys).
+     *
+     * @param <C> type of context object
+     * @param <R> the future's result type of the mapping function
+     * @param contextFactory the context factory
+     * @param mapAsyncFn a stateless mapping function returning a future
+     * @return the newly attached stage
+     */
+    @Nonnull
+    <C, R> GeneralStage<R> mapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends CompletableFuture<? extends R>>
+                    mapAsyncFn
+    );
+
     /**
      * Attaches a filtering stage which applies the provided predicate function
      * to each input item to decide whether to pass the item to the output or
@@ -206,6 +233,50 @@ public interface GeneralStageWithKey<T, K> {
         return mapUsingIMap(iMap.getName(), mapFn);
     }
 
+    /**
+     * Asynchronous version of {@link #mapUsingIMap(String,
+     * DistributedBiFunction) mapUsingIMap()}: Jet looks up the value using
+     * {@code IMap.getAsync()} and applies the mapping function once the
+     * value arrives, without blocking the thread in the meantime. The
+     * number of concurrent lookups per processor is limited to the {@link
+     * ContextFactory#withMaxPendingCallsPerProcessor default} of the
+     * context factory; the results are emitted in the order of the input
+     * items.
+     *
+     * @param mapName name of the {@code IMap}
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMapAsync(
+            @Nonnull String mapName,
+            @Nonnull DistributedBiFunction<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingContextAsync(ContextFactories.<K, V>iMapContext(mapName),
+                (map, key, item) -> toCompletableFuture(map.getAsync(key)).thenApply(v -> mapFn.apply(item, v)));
+    }
+
+    /**
+     * Asynchronous version of {@link #mapUsingIMap(IMap,
+     * DistributedBiFunction) mapUsingIMap()}, see {@link
+     * #mapUsingIMapAsync(String, DistributedBiFunction)}.
+     *
+     * @param iMap the {@code IMap} to use as the context
+     * @param mapFn the mapping function
+     * @param <V> type of the value in the {@code IMap}
+     * @param <R> type of the output item
+     * @return the newly attached stage
+     */
+    @Nonnull
+    default <V, R> GeneralStage<R> mapUsingIMapAsync(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull DistributedBiFunction<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return mapUsingIMapAsync(iMap.getName(), mapFn);
+    }
+
     /**
      * Attaches a rolling aggregation stage. As opposed to regular aggregation,
      * this stage emits the current aggregation result after receiving each
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.pipeline;
+
+import com.hazelcast.jet.core.processor.SourceProcessors;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedSupplier;
+
+import javax.annotation.Nonnull;
+import java.sql.Connection;
+import java.sql.ResultSet;
+
+import static com.hazelcast.jet.impl.util.Util.checkSerializable;
+import static com.hazelcast.jet.pipeline.Sources.batchFromProcessor;
+
+/**
+ * See {@link Sources#jdbcBuilder}.
+ * <p>
+ * If a {@linkplain #partitionColumn partition column} is set, each
+ * processor of the source executes the query restricted to a range of the
+ * column's values, so the reading is spread over all the members. The
+ * database should be able to evaluate such a restriction efficiently, for
+ * example by using an index on the column. Otherwise the source executes
+ * the query on a single processor in the cluster.
+ * <p>
+ * The statements are executed with the {@linkplain #fetchSize fetch size}
+ * set and the auto-commit mode disabled, which makes most drivers stream
+ * the rows instead of loading the whole result set into memory.
+ * <p>
+ * The default local parallelism for this processor is 1 if the partition
+ * column is set.
+ */
+public final class JdbcSourceBuilder {
+
+    private static final int DEFAULT_FETCH_SIZE = 1024;
+
+    private final DistributedSupplier<Connection> connectionSupplier;
+    private final String query;
+
+    private String partitionColumn;
+    private long lowerBound;
+    private long upperBound;
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+
+    /**
+     * Use {@link Sources#jdbcBuilder}.
+     */
+    JdbcSourceBuilder(@Nonnull DistributedSupplier<Connection> connectionSupplier, @Nonnull String query) {
+        checkSerializable(connectionSupplier, "connectionSupplier");
+        this.connectionSupplier = connectionSupplier;
+        this.query = query;
+    }
+
+    /**
+     * Sets the numeric column by which the rows are split among the
+     * processors. The range from {@code lowerBound} to {@code upperBound} is
+     * divided into equal parts, one for each processor. The bounds don't
+     * filter the rows: the first processor also reads the rows with values
+     * below {@code lowerBound} and {@code NULL}, the last one the rows with
+     * values of {@code upperBound} and above. Use the minimum and maximum
+     * value of the column to get evenly sized parts.
+     * <p>
+     * The source wraps the query in a sub-query, {@code SELECT * FROM
+     * (query) jet_partitioned_query WHERE partitionColumn >= ? AND
+     * partitionColumn < ?}, so the column must be in the query's result.
+     * <p>
+     * By default no partition column is set and the query is read by a
+     * single processor.
+     */
+    public JdbcSourceBuilder partitionColumn(@Nonnull String partitionColumn, long lowerBound, long upperBound) {
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("lowerBound (" + lowerBound + ") > upperBound (" + upperBound + ')');
+        }
+        if (upperBound - lowerBound < 0) {
+            // the partition boundaries are computed from the difference, it must not overflow
+            throw new IllegalArgumentException("upperBound - lowerBound exceeds Long.MAX_VALUE");
+        }
+        this.partitionColumn = partitionColumn;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows the driver should fetch from the database at
+     * once, see {@link java.sql.Statement#setFetchSize(int)}. Default value
+     * is {@value #DEFAULT_FETCH_SIZE}.
+     */
+    public JdbcSourceBuilder fetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("fetchSize must not be negative: " + fetchSize);
+        }
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Builds the JDBC {@link BatchSource} with the supplied components and
+     * the output function {@code createOutputFn}.
+     * <p>
+     * {@code createOutputFn} gets the {@link ResultSet} positioned at the
+     * current row and creates the output object. The user should not call
+     * {@link ResultSet#next()} or any other cursor-navigating functions.
+     *
+     * @param createOutputFn creates output objects from {@link ResultSet}
+     * @param <T> type of output objects
+     */
+    public <T> BatchSource<T> build(@Nonnull DistributedFunction<ResultSet, T> createOutputFn) {
+        return batchFromProcessor("jdbcSource",
+                SourceProcessors.readJdbcP(connectionSupplier, query, partitionColumn, lowerBound, upperBound,
+                        fetchSize, createOutputFn));
+    }
+}
@@ -48,6 +48,7 @@ import static com.hazelcast.jet.core.processor.SinkProcessors.updateMapP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.updateRemoteMapP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeCacheP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
+import static com.hazelcast.jet.core.processor.SinkProcessors.writeMapBatchedP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeMapP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeRemoteCacheP;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeRemoteListP;
@@ -105,6 +106,35 @@ public final class Sinks {
         return fromProcessor("mapSink(" + mapName + ')', writeMapP(mapName));
     }
 
+    /**
+     * Returns a sink that puts {@code Map.Entry}s it receives into a Hazelcast
+     * {@code IMap} with the specified name, optimized for bulk loading.
+     * <p>
+     * Unlike {@link #map(String)}, which puts each received chunk of items
+     * and waits for the result, this sink sends the entries asynchronously,
+     * grouped by the member owning their partitions, in batches of {@code
+     * batchSize} entries. Several batches can be in flight to each member;
+     * how many is adapted to the latency of the writes. The sink reports the
+     * {@code batchSize}, {@code inFlightOps} and {@code inFlightLimit}
+     * metrics.
+     * <p>
+     * This sink provides the exactly-once guarantee thanks to <i>idempotent
+     * updates</i>. It means that the value with the same key is not appended,
+     * but overwritten. After the job is restarted from snapshot, duplicate
+     * items will not change the state in the target map.
+     * <p>
+     * The default local parallelism for this sink is determined by the
+     * system.
+     *
+     * @param mapName the name of the map
+     * @param batchSize the number of entries to send to a member in one
+     *                  operation
+     */
+    @Nonnull
+    public static <T extends Map.Entry> Sink<T> mapBatched(@Nonnull String mapName, int batchSize) {
+        return fromProcessor("mapBatchedSink(" + mapName + ')', writeMapBatchedP(mapName, batchSize));
+    }
+
     /**
      * Returns a sink that puts {@code Map.Entry}s it receives into a Hazelcast
      * {@code IMap} with the specified name in a remote cluster identified by
@@ -971,4 +971,34 @@ public final class Sources {
         return batchFromProcessor("jdbcSource",
                 SourceProcessors.readJdbcP(connectionURL, query, createOutputFn));
     }
+
+    /**
+     * Returns a builder object that offers a step-by-step fluent API to build
+     * a JDBC {@link BatchSource} which reads the rows of the given {@code
+     * query}. Unlike {@link #jdbc(DistributedSupplier, ToResultSetFunction,
+     * DistributedFunction)}, the builder generates the queries which split
+     * the rows among the processors by a numeric column and sets the fetch
+     * size of the statements. See {@link JdbcSourceBuilder} for more details.
+     * <p>
+     * Example: <pre>{@code
+     *     p.drawFrom(Sources.jdbcBuilder(connectionSupplier, "SELECT id, name FROM person")
+     *         .partitionColumn("id", 0, 1_000_000_000)
+     *         .build(resultSet -> uncheckCall(() -> new Person(resultSet.getInt(1), resultSet.getString(2)))))
+     * }</pre>
+     * <p>
+     * The source does not save any state to snapshot. If the job is restarted,
+     * it will re-emit all entries.
+     * <p>
+     * Any {@code SQLException} will cause the job to fail.
+     *
+     * @param connectionSupplier creates the connection
+     * @param query the query whose rows the source emits
+     */
+    @Nonnull
+    public static JdbcSourceBuilder jdbcBuilder(
+            @Nonnull DistributedSupplier<Connection> connectionSupplier,
+            @Nonnull String query
+    ) {
+        return new JdbcSourceBuilder(connectionSupplier, query);
+    }
 }
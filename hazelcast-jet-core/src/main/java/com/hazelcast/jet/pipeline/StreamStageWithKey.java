@@ -25,6 +25,7 @@ import com.hazelcast.jet.function.DistributedTriPredicate;
 
 import javax.annotation.Nonnull;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents an intermediate step while constructing a windowed
@@ -58,12 +59,35 @@ public interface StreamStageWithKey<T, K> extends GeneralStageWithKey<T, K> {
         return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMap(iMap, mapFn);
     }
 
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMapAsync(
+            @Nonnull String mapName,
+            @Nonnull DistributedBiFunction<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapAsync(mapName, mapFn);
+    }
+
+    @Nonnull @Override
+    default <V, R> StreamStage<R> mapUsingIMapAsync(
+            @Nonnull IMap<K, V> iMap,
+            @Nonnull DistributedBiFunction<? super T, ? super V, ? extends R> mapFn
+    ) {
+        return (StreamStage<R>) GeneralStageWithKey.super.<V, R>mapUsingIMapAsync(iMap, mapFn);
+    }
+
     @Nonnull @Override
     <C, R> StreamStage<R> mapUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
             @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends R> mapFn
     );
 
+    @Nonnull @Override
+    <C, R> StreamStage<R> mapUsingContextAsync(
+            @Nonnull ContextFactory<C> contextFactory,
+            @Nonnull DistributedTriFunction<? super C, ? super K, ? super T, ? extends CompletableFuture<? extends R>>
+                    mapAsyncFn
+    );
+
     @Nonnull @Override
     <C> StreamStage<T> filterUsingContext(
             @Nonnull ContextFactory<C> contextFactory,
@@ -18,20 +18,40 @@ package com.hazelcast.jet.stream.impl.pipeline;
 
 import com.hazelcast.jet.core.DAG;
 import com.hazelcast.jet.core.Vertex;
+import com.hazelcast.jet.stream.DistributedStream;
 import com.hazelcast.jet.stream.impl.processor.SortP;
+import com.hazelcast.jet.stream.impl.processor.SortedMergeP;
 
 import java.util.Comparator;
 
 import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.stream.impl.StreamUtil.uniqueVertexName;
 
+/**
+ * Sorts the stream in two steps: every processor sorts its local share
+ * of the items into a run, then a single processor merges the runs. The
+ * merging processor may have to buffer most of the runs, see {@link
+ * SortedMergeP}. A {@code limit()} directly after the sort is folded into
+ * both steps so that only the top items are ever buffered.
+ */
 class SortPipe<T> extends AbstractIntermediatePipe<T, T> {
 
     private final Comparator<? super T> comparator;
+    private final long limit;
 
     SortPipe(Pipe<T> upstream, StreamContext context, Comparator<? super T> comparator) {
+        this(upstream, context, comparator, Long.MAX_VALUE);
+    }
+
+    private SortPipe(Pipe<T> upstream, StreamContext context, Comparator<? super T> comparator, long limit) {
         super(context, true, upstream);
         this.comparator = comparator;
+        this.limit = limit;
+    }
+
+    @Override
+    public DistributedStream<T> limit(long maxSize) {
+        return new SortPipe<>(upstream, context, comparator, Math.min(limit, maxSize));
     }
 
     @Override
@@ -39,12 +59,16 @@ class SortPipe<T> extends AbstractIntermediatePipe<T, T> {
         Vertex previous = upstream.buildDAG(dag);
         // required final for lambda variable capture
         final Comparator<? super T> comparator = this.comparator;
-        Vertex sorter = dag.newVertex(uniqueVertexName("sort"), () -> new SortP<>(comparator)).localParallelism(1);
-        dag.edge(between(previous, sorter)
+        final long limit = this.limit;
+        Vertex sorter = dag.newVertex(uniqueVertexName("sort-local"), () -> new SortP<>(comparator, limit));
+        Vertex merger = dag.newVertex(uniqueVertexName("sort-merge"), () -> new SortedMergeP<>(comparator, limit))
+                           .localParallelism(1);
+        dag.edge(between(previous, sorter));
+        dag.edge(between(sorter, merger)
                 .distributed()
                 .allToOne()
         );
 
-        return sorter;
+        return merger;
     }
 }
@@ -21,28 +21,55 @@ import com.hazelcast.jet.core.AbstractProcessor;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import static com.hazelcast.jet.Traversers.lazy;
-import static com.hazelcast.jet.Traversers.traverseIterable;
+import static java.lang.Math.min;
 
+/**
+ * Sorts the items it receives into a single sorted run, to be merged with
+ * the runs of the other processors by {@link SortedMergeP}. The run is
+ * emitted in {@link SortedRunChunk}s of up to {@value #CHUNK_SIZE} items.
+ * <p>
+ * If a limit is given, only the smallest {@code limit} items are kept in a
+ * bounded heap, so the full input is never materialized.
+ */
 public class SortP<T> extends AbstractProcessor {
 
-    private final List<T> sorted;
-    private final Traverser<T> resultTraverser;
+    static final int CHUNK_SIZE = 256;
+
+    private final Comparator<? super T> comparator;
+    private final long limit;
+    private final Collection<T> buffer;
+    private Traverser<SortedRunChunk> resultTraverser;
 
-    public SortP(Comparator<T> comparator) {
-        this.sorted = new ArrayList<>();
-        this.resultTraverser = lazy(() -> {
-            sorted.sort(comparator);
-            return traverseIterable(sorted);
-        });
+    @SuppressWarnings("unchecked")
+    public SortP(Comparator<? super T> comparator, long limit) {
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
+        this.limit = limit;
+        this.buffer = limit < Integer.MAX_VALUE
+                ? new PriorityQueue<>(this.comparator.reversed())
+                : new ArrayList<>();
+    }
+
+    @Override
+    protected void init(@Nonnull Context context) {
+        int runIndex = context.globalProcessorIndex();
+        int runCount = context.totalParallelism();
+        resultTraverser = lazy(() -> chunkTraverser(sortedBuffer(), runIndex, runCount));
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     protected boolean tryProcess(int ordinal, @Nonnull Object item) {
-        sorted.add((T) item);
+        buffer.add((T) item);
+        if (buffer.size() > limit) {
+            // the buffer is the heap with the largest item on top
+            ((PriorityQueue<T>) buffer).poll();
+        }
         return true;
     }
 
@@ -50,4 +77,29 @@ public class SortP<T> extends AbstractProcessor {
     public boolean complete() {
         return emitFromTraverser(resultTraverser);
     }
+
+    private List<T> sortedBuffer() {
+        List<T> sorted = buffer instanceof List ? (List<T>) buffer : new ArrayList<>(buffer);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    private static Traverser<SortedRunChunk> chunkTraverser(List<?> sorted, int runIndex, int runCount) {
+        return new Traverser<SortedRunChunk>() {
+            // the start of the next chunk, past the end after the last chunk
+            private int position;
+
+            @Override
+            public SortedRunChunk next() {
+                if (position > sorted.size()) {
+                    return null;
+                }
+                int end = min(position + CHUNK_SIZE, sorted.size());
+                Object[] items = sorted.subList(position, end).toArray();
+                boolean last = end == sorted.size();
+                position = last ? end + 1 : end;
+                return new SortedRunChunk(runIndex, runCount, items, last);
+            }
+        };
+    }
 }
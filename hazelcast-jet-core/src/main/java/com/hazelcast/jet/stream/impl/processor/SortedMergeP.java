@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.stream.impl.processor;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.core.AbstractProcessor;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+
+/**
+ * Performs a k-way merge of the sorted runs emitted by {@link SortP}
+ * processors. Once every run that hasn't yet ended has at least one
+ * buffered item, the smallest head is emitted.
+ * <p>
+ * The merger can't apply backpressure to a single run: all runs arrive
+ * interleaved through one inbox, so refusing the items of one run would
+ * stall the others as well. Therefore it buffers every item that arrives
+ * while some run has not delivered its next chunk. The runs start only
+ * when their {@code SortP} has seen all its input, so if one {@code
+ * SortP} finishes much later than the others, the merger can hold almost
+ * all items (or {@code limit} items per run, if a limit is given) on its
+ * member's heap.
+ */
+public class SortedMergeP<T> extends AbstractProcessor {
+
+    private final Comparator<? super T> comparator;
+    private final long limit;
+    private final Traverser<T> mergeTraverser = this::nextMerged;
+
+    // the buffered chunks of each run, the first one is partially consumed
+    private ArrayDeque<Object[]>[] runs;
+    // the position of the head item in the first chunk of each run
+    private int[] headPositions;
+    private boolean[] runEnded;
+    // runs which haven't ended, but currently have no buffered items
+    private int emptyOpenRuns;
+    // binary min-heap of the indices of runs with buffered items, ordered by their head item
+    private int[] heap;
+    private int heapSize;
+    private long emittedCount;
+
+    @SuppressWarnings("unchecked")
+    public SortedMergeP(Comparator<? super T> comparator, long limit) {
+        this.comparator = comparator != null ? comparator : (Comparator<T>) Comparator.naturalOrder();
+        this.limit = limit;
+    }
+
+    @Override
+    protected boolean tryProcess(int ordinal, @Nonnull Object item) {
+        if (!emitFromTraverser(mergeTraverser)) {
+            return false;
+        }
+        SortedRunChunk chunk = (SortedRunChunk) item;
+        if (runs == null) {
+            initRuns(chunk.runCount());
+        }
+        int runIndex = chunk.runIndex();
+        ArrayDeque<Object[]> run = runs[runIndex];
+        if (chunk.items().length > 0 && emittedCount < limit) {
+            run.add(chunk.items());
+            if (run.size() == 1) {
+                emptyOpenRuns--;
+                headPositions[runIndex] = 0;
+                heapAdd(runIndex);
+            }
+        }
+        if (chunk.isLast()) {
+            runEnded[runIndex] = true;
+            if (run.isEmpty()) {
+                emptyOpenRuns--;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryProcess() {
+        return emitFromTraverser(mergeTraverser);
+    }
+
+    @Override
+    public boolean complete() {
+        return emitFromTraverser(mergeTraverser);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initRuns(int runCount) {
+        runs = new ArrayDeque[runCount];
+        for (int i = 0; i < runCount; i++) {
+            runs[i] = new ArrayDeque<>();
+        }
+        headPositions = new int[runCount];
+        runEnded = new boolean[runCount];
+        emptyOpenRuns = runCount;
+        heap = new int[runCount];
+    }
+
+    private T nextMerged() {
+        if (emptyOpenRuns > 0 || heapSize == 0 || emittedCount >= limit) {
+            return null;
+        }
+        int runIndex = heap[0];
+        ArrayDeque<Object[]> run = runs[runIndex];
+        T item = head(runIndex);
+        if (++headPositions[runIndex] == run.peekFirst().length) {
+            run.pollFirst();
+            headPositions[runIndex] = 0;
+        }
+        if (run.isEmpty()) {
+            heapRemoveTop();
+            if (!runEnded[runIndex]) {
+                emptyOpenRuns++;
+            }
+        } else {
+            // the head of the run changed
+            siftDown(0);
+        }
+        emittedCount++;
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T head(int runIndex) {
+        return (T) runs[runIndex].peekFirst()[headPositions[runIndex]];
+    }
+
+    private int compareHeads(int run1, int run2) {
+        return comparator.compare(head(run1), head(run2));
+    }
+
+    private void heapAdd(int runIndex) {
+        int i = heapSize++;
+        heap[i] = runIndex;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (compareHeads(heap[parent], heap[i]) <= 0) {
+                break;
+            }
+            swap(parent, i);
+            i = parent;
+        }
+    }
+
+    private void heapRemoveTop() {
+        heap[0] = heap[--heapSize];
+        siftDown(0);
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && compareHeads(heap[left], heap[smallest]) < 0) {
+                smallest = left;
+            }
+            if (right < heapSize && compareHeads(heap[right], heap[smallest]) < 0) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.stream.impl.processor;
+
+import com.hazelcast.jet.impl.execution.init.JetInitDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+/**
+ * A chunk of consecutive items of a sorted run, sent from a {@link SortP}
+ * to the {@link SortedMergeP}. The chunks of all runs arrive interleaved
+ * over the same edge, so each chunk carries the index of its run and the
+ * total number of runs. The last chunk of a run, possibly empty, has the
+ * {@code last} flag set.
+ */
+public final class SortedRunChunk implements IdentifiedDataSerializable {
+
+    private int runIndex;
+    private int runCount;
+    private Object[] items;
+    private boolean last;
+
+    public SortedRunChunk() {
+    }
+
+    SortedRunChunk(int runIndex, int runCount, Object[] items, boolean last) {
+        this.runIndex = runIndex;
+        this.runCount = runCount;
+        this.items = items;
+        this.last = last;
+    }
+
+    int runIndex() {
+        return runIndex;
+    }
+
+    int runCount() {
+        return runCount;
+    }
+
+    Object[] items() {
+        return items;
+    }
+
+    boolean isLast() {
+        return last;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return JetInitDataSerializerHook.FACTORY_ID;
+    }
+
+    @Override
+    public int getId() {
+        return JetInitDataSerializerHook.SORTED_RUN_CHUNK;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(runIndex);
+        out.writeInt(runCount);
+        out.writeBoolean(last);
+        out.writeInt(items.length);
+        for (Object item : items) {
+            out.writeObject(item);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        runIndex = in.readInt();
+        runCount = in.readInt();
+        last = in.readBoolean();
+        items = new Object[in.readInt()];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = in.readObject();
+        }
+    }
+}
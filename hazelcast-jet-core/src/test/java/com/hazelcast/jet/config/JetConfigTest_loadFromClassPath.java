@@ -51,6 +51,7 @@ public class JetConfigTest_loadFromClassPath {
         Properties properties = new Properties();
         properties.setProperty("thread.count", "123");
         properties.setProperty("flow.control.period", "456");
+        properties.setProperty("idle.mode", "PARK");
         properties.setProperty("backup.count", "6");
 
         properties.setProperty("metrics.enabled", "false");
@@ -62,6 +63,7 @@ public class JetConfigTest_loadFromClassPath {
         JetConfig config = JetConfig.loadFromClasspath(TEST_XML_JET_WITH_VARIABLES, properties);
         assertEquals(123, config.getInstanceConfig().getCooperativeThreadCount());
         assertEquals(456, config.getInstanceConfig().getFlowControlPeriodMs());
+        assertEquals(IdleMode.PARK, config.getInstanceConfig().getIdleMode());
         assertEquals(6, config.getInstanceConfig().getBackupCount());
 
         MetricsConfig metricsConfig = config.getMetricsConfig();
@@ -87,6 +87,18 @@ public class JobConfigTest {
         assertEquals(500, config.getMaxWatermarkRetainMillis());
     }
 
+    @Test
+    public void when_setMaxInMemoryKeys_thenReturnsMaxInMemoryKeys() {
+        // When
+        JobConfig config = new JobConfig();
+        config.setMaxInMemoryKeys(1000);
+        config.setSpillDirectory("/tmp/spill");
+
+        // Then
+        assertEquals(1000, config.getMaxInMemoryKeys());
+        assertEquals("/tmp/spill", config.getSpillDirectory());
+    }
+
     @Test
     public void when_setSnapshotIntervalMillis_thenReturnsSnapshotIntervalMillis() {
         // When
@@ -97,6 +109,26 @@ public class JobConfigTest {
         assertEquals(50, config.getSnapshotIntervalMillis());
     }
 
+    @Test
+    public void when_setFullSnapshotInterval_thenReturnsFullSnapshotInterval() {
+        // When
+        JobConfig config = new JobConfig();
+        config.setFullSnapshotInterval(5);
+
+        // Then
+        assertEquals(5, config.getFullSnapshotInterval());
+    }
+
+    @Test
+    public void when_enableSnapshotCompression_thenReturnsEnabled() {
+        // When
+        JobConfig config = new JobConfig();
+        config.setSnapshotCompressionEnabled(true);
+
+        // Then
+        assertTrue(config.isSnapshotCompressionEnabled());
+    }
+
     @Test
     public void when_addClass_thenReturnsResourceConfig() {
         // When
@@ -142,6 +142,7 @@ public class XmlConfigTest {
         properties.put(XmlJetConfigLocator.HAZELCAST_JET_CONFIG_PROPERTY, "classpath:hazelcast-jet-with-variables.xml");
         properties.put("thread.count", String.valueOf(55));
         properties.put("flow.control.period", "50");
+        properties.put("idle.mode", "PARK");
         properties.put("backup.count", "2");
         properties.put("metrics.enabled", "false");
         properties.put("metrics.jmxEnabled", "false");
@@ -195,6 +196,7 @@ public class XmlConfigTest {
         assertEquals("cooperativeThreadCount", 55, jetConfig.getInstanceConfig().getCooperativeThreadCount());
         assertEquals("backupCount", 2, jetConfig.getInstanceConfig().getBackupCount());
         assertEquals("flowControlMs", 50, jetConfig.getInstanceConfig().getFlowControlPeriodMs());
+        assertEquals("idleMode", IdleMode.PARK, jetConfig.getInstanceConfig().getIdleMode());
 
         assertEquals("value1", jetConfig.getProperties().getProperty("property1"));
         assertEquals("value2", jetConfig.getProperties().getProperty("property2"));
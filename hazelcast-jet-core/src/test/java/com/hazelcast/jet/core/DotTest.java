@@ -16,6 +16,7 @@
 
 package com.hazelcast.jet.core;
 
+import com.hazelcast.jet.Traverser;
 import com.hazelcast.jet.aggregate.AggregateOperations;
 import com.hazelcast.jet.pipeline.BatchStage;
 import com.hazelcast.jet.pipeline.Pipeline;
@@ -98,4 +99,36 @@ public class DotTest {
                 "\t\"aggregateToCount-step2\" -> \"loggerSink\";\n" +
                 "}", p.toDag().toDotString());
     }
+
+    @Test
+    public void when_statelessStagesFused_then_fusedStagesInVertexName() {
+        Pipeline p = Pipeline.create();
+        p.drawFrom(Sources.<Integer>list("source"))
+         .map(i -> i + 1)
+         .filter(i -> i > 1)
+         .setName("positive")
+         .flatMap(i -> Traverser.over(i, i))
+         .drainTo(Sinks.logger());
+
+        assertEquals("digraph DAG {\n" +
+                "\t\"listSource(source)\" -> \"fused(map, positive, flat-map)\";\n" +
+                "\t\"fused(map, positive, flat-map)\" -> \"loggerSink\";\n" +
+                "}", p.toDag().toDotString());
+    }
+
+    @Test
+    public void when_localParallelismDiffers_then_notFused() {
+        Pipeline p = Pipeline.create();
+        p.drawFrom(Sources.<Integer>list("source"))
+         .map(i -> i + 1)
+         .filter(i -> i > 1)
+         .setLocalParallelism(2)
+         .drainTo(Sinks.logger());
+
+        assertEquals("digraph DAG {\n" +
+                "\t\"listSource(source)\" -> \"map\";\n" +
+                "\t\"map\" -> \"filter\";\n" +
+                "\t\"filter\" -> \"loggerSink\";\n" +
+                "}", p.toDag().toDotString());
+    }
 }
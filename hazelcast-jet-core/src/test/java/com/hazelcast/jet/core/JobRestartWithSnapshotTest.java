@@ -116,7 +116,23 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
         when_nodeDown_then_jobRestartsFromSnapshot(true);
     }
 
+    @Test
+    public void when_nodeDown_then_jobRestartsFromIncrementalSnapshot() throws Exception {
+        when_nodeDown_then_jobRestartsFromSnapshot(false, 3, false);
+    }
+
+    @Test
+    public void when_nodeDown_then_jobRestartsFromCompressedSnapshot() throws Exception {
+        when_nodeDown_then_jobRestartsFromSnapshot(false, 1, true);
+    }
+
     private void when_nodeDown_then_jobRestartsFromSnapshot(boolean twoStage) throws Exception {
+        when_nodeDown_then_jobRestartsFromSnapshot(twoStage, 1, false);
+    }
+
+    private void when_nodeDown_then_jobRestartsFromSnapshot(
+            boolean twoStage, int fullSnapshotInterval, boolean compressSnapshots
+    ) throws Exception {
         /* Design of this test:
 
         It uses a random partitioned generator of source events. The events are
@@ -202,6 +218,8 @@ public class JobRestartWithSnapshotTest extends JetTestSupport {
         JobConfig config = new JobConfig();
         config.setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE);
         config.setSnapshotIntervalMillis(1200);
+        config.setFullSnapshotInterval(fullSnapshotInterval);
+        config.setSnapshotCompressionEnabled(compressSnapshots);
         Job job = instance1.newJob(dag, config);
 
         SnapshotRepository snapshotRepository = new SnapshotRepository(instance1);
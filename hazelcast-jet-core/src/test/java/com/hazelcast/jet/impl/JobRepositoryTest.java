@@ -29,10 +29,14 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 
 import static com.hazelcast.jet.impl.JobRepository.RANDOM_IDS_MAP_NAME;
+import static com.hazelcast.jet.impl.JobRepository.RESOURCE_REFS_MAP_NAME;
 import static com.hazelcast.jet.impl.util.JetGroupProperty.JOB_SCAN_PERIOD;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.concurrent.TimeUnit.HOURS;
@@ -138,6 +142,48 @@ public class JobRepositoryTest extends JetTestSupport {
         assertTrue(jobRepository.getJobResources(jobId).isEmpty());
     }
 
+    @Test
+    public void when_sameResourcesUploadedTwice_then_blobIsShared() {
+        long jobId1 = uploadResourcesForNewJob();
+        long jobId2 = jobRepository.uploadJobResources(jobConfig);
+
+        List<String> hashes = jobRepository.getJobResourceHashes(jobId1);
+        assertEquals(1, hashes.size());
+        assertEquals(hashes, jobRepository.getJobResourceHashes(jobId2));
+        String hash = hashes.get(0);
+        assertEquals(new HashSet<>(asList(jobId1, jobId2)), instance.getMap(RESOURCE_REFS_MAP_NAME).get(hash));
+        String className = DummyClass.class.getName().replace('.', '/') + ".class";
+        assertTrue(jobRepository.getResourceBlob(hash).containsKey(className));
+    }
+
+    @Test
+    public void when_blobLoaded_then_onlyResourcesReturned() {
+        long jobId = uploadResourcesForNewJob();
+        String hash = jobRepository.getJobResourceHashes(jobId).get(0);
+
+        String className = DummyClass.class.getName().replace('.', '/') + ".class";
+        assertEquals(singleton(className), jobRepository.loadResourceBlob(hash).keySet());
+    }
+
+    @Test
+    public void when_blobUnreferenced_then_blobDestroyedAfterExpiration() {
+        long jobId = uploadResourcesForNewJob();
+        String hash = jobRepository.getJobResourceHashes(jobId).get(0);
+
+        sleepUntilJobExpires();
+        jobRepository.cleanup(emptySet());
+
+        // the job's resources are cleaned up, but the blob is kept for a while
+        assertTrue(jobRepository.getJobResources(jobId).isEmpty());
+        assertFalse(jobRepository.getResourceBlob(hash).isEmpty());
+
+        sleepUntilJobExpires();
+        jobRepository.cleanup(emptySet());
+
+        assertTrue(jobRepository.getResourceBlob(hash).isEmpty());
+        assertFalse(instance.getMap(RESOURCE_REFS_MAP_NAME).containsKey(hash));
+    }
+
     @Test
     public void when_jobResourceUploadFails_then_jobResourcesCleanedUp() {
         jobConfig.addResource("invalid path");
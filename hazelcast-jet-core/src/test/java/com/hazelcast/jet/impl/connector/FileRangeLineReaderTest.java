@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.connector;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class FileRangeLineReaderTest {
+
+    private Path file;
+
+    @After
+    public void after() throws IOException {
+        if (file != null) {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void when_wholeFile_then_sameLinesAsBufferedReader() throws IOException {
+        for (String content : new String[]{"", "a", "a\n", "a\nb", "\n\n", "a\r\nb\rc\n", "\r\n\r", "čšž\nľ"}) {
+            file = write(content);
+            assertEquals(content, expectedLines(content), readRange(0, Long.MAX_VALUE));
+            Files.delete(file);
+            file = null;
+        }
+    }
+
+    @Test
+    public void when_splitAtEveryPosition_then_eachLineReadOnce() throws IOException {
+        String content = "first\r\nsecond\n\nthird\rčšž\r\n\rlast";
+        file = write(content);
+        long size = Files.size(file);
+        for (long split = 1; split < size; split++) {
+            List<String> lines = new ArrayList<>(readRange(0, split));
+            lines.addAll(readRange(split, size));
+            assertEquals("split=" + split, expectedLines(content), lines);
+        }
+    }
+
+    @Test
+    public void when_manyRanges_then_eachLineReadOnce() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            sb.append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        String content = sb.toString();
+        file = write(content);
+        long size = Files.size(file);
+        List<String> lines = new ArrayList<>();
+        for (long start = 0; start < size; start += 777) {
+            lines.addAll(readRange(start, Math.min(size, start + 777)));
+        }
+        assertEquals(expectedLines(content), lines);
+    }
+
+    @Test
+    public void test_supportsCharset() {
+        assertTrue(FileRangeLineReader.supportsCharset(UTF_8));
+        assertTrue(FileRangeLineReader.supportsCharset(ISO_8859_1));
+        assertFalse(FileRangeLineReader.supportsCharset(UTF_16));
+    }
+
+    private Path write(String content) throws IOException {
+        Path path = Files.createTempFile("jet-test", ".txt");
+        Files.write(path, content.getBytes(UTF_8));
+        return path;
+    }
+
+    private List<String> readRange(long start, long end) throws IOException {
+        try (Stream<String> lines = FileRangeLineReader.lines(file, start, end, UTF_8)) {
+            return lines.collect(toList());
+        }
+    }
+
+    private static List<String> expectedLines(String content) {
+        return new BufferedReader(new StringReader(content)).lines().collect(toList());
+    }
+}
@@ -38,6 +38,7 @@ import static com.hazelcast.jet.core.Edge.between;
 import static com.hazelcast.jet.core.processor.SinkProcessors.writeListP;
 import static com.hazelcast.jet.core.processor.SourceProcessors.readFilesP;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -84,6 +85,27 @@ public class ReadFilesPTest extends JetTestSupport {
         assertEquals(listLength, list.size());
     }
 
+    @Test
+    public void when_fileSplit_then_eachLineReadOnce() throws Exception {
+        DAG dag = new DAG();
+        Vertex reader = dag.newVertex("reader", ReadFilesP.metaSupplier(directory.getPath(), "*", false, 1000,
+                (file, start, end) -> FileRangeLineReader.lines(file, start, end, UTF_8), Util::entry))
+                           .localParallelism(4);
+        Vertex writer = dag.newVertex("writer", writeListP(list.getName())).localParallelism(1);
+        dag.edge(between(reader, writer));
+
+        File file1 = new File(directory, randomName());
+        final int listLength = 10000;
+        appendToFile(file1, IntStream.range(0, listLength).mapToObj(String::valueOf).toArray(String[]::new));
+
+        instance.newJob(dag).join();
+
+        assertEquals(
+                IntStream.range(0, listLength).mapToObj(String::valueOf).collect(toSet()),
+                new ArrayList<>(list).stream().map(Entry::getValue).collect(toSet()));
+        assertEquals(listLength, list.size());
+    }
+
     @Test
     public void when_glob_the_useGlob() throws Exception {
         DAG dag = buildDag("file2.*");
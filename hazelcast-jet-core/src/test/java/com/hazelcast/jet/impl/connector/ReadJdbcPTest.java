@@ -28,6 +28,7 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashSet;
 
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 import static org.junit.Assert.assertEquals;
@@ -74,6 +75,41 @@ public class ReadJdbcPTest extends PipelineTestSupport {
         assertEquals(PERSON_COUNT, sinkList.size());
     }
 
+    @Test
+    public void test_whenPartitionColumn() {
+        p.drawFrom(Sources.jdbcBuilder(() -> uncheckCall(() -> DriverManager.getConnection(DB_CONNECTION_URL)),
+                "select * from PERSON")
+                          // narrower than the data, the rows outside the bounds must be read too
+                          .partitionColumn("id", 10, 20)
+                          .fetchSize(10)
+                          .build(resultSet -> uncheckCall(() -> resultSet.getInt(1))))
+         .drainTo(sink);
+
+        execute();
+
+        assertEquals(PERSON_COUNT, sinkList.size());
+        assertEquals(PERSON_COUNT, new HashSet<>(sinkList).size());
+    }
+
+    @Test
+    public void test_partitionBoundaries() {
+        assertEquals(0, ReadJdbcP.partitionBoundary(0, 10, 3, 0));
+        assertEquals(3, ReadJdbcP.partitionBoundary(0, 10, 3, 1));
+        assertEquals(6, ReadJdbcP.partitionBoundary(0, 10, 3, 2));
+        assertEquals(10, ReadJdbcP.partitionBoundary(0, 10, 3, 3));
+        assertEquals(Long.MAX_VALUE, ReadJdbcP.partitionBoundary(0, Long.MAX_VALUE, 7, 7));
+    }
+
+    @Test
+    public void test_partitionQuery() {
+        assertEquals("SELECT * FROM (q) jet_partitioned_query WHERE c < ? OR c IS NULL",
+                ReadJdbcP.partitionQuery("q", "c", 3, 0));
+        assertEquals("SELECT * FROM (q) jet_partitioned_query WHERE c >= ? AND c < ?",
+                ReadJdbcP.partitionQuery("q", "c", 3, 1));
+        assertEquals("SELECT * FROM (q) jet_partitioned_query WHERE c >= ?",
+                ReadJdbcP.partitionQuery("q", "c", 3, 2));
+    }
+
     private static void createAndFillTable() throws SQLException {
         try (Connection connection = DriverManager.getConnection(DB_CONNECTION_URL);
              Statement statement = connection.createStatement()) {
@@ -18,17 +18,24 @@ package com.hazelcast.jet.impl.connector;
 
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP.Batch;
+import com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP.PartitionReader;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Queue;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
+import static com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP.MAX_FETCH_SIZE;
+import static com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP.MIN_FETCH_SIZE;
+import static com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP.TARGET_BATCH_BYTES;
+import static com.hazelcast.jet.impl.connector.ReadWithPartitionIteratorP.nextFetchSize;
 import static java.util.Arrays.asList;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
@@ -39,16 +46,11 @@ import static org.mockito.Mockito.mock;
 public class ReadWithPartitionIteratorPTest {
 
     @Test
-    @SuppressWarnings("unchecked")
-    public void when_readFromTwoPartitions_then_emitRoundRobin() {
+    public void when_readFromTwoPartitions_then_emitBatchesRoundRobin() {
         // Given
         final List<Integer> partitions = asList(0, 1);
-        final Iterator<Entry<Integer, Integer>>[] content = new Iterator[]{
-                iterate(51, 52, 53),
-                iterate(71, 72, 73),
-        };
-        ReadWithPartitionIteratorP<Entry<Integer, Integer>> r =
-                new ReadWithPartitionIteratorP<>(p -> content[p], partitions);
+        final FakeReader reader = new FakeReader(2, asList(51, 52, 53), asList(71, 72, 73));
+        ReadWithPartitionIteratorP<Integer> r = new ReadWithPartitionIteratorP<>(reader, partitions);
         TestOutbox outbox = new TestOutbox(3);
         Queue<Object> bucket = outbox.queue(0);
         r.init(outbox, mock(Processor.Context.class));
@@ -58,8 +60,8 @@ public class ReadWithPartitionIteratorPTest {
 
         // Then
         assertEquals(entry(51), bucket.poll());
-        assertEquals(entry(71), bucket.poll());
         assertEquals(entry(52), bucket.poll());
+        assertEquals(entry(71), bucket.poll());
         outbox.reset();
 
         // When
@@ -71,11 +73,103 @@ public class ReadWithPartitionIteratorPTest {
         assertEquals(entry(73), bucket.poll());
     }
 
-    private static Iterator<Entry<Integer, Integer>> iterate(Integer... content) {
-        return Stream.of(content).map(ReadWithPartitionIteratorPTest::entry).iterator();
+    @Test
+    public void when_readInFlight_then_nextBatchNotEmittedUntilDone() {
+        // Given
+        final FakeReader reader = new FakeReader(2, asList(1, 2, 3));
+        reader.completeReads = false;
+        ReadWithPartitionIteratorP<Integer> r = new ReadWithPartitionIteratorP<>(reader, asList(0));
+        TestOutbox outbox = new TestOutbox(10);
+        Queue<Object> bucket = outbox.queue(0);
+        r.init(outbox, mock(Processor.Context.class));
+
+        // When
+        assertFalse(r.complete());
+
+        // Then
+        assertEquals(0, bucket.size());
+        assertEquals(1, reader.pendingReads.size());
+
+        // When
+        reader.pendingReads.remove(0).complete(null);
+        assertFalse(r.complete());
+
+        // Then
+        assertEquals(entry(1), bucket.poll());
+        assertEquals(entry(2), bucket.poll());
+        // the read of the next batch was issued before the first one was emitted
+        assertEquals(1, reader.pendingReads.size());
+
+        // When
+        reader.pendingReads.remove(0).complete(null);
+
+        // Then
+        assertTrue(r.complete());
+        assertEquals(entry(3), bucket.poll());
+    }
+
+    @Test
+    public void when_smallEntries_then_fetchSizeGrowsToMax() {
+        assertEquals(MAX_FETCH_SIZE, nextFetchSize(1000, 1000));
+    }
+
+    @Test
+    public void when_largeEntries_then_fetchSizeShrinksToMin() {
+        assertEquals(MIN_FETCH_SIZE, nextFetchSize(1000L * TARGET_BATCH_BYTES, 1000));
+    }
+
+    @Test
+    public void when_mediumEntries_then_fetchSizeFitsTargetBytes() {
+        assertEquals(TARGET_BATCH_BYTES / 1024, nextFetchSize(1024 * 1000, 1000));
     }
 
     private static Entry<Integer, Integer> entry(Integer content) {
         return new SimpleImmutableEntry<>(content, content);
     }
+
+    /**
+     * Serves the given contents of the partitions, at most {@code batchSize}
+     * items at a time. The table index is the position in the content list.
+     */
+    private static final class FakeReader implements PartitionReader<Integer> {
+        private final int batchSize;
+        private final List<Integer>[] contents;
+        private final List<CompletableFuture<Object>> pendingReads = new ArrayList<>();
+        private boolean completeReads = true;
+
+        @SafeVarargs
+        FakeReader(int batchSize, List<Integer>... contents) {
+            this.batchSize = batchSize;
+            this.contents = contents;
+        }
+
+        @Override
+        public Future<?> readBatch(int partitionId, int tableIndex, int fetchSize) {
+            List<Integer> content = contents[partitionId];
+            int from = tableIndex == Integer.MAX_VALUE ? 0 : tableIndex;
+            int to = Math.min(content.size(), from + batchSize);
+            Batch<Integer> batch = new Batch<>(content.subList(from, to), to < content.size() ? to : -1);
+            if (completeReads) {
+                return CompletableFuture.completedFuture(batch);
+            }
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            pendingReads.add(future);
+            return future.thenApply(x -> batch);
+        }
+
+        @Override
+        public Batch<Integer> toBatch(Object response) {
+            return (Batch<Integer>) response;
+        }
+
+        @Override
+        public Object toObject(Integer record) {
+            return entry(record);
+        }
+
+        @Override
+        public int sizeOf(Integer record) {
+            return 1;
+        }
+    }
 }
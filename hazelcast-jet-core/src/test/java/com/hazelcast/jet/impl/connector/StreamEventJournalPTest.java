@@ -217,6 +217,31 @@ public class StreamEventJournalPTest extends JetTestSupport {
         });
     }
 
+    @Test
+    public void when_fullBatchesRead_then_fetchSizeGrowsUpToMax() {
+        int fetchSize = StreamEventJournalP.MIN_FETCH_SIZE;
+        fetchSize = StreamEventJournalP.nextFetchSize(fetchSize, fetchSize);
+        assertEquals(2 * StreamEventJournalP.MIN_FETCH_SIZE, fetchSize);
+
+        while (fetchSize < StreamEventJournalP.MAX_FETCH_SIZE) {
+            fetchSize = StreamEventJournalP.nextFetchSize(fetchSize, fetchSize);
+        }
+        assertEquals(StreamEventJournalP.MAX_FETCH_SIZE, StreamEventJournalP.nextFetchSize(fetchSize, fetchSize));
+    }
+
+    @Test
+    public void when_partialBatchesRead_then_fetchSizeShrinksDownToMin() {
+        int fetchSize = StreamEventJournalP.MAX_FETCH_SIZE;
+        assertEquals(fetchSize, StreamEventJournalP.nextFetchSize(fetchSize, fetchSize / 2));
+        fetchSize = StreamEventJournalP.nextFetchSize(fetchSize, 1);
+        assertEquals(StreamEventJournalP.MAX_FETCH_SIZE / 2, fetchSize);
+
+        while (fetchSize > StreamEventJournalP.MIN_FETCH_SIZE) {
+            fetchSize = StreamEventJournalP.nextFetchSize(fetchSize, 1);
+        }
+        assertEquals(StreamEventJournalP.MIN_FETCH_SIZE, StreamEventJournalP.nextFetchSize(fetchSize, 1));
+    }
+
     private void fillJournal(int countPerPartition) {
         for (int i = 0; i < countPerPartition; i++) {
             map.put(key0, i * 2);
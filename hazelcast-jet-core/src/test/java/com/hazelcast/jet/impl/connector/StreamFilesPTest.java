@@ -41,6 +41,7 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.RandomAccessFile;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -51,6 +52,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import static com.hazelcast.jet.Util.entry;
 import static com.hazelcast.jet.core.processor.SourceProcessors.streamFilesP;
 import static java.lang.Thread.interrupted;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -271,8 +273,48 @@ public class StreamFilesPTest extends JetTestSupport {
         assertTrueEventually(() -> assertEquals(expected, outboxLines), ASSERT_COUNT_TIMEOUT_SECONDS);
     }
 
+    @Test
+    public void when_rawMode_then_seeLinesAsBytes() throws Exception {
+        // Given
+        initializeWithProcessor(StreamFilesP.rawStreamFilesP(workDir.getAbsolutePath(), "*", false,
+                (fileName, bytes) -> entry(fileName, new String(bytes, UTF_8))));
+        driverThread.start();
+
+        // When
+        Path file = workDir.toPath().resolve("a.txt");
+        writeToFile(file, "line1\r\nline2\nline3");
+
+        // Then
+        List<Entry<String, String>> expected = asList(entry("a.txt", "line1"), entry("a.txt", "line2"));
+        assertTrueEventually(() -> assertEquals(expected, outboxLines), ASSERT_COUNT_TIMEOUT_SECONDS);
+    }
+
+    @Test
+    public void when_charsetNotAsciiCompatible_then_linesDecoded() throws Exception {
+        // Given
+        initializeWithProcessor(new StreamFilesP<>(workDir.getAbsolutePath(), UTF_16LE, "*", false, Util::entry));
+        driverThread.start();
+
+        // When
+        Path file = workDir.toPath().resolve("a.txt");
+        writeToFile(file, "line1\r\n\u017elu\u0165ou\u010dk\u00fd\nincomplete", UTF_16LE);
+        Thread.sleep(2000);
+        writeToFile(file, " line\n", UTF_16LE);
+
+        // Then
+        List<Entry<String, String>> expected = asList(
+                entry("a.txt", "line1"),
+                entry("a.txt", "\u017elu\u0165ou\u010dk\u00fd"),
+                entry("a.txt", "incomplete line"));
+        assertTrueEventually(() -> assertEquals(expected, outboxLines), ASSERT_COUNT_TIMEOUT_SECONDS);
+    }
+
     private void writeToFile(Path file, String text) throws IOException {
-        try (Writer wr = Files.newBufferedWriter(file, StandardOpenOption.APPEND, StandardOpenOption.CREATE)) {
+        writeToFile(file, text, UTF_8);
+    }
+
+    private void writeToFile(Path file, String text, Charset charset) throws IOException {
+        try (Writer wr = Files.newBufferedWriter(file, charset, StandardOpenOption.APPEND, StandardOpenOption.CREATE)) {
             wr.append(text);
         }
     }
@@ -297,7 +339,11 @@ public class StreamFilesPTest extends JetTestSupport {
         if (glob == null) {
             glob = "*";
         }
-        processor = new StreamFilesP<>(workDir.getAbsolutePath(), UTF_8, glob, false, Util::entry);
+        initializeWithProcessor(new StreamFilesP<>(workDir.getAbsolutePath(), UTF_8, glob, false, Util::entry));
+    }
+
+    private void initializeWithProcessor(StreamFilesP processor) {
+        this.processor = processor;
         outbox = new TestOutbox(1);
         Context ctx = new TestProcessorContext()
                 .setLogger(Logger.getLogger(StreamFilesP.class));
@@ -20,7 +20,7 @@ import com.hazelcast.test.HazelcastParallelClassRunner;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
@@ -29,70 +29,99 @@ import static org.junit.Assert.assertEquals;
 public class StreamFilesP_readCompleteLineTest {
 
     private StreamFilesP<String> p = new StreamFilesP<>("", UTF_8, "*", false, (file, line) -> line);
+    private StreamFilesP.FileOffset offset = new StreamFilesP.FileOffset(0);
 
     @Test
     public void when_emptyFile_then_null() throws Exception {
-        assertEquals(null, p.readCompleteLine(new StringReader("")));
+        assertEquals(null, p.readCompleteLine(offset, buffer("")));
     }
 
     @Test
     public void when_nonTerminatedSingleLine_then_null() throws Exception {
-        assertEquals(null, p.readCompleteLine(new StringReader("blabla")));
+        assertEquals(null, p.readCompleteLine(offset, buffer("blabla")));
     }
 
     @Test
     public void when_terminatedSingleLine_then_singleLine() throws Exception {
-        StringReader reader = new StringReader("blabla\n");
+        ByteBuffer reader = buffer("blabla\n");
 
-        assertEquals("blabla", p.readCompleteLine(reader));
+        assertEquals("blabla", p.readCompleteLine(offset, reader));
     }
 
     @Test
     public void when_nonTerminatedSecondLine_then_singleLine() throws Exception {
-        StringReader reader = new StringReader("blabla\nbla");
+        ByteBuffer reader = buffer("blabla\nbla");
 
-        assertEquals("blabla", p.readCompleteLine(reader));
-        assertEquals(null, p.readCompleteLine(reader));
+        assertEquals("blabla", p.readCompleteLine(offset, reader));
+        assertEquals(null, p.readCompleteLine(offset, reader));
     }
 
     @Test
     public void when_terminatedSecondLine_then_twoLines() throws Exception {
-        StringReader reader = new StringReader("blabla\nbla\n");
+        ByteBuffer reader = buffer("blabla\nbla\n");
 
-        assertEquals("blabla", p.readCompleteLine(reader));
-        assertEquals("bla", p.readCompleteLine(reader));
+        assertEquals("blabla", p.readCompleteLine(offset, reader));
+        assertEquals("bla", p.readCompleteLine(offset, reader));
     }
 
     @Test
     public void when_emptyLine_then_emptyLine() throws Exception {
-        StringReader reader = new StringReader("\nbla\n");
+        ByteBuffer reader = buffer("\nbla\n");
 
-        assertEquals("", p.readCompleteLine(reader));
-        assertEquals("bla", p.readCompleteLine(reader));
+        assertEquals("", p.readCompleteLine(offset, reader));
+        assertEquals("bla", p.readCompleteLine(offset, reader));
     }
 
     @Test
     public void when_twoEmptyLines_then_emptyLine() throws Exception {
-        StringReader reader = new StringReader("\n\nbla\n");
+        ByteBuffer reader = buffer("\n\nbla\n");
 
-        assertEquals("", p.readCompleteLine(reader));
-        assertEquals("", p.readCompleteLine(reader));
-        assertEquals("bla", p.readCompleteLine(reader));
+        assertEquals("", p.readCompleteLine(offset, reader));
+        assertEquals("", p.readCompleteLine(offset, reader));
+        assertEquals("bla", p.readCompleteLine(offset, reader));
     }
 
     @Test
     public void test_windowsEndLines() throws Exception {
-        StringReader reader = new StringReader("blabla\r\nbla\r\n");
+        ByteBuffer reader = buffer("blabla\r\nbla\r\n");
 
-        assertEquals("blabla", p.readCompleteLine(reader));
-        assertEquals("bla", p.readCompleteLine(reader));
+        assertEquals("blabla", p.readCompleteLine(offset, reader));
+        assertEquals("bla", p.readCompleteLine(offset, reader));
     }
 
     @Test
     public void test_mac9EndLines() throws Exception {
-        StringReader reader = new StringReader("blabla\rbla\r");
+        ByteBuffer reader = buffer("blabla\rbla\r");
 
-        assertEquals("blabla", p.readCompleteLine(reader));
-        assertEquals("bla", p.readCompleteLine(reader));
+        assertEquals("blabla", p.readCompleteLine(offset, reader));
+        assertEquals("bla", p.readCompleteLine(offset, reader));
+    }
+
+    @Test
+    public void when_lineSplitBetweenReads_then_joined() throws Exception {
+        assertEquals(null, p.readCompleteLine(offset, buffer("bla")));
+        ByteBuffer reader = buffer("bla\nbla");
+
+        assertEquals("blabla", p.readCompleteLine(offset, reader));
+        assertEquals(null, p.readCompleteLine(offset, reader));
+    }
+
+    @Test
+    public void when_windowsEndLineSplitBetweenReads_then_noEmptyLine() throws Exception {
+        assertEquals("blabla", p.readCompleteLine(offset, buffer("blabla\r")));
+        assertEquals("bla", p.readCompleteLine(offset, buffer("\nbla\r\n")));
+    }
+
+    @Test
+    public void when_skippingFirstLine_then_firstLineSkipped() throws Exception {
+        offset = StreamFilesP.FileOffset.skippingFirstLine(1, 1);
+        ByteBuffer reader = buffer("bla\nbla\n");
+
+        assertEquals("bla", p.readCompleteLine(offset, reader));
+        assertEquals(null, p.readCompleteLine(offset, reader));
+    }
+
+    private static ByteBuffer buffer(String s) {
+        return ByteBuffer.wrap(s.getBytes(UTF_8));
     }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.util.concurrent.ConcurrentConveyor;
+import com.hazelcast.internal.util.concurrent.OneToOneConcurrentArrayQueue;
+import com.hazelcast.internal.util.concurrent.QueuedPipe;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.util.concurrent.ConcurrentConveyor.concurrentConveyor;
+import static com.hazelcast.jet.impl.execution.ConveyorCollectorWithPartition.MAX_BATCH_SIZE;
+import static com.hazelcast.jet.impl.execution.DoneItem.DONE_ITEM;
+import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
+import static com.hazelcast.jet.impl.util.ProgressState.WAS_ALREADY_DONE;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class ConveyorCollectorWithPartitionTest {
+
+    private QueuedPipe<Object> queue;
+    private ConveyorCollectorWithPartition collector;
+
+    @Before
+    public void before() {
+        queue = new OneToOneConcurrentArrayQueue<>(2);
+        ConcurrentConveyor<Object> conveyor = concurrentConveyor(null, queue);
+        collector = new ConveyorCollectorWithPartition(conveyor, 0, new int[0], new WakeUpSignal());
+    }
+
+    @Test
+    public void when_itemsOffered_then_passedOnAsOneBatchOnFlush() {
+        assertEquals(DONE, collector.offer("a", 1));
+        assertEquals(DONE, collector.offer("b"));
+        assertNull(queue.poll());
+
+        assertEquals(DONE, collector.flush());
+
+        ItemBatch batch = (ItemBatch) queue.poll();
+        assertEquals(2, batch.size());
+        assertArrayEquals(new Object[] {"a", "b"}, Arrays.copyOf(batch.items, 2));
+        assertArrayEquals(new int[] {1, -1}, Arrays.copyOf(batch.partitionIds, 2));
+        assertEquals(WAS_ALREADY_DONE, collector.flush());
+    }
+
+    @Test
+    public void when_batchFull_then_passedOnWithoutFlush() {
+        for (int i = 0; i < MAX_BATCH_SIZE; i++) {
+            collector.offer(i, 0);
+        }
+
+        assertEquals(MAX_BATCH_SIZE, ((ItemBatch) queue.poll()).size());
+        assertEquals(WAS_ALREADY_DONE, collector.flush());
+    }
+
+    @Test
+    public void when_batchRecycled_then_reused() {
+        collector.offer("a", 1);
+        collector.flush();
+        ItemBatch batch = (ItemBatch) queue.poll();
+        batch.recycle();
+        assertEquals(0, batch.size());
+        assertNull(batch.items[0]);
+
+        collector.offer("b", 2);
+        collector.flush();
+
+        assertSame(batch, queue.poll());
+        assertEquals(1, batch.size());
+        assertEquals("b", batch.items[0]);
+    }
+
+    @Test
+    public void when_broadcastItemOffered_then_stagedItemsPassedOnFirst() {
+        collector.offer("a", 1);
+        collector.offer("b", 2);
+
+        assertEquals(DONE, collector.offerBroadcast(DONE_ITEM));
+
+        assertTrue(queue.poll() instanceof ItemBatch);
+        assertSame(DONE_ITEM, queue.poll());
+    }
+
+    @Test
+    public void when_queueFull_then_offersRejectedUntilDrained() {
+        for (int i = 0; i < 3 * MAX_BATCH_SIZE; i++) {
+            assertEquals(DONE, collector.offer(i, 0));
+        }
+        assertEquals(NO_PROGRESS, collector.offer(-1, 0));
+        assertEquals(NO_PROGRESS, collector.flush());
+        assertEquals(NO_PROGRESS, collector.offerBroadcast(DONE_ITEM));
+
+        assertEquals(MAX_BATCH_SIZE, ((ItemBatch) queue.poll()).size());
+        // the staged batch fits, the broadcast item doesn't
+        assertEquals(NO_PROGRESS, collector.offerBroadcast(DONE_ITEM));
+        assertEquals(MAX_BATCH_SIZE, ((ItemBatch) queue.poll()).size());
+        assertEquals(DONE, collector.offerBroadcast(DONE_ITEM));
+        assertEquals(MAX_BATCH_SIZE, ((ItemBatch) queue.poll()).size());
+        assertSame(DONE_ITEM, queue.poll());
+    }
+}
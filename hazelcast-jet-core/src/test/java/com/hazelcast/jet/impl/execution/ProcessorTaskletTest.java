@@ -251,7 +251,8 @@ public class ProcessorTaskletTest {
         }
 
         final ProcessorTasklet t = new ProcessorTasklet(context, new DefaultSerializationServiceBuilder().build(),
-                processor, instreams, outstreams, mock(SnapshotContext.class), new MockOutboundCollector(10), -1);
+                processor, instreams, outstreams, mock(SnapshotContext.class), new MockOutboundCollector(10),
+                new WakeUpSignal(), -1);
         t.init();
         return t;
     }
@@ -157,7 +157,7 @@ public class ProcessorTaskletTest_Snapshots {
         assertEquals(emptyList(), getSnapshotBufferValues());
 
         // When
-        snapshotContext.startNewSnapshot(0);
+        snapshotContext.startNewSnapshot(0, false);
         outstream1.flush();
 
         callUntil(tasklet, NO_PROGRESS);
@@ -197,7 +197,7 @@ public class ProcessorTaskletTest_Snapshots {
         snapshotContext = new SnapshotContext(mock(ILogger.class), "test job", -1, guarantee);
         snapshotContext.initTaskletCount(1, 0);
         final ProcessorTasklet t = new ProcessorTasklet(context, serializationService, processor, instreams, outstreams,
-                snapshotContext, snapshotCollector, -1);
+                snapshotContext, snapshotCollector, new WakeUpSignal(), -1);
         t.init();
         return t;
     }
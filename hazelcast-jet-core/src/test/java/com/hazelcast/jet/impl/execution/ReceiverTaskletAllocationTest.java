@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.execution;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.BufferObjectDataInput;
+import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.NightlyTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.jet.impl.util.ProgressState.DONE;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the bytes allocated by the {@link ReceiverTasklet} per received
+ * item, on top of the deserialized item itself.
+ */
+@Category(NightlyTest.class)
+@RunWith(HazelcastSerialClassRunner.class)
+public class ReceiverTaskletAllocationTest {
+
+    private static final int ITEMS_PER_PACKET = 1024;
+    private static final int PACKET_COUNT = 2048;
+    private static final int WARMUP_ROUNDS = 10;
+
+    private final InternalSerializationService serService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void measureAllocatedBytesPerItem() throws IOException {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        double bytesPerItem = 0;
+        for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+            ReceiverTasklet tasklet = new ReceiverTasklet(item -> DONE, 3, 100);
+            List<BufferObjectDataInput> packets = createPackets();
+            packets.forEach(tasklet::receiveStreamPacket);
+
+            long start = threadMXBean.getThreadAllocatedBytes(threadId);
+            tasklet.call();
+            long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start;
+            bytesPerItem = (double) allocated / (ITEMS_PER_PACKET * PACKET_COUNT);
+        }
+        // each item is a Boolean, deserialized to a cached instance: all we see is the tasklet's own garbage
+        assertTrue("Too many bytes allocated per item: " + bytesPerItem, bytesPerItem < 1);
+    }
+
+    private List<BufferObjectDataInput> createPackets() throws IOException {
+        List<BufferObjectDataInput> packets = new ArrayList<>(PACKET_COUNT);
+        for (int i = 0; i < PACKET_COUNT; i++) {
+            BufferObjectDataOutput out = serService.createObjectDataOutput();
+            out.writeInt(ITEMS_PER_PACKET);
+            for (int j = 0; j < ITEMS_PER_PACKET; j++) {
+                out.writeObject(j % 2 == 0);
+                out.writeInt(j);
+            }
+            packets.add(serService.createObjectDataInput(out.toByteArray()));
+        }
+        return packets;
+    }
+}
@@ -18,15 +18,23 @@ package com.hazelcast.jet.impl.execution;
 
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.nio.BufferObjectDataOutput;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -50,6 +58,69 @@ public class ReceiverTaskletTest {
         assertEquals(asList(1, 2), collector.getBuffer());
     }
 
+    @Test
+    public void when_collectorFull_then_remainingItemsEmittedInOrderLater() throws IOException {
+        pushObjects(1, 2, 3);
+        pushObjects(4, 5);
+
+        t.call();
+        assertEquals(asList(1, 2), collector.getBuffer());
+        collector.getBuffer().clear();
+        t.call();
+        assertEquals(asList(3, 4), collector.getBuffer());
+        collector.getBuffer().clear();
+        t.call();
+        assertEquals(singletonList(5), collector.getBuffer());
+        assertEquals(5, t.getItemsInCounter().get());
+    }
+
+    @Test
+    public void when_collectorFull_then_queuedPacketsCountedAsWaiting() throws IOException {
+        pushObjects(1, 2, 3);
+        pushObjects(4, 5);
+
+        t.call();
+        // item 3 is pending, items 4 and 5 are in the packet not yet read
+        assertEquals(3, t.getNumWaitingInInbox());
+        collector.getBuffer().clear();
+        t.call();
+        assertEquals(1, t.getNumWaitingInInbox());
+    }
+
+    @Test
+    public void when_itemsSpanPackets_then_deserializedOnlyWhenOffered() throws IOException {
+        List<Integer> partitionIds = new ArrayList<>();
+        collector = new MockOutboundCollector(2) {
+            @Override
+            public ProgressState offer(Object item, int partitionId) {
+                ProgressState result = super.offer(item);
+                if (result.isDone()) {
+                    partitionIds.add(partitionId);
+                }
+                return result;
+            }
+        };
+        t = new ReceiverTasklet(collector, 3, 100);
+        pushObjects(new CountingItem(1), new CountingItem(2), new CountingItem(3));
+        pushObjects(new CountingItem(4), new CountingItem(5));
+
+        t.call();
+        // item 3 is read and pending, the second packet is not touched yet
+        assertEquals(asList(new CountingItem(1), new CountingItem(2)), collector.getBuffer());
+        assertEquals(3, CountingItem.deserializedCount.get());
+
+        collector.getBuffer().clear();
+        t.call();
+        assertEquals(asList(new CountingItem(3), new CountingItem(4)), collector.getBuffer());
+        assertEquals(5, CountingItem.deserializedCount.get());
+
+        collector.getBuffer().clear();
+        t.call();
+        assertEquals(singletonList(new CountingItem(5)), collector.getBuffer());
+        assertEquals(5, CountingItem.deserializedCount.get());
+        assertEquals(asList(1, 2, 3, 4, 5), partitionIds);
+    }
+
     private void pushObjects(Object... objs) throws IOException {
         final BufferObjectDataOutput out = serService.createObjectDataOutput();
         out.writeInt(objs.length);
@@ -59,4 +130,45 @@ public class ReceiverTaskletTest {
         }
         t.receiveStreamPacket(serService.createObjectDataInput(out.toByteArray()));
     }
+
+    public static class CountingItem implements DataSerializable {
+
+        // only one test uses this class, so the count isn't shared
+        static final AtomicInteger deserializedCount = new AtomicInteger();
+
+        private int value;
+
+        public CountingItem() {
+        }
+
+        CountingItem(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            value = in.readInt();
+            deserializedCount.incrementAndGet();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CountingItem && ((CountingItem) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "CountingItem{" + value + '}';
+        }
+    }
 }
@@ -19,6 +19,7 @@ package com.hazelcast.jet.impl.execution;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.internal.metrics.ProbeLevel;
 import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.jet.config.IdleMode;
 import com.hazelcast.jet.core.JetTestSupport;
 import com.hazelcast.jet.impl.util.ProgressState;
 import com.hazelcast.logging.ILogger;
@@ -55,10 +56,12 @@ import static com.hazelcast.jet.impl.util.ProgressState.NO_PROGRESS;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -72,12 +75,13 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
 
     private final CompletableFuture<Void> cancellationFuture = new CompletableFuture<>();
 
+    private NodeEngineImpl neMock;
     private TaskletExecutionService es;
     private ClassLoader classLoaderMock;
 
     @Before
     public void before() {
-        NodeEngineImpl neMock = mock(NodeEngineImpl.class);
+        neMock = mock(NodeEngineImpl.class);
         HazelcastInstance hzMock = mock(HazelcastInstance.class);
         LoggingService loggingService = mock(LoggingService.class);
         Mockito.when(hzMock.getName()).thenReturn("test-hz-instance");
@@ -87,7 +91,7 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         Mockito.when(neMock.getMetricsRegistry()).thenReturn(metricsRegistry);
         Mockito.when(loggingService.getLogger(TaskletExecutionService.class))
                .thenReturn(Logger.getLogger(TaskletExecutionService.class));
-        es = new TaskletExecutionService(neMock, THREAD_COUNT);
+        es = new TaskletExecutionService(neMock, THREAD_COUNT, IdleMode.BACKOFF);
         classLoaderMock = mock(ClassLoader.class);
     }
 
@@ -349,6 +353,51 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    @Test
+    public void when_twoHotTaskletsOnOneWorker_then_oneIsMovedAway() throws Exception {
+        // Given
+        // tasklets are placed round-robin on idle workers, so tasklets 0 and THREAD_COUNT share a worker
+        final List<BusyTasklet> tasklets =
+                IntStream.range(0, 2 * THREAD_COUNT)
+                         .mapToObj(i -> new BusyTasklet(i % THREAD_COUNT == 0))
+                         .collect(toList());
+        final BusyTasklet hot1 = tasklets.get(0);
+        final BusyTasklet hot2 = tasklets.get(THREAD_COUNT);
+
+        // When
+        CompletableFuture<Void> f = es.beginExecute(tasklets, cancellationFuture, classLoaderMock);
+
+        // Then
+        assertTrueEventually(() -> {
+            assertNotNull(hot1.thread);
+            assertNotNull(hot2.thread);
+            assertNotEquals(hot1.thread, hot2.thread);
+        }, 10);
+        tasklets.forEach(t -> t.terminated = true);
+        f.get();
+    }
+
+    @Test
+    public void when_parkModeAndTaskletSignalled_then_wokenUpBeforeParkTimeout() throws Exception {
+        // Given
+        es.shutdown();
+        es = new TaskletExecutionService(neMock, THREAD_COUNT, IdleMode.PARK);
+        SignalledTasklet t = new SignalledTasklet();
+        CompletableFuture<Void> f = es.beginExecute(singletonList(t), cancellationFuture, classLoaderMock);
+        // let the worker back off to the longest park time
+        Thread.sleep(1000);
+
+        // When
+        long start = System.nanoTime();
+        t.terminated = true;
+        t.wakeUpSignal.wakeUp();
+        f.get();
+
+        // Then
+        long elapsedMs = NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Tasklet not woken up by the signal, took " + elapsedMs + "ms", elapsedMs < 50);
+    }
+
     @Test
     public void workStealing_stressTest() throws Exception {
         final List<SynchronizationTestTasklet> tasklets =
@@ -413,6 +462,55 @@ public class TaskletExecutionServiceTest extends JetTestSupport {
         }
     }
 
+    /**
+     * A tasklet which either keeps its thread busy for a millisecond in each
+     * call, or makes no progress at all.
+     */
+    private static final class BusyTasklet implements Tasklet {
+
+        private final boolean hot;
+        private volatile Thread thread;
+        private volatile boolean terminated;
+
+        BusyTasklet(boolean hot) {
+            this.hot = hot;
+        }
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            if (terminated) {
+                return DONE;
+            }
+            if (!hot) {
+                return NO_PROGRESS;
+            }
+            thread = Thread.currentThread();
+            long end = System.nanoTime() + MILLISECONDS.toNanos(1);
+            while (System.nanoTime() < end) {
+                // busy spin
+            }
+            return MADE_PROGRESS;
+        }
+    }
+
+    private static final class SignalledTasklet implements Tasklet {
+
+        private final WakeUpSignal wakeUpSignal = new WakeUpSignal();
+        private volatile boolean terminated;
+
+        @Nonnull
+        @Override
+        public ProgressState call() {
+            return terminated ? DONE : NO_PROGRESS;
+        }
+
+        @Override
+        public WakeUpSignal wakeUpSignal() {
+            return wakeUpSignal;
+        }
+    }
+
     private void executeAndJoin(List<MockTasklet> tasklets) {
         CompletableFuture<Void> f = es.beginExecute(tasklets, cancellationFuture, classLoaderMock);
         f.join();
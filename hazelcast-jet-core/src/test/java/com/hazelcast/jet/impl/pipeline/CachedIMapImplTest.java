@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.pipeline;
+
+import com.hazelcast.config.EventJournalConfig;
+import com.hazelcast.core.IMap;
+import com.hazelcast.jet.JetException;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.core.JetTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CachedIMapImplTest extends JetTestSupport {
+
+    private JetInstance jet;
+    private IMap<Integer, String> map;
+    private CachedIMapImpl<Integer, String> cache;
+
+    @Before
+    public void before() {
+        JetConfig config = new JetConfig();
+        config.getHazelcastConfig().addEventJournalConfig(new EventJournalConfig().setMapName("journaled*"));
+        jet = createJetMember(config);
+        map = jet.getMap("journaled");
+    }
+
+    @After
+    public void after() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    public void when_getTwice_then_secondIsHit() throws Exception {
+        map.put(1, "a");
+        cache = new CachedIMapImpl<>(jet, "journaled", 100);
+
+        assertEquals("a", cache.get(1));
+        assertEquals("a", cache.getAsync(1).get());
+        assertNull(cache.get(2));
+        assertNull(cache.get(2));
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void when_entryChanges_then_invalidated() {
+        map.put(1, "a");
+        cache = new CachedIMapImpl<>(jet, "journaled", 100);
+        assertEquals("a", cache.get(1));
+        assertNull(cache.get(2));
+
+        map.put(1, "b");
+        map.put(2, "c");
+
+        assertTrueEventually(() -> {
+            assertEquals("b", cache.get(1));
+            assertEquals("c", cache.get(2));
+        }, 10);
+    }
+
+    @Test
+    public void when_full_then_leastRecentlyUsedEvicted() {
+        for (int i = 0; i < 64; i++) {
+            map.put(i, String.valueOf(i));
+        }
+        // 16 segments with capacity 1 each: keys 0 and 16 share a segment
+        cache = new CachedIMapImpl<>(jet, "journaled", 16);
+        cache.get(0);
+        cache.get(16);
+        cache.get(0);
+
+        assertEquals(0, cache.hitCount());
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    public void when_full_then_evictionFollowsAccessOrder() {
+        for (int i = 0; i < 64; i++) {
+            map.put(i, String.valueOf(i));
+        }
+        // 16 segments with capacity 2 each: keys 0, 16 and 32 share a segment
+        cache = new CachedIMapImpl<>(jet, "journaled", 32);
+        cache.get(0);
+        cache.get(16);
+        // hit, makes 16 the least recently used key even though 0 was inserted first
+        cache.get(0);
+        // evicts 16
+        cache.get(32);
+        assertEquals(1, cache.hitCount());
+        assertEquals(3, cache.missCount());
+
+        cache.get(0);
+        cache.get(32);
+        assertEquals(3, cache.hitCount());
+        assertEquals(3, cache.missCount());
+
+        cache.get(16);
+        assertEquals(4, cache.missCount());
+    }
+
+    @Test(expected = JetException.class)
+    public void when_journalNotEnabled_then_error() {
+        cache = new CachedIMapImpl<>(jet, "notJournaled", 100);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.jet.impl.pipeline;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.jet.impl.pipeline.JetEvent.jetEvent;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.adaptFilterFn;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.adaptFlatMapFn;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.adaptMapFn;
+import static com.hazelcast.jet.impl.pipeline.JetEventFunctions.payloadFn;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class JetEventFunctionsTest {
+
+    @Test
+    public void when_mapFnReturnsNewPayload_then_newEventWithSameTimestamp() {
+        DistributedFunction<JetEvent<String>, JetEvent<Integer>> mapFn = adaptMapFn(String::length);
+
+        assertEquals(jetEvent(3, 10L), mapFn.apply(jetEvent("abc", 10L)));
+    }
+
+    @Test
+    public void when_mapFnReturnsSamePayload_then_sameEvent() {
+        DistributedFunction<JetEvent<String>, JetEvent<String>> mapFn = adaptMapFn(s -> s);
+        JetEvent<String> event = jetEvent("abc", 10L);
+
+        assertSame(event, mapFn.apply(event));
+    }
+
+    @Test
+    public void when_mapFnReturnsNull_then_null() {
+        DistributedFunction<JetEvent<String>, JetEvent<String>> mapFn = adaptMapFn(s -> null);
+
+        assertNull(mapFn.apply(jetEvent("abc", 10L)));
+    }
+
+    @Test
+    public void when_filterFn_then_testsPayload() {
+        DistributedPredicate<JetEvent<String>> filterFn = adaptFilterFn(s -> s.startsWith("a"));
+
+        assertTrue(filterFn.test(jetEvent("abc", 10L)));
+        assertFalse(filterFn.test(jetEvent("bcd", 10L)));
+    }
+
+    @Test
+    public void when_flatMapFn_then_eventsWithSameTimestamp() {
+        DistributedFunction<JetEvent<String>, Traverser<JetEvent<String>>> flatMapFn =
+                adaptFlatMapFn(s -> Traverser.over(s, s + "!"));
+        JetEvent<String> event = jetEvent("abc", 10L);
+
+        Traverser<JetEvent<String>> t = flatMapFn.apply(event);
+
+        assertSame(event, t.next());
+        assertEquals(jetEvent("abc!", 10L), t.next());
+        assertNull(t.next());
+    }
+
+    @Test
+    public void when_adaptedFn_then_payloadFnReturnsOriginal() {
+        DistributedFunction<String, Integer> mapFn = String::length;
+        DistributedPredicate<String> filterFn = s -> true;
+        DistributedFunction<String, Traverser<String>> flatMapFn = Traverser::over;
+
+        assertSame(mapFn, payloadFn(adaptMapFn(mapFn)));
+        assertSame(filterFn, payloadFn(adaptFilterFn(filterFn)));
+        assertSame(flatMapFn, payloadFn(adaptFlatMapFn(flatMapFn)));
+        assertNull(payloadFn(mapFn));
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.core.ProcessorSupplier;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.core.test.TestProcessorSupplierContext;
+import com.hazelcast.jet.pipeline.ContextFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+
+import static com.hazelcast.jet.impl.processor.AsyncTransformUsingContextP.supplier;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncTransformUsingContextPTest {
+
+    private final List<CompletableFuture<String>> futures = new ArrayList<>();
+    private TestOutbox outbox;
+    private Queue<Object> bucket;
+
+    @Before
+    public void before() {
+        outbox = new TestOutbox(10);
+        bucket = outbox.queue(0);
+    }
+
+    @Test
+    public void when_ordered_then_resultsEmittedInInputOrder() throws Exception {
+        AsyncTransformUsingContextP p = createProcessor(contextFactory());
+
+        assertTrue(p.tryProcess(0, "a"));
+        assertTrue(p.tryProcess(0, "b"));
+        futures.get(1).complete("b-done");
+        assertTrue(p.tryProcess());
+        assertNull(bucket.poll());
+
+        futures.get(0).complete("a-done");
+        assertTrue(p.complete());
+        assertEquals("a-done", bucket.poll());
+        assertEquals("b-done", bucket.poll());
+    }
+
+    @Test
+    public void when_unordered_then_resultsEmittedInCompletionOrder() throws Exception {
+        AsyncTransformUsingContextP p = createProcessor(contextFactory().withUnorderedAsyncResponses());
+
+        assertTrue(p.tryProcess(0, "a"));
+        assertTrue(p.tryProcess(0, "b"));
+        futures.get(1).complete("b-done");
+        assertTrue(p.tryProcess());
+        assertEquals("b-done", bucket.poll());
+
+        assertFalse(p.complete());
+        futures.get(0).complete("a-done");
+        assertTrue(p.complete());
+        assertEquals("a-done", bucket.poll());
+    }
+
+    @Test
+    public void when_maxPendingCallsReached_then_itemNotTaken() throws Exception {
+        AsyncTransformUsingContextP p = createProcessor(contextFactory().withMaxPendingCallsPerProcessor(2));
+
+        assertTrue(p.tryProcess(0, "a"));
+        assertTrue(p.tryProcess(0, "b"));
+        assertFalse(p.tryProcess(0, "c"));
+        assertEquals(2, futures.size());
+
+        futures.get(0).complete("a-done");
+        assertTrue(p.tryProcess(0, "c"));
+        assertEquals("a-done", bucket.poll());
+        assertEquals(3, futures.size());
+    }
+
+    @Test
+    public void when_watermark_then_heldUntilPendingCallsComplete() throws Exception {
+        AsyncTransformUsingContextP p = createProcessor(contextFactory().withUnorderedAsyncResponses());
+
+        assertTrue(p.tryProcess(0, "a"));
+        assertFalse(p.tryProcessWatermark(new Watermark(10)));
+
+        futures.get(0).complete("a-done");
+        assertTrue(p.tryProcessWatermark(new Watermark(10)));
+        assertEquals("a-done", bucket.poll());
+    }
+
+    @Test
+    public void when_futureCompletesWithNull_then_nothingEmitted() throws Exception {
+        AsyncTransformUsingContextP p = createProcessor(contextFactory());
+
+        assertTrue(p.tryProcess(0, "a"));
+        futures.get(0).complete(null);
+        assertTrue(p.complete());
+        assertNull(bucket.poll());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void when_futureCompletesExceptionally_then_exceptionRethrown() throws Exception {
+        AsyncTransformUsingContextP p = createProcessor(contextFactory());
+
+        assertTrue(p.tryProcess(0, "a"));
+        futures.get(0).completeExceptionally(new IllegalStateException("mock failure"));
+        p.complete();
+    }
+
+    private static ContextFactory<String> contextFactory() {
+        return ContextFactory.withCreateFn(jet -> "ctx");
+    }
+
+    private AsyncTransformUsingContextP createProcessor(ContextFactory<String> contextFactory) {
+        List<CompletableFuture<String>> futures = this.futures;
+        ProcessorSupplier supplier = supplier(contextFactory, (ctx, item) -> {
+            CompletableFuture<String> f = new CompletableFuture<>();
+            futures.add(f);
+            return f;
+        });
+        supplier.init(new TestProcessorSupplierContext());
+        AsyncTransformUsingContextP p = (AsyncTransformUsingContextP) supplier.get(1).iterator().next();
+        p.init(outbox, new TestProcessorContext());
+        return p;
+    }
+}
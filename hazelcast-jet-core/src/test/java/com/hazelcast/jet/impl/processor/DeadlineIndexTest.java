@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@Category(ParallelTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class DeadlineIndexTest {
+
+    private final DeadlineIndex<String> index = new DeadlineIndex<>();
+    private final List<String> polled = new ArrayList<>();
+
+    @Test
+    public void when_pollExpired_then_entriesBeforeLimitInDeadlineOrder() {
+        index.add(30, "c");
+        index.add(10, "a");
+        index.add(20, "b1");
+        index.add(20, "b2");
+        index.add(40, "d");
+
+        index.pollExpired(40, (key, deadline) -> polled.add(key + '@' + deadline));
+
+        assertEquals(asList("a@10", "b1@20", "b2@20", "c@30"), polled);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void when_nothingExpired_then_nothingPolled() {
+        index.add(10, "a");
+        index.pollExpired(10, (key, deadline) -> polled.add(key));
+
+        assertEquals(emptyList(), polled);
+        index.pollExpired(Long.MAX_VALUE, (key, deadline) -> polled.add(key));
+        assertEquals(asList("a"), polled);
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void when_manyRandomDeadlines_then_polledSorted() {
+        Random random = new Random(3);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            index.add(random.nextInt(1_000), "k");
+        }
+        index.pollExpired(Long.MAX_VALUE, (key, deadline) -> deadlines.add(deadline));
+
+        assertEquals(10_000, deadlines.size());
+        for (int i = 1; i < deadlines.size(); i++) {
+            assertTrue(deadlines.get(i - 1) <= deadlines.get(i));
+        }
+    }
+}
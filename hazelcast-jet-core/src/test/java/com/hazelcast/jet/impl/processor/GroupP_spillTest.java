@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.aggregate.AggregateOperation;
+import com.hazelcast.jet.aggregate.AggregateOperation1;
+import com.hazelcast.jet.config.JobConfig;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.impl.execution.init.Contexts.ProcCtx;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.aggregate.AggregateOperations.counting;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(ParallelTest.class)
+public class GroupP_spillTest {
+
+    private static final int KEY_COUNT = 5_000;
+    private static final int ITEMS_PER_KEY = 3;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File spillDir;
+    private TestOutbox outbox;
+    private int peakInMemoryKeys;
+
+    @Before
+    public void before() throws Exception {
+        spillDir = tempFolder.newFolder();
+        outbox = new TestOutbox(128);
+    }
+
+    @After
+    public void after() {
+        assertEquals("spill files not deleted", 0, spillDir.list().length);
+    }
+
+    @Test
+    public void when_keysExceedLimit_then_spilledAndMerged() throws Exception {
+        Map<Integer, Long> result = run(counting(), 100);
+
+        assertEquals(KEY_COUNT, result.size());
+        result.forEach((k, count) -> assertEquals("count for " + k, ITEMS_PER_KEY, (long) count));
+    }
+
+    @Test
+    public void when_keysExceedPartitionCountTimesLimit_then_inMemoryKeysWithinLimit() throws Exception {
+        int maxInMemoryKeys = 100;
+        // each spill partition has more keys than the limit and must be spilled again
+        assertTrue(KEY_COUNT > 2 * SpillFiles.partitionCount() * maxInMemoryKeys);
+        peakInMemoryKeys = 0;
+
+        Map<Integer, Long> result = run(counting(), maxInMemoryKeys);
+
+        assertEquals(KEY_COUNT, result.size());
+        result.forEach((k, count) -> assertEquals("count for " + k, ITEMS_PER_KEY, (long) count));
+        assertTrue("peakInMemoryKeys=" + peakInMemoryKeys, peakInMemoryKeys <= maxInMemoryKeys);
+    }
+
+    @Test
+    public void when_noCombineFn_then_notSpilled() throws Exception {
+        AggregateOperation1<Object, LongAccumulator, Long> noCombine = AggregateOperation
+                .withCreate(LongAccumulator::new)
+                .andAccumulate((LongAccumulator acc, Object item) -> acc.add(1))
+                .andExportFinish(LongAccumulator::get);
+
+        Map<Integer, Long> result = run(noCombine, 100);
+
+        assertEquals(KEY_COUNT, result.size());
+    }
+
+    private Map<Integer, Long> run(AggregateOperation1<Object, LongAccumulator, Long> aggrOp, long maxInMemoryKeys)
+            throws Exception {
+        GroupP<Integer, LongAccumulator, Long, Entry<Integer, Long>> p =
+                new GroupP<>((Integer item) -> item, aggrOp, (k, v) -> entry(k, v));
+        JobConfig jobConfig = new JobConfig().setMaxInMemoryKeys(maxInMemoryKeys)
+                                             .setSpillDirectory(spillDir.getPath());
+        // spilling needs the serialization service, which only ProcCtx provides
+        ProcCtx context = new ProcCtx(null, 1, 1, jobConfig, Logger.getLogger(GroupP.class), "group", 0, 0,
+                ProcessingGuarantee.NONE, 1, 0, 1, new DefaultSerializationServiceBuilder().build());
+        p.init(outbox, context);
+
+        TestInbox inbox = new TestInbox();
+        for (int i = 0; i < ITEMS_PER_KEY; i++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                inbox.add(key);
+            }
+        }
+        while (!inbox.isEmpty()) {
+            p.process(0, inbox);
+            peakInMemoryKeys = Math.max(peakInMemoryKeys, p.inMemoryKeyCount());
+        }
+
+        List<Entry<Integer, Long>> output = new ArrayList<>();
+        boolean done;
+        do {
+            done = p.complete();
+            peakInMemoryKeys = Math.max(peakInMemoryKeys, p.inMemoryKeyCount());
+            outbox.drainQueueAndReset(0, output, false);
+        } while (!done);
+        p.close();
+
+        Map<Integer, Long> result = new HashMap<>();
+        for (Entry<Integer, Long> e : output) {
+            assertFalse("duplicate key " + e.getKey(), result.containsKey(e.getKey()));
+            result.put(e.getKey(), e.getValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.jet.accumulator.LongAccumulator;
+import com.hazelcast.jet.accumulator.LongDoubleAccumulator;
+import com.hazelcast.jet.accumulator.MutableReference;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@Category(ParallelTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class KeyedAccumulatorsTest {
+
+    @Test
+    public void when_randomOperations_then_sameContentAsHashMap() {
+        KeyedAccumulators<Integer, LongAccumulator> map = new KeyedAccumulators<>(LongAccumulator::new);
+        Map<Integer, LongAccumulator> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // few distinct keys so that removals hit existing entries
+            Integer key = random.nextInt(2_000);
+            if (random.nextInt(4) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.accumulate(key, 1L, LongAccumulator::add);
+                expected.computeIfAbsent(key, k -> new LongAccumulator()).add(1);
+            }
+        }
+        assertEquals(expected, toHashMap(map));
+    }
+
+    @Test
+    public void when_primitiveAccumulator_then_traverserReturnsIndependentInstances() {
+        KeyedAccumulators<String, LongDoubleAccumulator> map = new KeyedAccumulators<>(LongDoubleAccumulator::new);
+        map.accumulate("a", 1.5, (acc, v) -> {
+            acc.setLong(acc.getLong() + 1);
+            acc.setDouble(acc.getDouble() + v);
+        });
+        assertTrue(map.put("b", new LongDoubleAccumulator(2, 3.0)));
+
+        Map<String, LongDoubleAccumulator> entries = toHashMap(map);
+        assertEquals(new LongDoubleAccumulator(1, 1.5), entries.get("a"));
+        assertEquals(new LongDoubleAccumulator(2, 3.0), entries.get("b"));
+        assertNotSame(entries.get("a"), entries.get("b"));
+    }
+
+    @Test
+    public void when_objectAccumulator_then_storedInstanceUpdated() {
+        KeyedAccumulators<String, MutableReference<String>> map = new KeyedAccumulators<>(MutableReference::new);
+        MutableReference<String> acc = map.accumulate("a", "x", MutableReference::set);
+        map.accumulate("a", "y", (a, v) -> a.set(a.get() + v));
+
+        assertEquals("xy", acc.get());
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void when_detach_then_copyNotAffectedByFurtherUpdates() {
+        KeyedAccumulators<String, LongAccumulator> map = new KeyedAccumulators<>(LongAccumulator::new);
+        LongAccumulator detached = map.detach(map.accumulate("a", 1L, LongAccumulator::add));
+        map.accumulate("a", 1L, LongAccumulator::add);
+
+        assertEquals(1, detached.get());
+        assertEquals(2, toHashMap(map).get("a").get());
+    }
+
+    @Test
+    public void when_putExistingKey_then_false() {
+        KeyedAccumulators<String, LongAccumulator> map = new KeyedAccumulators<>(LongAccumulator::new);
+        assertTrue(map.put("a", new LongAccumulator(1)));
+        assertFalse(map.put("a", new LongAccumulator(2)));
+        assertEquals(1, toHashMap(map).get("a").get());
+    }
+
+    @Test
+    public void when_nullKey_then_supported() {
+        KeyedAccumulators<String, LongAccumulator> map = new KeyedAccumulators<>(LongAccumulator::new);
+        map.accumulate(null, 5L, LongAccumulator::add);
+        Entry<String, LongAccumulator> e = map.traverser().next();
+        assertNull(e.getKey());
+        assertEquals(5, e.getValue().get());
+
+        map.remove(null);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void when_initialValueNotZero_then_newKeysStartFromIt() {
+        KeyedAccumulators<Integer, LongAccumulator> map =
+                new KeyedAccumulators<>(() -> new LongAccumulator(Long.MAX_VALUE));
+        List<Long> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            map.accumulate(i, (long) i, (acc, v) -> acc.set(Math.min(acc.get(), v)));
+        }
+        map.forEach((k, acc) -> values.add(acc.get() - k));
+        assertEquals(100, values.size());
+        assertTrue(values.stream().allMatch(v -> v == 0));
+    }
+
+    @Test
+    public void when_trackChanges_then_changesTraverserReturnsAccumulatedKeys() {
+        KeyedAccumulators<Integer, LongAccumulator> map = new KeyedAccumulators<>(LongAccumulator::new, true);
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(42);
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 10_000; i++) {
+                // removals and resizes move the entries, their flags must move along
+                Integer key = random.nextInt(2_000);
+                if (random.nextInt(4) == 0) {
+                    map.remove(key);
+                    expected.remove(key);
+                } else {
+                    map.accumulate(key, 1L, LongAccumulator::add);
+                    expected.add(key);
+                }
+            }
+            Set<Integer> changed = new HashSet<>();
+            Traverser<Entry<Integer, LongAccumulator>> t = map.changesTraverser();
+            for (Entry<Integer, LongAccumulator> e; (e = t.next()) != null; ) {
+                changed.add(e.getKey());
+            }
+            assertEquals(expected, changed);
+            assertEquals(!expected.isEmpty(), map.hasChanges());
+
+            map.clearChanges();
+            expected.clear();
+            assertFalse(map.hasChanges());
+            assertNull(map.changesTraverser().next());
+        }
+    }
+
+    @Test
+    public void when_putWithTrackChanges_then_notChanged() {
+        KeyedAccumulators<String, LongAccumulator> map = new KeyedAccumulators<>(LongAccumulator::new, true);
+        map.put("a", new LongAccumulator(1));
+
+        assertFalse(map.hasChanges());
+    }
+
+    private static <K, A> Map<K, A> toHashMap(KeyedAccumulators<K, A> map) {
+        Map<K, A> result = new HashMap<>();
+        Traverser<Entry<K, A>> t = map.traverser();
+        for (Entry<K, A> e; (e = t.next()) != null; ) {
+            result.put(e.getKey(), e.getValue());
+        }
+        assertEquals(map.size(), result.size());
+        return result;
+    }
+}
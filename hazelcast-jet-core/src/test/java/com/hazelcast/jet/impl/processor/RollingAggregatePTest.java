@@ -17,6 +17,7 @@
 package com.hazelcast.jet.impl.processor;
 
 import com.hazelcast.jet.Util;
+import com.hazelcast.jet.accumulator.LongAccumulator;
 import com.hazelcast.jet.aggregate.AggregateOperation;
 import com.hazelcast.jet.core.Processor;
 import com.hazelcast.jet.core.processor.Processors;
@@ -84,4 +85,50 @@ public class RollingAggregatePTest {
                         entry("b", 6L)
                 ));
     }
+
+    @Test
+    public void rollingAggregate_withPrimitiveAccumulator() {
+        DistributedSupplier<Processor> supplier = Processors.rollingAggregateP(
+                Entry::getKey,
+                AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .<Entry<String, Long>>andAccumulate((acc, t) -> acc.add(t.getValue()))
+                        .andExportFinish(LongAccumulator::get),
+                Util::entry);
+
+        TestSupport.verifyProcessor(supplier)
+                .input(asList(
+                        entry("a", 1L),
+                        entry("b", 2L),
+                        entry("a", 3L)
+                ))
+                .expectOutput(asList(
+                        entry("a", 1L),
+                        entry("b", 2L),
+                        entry("a", 4L)
+                ));
+    }
+
+    @Test
+    public void rollingAggregate_whenExportReturnsAccumulator_then_outputsIndependent() {
+        DistributedSupplier<Processor> supplier = Processors.rollingAggregateP(
+                Entry::getKey,
+                AggregateOperation
+                        .withCreate(LongAccumulator::new)
+                        .<Entry<String, Long>>andAccumulate((acc, t) -> acc.add(t.getValue()))
+                        .andExportFinish(acc -> acc),
+                Util::entry);
+
+        TestSupport.verifyProcessor(supplier)
+                .input(asList(
+                        entry("a", 1L),
+                        entry("b", 2L),
+                        entry("a", 3L)
+                ))
+                .expectOutput(asList(
+                        entry("a", new LongAccumulator(1)),
+                        entry("b", new LongAccumulator(2)),
+                        entry("a", new LongAccumulator(4))
+                ));
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.aggregate.AggregateOperations;
+import com.hazelcast.jet.config.ProcessingGuarantee;
+import com.hazelcast.jet.core.BroadcastKey;
+import com.hazelcast.jet.core.TimestampKind;
+import com.hazelcast.jet.core.Watermark;
+import com.hazelcast.jet.core.test.TestInbox;
+import com.hazelcast.jet.core.test.TestOutbox;
+import com.hazelcast.jet.core.test.TestProcessorContext;
+import com.hazelcast.jet.datamodel.TimestampedEntry;
+import com.hazelcast.jet.function.DistributedFunction;
+import com.hazelcast.jet.function.DistributedToLongFunction;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.core.SlidingWindowPolicy.slidingWinPolicy;
+import static com.hazelcast.jet.core.processor.Processors.aggregateToSlidingWindowP;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category(ParallelTest.class)
+public class SlidingWindowP_incrementalSnapshotTest {
+
+    private TestProcessorContext context;
+
+    @Before
+    public void before() {
+        context = new TestProcessorContext().setProcessingGuarantee(ProcessingGuarantee.EXACTLY_ONCE);
+        context.jobConfig().setFullSnapshotInterval(3);
+    }
+
+    @Test
+    public void when_saveChangesToSnapshot_then_onlyChangedKeysSaved() {
+        SlidingWindowP<String, ?, ?, ?> p = newProcessor();
+        TestOutbox outbox = newOutbox();
+        p.init(outbox, context);
+
+        process(p, entry(1L, "a"), entry(1L, "b"));
+        assertTrue(p.saveToSnapshot());
+        assertEquals(2, frameKeys(outbox).size());
+
+        process(p, entry(1L, "a"));
+        assertTrue(p.saveChangesToSnapshot());
+        assertEquals(singletonList("a"), frameKeys(outbox));
+
+        assertTrue(p.saveChangesToSnapshot());
+        assertEquals(0, frameKeys(outbox).size());
+    }
+
+    @Test
+    public void when_restoredFromSnapshotChain_then_evictedFramesDiscarded() {
+        SlidingWindowP<String, ?, ?, ?> p1 = newProcessor();
+        TestOutbox outbox1 = newOutbox();
+        p1.init(outbox1, context);
+
+        // a full snapshot with a frame that will be evicted later
+        process(p1, entry(1L, "a"));
+        assertTrue(p1.saveToSnapshot());
+        List<Entry<Object, Object>> fullSnapshot = new ArrayList<>();
+        outbox1.drainSnapshotQueueAndReset(fullSnapshot, false);
+
+        // an incremental snapshot after the frame was evicted
+        process(p1, entry(7L, "b"));
+        assertTrue(p1.tryProcessWatermark(new Watermark(6)));
+        assertTrue(p1.saveChangesToSnapshot());
+        List<Entry<Object, Object>> incrementalSnapshot = new ArrayList<>();
+        outbox1.drainSnapshotQueueAndReset(incrementalSnapshot, false);
+        assertFalse(p1.tsToKeyToAcc.isEmpty());
+
+        // restore the chain newest-first, like the SnapshotRestoreStream does
+        SlidingWindowP<String, ?, ?, ?> p2 = newProcessor();
+        TestOutbox outbox2 = newOutbox();
+        p2.init(outbox2, context);
+        TestInbox inbox = new TestInbox();
+        inbox.addAll(incrementalSnapshot);
+        inbox.addAll(fullSnapshot.stream()
+                                 .filter(e -> !(e.getKey() instanceof BroadcastKey))
+                                 .collect(toList()));
+        p2.restoreFromSnapshot(inbox);
+        assertTrue(p2.finishSnapshotRestore());
+
+        assertEquals(p1.tsToKeyToAcc.keySet(), p2.tsToKeyToAcc.keySet());
+        outbox1.queue(0).clear();
+        assertTrue(p1.tryProcessWatermark(new Watermark(20)));
+        assertTrue(p2.tryProcessWatermark(new Watermark(20)));
+        assertEquals(outbox1.queue(0).toString(), outbox2.queue(0).toString());
+    }
+
+    @SafeVarargs
+    private static void process(SlidingWindowP<String, ?, ?, ?> p, Entry<Long, String>... items) {
+        TestInbox inbox = new TestInbox();
+        for (Entry<Long, String> item : items) {
+            inbox.add(item);
+        }
+        p.process(0, inbox);
+        assertTrue(inbox.isEmpty());
+    }
+
+    private static List<Object> frameKeys(TestOutbox outbox) {
+        List<Entry<Object, Object>> entries = new ArrayList<>();
+        outbox.drainSnapshotQueueAndReset(entries, false);
+        return entries.stream()
+                      .filter(e -> e.getKey() instanceof SnapshotKey)
+                      .map(e -> ((SnapshotKey) e.getKey()).key)
+                      .collect(toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SlidingWindowP<String, ?, ?, ?> newProcessor() {
+        DistributedFunction<Entry<Long, String>, String> keyFn = Entry::getValue;
+        DistributedToLongFunction<Entry<Long, String>> timestampFn = Entry::getKey;
+        return (SlidingWindowP<String, ?, ?, ?>) aggregateToSlidingWindowP(
+                singletonList(keyFn),
+                singletonList(timestampFn),
+                TimestampKind.EVENT,
+                slidingWinPolicy(4, 1),
+                AggregateOperations.counting(),
+                TimestampedEntry::fromWindowResult
+        ).get();
+    }
+
+    private static TestOutbox newOutbox() {
+        return new TestOutbox(new int[] {128}, 128);
+    }
+}
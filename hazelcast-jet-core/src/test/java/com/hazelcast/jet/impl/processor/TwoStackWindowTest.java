@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.processor;
+
+import com.hazelcast.jet.Traverser;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@Category(ParallelTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class TwoStackWindowTest {
+
+    private static final int WINDOW_FRAMES = 5;
+
+    // the combine function isn't commutative, the frames must be combined in order
+    private final TwoStackWindow<String, List<Integer>> window = new TwoStackWindow<>(ArrayList::new, List::addAll);
+    private final ArrayDeque<KeyedAccumulators<String, List<Integer>>> frames = new ArrayDeque<>();
+
+    @Test
+    public void when_slide_then_sameResultAsCombiningAllFrames() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            if (frames.size() == WINDOW_FRAMES) {
+                window.evict();
+                frames.removeFirst();
+            }
+            KeyedAccumulators<String, List<Integer>> frame = random.nextInt(4) == 0 ? null : randomFrame(random, i);
+            window.add(frame);
+            frames.addLast(frame != null ? frame : new KeyedAccumulators<>(ArrayList::new));
+
+            assertEquals("at frame " + i, combineAll(), toHashMap(window.aggregate()));
+        }
+    }
+
+    @Test
+    public void when_noData_then_nullAggregate() {
+        window.add(null);
+        window.add(null);
+        window.evict();
+
+        assertNull(window.aggregate());
+        assertEquals(1, window.size());
+    }
+
+    @Test
+    public void when_frameAdded_then_previousAggregateUnchanged() {
+        window.add(frameWith("k", 0));
+        Map<String, List<Integer>> aggregate0 = toHashMap(window.aggregate());
+        window.add(frameWith("k", 1));
+        Map<String, List<Integer>> aggregate1 = toHashMap(window.aggregate());
+        window.evict();
+        window.add(frameWith("k", 2));
+
+        assertEquals(singletonMap("k", singletonList(0)), aggregate0);
+        assertEquals(singletonMap("k", asList(0, 1)), aggregate1);
+        assertEquals(singletonMap("k", asList(1, 2)), toHashMap(window.aggregate()));
+    }
+
+    private static KeyedAccumulators<String, List<Integer>> frameWith(String key, int value) {
+        KeyedAccumulators<String, List<Integer>> frame = new KeyedAccumulators<>(ArrayList::new);
+        frame.accumulate(key, value, List::add);
+        return frame;
+    }
+
+    private static KeyedAccumulators<String, List<Integer>> randomFrame(Random random, int frameSeq) {
+        KeyedAccumulators<String, List<Integer>> frame = new KeyedAccumulators<>(ArrayList::new);
+        for (int j = random.nextInt(4); j > 0; j--) {
+            frame.accumulate("k" + random.nextInt(3), frameSeq, List::add);
+        }
+        return frame;
+    }
+
+    private Map<String, List<Integer>> combineAll() {
+        Map<String, List<Integer>> result = new HashMap<>();
+        for (KeyedAccumulators<String, List<Integer>> frame : frames) {
+            frame.forEach((k, acc) -> result.computeIfAbsent(k, x -> new ArrayList<>()).addAll(acc));
+        }
+        return result;
+    }
+
+    private static Map<String, List<Integer>> toHashMap(KeyedAccumulators<String, List<Integer>> map) {
+        Map<String, List<Integer>> result = new HashMap<>();
+        if (map != null) {
+            Traverser<Entry<String, List<Integer>>> t = map.traverser();
+            for (Entry<String, List<Integer>> e; (e = t.next()) != null; ) {
+                result.put(e.getKey(), e.getValue());
+            }
+        }
+        return result;
+    }
+}
@@ -27,6 +27,7 @@ import com.hazelcast.jet.JetInstance;
 import com.hazelcast.jet.config.JetConfig;
 import com.hazelcast.jet.core.JetTestSupport;
 import com.hazelcast.jet.impl.JetService;
+import com.hazelcast.jet.impl.execution.BroadcastEntry;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.CustomByteArrayOutputStream;
 import com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.SnapshotDataKey;
 import com.hazelcast.nio.BufferObjectDataInput;
@@ -48,14 +49,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.util.Map.Entry;
 import java.util.stream.Stream;
+import java.util.zip.Inflater;
 
 import static com.hazelcast.jet.Util.entry;
+import static com.hazelcast.jet.impl.util.AsyncSnapshotWriterImpl.BROADCAST_PARTITION_ID;
 import static com.hazelcast.jet.impl.util.Util.uncheckCall;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Stream.generate;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
 @Category(QuickTest.class)
@@ -69,8 +73,10 @@ public class AsyncSnapshotWriterImplTest extends JetTestSupport {
 
     private AsyncSnapshotWriterImpl writer;
     private IMap<SnapshotDataKey, byte[]> map;
+    private IMap<SnapshotDataKey, byte[]> broadcastMap;
     private InternalSerializationService serializationService;
     private InternalPartitionService partitionService;
+    private NodeEngineImpl nodeEngine;
 
     @Before
     public void before() {
@@ -82,12 +88,13 @@ public class AsyncSnapshotWriterImplTest extends JetTestSupport {
               .setImplementation(new AsyncMapWriterTest.AlwaysFailingMapStore());
 
         JetInstance instance = createJetMember(jetConfig);
-        NodeEngineImpl nodeEngine = ((HazelcastInstanceImpl) instance.getHazelcastInstance()).node.nodeEngine;
+        nodeEngine = ((HazelcastInstanceImpl) instance.getHazelcastInstance()).node.nodeEngine;
         serializationService = ((HazelcastInstanceImpl) instance.getHazelcastInstance()).getSerializationService();
         partitionService = nodeEngine.getPartitionService();
-        writer = new AsyncSnapshotWriterImpl(128, nodeEngine, 0, 1);
-        writer.setCurrentMap("map1");
+        writer = new AsyncSnapshotWriterImpl(128, nodeEngine, 0, 1, false);
+        writer.setCurrentMap("map1", "broadcastMap1");
         map = instance.getHazelcastInstance().getMap("map1");
+        broadcastMap = instance.getHazelcastInstance().getMap("broadcastMap1");
         assertTrue(writer.usableChunkSize > 0);
     }
 
@@ -163,6 +170,23 @@ public class AsyncSnapshotWriterImplTest extends JetTestSupport {
         assertTargetMapEntry("kk", 1, serializedLength(entry2));
     }
 
+    @Test
+    public void when_broadcastEntries_then_writtenToBroadcastMapInOnePartition() {
+        // When
+        Entry<Data, Data> entry1 = new BroadcastEntry<>(serialize("k"), serialize("v"));
+        Entry<Data, Data> entry2 = new BroadcastEntry<>(serialize("kk"), serialize("vv"));
+        assertTrue(writer.offer(entry1));
+        assertTrue(writer.offer(entry2));
+        assertTrue(writer.flush());
+
+        // Then
+        SnapshotDataKey mapKey = new SnapshotDataKey(writer.partitionKey(BROADCAST_PARTITION_ID), 0);
+        int length = serializedLength(entry1) + serializedLength(entry2) + writer.valueTerminator.length;
+        assertTrueEventually(() -> assertEquals(length, broadcastMap.get(mapKey).length), 3);
+        assertEquals(1, broadcastMap.size());
+        assertTrue(map.isEmpty());
+    }
+
     @Test
     public void when_singleLargeEntry_then_flushedImmediately() {
         // When
@@ -227,7 +251,7 @@ public class AsyncSnapshotWriterImplTest extends JetTestSupport {
     @Test
     public void when_error_then_reported() {
         // When
-        writer.setCurrentMap(ALWAYS_FAILING_MAP);
+        writer.setCurrentMap(ALWAYS_FAILING_MAP, "broadcastMap2");
         Entry<Data, Data> entry = entry(serialize("k"), serialize("v"));
         assertTrue(writer.offer(entry));
         assertTrue(writer.flush());
@@ -237,6 +261,34 @@ public class AsyncSnapshotWriterImplTest extends JetTestSupport {
                 assertThat(String.valueOf(writer.getError()), CoreMatchers.containsString("Always failing store")), 2);
     }
 
+    @Test
+    public void when_compressionEnabled_then_chunksDecompressToOriginalEntries() throws Exception {
+        // Given
+        AsyncSnapshotWriterImpl compressingWriter = new AsyncSnapshotWriterImpl(128, nodeEngine, 0, 1, true);
+        compressingWriter.setCurrentMap("compressedMap", "compressedBroadcastMap");
+        IMap<SnapshotDataKey, byte[]> compressedMap = nodeEngine.getHazelcastInstance().getMap("compressedMap");
+
+        // When
+        Entry<Data, Data> entry = entry(serialize("k"), serialize(generate(() -> "a").limit(256).collect(joining())));
+        assertTrue(compressingWriter.offer(entry));
+        assertTrue(compressingWriter.flush());
+
+        // Then
+        SnapshotDataKey mapKey = new SnapshotDataKey(
+                compressingWriter.partitionKey(partitionService.getPartitionId("k")), 0);
+        assertTrueEventually(() -> assertNotNull(compressedMap.get(mapKey)), 3);
+        byte[] chunk = compressedMap.get(mapKey);
+        assertTrue("chunk not compressed, length=" + chunk.length, chunk.length < serializedLength(entry));
+        byte[] decompressed = AsyncSnapshotWriterImpl.decompressChunk(chunk, new Inflater(true));
+        assertEquals(serializedLength(entry) + compressingWriter.valueTerminator.length, decompressed.length);
+        BufferObjectDataInput in = serializationService.createObjectDataInput(decompressed);
+        assertEquals("k", in.readObject());
+        assertEquals(serializationService.toObject(entry.getValue()), in.readObject());
+        assertEquals(compressingWriter.serializedByteArrayHeader.length + chunk.length,
+                compressingWriter.getTotalStoredBytes());
+        assertTrue(compressingWriter.getTotalPayloadBytes() > compressingWriter.getTotalStoredBytes());
+    }
+
     @Test
     public void test_serializeAndDeserialize() throws Exception {
         // This is the way we serialize and deserialize objects into the snapshot. We depend on some internals of IMDG:
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.client.map.helpers.AMapStore;
+import com.hazelcast.config.Config;
+import com.hazelcast.jet.IMapJet;
+import com.hazelcast.jet.JetInstance;
+import com.hazelcast.jet.config.JetConfig;
+import com.hazelcast.jet.core.JetTestSupport;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class BatchingMapWriterTest extends JetTestSupport {
+
+    private static final int NODE_COUNT = 2;
+    private static final int BATCH_SIZE = 10;
+    private static final String ALWAYS_FAILING_MAP = "alwaysFailingMap";
+    private static final String FAILING_ONCE_MAP = "failingOnceMap";
+
+    private JetInstance instance;
+    private NodeEngineImpl nodeEngine;
+
+    @Before
+    public void setup() {
+        JetConfig jetConfig = new JetConfig();
+        Config config = jetConfig.getHazelcastConfig();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(NODE_COUNT * 4));
+        config.getMapConfig(ALWAYS_FAILING_MAP)
+              .getMapStoreConfig()
+              .setEnabled(true)
+              .setImplementation(new AsyncMapWriterTest.AlwaysFailingMapStore());
+        config.getMapConfig(FAILING_ONCE_MAP)
+              .getMapStoreConfig()
+              .setEnabled(true)
+              .setImplementation(new FailingOnceMapStore());
+
+        instance = createJetMembers(jetConfig, NODE_COUNT)[0];
+        nodeEngine = getNodeEngineImpl(instance.getHazelcastInstance());
+    }
+
+    @Test
+    public void when_manyBatches_then_allWritten() {
+        // Given
+        IMapJet<Object, Object> map = instance.getMap("testMap");
+        BatchingMapWriter writer = new BatchingMapWriter(nodeEngine, map.getName(), BATCH_SIZE);
+
+        // When
+        int count = 10_000;
+        for (int i = 0; i < count; i++) {
+            put(writer, i, i);
+        }
+        flush(writer);
+
+        // Then
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, map.get(i));
+        }
+    }
+
+    @Test
+    public void when_sameKeyPutRepeatedly_then_oneOpInFlightAndLastValueWins() {
+        // Given
+        IMapJet<Object, Object> map = instance.getMap("testMap");
+        BatchingMapWriter writer = new BatchingMapWriter(nodeEngine, map.getName(), 1);
+
+        // When
+        int count = 1_000;
+        for (int i = 0; i < count; i++) {
+            put(writer, "key", i);
+            assertTrue("too many ops in flight for one partition: " + writer.numInFlightOps(),
+                    writer.numInFlightOps() <= 1);
+        }
+        flush(writer);
+
+        // Then
+        assertEquals(count - 1, map.get("key"));
+    }
+
+    @Test
+    public void when_batchNotFull_then_notSentUntilFlushed() {
+        // Given
+        IMapJet<Object, Object> map = instance.getMap("testMap");
+        BatchingMapWriter writer = new BatchingMapWriter(nodeEngine, map.getName(), BATCH_SIZE);
+
+        // When
+        put(writer, "key", "value");
+
+        // Then
+        assertEquals(0, writer.numInFlightOps());
+        assertEquals(0, map.size());
+        flush(writer);
+        assertEquals("value", map.get("key"));
+    }
+
+    @Test
+    public void when_writeError_then_rethrown() {
+        // Given
+        IMapJet<Object, Object> map = instance.getMap(ALWAYS_FAILING_MAP);
+        BatchingMapWriter writer = new BatchingMapWriter(nodeEngine, map.getName(), BATCH_SIZE);
+        put(writer, 1, 1);
+
+        // When
+        try {
+            flush(writer);
+            fail("flush didn't fail");
+        } catch (RuntimeException e) {
+            // Then
+            assertEquals("Always failing store", e.getMessage());
+        }
+    }
+
+    @Test
+    public void when_retryableError_then_partitionRetried() {
+        // Given
+        IMapJet<Object, Object> map = instance.getMap(FAILING_ONCE_MAP);
+        BatchingMapWriter writer = new BatchingMapWriter(nodeEngine, map.getName(), BATCH_SIZE);
+        for (int i = 0; i < 100; i++) {
+            put(writer, i, i);
+        }
+
+        // When
+        FailingOnceMapStore.failOnNext = true;
+        flush(writer);
+
+        // Then
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, map.get(i));
+        }
+    }
+
+    @Test
+    public void when_retryableErrorAndNewerEntryBuffered_then_newerValueWins() {
+        // Given
+        IMapJet<Object, Object> map = instance.getMap(FAILING_ONCE_MAP);
+        BatchingMapWriter writer = new BatchingMapWriter(nodeEngine, map.getName(), 1);
+        FailingOnceMapStore.failOnNext = true;
+
+        // When
+        put(writer, "key", "old");
+        put(writer, "key", "new");
+        flush(writer);
+
+        // Then
+        assertEquals("new", map.get("key"));
+    }
+
+    private void put(BatchingMapWriter writer, Object key, Object value) {
+        Data keyData = nodeEngine.toData(key);
+        Data valueData = nodeEngine.toData(value);
+        while (!writer.tryPut(keyData, valueData)) {
+            sleepMillis(1);
+        }
+    }
+
+    private static void flush(BatchingMapWriter writer) {
+        while (!(writer.tryFlush() && writer.isDone())) {
+            sleepMillis(1);
+        }
+    }
+
+    public static class FailingOnceMapStore extends AMapStore implements Serializable {
+
+        private static volatile boolean failOnNext;
+
+        @Override
+        public void store(Object o, Object o2) {
+            if (failOnNext) {
+                failOnNext = false;
+                throw new RetryableHazelcastException("Failing once store");
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.impl.util;
+
+import com.hazelcast.jet.impl.util.BatchingMapWriter.MemberBatch;
+import com.hazelcast.nio.Address;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+public class BatchingMapWriter_inFlightLimitTest {
+
+    private static final long FAST = 1_000;
+    private static final long SLOW = 100_000;
+
+    private MemberBatch member;
+    private long now;
+
+    @Before
+    public void setup() throws Exception {
+        member = new MemberBatch(new Address("127.0.0.1", 5701));
+        now = System.nanoTime();
+    }
+
+    @Test
+    public void when_fastResponses_then_limitGrows() {
+        int initialLimit = member.inFlightLimit;
+
+        complete(FAST, false);
+        complete(FAST, false);
+
+        assertEquals(initialLimit + 2, member.inFlightLimit);
+    }
+
+    @Test
+    public void when_slowResponse_then_limitHalved() {
+        growLimitTo(8);
+
+        complete(SLOW, false);
+
+        assertEquals(4, member.inFlightLimit);
+    }
+
+    @Test
+    public void when_failedResponse_then_limitHalved() {
+        growLimitTo(8);
+
+        complete(FAST, true);
+
+        assertEquals(4, member.inFlightLimit);
+    }
+
+    @Test
+    public void when_slowResponsesSentBeforeDecrease_then_halvedOnce() {
+        growLimitTo(8);
+        long sendTime1 = now;
+        long sendTime2 = now + 1;
+        now += SLOW;
+
+        member.onOpCompleted(sendTime1, now++, false);
+        member.onOpCompleted(sendTime2, now++, false);
+        assertEquals(4, member.inFlightLimit);
+
+        // sent after the decrease, decreases again
+        complete(SLOW, false);
+        assertEquals(2, member.inFlightLimit);
+    }
+
+    private void growLimitTo(int limit) {
+        while (member.inFlightLimit < limit) {
+            complete(FAST, false);
+        }
+        assertEquals(limit, member.inFlightLimit);
+    }
+
+    private void complete(long latency, boolean failed) {
+        long sendTime = now;
+        now += latency;
+        member.onOpCompleted(sendTime, now, failed);
+    }
+}
@@ -33,7 +33,7 @@ public class MockAsyncSnapshotWriter implements AsyncSnapshotWriter {
     private boolean isFlushed = true;
 
     @Override
-    public void setCurrentMap(String mapName) {
+    public void setCurrentMap(String mapName, String broadcastMapName) {
     }
 
     @Override
@@ -83,6 +83,11 @@ public class MockAsyncSnapshotWriter implements AsyncSnapshotWriter {
         return 0;
     }
 
+    @Override
+    public long getTotalStoredBytes() {
+        return 0;
+    }
+
     @Override
     public long getTotalKeys() {
         return 0;
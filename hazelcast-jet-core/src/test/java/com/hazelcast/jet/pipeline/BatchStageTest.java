@@ -34,6 +34,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
@@ -152,6 +153,31 @@ public class BatchStageTest extends PipelineTestSupport {
         assertEquals(toBag(expected), sinkToBag());
     }
 
+    @Test
+    public void fusedMapFilterFlatMap() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        putToBatchSrcMap(input);
+
+        // When
+        BatchStage<String> fused = srcStage
+                .map(i -> i * 2)
+                .filter(i -> i % 3 != 0)
+                .flatMap(i -> traverseIterable(asList(i + "A", i + "B")))
+                .filter(s -> s.endsWith("A"))
+                .map(s -> s + "-x");
+
+        // Then
+        fused.drainTo(sink);
+        execute();
+        List<String> expected = input.stream()
+                                     .map(i -> i * 2)
+                                     .filter(i -> i % 3 != 0)
+                                     .map(i -> i + "A-x")
+                                     .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
     @Test
     public void mapUsingContext() {
         // Given
@@ -171,6 +197,25 @@ public class BatchStageTest extends PipelineTestSupport {
         assertEquals(toBag(expected), sinkToBag());
     }
 
+    @Test
+    public void mapUsingContextAsync() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        putToBatchSrcMap(input);
+
+        // When
+        BatchStage<String> mapped = srcStage.mapUsingContextAsync(
+                ContextFactory.withCreateFn(i -> "-context").withMaxPendingCallsPerProcessor(4),
+                (suffix, r) -> CompletableFuture.supplyAsync(() -> r + suffix)
+        );
+
+        // Then
+        mapped.drainTo(sink);
+        execute();
+        List<String> expected = input.stream().map(r -> r + "-context").collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
     @Test
     public void mapUsingContext_keyed() {
         // Given
@@ -331,6 +376,51 @@ public class BatchStageTest extends PipelineTestSupport {
         assertEquals(toBag(expected), sinkToBag());
     }
 
+    @Test
+    public void mapUsingIMapAsync_keyed() {
+        List<Integer> input = sequence(itemCount);
+        putToBatchSrcMap(input);
+
+        IMap<Integer, String> map = member.getMap(randomMapName());
+        for (int integer : input) {
+            map.put(integer, String.valueOf(integer));
+        }
+
+        srcStage.addKey(r -> r)
+                .mapUsingIMapAsync(map, (k, v) -> Util.entry(k, v))
+                .drainTo(sink);
+
+        execute();
+
+        List<Entry<Integer, String>> expected = input.stream()
+                .map(i -> entry(i, String.valueOf(i)))
+                .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
+    @Test
+    public void mapUsingContext_cachedIMap() {
+        List<Integer> input = sequence(itemCount);
+        putToBatchSrcMap(input);
+
+        String mapName = journaledMapName();
+        IMap<Integer, String> map = member.getMap(mapName);
+        for (int integer : input) {
+            map.put(integer, String.valueOf(integer));
+        }
+
+        srcStage.mapUsingContext(ContextFactories.<Integer, String>cachedIMapContext(mapName, 100),
+                (cache, r) -> entry(r, cache.get(r)))
+                .drainTo(sink);
+
+        execute();
+
+        List<Entry<Integer, String>> expected = input.stream()
+                .map(i -> entry(i, String.valueOf(i)))
+                .collect(toList());
+        assertEquals(toBag(expected), sinkToBag());
+    }
+
     @Test
     public void rollingAggregate() {
         // Given
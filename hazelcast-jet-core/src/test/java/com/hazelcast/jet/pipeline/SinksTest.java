@@ -178,6 +178,26 @@ public class SinksTest extends PipelineTestSupport {
     }
 
 
+    @Test
+    public void mapBatched() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        putToBatchSrcMap(input);
+
+        // When
+        p.drawFrom(Sources.map(srcName))
+         .drainTo(Sinks.mapBatched(sinkName, 16));
+        execute();
+
+        // Then
+        List<Entry<String, Integer>> expected = input.stream()
+                                                     .map(i -> entry(String.valueOf(i), i))
+                                                     .collect(toList());
+        Set<Entry<Object, Object>> actual = jet().getMap(sinkName).entrySet();
+        assertEquals(expected.size(), actual.size());
+        expected.forEach(entry -> assertTrue(actual.contains(entry)));
+    }
+
     @Test
     public void remoteMap() {
         // Given
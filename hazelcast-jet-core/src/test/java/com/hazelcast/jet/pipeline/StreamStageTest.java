@@ -31,6 +31,7 @@ import org.junit.Test;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
@@ -106,6 +107,55 @@ public class StreamStageTest extends PipelineStreamTestSupport {
         assertTrueEventually(() -> assertEquals(expected, sinkToBag()));
     }
 
+    @Test
+    public void fusedMapFilterFlatMap() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        addToSrcMapJournal(input);
+
+        // When
+        StreamStage<String> fused = srcStage
+                .map(i -> i * 2)
+                .filter(i -> i % 3 != 0)
+                .flatMap(i -> traverseStream(Stream.of(i + "A", i + "B")))
+                .map(s -> s + "-x");
+
+        // Then
+        fused.drainTo(sink);
+        executeAsync();
+        Map<String, Integer> expected = toBag(input.stream()
+                                                   .map(i -> i * 2)
+                                                   .filter(i -> i % 3 != 0)
+                                                   .flatMap(i -> Stream.of(i + "A-x", i + "B-x"))
+                                                   .collect(toList()));
+        assertTrueEventually(() -> assertEquals(expected, sinkToBag()));
+    }
+
+    @Test
+    public void fusedMapFilterFlatMap_withTimestamps() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        addToSrcMapJournal(input);
+
+        // When
+        StreamStage<String> fused = srcStage
+                .addTimestamps(i -> i, 0)
+                .map(i -> i * 2)
+                .filter(i -> i % 3 != 0)
+                .flatMap(i -> traverseStream(Stream.of(i + "A", i + "B")))
+                .map(s -> s + "-x");
+
+        // Then
+        fused.drainTo(sink);
+        executeAsync();
+        Map<String, Integer> expected = toBag(input.stream()
+                                                   .map(i -> i * 2)
+                                                   .filter(i -> i % 3 != 0)
+                                                   .flatMap(i -> Stream.of(i + "A-x", i + "B-x"))
+                                                   .collect(toList()));
+        assertTrueEventually(() -> assertEquals(expected, sinkToBag()));
+    }
+
     @Test
     public void flatMap() {
         // Given
@@ -142,6 +192,26 @@ public class StreamStageTest extends PipelineStreamTestSupport {
         assertTrueEventually(() -> assertEquals(toBag(expected), sinkToBag()));
     }
 
+    @Test
+    public void mapUsingContextAsync_unordered() {
+        // Given
+        List<Integer> input = sequence(itemCount);
+        addToSrcMapJournal(input);
+
+        // When
+        StreamStage<String> mapped = srcStage
+                .addTimestamps()
+                .mapUsingContextAsync(ContextFactory.withCreateFn(i -> "-context").withUnorderedAsyncResponses(),
+                        (suffix, r) -> CompletableFuture.supplyAsync(() -> r + suffix));
+
+        // Then
+        mapped.drainTo(sink);
+        executeAsync();
+
+        List<String> expected = input.stream().map(r -> r + "-context").collect(toList());
+        assertTrueEventually(() -> assertEquals(toBag(expected), sinkToBag()));
+    }
+
     @Test
     public void mapUsingContext_keyed() {
         // Given
@@ -101,6 +101,35 @@ public class SortTest extends AbstractStreamTest {
         assertListSquare(list);
     }
 
+    @Test
+    public void sourceMap_withLimit() {
+        IList<Integer> list = streamMap()
+                .map(Entry::getValue)
+                .sorted()
+                .limit(10)
+                .collect(DistributedCollectors.toIList(randomString()));
+
+        assertEquals(10, list.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int) list.get(i));
+        }
+    }
+
+    @Test
+    public void sourceMap_withComparatorAndLimit() {
+        IList<Integer> list = streamMap()
+                .map(Entry::getValue)
+                .sorted((left, right) -> right.compareTo(left))
+                .limit(COUNT * 2)
+                .limit(10)
+                .collect(DistributedCollectors.toIList(randomString()));
+
+        assertEquals(10, list.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(COUNT - i - 1, (int) list.get(i));
+        }
+    }
+
     private void assertList(IList<Integer> list) {
         assertEquals(COUNT, list.size());
 
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2018, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.jet.stream.impl.processor;
+
+import com.hazelcast.jet.core.test.TestSupport;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static java.util.Comparator.reverseOrder;
+
+@Category(ParallelTest.class)
+@RunWith(HazelcastParallelClassRunner.class)
+public class SortedMergePTest {
+
+    @Test
+    public void when_manyInterleavedRuns_then_mergedInOrder() {
+        // more runs than the cached Integer instances
+        int runCount = 200;
+        Random random = new Random(42);
+        List<List<SortedRunChunk>> runs = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int runIndex = 0; runIndex < runCount; runIndex++) {
+            List<Integer> run = new ArrayList<>();
+            for (int i = random.nextInt(50); i > 0; i--) {
+                run.add(random.nextInt(1_000));
+            }
+            run.sort(null);
+            expected.addAll(run);
+            runs.add(chunks(runIndex, runCount, run, 1 + random.nextInt(10)));
+        }
+        expected.sort(null);
+
+        TestSupport.verifyProcessor(() -> new SortedMergeP<Integer>(null, Long.MAX_VALUE))
+                   .disableSnapshots()
+                   .input(interleave(runs))
+                   .expectOutput(expected);
+    }
+
+    @Test
+    public void when_limitAndComparator_then_onlyTopItemsEmitted() {
+        List<List<SortedRunChunk>> runs = asList(
+                chunks(0, 3, asList(9, 6, 3, 0), 2),
+                chunks(1, 3, asList(10, 7, 4, 1), 3),
+                chunks(2, 3, asList(), 1));
+
+        TestSupport.verifyProcessor(() -> new SortedMergeP<Integer>(reverseOrder(), 3))
+                   .disableSnapshots()
+                   .input(interleave(runs))
+                   .expectOutput(asList(10, 9, 7));
+    }
+
+    private static List<SortedRunChunk> chunks(int runIndex, int runCount, List<Integer> run, int chunkSize) {
+        List<SortedRunChunk> chunks = new ArrayList<>();
+        int position = 0;
+        do {
+            int end = Math.min(position + chunkSize, run.size());
+            chunks.add(new SortedRunChunk(runIndex, runCount, run.subList(position, end).toArray(),
+                    end == run.size()));
+            position = end;
+        } while (position < run.size());
+        return chunks;
+    }
+
+    private static List<SortedRunChunk> interleave(List<List<SortedRunChunk>> runs) {
+        List<SortedRunChunk> result = new ArrayList<>();
+        for (int i = 0; result.size() < runs.stream().mapToInt(List::size).sum(); i++) {
+            for (List<SortedRunChunk> run : runs) {
+                if (i < run.size()) {
+                    result.add(run.get(i));
+                }
+            }
+        }
+        return result;
+    }
+}